@@ -0,0 +1,4 @@
+#!/bin/bash
+# lets the postgres-replica standby stream from this instance, runs on a fresh volume only,
+# on an existing volume append the line to pg_hba.conf by hand and reload
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
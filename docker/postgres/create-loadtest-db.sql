@@ -0,0 +1,2 @@
+-- run by the postgres image on a fresh volume, the load test migrates and drops this database, never tennisclubdb
+CREATE DATABASE tennisclub_loadtest;
@@ -0,0 +1,107 @@
+package com.example.tennisclub.benchmark;
+
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.pricing.PricingEngine;
+import com.example.tennisclub.reservation.ReservationService;
+import com.example.tennisclub.reservation.config.PricingProperties;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.surfaceType.SurfaceTypeRepository;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import com.example.tennisclub.user.Role;
+import com.example.tennisclub.user.entity.User;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+//Deterministic entity graphs shared by the benchmarks
+public final class BenchmarkData {
+
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    private BenchmarkData() {
+    }
+
+    public static List<SurfaceType> surfaceTypes() {
+        return List.of(
+                SurfaceType.builder().id(1L).name("clay").pricePerMinute(0.5).build(),
+                SurfaceType.builder().id(2L).name("grass").pricePerMinute(0.7).build());
+    }
+
+    //prices every surface type from a fixed list instead of the database
+    public static PricingEngine pricingEngine() {
+        PricingProperties pricing = new PricingProperties();
+        pricing.setDoubles(1.5);
+        pricing.setRules(List.of(
+                rule("weekday peak", EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(17, 0), LocalTime.of(21, 0), 1.25),
+                rule("weekend", EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, 1.2),
+                rule("off-peak", EnumSet.complementOf(EnumSet.of(DayOfWeek.SATURDAY)), LocalTime.of(21, 0), LocalTime.of(8, 0), 0.8)));
+
+        SurfaceTypeRepository surfaceTypes = new SurfaceTypeRepository() {
+            @Override
+            public List<SurfaceType> findAllIncludingDeleted() {
+                return surfaceTypes();
+            }
+        };
+        return new PricingEngine(surfaceTypes, pricing);
+    }
+
+    //prices and maps reservations, every collaborator that reaches the database or the outbox is left out
+    //the one place to touch when the service's constructor changes
+    public static ReservationService reservationService() {
+        return new ReservationService(null, null, null, null, pricingEngine(), null, null, null, null, null, null);
+    }
+
+    private static PricingProperties.Rule rule(String name, Set<DayOfWeek> days, LocalTime from, LocalTime to, double multiplier) {
+        PricingProperties.Rule rule = new PricingProperties.Rule();
+        rule.setName(name);
+        rule.setDays(days);
+        rule.setFrom(from);
+        rule.setTo(to);
+        rule.setMultiplier(multiplier);
+        return rule;
+    }
+
+    public static List<Reservation> reservations(int count) {
+        SurfaceType clay = surfaceTypes().get(0);
+        SurfaceType grass = surfaceTypes().get(1);
+
+        List<Court> courts = new ArrayList<>();
+        for (long i = 1; i <= 8; i++) {
+            courts.add(Court.builder().id(i).name("Court " + i).surfaceType(i % 2 == 0 ? grass : clay).build());
+        }
+
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            users.add(User.builder()
+                    .id(i)
+                    .username("user" + i)
+                    .phoneNumber(String.format("600%06d", i))
+                    .password("secret")
+                    .roles(Set.of(Role.MEMBER))
+                    .build());
+        }
+
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = FIRST_SLOT.plusMinutes(90L * (i / courts.size()));
+            reservations.add(Reservation.builder()
+                    .id((long) i + 1)
+                    .court(courts.get(i % courts.size()))
+                    .user(users.get(i % users.size()))
+                    .startTime(start)
+                    .endTime(start.plusMinutes(60))
+                    .isDoubles(i % 3 == 0)
+                    .totalPrice(new BigDecimal("30.00"))
+                    //assigned by Hibernate on insert, never null for a persisted row
+                    .version(0L)
+                    .build());
+        }
+        return reservations;
+    }
+}
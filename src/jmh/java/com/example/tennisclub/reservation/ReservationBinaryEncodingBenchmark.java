@@ -0,0 +1,71 @@
+package com.example.tennisclub.reservation;
+
+import com.example.tennisclub.benchmark.BenchmarkData;
+import com.example.tennisclub.reservation.dto.ReservationView;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//JSON against the CBOR and Smile encodings served through content negotiation, the encoded size is printed in setup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationBinaryEncodingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<ReservationView> views;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        //same settings as BinaryEncodingConfig, Boot's JSON defaults on the format's factory
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .factory(factory(format))
+                .build();
+
+        ReservationService reservationService = BenchmarkData.reservationService();
+        views = BenchmarkData.reservations(rows).stream()
+                .map(reservationService::mapToFullResponseDto)
+                .toList();
+
+        encoded = objectMapper.writeValueAsBytes(views);
+        System.out.printf("%n%s, %d rows: %d bytes%n", format, rows, encoded.length);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    //the client side, parsing without binding to a type
+    @Benchmark
+    public JsonNode parse() throws Exception {
+        return objectMapper.readTree(encoded);
+    }
+}
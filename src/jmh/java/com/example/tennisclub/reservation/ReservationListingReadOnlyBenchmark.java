@@ -0,0 +1,83 @@
+package com.example.tennisclub.reservation;
+
+import com.example.tennisclub.benchmark.BenchmarkData;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//a GET /api/reservations listing inside a read-write versus a read-only transaction,
+//read-only skips the per-entity snapshot and the dirty check of every row at commit
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationListingReadOnlyBenchmark {
+
+    private static final String LIST_ALL = "SELECT l FROM ReservationListing l ORDER BY l.startTime ASC";
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(ReservationListing.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:readonly-benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> BenchmarkData.reservations(rows).stream()
+                .map(ReservationListing::of)
+                .forEach(listing -> {
+                    //the benchmark entities were never written, so they carry no versions yet
+                    listing.setCourtVersion(0L);
+                    listing.setSurfaceTypeVersion(0L);
+                    listing.setVersion(0L);
+                    session.persist(listing);
+                }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ReservationListing> listAll_readWrite() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            List<ReservationListing> listings = session.createSelectionQuery(LIST_ALL, ReservationListing.class)
+                    .getResultList();
+            session.getTransaction().commit();
+            return listings;
+        }
+    }
+
+    //what HibernateJpaDialect sets up for @Transactional(readOnly = true)
+    @Benchmark
+    public List<ReservationListing> listAll_readOnly() {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            session.beginTransaction();
+            List<ReservationListing> listings = session.createSelectionQuery(LIST_ALL, ReservationListing.class)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultList();
+            session.getTransaction().commit();
+            return listings;
+        }
+    }
+}
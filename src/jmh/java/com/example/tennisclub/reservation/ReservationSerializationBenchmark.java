@@ -0,0 +1,88 @@
+package com.example.tennisclub.reservation;
+
+import com.example.tennisclub.benchmark.BenchmarkData;
+import com.example.tennisclub.reservation.dto.ColumnarReservationsDto;
+import com.example.tennisclub.reservation.dto.ReservationView;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<ReservationView> views;
+    private List<ReservationListing> listings;
+    private ColumnarReservationsDto columnar;
+    private ReservationService reservationService;
+
+    @Setup
+    public void setUp() {
+        //same defaults as the ObjectMapper auto-configured by Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        reservationService = BenchmarkData.reservationService();
+
+        views = BenchmarkData.reservations(rows).stream()
+                .map(reservationService::mapToFullResponseDto)
+                .toList();
+        listings = BenchmarkData.reservations(rows).stream()
+                .map(ReservationListing::of)
+                .toList();
+        columnar = reservationService.mapListingsColumnar(listings, true);
+    }
+
+    @Benchmark
+    public byte[] serializeResponseDtoList() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    //GET /api/reservations before streaming, every row mapped into a list that is then written out
+    @Benchmark
+    public void mapAndWriteList() throws Exception {
+        List<ReservationView> mapped = listings.stream()
+                .map(reservationService::mapToFullResponseDto)
+                .toList();
+        objectMapper.writeValue(OutputStream.nullOutputStream(), mapped);
+    }
+
+    //what the streaming controller does, one row mapped and written at a time
+    @Benchmark
+    public void mapAndStream() throws Exception {
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValuesAsArray(OutputStream.nullOutputStream())) {
+            for (ReservationListing l : listings) {
+                writer.write(reservationService.mapToFullResponseDto(l));
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeColumnar() throws Exception {
+        return objectMapper.writeValueAsBytes(columnar);
+    }
+
+    //what the columnar endpoint does per request, mapping from reservation_view rows included
+    @Benchmark
+    public byte[] mapAndSerializeColumnar() throws Exception {
+        return objectMapper.writeValueAsBytes(reservationService.mapListingsColumnar(listings, true));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.tennisclub.reservation;
+
+import com.example.tennisclub.benchmark.BenchmarkData;
+import com.example.tennisclub.reservation.dto.ReservationView;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    private ReservationService reservationService;
+    private List<Reservation> reservations;
+    private Reservation reservation;
+    private ReservationListing listing;
+
+    @Setup
+    public void setUp() {
+        reservationService = BenchmarkData.reservationService();
+        reservations = BenchmarkData.reservations(1_000);
+        reservation = reservations.getFirst();
+        listing = ReservationListing.of(reservation);
+    }
+
+    @Benchmark
+    public BigDecimal calculatePrice() {
+        return reservationService.calculatePrice(
+                reservation.getCourt(),
+                reservation.getUser(),
+                reservation.getIsDoubles(),
+                reservation.getStartTime(),
+                reservation.getEndTime());
+    }
+
+    //crosses every peak, off-peak and weekend boundary, still two binary searches
+    @Benchmark
+    public BigDecimal calculatePrice_acrossWholeWeek() {
+        return reservationService.calculatePrice(
+                reservation.getCourt(),
+                reservation.getUser(),
+                reservation.getIsDoubles(),
+                reservation.getStartTime(),
+                reservation.getStartTime().plusDays(7));
+    }
+
+    @Benchmark
+    public ReservationView mapToFullResponseDto() {
+        return reservationService.mapToFullResponseDto(reservation);
+    }
+
+    //flat reservation_view row, no entity graph to walk
+    @Benchmark
+    public ReservationView mapListingToFullResponseDto() {
+        return reservationService.mapToFullResponseDto(listing);
+    }
+
+    @Benchmark
+    public ReservationView mapToSlimResponseDto() {
+        return reservationService.mapToSlimResponseDto(reservation);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void mapThousandToFullResponseDto(Blackhole blackhole) {
+        for (Reservation r : reservations) {
+            blackhole.consume(reservationService.mapToFullResponseDto(r));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.tennisclub.reservation;
+
+import com.example.tennisclub.benchmark.BenchmarkData;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.validator.ReservationValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationValidatorBenchmark {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<Reservation> noOverlaps;
+    private List<Reservation> overlaps;
+
+    @Setup
+    public void setUp() {
+        start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        end = start.plusMinutes(90);
+        noOverlaps = List.of();
+        overlaps = BenchmarkData.reservations(1);
+    }
+
+    @Benchmark
+    public void validateStartBeforeEnd() {
+        ReservationValidator.validateStartBeforeEnd(start, end);
+    }
+
+    @Benchmark
+    public void throwIfOverlapsExist_noConflict() {
+        ReservationValidator.throwIfOverlapsExist(noOverlaps);
+    }
+
+    //the 409 path builds a ResponseStatusException including its stack trace
+    @Benchmark
+    public Object throwIfOverlapsExist_conflict() {
+        try {
+            ReservationValidator.throwIfOverlapsExist(overlaps);
+            return null;
+        } catch (ResponseStatusException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tennisclub.analytics;
+
+import com.example.tennisclub.analytics.dto.UtilizationResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    //from is inclusive, to exclusive
+    @GetMapping("/utilization")
+    public ResponseEntity<UtilizationResponseDto> getUtilization(
+            @RequestParam(defaultValue = "COURT") GroupBy groupBy,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getUtilization(groupBy, granularity, from, to));
+    }
+}
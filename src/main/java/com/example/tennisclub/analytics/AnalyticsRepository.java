@@ -0,0 +1,67 @@
+package com.example.tennisclub.analytics;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+//aggregates are computed by the database, only one row per court and day reaches the JVM
+@Repository
+@Timed(value = "tennisclub.repository.analytics", histogram = true)
+public class AnalyticsRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    //ended reservations may sit in either table, each start_time range prunes the monthly partitions
+    //and is served by the covering start_time indexes on PostgreSQL
+    //minutes are floored per reservation, the same as the court_usage_daily deltas
+    @SuppressWarnings("unchecked")
+    public List<CourtDayTotals> aggregateCourtDayTotals(LocalDate from, LocalDate to) {
+        return toCourtDayTotals(em.createNativeQuery("""
+                SELECT CAST(r.start_time AS DATE) AS booking_day, r.court_id, c.surface_type_id, COUNT(*),
+                    SUM(FLOOR(EXTRACT(EPOCH FROM (r.end_time - r.start_time)) / 60)), SUM(r.total_price)
+                FROM (
+                    SELECT court_id, start_time, end_time, total_price FROM reservation
+                    WHERE deleted = false AND start_time >= :from AND start_time < :to
+                    UNION ALL
+                    SELECT court_id, start_time, end_time, total_price FROM reservation_history
+                    WHERE deleted = false AND start_time >= :from AND start_time < :to
+                ) r
+                JOIN court c ON c.id = r.court_id
+                GROUP BY CAST(r.start_time AS DATE), r.court_id, c.surface_type_id
+                ORDER BY booking_day, r.court_id
+                """)
+                .setParameter("from", from.atStartOfDay())
+                .setParameter("to", to.atStartOfDay())
+                .getResultList());
+    }
+
+    //the court_usage_daily reads return the same columns
+    static List<CourtDayTotals> toCourtDayTotals(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> new CourtDayTotals(
+                        toLocalDate(row[0]),
+                        ((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue(),
+                        ((Number) row[3]).longValue(),
+                        ((Number) row[4]).longValue(),
+                        toBigDecimal(row[5])))
+                .toList();
+    }
+
+    //the JDBC type of DATE and NUMERIC results differs between drivers
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
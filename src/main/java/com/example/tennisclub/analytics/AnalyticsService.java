@@ -0,0 +1,110 @@
+package com.example.tennisclub.analytics;
+
+import com.example.tennisclub.analytics.config.AnalyticsProperties;
+import com.example.tennisclub.analytics.dto.UtilizationResponseDto;
+import com.example.tennisclub.analytics.dto.UtilizationResponseDto.Row;
+import com.example.tennisclub.court.CourtService;
+import com.example.tennisclub.court.entity.Court;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class AnalyticsService {
+
+    private final AnalyticsRepository analyticsRepo;
+    private final CourtUsageRepository courtUsageRepo;
+    private final DailyTotalsCache dailyTotalsCache;
+    private final CourtService courtService;
+    private final AnalyticsProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AnalyticsService(AnalyticsRepository analyticsRepo,
+                            CourtUsageRepository courtUsageRepo,
+                            DailyTotalsCache dailyTotalsCache,
+                            CourtService courtService,
+                            AnalyticsProperties properties,
+                            PlatformTransactionManager transactionManager) {
+        this.analyticsRepo = analyticsRepo;
+        this.courtUsageRepo = courtUsageRepo;
+        this.dailyTotalsCache = dailyTotalsCache;
+        this.courtService = courtService;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    //one row per court and day from court_usage_daily or the reservation tables, folded into weeks and months here
+    public UtilizationResponseDto getUtilization(GroupBy groupBy, Granularity granularity, LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (to.isAfter(from.plus(properties.getMaxRange()))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range must not be longer than " + properties.getMaxRange());
+        }
+
+        List<CourtDayTotals> totals = dailyTotalsCache.get(from, to,
+                (f, t) -> readOnlyTransaction.execute(status -> properties.isReadRollups()
+                        ? courtUsageRepo.findCourtDayTotals(f, t)
+                        : analyticsRepo.aggregateCourtDayTotals(f, t)));
+        //courts without bookings show up with 0 %, surfaces are measured against the courts they have now
+        Map<Long, Long> courtsPerId = courtService.findAllCourtEntities().stream()
+                .collect(Collectors.groupingBy(
+                        court -> groupBy == GroupBy.COURT ? court.getId() : court.getSurfaceType().getId(),
+                        Collectors.counting()));
+
+        Map<LocalDate, Map<Long, Accumulator>> periods = new TreeMap<>();
+        for (LocalDate p = granularity.periodStart(from); p.isBefore(to); p = granularity.nextPeriodStart(p)) {
+            Map<Long, Accumulator> ids = new TreeMap<>();
+            courtsPerId.keySet().forEach(id -> ids.put(id, new Accumulator()));
+            periods.put(p, ids);
+        }
+        for (CourtDayTotals t : totals) {
+            Long id = groupBy == GroupBy.COURT ? t.courtId() : t.surfaceTypeId();
+            periods.get(granularity.periodStart(t.day()))
+                    .computeIfAbsent(id, k -> new Accumulator())
+                    .add(t);
+        }
+
+        long bookableMinutesPerDay = properties.getBookablePerDay().toMinutes();
+        List<Row> rows = new ArrayList<>();
+        periods.forEach((periodStart, ids) -> {
+            LocalDate start = periodStart.isBefore(from) ? from : periodStart;
+            LocalDate next = granularity.nextPeriodStart(periodStart);
+            LocalDate end = next.isAfter(to) ? to : next;
+            long days = ChronoUnit.DAYS.between(start, end);
+            ids.forEach((id, acc) -> {
+                //a deleted court still counts as one court for its own row
+                long courts = groupBy == GroupBy.COURT ? 1 : courtsPerId.getOrDefault(id, 0L);
+                long capacity = bookableMinutesPerDay * days * courts;
+                Double utilization = capacity > 0 ? Math.round(acc.bookedMinutes * 10_000.0 / capacity) / 100.0 : null;
+                rows.add(new Row(start, end, id, acc.reservations, acc.bookedMinutes, utilization, acc.revenue));
+            });
+        });
+        return new UtilizationResponseDto(groupBy, granularity, from, to, rows);
+    }
+
+    private static final class Accumulator {
+        private long reservations;
+        private long bookedMinutes;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private void add(CourtDayTotals t) {
+            reservations += t.reservations();
+            bookedMinutes += t.bookedMinutes();
+            revenue = revenue.add(t.revenue());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.tennisclub.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//one aggregated row of the analytics query, the bookings of one court starting on one day
+public record CourtDayTotals(
+        LocalDate day,
+        Long courtId,
+        Long surfaceTypeId,
+        long reservations,
+        long bookedMinutes,
+        BigDecimal revenue
+) {}
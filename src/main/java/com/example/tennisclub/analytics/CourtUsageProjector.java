@@ -0,0 +1,19 @@
+package com.example.tennisclub.analytics;
+
+import com.example.tennisclub.reservation.event.CourtUsageChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+//applies booking deltas to court_usage_daily inside the publishing transaction, a rolled back write leaves no trace
+@Component
+@RequiredArgsConstructor
+public class CourtUsageProjector {
+
+    private final CourtUsageRepository courtUsageRepo;
+
+    @EventListener
+    public void onCourtUsageChanged(CourtUsageChangedEvent event) {
+        courtUsageRepo.apply(event);
+    }
+}
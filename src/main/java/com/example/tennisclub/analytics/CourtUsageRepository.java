@@ -0,0 +1,81 @@
+package com.example.tennisclub.analytics;
+
+import com.example.tennisclub.reservation.event.CourtUsageChangedEvent;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//court_usage_daily, one row per court and day, so dashboards read O(days) rows instead of O(reservations)
+@Repository
+@Timed(value = "tennisclub.repository.court-usage", histogram = true)
+public class CourtUsageRepository {
+
+    //concurrent MERGEs may both insert the same key on PostgreSQL, ON CONFLICT is atomic there
+    private static final String POSTGRES_UPSERT = """
+            INSERT INTO court_usage_daily (court_id, usage_day, reservations, booked_minutes, revenue)
+            VALUES (:courtId, :day, :reservations, :bookedMinutes, :revenue)
+            ON CONFLICT (court_id, usage_day) DO UPDATE SET
+                reservations = court_usage_daily.reservations + EXCLUDED.reservations,
+                booked_minutes = court_usage_daily.booked_minutes + EXCLUDED.booked_minutes,
+                revenue = court_usage_daily.revenue + EXCLUDED.revenue
+            """;
+
+    //H2 has no ON CONFLICT ... DO UPDATE, the standard MERGE does the same there
+    private static final String MERGE_UPSERT = """
+            MERGE INTO court_usage_daily u
+            USING (SELECT CAST(:courtId AS BIGINT) AS court_id, CAST(:day AS DATE) AS usage_day,
+                    CAST(:reservations AS BIGINT) AS reservations, CAST(:bookedMinutes AS BIGINT) AS booked_minutes,
+                    CAST(:revenue AS NUMERIC(14, 2)) AS revenue) d
+            ON u.court_id = d.court_id AND u.usage_day = d.usage_day
+            WHEN MATCHED THEN UPDATE SET
+                reservations = u.reservations + d.reservations,
+                booked_minutes = u.booked_minutes + d.booked_minutes,
+                revenue = u.revenue + d.revenue
+            WHEN NOT MATCHED THEN INSERT (court_id, usage_day, reservations, booked_minutes, revenue)
+                VALUES (d.court_id, d.usage_day, d.reservations, d.booked_minutes, d.revenue)
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private volatile Boolean postgres;
+
+    //adds the delta in one statement, late updates and cancellations just carry negative values
+    public void apply(CourtUsageChangedEvent delta) {
+        em.createNativeQuery(isPostgres() ? POSTGRES_UPSERT : MERGE_UPSERT)
+                .setParameter("courtId", delta.courtId())
+                .setParameter("day", delta.day())
+                .setParameter("reservations", delta.reservations())
+                .setParameter("bookedMinutes", delta.bookedMinutes())
+                .setParameter("revenue", delta.revenue())
+                .executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<CourtDayTotals> findCourtDayTotals(LocalDate from, LocalDate to) {
+        return AnalyticsRepository.toCourtDayTotals(em.createNativeQuery("""
+                SELECT u.usage_day, u.court_id, c.surface_type_id, u.reservations, u.booked_minutes, u.revenue
+                FROM court_usage_daily u
+                JOIN court c ON c.id = u.court_id
+                WHERE u.usage_day >= :from AND u.usage_day < :to
+                ORDER BY u.usage_day, u.court_id
+                """)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList());
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+}
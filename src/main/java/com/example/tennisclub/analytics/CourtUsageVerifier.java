@@ -0,0 +1,122 @@
+package com.example.tennisclub.analytics;
+
+import com.example.tennisclub.analytics.config.AnalyticsProperties;
+import com.example.tennisclub.analytics.event.CourtUsageRepairedEvent;
+import com.example.tennisclub.reservation.event.CourtUsageChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//recounts a sample of closed days from the reservation tables and diffs it against court_usage_daily
+//past bookings can no longer be changed, so a closed day is stable while it is being compared
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "analytics", name = "verify-enabled")
+public class CourtUsageVerifier {
+
+    private final AnalyticsRepository analyticsRepo;
+    private final CourtUsageRepository courtUsageRepo;
+    private final AnalyticsProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter mismatchCounter;
+
+    public CourtUsageVerifier(AnalyticsRepository analyticsRepo,
+                              CourtUsageRepository courtUsageRepo,
+                              AnalyticsProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry registry) {
+        this.analyticsRepo = analyticsRepo;
+        this.courtUsageRepo = courtUsageRepo;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.mismatchCounter = Counter.builder("tennisclub.analytics.rollup.mismatches")
+                .description("Court days whose court_usage_daily row differs from a recount")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.verify-interval:PT6H}", initialDelayString = "PT5M")
+    public void verifySample() {
+        LocalDate end = LocalDateTime.now().minus(properties.getClosedAfter()).toLocalDate();
+        LocalDate earliest = end.minus(properties.getVerifyLookback());
+        long startChoices = Math.max(1, ChronoUnit.DAYS.between(earliest, end) - properties.getVerifySampleDays() + 1);
+        LocalDate from = earliest.plusDays(ThreadLocalRandom.current().nextLong(startChoices));
+        LocalDate to = from.plusDays(properties.getVerifySampleDays());
+        verify(from, to.isAfter(end) ? end : to);
+    }
+
+    public List<Mismatch> verify(LocalDate from, LocalDate to) {
+        List<Mismatch> mismatches = transactionTemplate.execute(status -> {
+            Map<Key, CourtDayTotals> expected = byKey(analyticsRepo.aggregateCourtDayTotals(from, to));
+            Map<Key, CourtDayTotals> actual = byKey(courtUsageRepo.findCourtDayTotals(from, to));
+
+            Set<Key> keys = new LinkedHashSet<>(expected.keySet());
+            keys.addAll(actual.keySet());
+            List<Mismatch> found = new ArrayList<>();
+            for (Key key : keys) {
+                CourtDayTotals e = expected.getOrDefault(key, empty(key));
+                CourtDayTotals a = actual.getOrDefault(key, empty(key));
+                if (e.reservations() != a.reservations() || e.bookedMinutes() != a.bookedMinutes()
+                        || e.revenue().compareTo(a.revenue()) != 0) {
+                    found.add(new Mismatch(e, a));
+                    if (properties.isVerifyRepair()) {
+                        //the difference as one more delta, the same upsert the writes use
+                        courtUsageRepo.apply(new CourtUsageChangedEvent(key.courtId(), key.day(),
+                                e.reservations() - a.reservations(),
+                                e.bookedMinutes() - a.bookedMinutes(),
+                                e.revenue().subtract(a.revenue())));
+                        //closed days are cached without a ttl, the repaired day is evicted after commit
+                        eventPublisher.publishEvent(new CourtUsageRepairedEvent(key.day()));
+                    }
+                }
+            }
+            return found;
+        });
+
+        mismatchCounter.increment(mismatches.size());
+        for (Mismatch m : mismatches) {
+            log.warn("court_usage_daily differs from recount for court {} on {}: expected {}/{}min/{}, found {}/{}min/{}{}",
+                    m.expected().courtId(), m.expected().day(),
+                    m.expected().reservations(), m.expected().bookedMinutes(), m.expected().revenue(),
+                    m.actual().reservations(), m.actual().bookedMinutes(), m.actual().revenue(),
+                    properties.isVerifyRepair() ? ", repaired" : "");
+        }
+        log.info("Verified court_usage_daily for [{}, {}), {} mismatching court days", from, to, mismatches.size());
+        return mismatches;
+    }
+
+    private static Map<Key, CourtDayTotals> byKey(List<CourtDayTotals> totals) {
+        return totals.stream().collect(Collectors.toMap(t -> new Key(t.courtId(), t.day()), Function.identity()));
+    }
+
+    private static CourtDayTotals empty(Key key) {
+        return new CourtDayTotals(key.day(), key.courtId(), null, 0, 0, BigDecimal.ZERO);
+    }
+
+    private record Key(Long courtId, LocalDate day) {
+    }
+
+    public record Mismatch(CourtDayTotals expected, CourtDayTotals actual) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.tennisclub.analytics;
+
+import com.example.tennisclub.analytics.config.AnalyticsProperties;
+import com.example.tennisclub.analytics.event.CourtUsageRepairedEvent;
+import com.example.tennisclub.court.event.CourtChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+//Court totals of closed days. A day that ended only changes when a past reservation is edited or cancelled,
+//which evicts it after commit, so closed days are kept without a ttl.
+@Component
+public class DailyTotalsCache {
+
+    private final AnalyticsProperties properties;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final ConcurrentSkipListMap<LocalDate, List<CourtDayTotals>> days = new ConcurrentSkipListMap<>();
+    //bumped by every eviction, a load that overlapped one is returned but not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public DailyTotalsCache(AnalyticsProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    public DailyTotalsCache(AnalyticsProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("tennisclub.analytics.cache", "result", "hit");
+        this.misses = meterRegistry.counter("tennisclub.analytics.cache", "result", "miss");
+    }
+
+    //totals of [from, to) in day order, every day not cached is loaded by a single loader call over the missing span
+    public List<CourtDayTotals> get(LocalDate from, LocalDate to,
+                                    BiFunction<LocalDate, LocalDate, List<CourtDayTotals>> loader) {
+        Map<LocalDate, List<CourtDayTotals>> found = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            List<CourtDayTotals> cached = days.get(day);
+            if (cached != null) {
+                found.put(day, cached);
+            } else {
+                if (firstMissing == null) firstMissing = day;
+                lastMissing = day;
+            }
+        }
+
+        if (firstMissing != null) {
+            misses.increment();
+            long evictionsBefore = evictions.get();
+            Map<LocalDate, List<CourtDayTotals>> loaded = loader.apply(firstMissing, lastMissing.plusDays(1)).stream()
+                    .collect(Collectors.groupingBy(CourtDayTotals::day));
+            boolean cacheable = evictions.get() == evictionsBefore;
+            for (LocalDate day = firstMissing; !day.isAfter(lastMissing); day = day.plusDays(1)) {
+                List<CourtDayTotals> totals = List.copyOf(loaded.getOrDefault(day, List.of()));
+                found.put(day, totals);
+                if (cacheable && isClosed(day)) {
+                    days.put(day, totals);
+                }
+            }
+            trim();
+        } else {
+            hits.increment();
+        }
+
+        List<CourtDayTotals> result = new ArrayList<>();
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            result.addAll(found.get(day));
+        }
+        return result;
+    }
+
+    //totals are counted on the day a reservation starts
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        evictions.incrementAndGet();
+        days.remove(event.startTime().toLocalDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourtUsageRepaired(CourtUsageRepairedEvent event) {
+        evictions.incrementAndGet();
+        days.remove(event.day());
+    }
+
+    //a court moved to another surface changes the surface totals of every day
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourtChanged(CourtChangedEvent event) {
+        evictions.incrementAndGet();
+        days.clear();
+    }
+
+    public boolean isClosed(LocalDate day) {
+        LocalDateTime closesAt = day.plusDays(1).atStartOfDay().plus(properties.getClosedAfter());
+        return !closesAt.isAfter(LocalDateTime.now(clock));
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    private void trim() {
+        while (days.size() > properties.getMaxCachedDays()) {
+            days.pollFirstEntry();
+        }
+    }
+}
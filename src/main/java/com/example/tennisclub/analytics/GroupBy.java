@@ -0,0 +1,5 @@
+package com.example.tennisclub.analytics;
+
+public enum GroupBy {
+    COURT, SURFACE
+}
@@ -0,0 +1,33 @@
+package com.example.tennisclub.analytics.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "analytics")
+public class AnalyticsProperties {
+    //bookable time of one court per day, the denominator of utilization
+    private Duration bookablePerDay = Duration.ofHours(14);
+    //longest from-to range one request may aggregate
+    private Period maxRange = Period.ofYears(3);
+    //a day is cached once it ended this long ago, leaves room for late writes and replica lag
+    private Duration closedAfter = Duration.ofHours(1);
+    //closed days kept in the cache, the oldest are dropped first
+    private int maxCachedDays = 1500;
+    //read court_usage_daily instead of aggregating reservation and reservation_history per request
+    private boolean readRollups = true;
+    //periodic recount of a random sample of closed days, diffed against court_usage_daily
+    private boolean verifyEnabled = false;
+    private int verifySampleDays = 7;
+    //samples are taken from the days this far back, keep it below the partition archive-after
+    private Period verifyLookback = Period.ofDays(90);
+    //overwrite mismatching rollup rows with the recount instead of only reporting them
+    private boolean verifyRepair = false;
+}
@@ -0,0 +1,29 @@
+package com.example.tennisclub.analytics.dto;
+
+import com.example.tennisclub.analytics.Granularity;
+import com.example.tennisclub.analytics.GroupBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+//periods are [periodStart, periodEnd), the first and last one are cut to the requested range
+public record UtilizationResponseDto(
+        GroupBy groupBy,
+        Granularity granularity,
+        LocalDate from,
+        LocalDate to,
+        List<Row> rows
+) {
+
+    //id is the court or surface type id, utilizationPercent is null for a surface without courts left
+    public record Row(
+            LocalDate periodStart,
+            LocalDate periodEnd,
+            Long id,
+            long reservations,
+            long bookedMinutes,
+            Double utilizationPercent,
+            BigDecimal revenue
+    ) {}
+}
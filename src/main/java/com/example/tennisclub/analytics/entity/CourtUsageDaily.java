@@ -0,0 +1,43 @@
+package com.example.tennisclub.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//rollup of the bookings starting on one day on one court, maintained by deltas from reservation writes
+@Entity
+@Table(name = "court_usage_daily", indexes = @Index(name = "idx_court_usage_daily_day", columnList = "usage_day"))
+@IdClass(CourtUsageDaily.Key.class)
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@ToString
+public class CourtUsageDaily {
+
+    @Id
+    @Column(name = "court_id")
+    private Long courtId;
+
+    @Id
+    @Column(name = "usage_day")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long reservations;
+
+    @Column(name = "booked_minutes", nullable = false)
+    private long bookedMinutes;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long courtId;
+        private LocalDate day;
+    }
+}
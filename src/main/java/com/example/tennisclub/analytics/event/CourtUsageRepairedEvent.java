@@ -0,0 +1,6 @@
+package com.example.tennisclub.analytics.event;
+
+import java.time.LocalDate;
+
+//published when the verifier overwrites the court_usage_daily totals of a day with a recount
+public record CourtUsageRepairedEvent(LocalDate day) {}
@@ -0,0 +1,17 @@
+package com.example.tennisclub.auth.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+//The authenticated caller of the current request, read from the security context
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    public static boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
@@ -2,11 +2,14 @@ package com.example.tennisclub.auth.security;
 
 import com.example.tennisclub.user.CustomUserDetailsService;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,11 +20,32 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@AllArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
+    //web slice tests run without metrics auto-configuration, fall back to the global registry there
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   CustomUserDetailsService userDetailsService,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.authenticatedTimer = authenticationTimer(registry, "authenticated");
+        this.rejectedTimer = authenticationTimer(registry, "rejected");
+    }
+
+    private static Timer authenticationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("tennisclub.security.jwt.authentication")
+                .description("Token parsing, user lookup and validation in the JWT filter")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,20 +60,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            //extract signature and username from accessToken
-            String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                //first check if accessToken valid: not expired and untempered username
-                if (jwtUtil.validateToken(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            Timer.Sample sample = Timer.start();
+            try {
+                authenticate(authHeader.substring(7), request);
+                sample.stop(authenticatedTimer);
+            } catch (JwtException e) {
+                sample.stop(rejectedTimer);
+                throw e;
             }
 
             //continue with standard filter chain
@@ -60,4 +77,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             response.getWriter().write("{\"error\": \"Invalid accessToken\"}");
         }
     }
+
+    private void authenticate(String token, HttpServletRequest request) {
+        //extract signature and username from accessToken
+        String username = jwtUtil.extractUsername(token);
+
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+
+            //first check if accessToken valid: not expired and untempered username
+            if (jwtUtil.validateToken(token, userDetails)) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        }
+    }
 }
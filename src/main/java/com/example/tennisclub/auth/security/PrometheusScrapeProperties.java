@@ -0,0 +1,16 @@
+package com.example.tennisclub.auth.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "prometheus-scrape")
+@Component
+public class PrometheusScrapeProperties {
+    private String username = "prometheus";
+    //without a password there is no scrape user, only admin tokens reach the endpoint
+    private String password;
+}
@@ -0,0 +1,59 @@
+package com.example.tennisclub.auth.security;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+//the prometheus endpoint carries hibernate query statistics, so it is not public
+//the scraper cannot refresh a 1 h access token, it authenticates with HTTP basic as a fixed scrape user instead
+@Configuration
+@AllArgsConstructor
+public class PrometheusSecurityConfig {
+
+    private static final String SCRAPER_ROLE = "METRICS_SCRAPER";
+
+    private final PrometheusScrapeProperties properties;
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final PasswordEncoder passwordEncoder;
+
+    //ahead of the application chain, which never sees the endpoint
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyRole("ADMIN", SCRAPER_ROLE))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .httpBasic(basic -> {})
+                .authenticationManager(scrapeAuthenticationManager())
+                //admins can still read it with their bearer token
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    private ProviderManager scrapeAuthenticationManager() {
+        InMemoryUserDetailsManager scrapeUsers = new InMemoryUserDetailsManager();
+        if (properties.getPassword() != null && !properties.getPassword().isBlank()) {
+            scrapeUsers.createUser(User.withUsername(properties.getUsername())
+                    .password(passwordEncoder.encode(properties.getPassword()))
+                    .roles(SCRAPER_ROLE)
+                    .build());
+        }
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(scrapeUsers);
+        provider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(provider);
+    }
+}
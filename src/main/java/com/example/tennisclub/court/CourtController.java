@@ -4,8 +4,10 @@ package com.example.tennisclub.court;
 
 import com.example.tennisclub.court.dto.CourtRequestDto;
 import com.example.tennisclub.court.dto.CourtResponseDto;
+import com.example.tennisclub.versioning.IfMatch;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -29,8 +31,9 @@ public class CourtController {
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MEMBER')")
-    public CourtResponseDto getCourt(@PathVariable Long id) {
-        return courtService.getCourt(id);
+    public ResponseEntity<CourtResponseDto> getCourt(@PathVariable Long id) {
+        CourtResponseDto court = courtService.getCourt(id);
+        return IfMatch.okWithETag(court, court.version());
     }
 
     @PostMapping
@@ -41,8 +44,11 @@ public class CourtController {
     }
 
     @PutMapping("/{id}")
-    public CourtResponseDto update(@PathVariable Long id, @RequestBody @Valid CourtRequestDto dto) {
-        return courtService.update(id, dto);
+    public ResponseEntity<CourtResponseDto> update(@PathVariable Long id,
+                                                   @RequestBody @Valid CourtRequestDto dto,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CourtResponseDto updated = courtService.update(id, dto, IfMatch.expectedVersion(ifMatch));
+        return IfMatch.okWithETag(updated, updated.version());
     }
 
     @DeleteMapping("/{id}")
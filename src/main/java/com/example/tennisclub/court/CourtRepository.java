@@ -31,8 +31,11 @@ public class CourtRepository {
         return court;
     }
 
+    //flushed so the returned entity carries the incremented version the response ETag is built from
     public Court update(Court court) {
-        return em.merge(court);
+        Court merged = em.merge(court);
+        em.flush();
+        return merged;
     }
 
     public boolean softDelete(Long id) {
@@ -4,12 +4,15 @@ package com.example.tennisclub.court;
 import com.example.tennisclub.court.dto.CourtRequestDto;
 import com.example.tennisclub.court.dto.CourtResponseDto;
 import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.court.event.CourtChangedEvent;
 import com.example.tennisclub.exception.EntityFinder;
 
 import com.example.tennisclub.surfaceType.SurfaceTypeService;
 import com.example.tennisclub.surfaceType.dto.SurfaceTypeResponseDto;
 import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import com.example.tennisclub.versioning.IfMatch;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,27 +28,34 @@ public class CourtService {
     private final CourtRepository courtRepository;
     private final SurfaceTypeService surfaceTypeService;
     private final EntityFinder entityFinder;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<Court> findAllCourtEntities() {
         return courtRepository.findAll();
     }
+    @Transactional(readOnly = true)
     public List<CourtResponseDto> getAllCourts() {
         return findAllCourtEntities().stream()
                 .map(this::mapToResponseDto)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public Court findCourtEntityByIdOrThrow(Long id) {
         return entityFinder.findByIdOrThrow(courtRepository.findById(id), id, "Court");
     }
 
+    @Transactional(readOnly = true)
     public CourtResponseDto getCourt(Long id) {
         return mapToResponseDto(findCourtEntityByIdOrThrow(id));
     }
 
     @Transactional
     public Court save(Court court) {
-        return courtRepository.save(court);
+        Court saved = courtRepository.save(court);
+        eventPublisher.publishEvent(new CourtChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional
@@ -56,16 +66,18 @@ public class CourtService {
     }
 
     @Transactional
-    public CourtResponseDto update(Long updatedCourtId, CourtRequestDto dto) {
+    public CourtResponseDto update(Long updatedCourtId, CourtRequestDto dto, Long expectedVersion) {
         long surfaceTypeId = dto.surfaceTypeId();
         SurfaceType surfaceType = surfaceTypeService.findByIdOrThrow(surfaceTypeId);
 
         Court court = findCourtEntityByIdOrThrow(updatedCourtId);
+        IfMatch.validateVersion(expectedVersion, court.getVersion(), "Court");
 
         court.setName(dto.name());
         court.setSurfaceType(surfaceType);
 
         Court updated = courtRepository.update(court);
+        eventPublisher.publishEvent(new CourtChangedEvent(updatedCourtId));
 
         return mapToResponseDto(updated);
     }
@@ -76,6 +88,7 @@ public class CourtService {
             throw new ResponseStatusException(
                     HttpStatus.NOT_FOUND, "Court with ID " + id + " not found");
         }
+        eventPublisher.publishEvent(new CourtChangedEvent(id));
     }
 
     public Court mapToEntity(CourtRequestDto dto) {
@@ -91,7 +104,7 @@ public class CourtService {
 
         SurfaceTypeResponseDto stDto = surfaceTypeService.mapToResponseDto(st);
 
-        return new CourtResponseDto(court.getId(), court.getName(), stDto);
+        return new CourtResponseDto(court.getId(), court.getName(), stDto, court.getVersion());
     }
 
 }
@@ -4,6 +4,7 @@ package com.example.tennisclub.court.entity;
 import com.example.tennisclub.surfaceType.entity.SurfaceType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "court")
@@ -26,4 +27,13 @@ public class Court {
 
     @Builder.Default
     private Boolean deleted = false;
+
+    //checked by Hibernate on every update, concurrent edits fail instead of overwriting each other
+    @Version
+    private Long version;
+
+    //last outbox sequence handed out for this court, only written by OutboxRepository.nextCourtSequence
+    @ColumnDefault("0")
+    @Column(name = "outbox_sequence", nullable = false, insertable = false, updatable = false)
+    private Long outboxSequence;
 }
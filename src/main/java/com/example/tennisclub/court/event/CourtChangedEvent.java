@@ -0,0 +1,4 @@
+package com.example.tennisclub.court.event;
+
+//published whenever a court is created, moved to another surface or deleted
+public record CourtChangedEvent(Long courtId) {}
@@ -1,6 +1,9 @@
 package com.example.tennisclub.exception;
 
 
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,4 +26,16 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(body, ex.getStatusCode());
     }
+
+    //lost update detected by the @Version check when the transaction flushed
+    @ExceptionHandler({OptimisticLockException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleOptimisticLockException(RuntimeException ex) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", ZonedDateTime.now());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "The resource was modified concurrently, reload it and retry");
+
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,301 @@
+package com.example.tennisclub.idempotency;
+
+import com.example.tennisclub.idempotency.config.IdempotencyProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+//Executes a POST carrying an Idempotency-Key at most once per user and replays the stored response to retries
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !properties.getPaths().contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (clientKey.isBlank() || clientKey.length() > properties.getMaxKeyLength()) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be between 1 and " + properties.getMaxKeyLength() + " characters");
+            return;
+        }
+
+        //the body is held in memory until the request completes, anything larger is refused before it is read
+        int maxRequestBytes = properties.getMaxRequestBodyBytes();
+        if (request.getContentLengthLong() > maxRequestBytes) {
+            writeTooLarge(response, maxRequestBytes);
+            return;
+        }
+        //chunked bodies carry no length, one byte past the limit is enough to tell
+        byte[] body = request.getInputStream().readNBytes(maxRequestBytes + 1);
+        if (body.length > maxRequestBytes) {
+            writeTooLarge(response, maxRequestBytes);
+            return;
+        }
+        String requestHash = sha256(body);
+        //the same key sent by another user or to another endpoint is a different request
+        String key = currentUsername() + ":" + request.getMethod() + ":" + request.getRequestURI() + ":" + clientKey;
+
+        Optional<StoredResponse> stored = store.find(key);
+        if (stored.isPresent()) {
+            replay(response, stored.get(), requestHash);
+            return;
+        }
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        Optional<CompletableFuture<StoredResponse>> running = store.claim(key, execution);
+        if (running.isPresent()) {
+            awaitAndReplay(response, running.get(), requestHash);
+            return;
+        }
+
+        try {
+            //another request may have finished between the lookup and the claim
+            stored = store.find(key);
+            if (stored.isPresent()) {
+                execution.complete(stored.get());
+                replay(response, stored.get(), requestHash);
+                return;
+            }
+            if (!store.claimShared(key, requestHash)) {
+                //the first execution runs on another instance
+                StoredResponse result = store.awaitShared(key, properties.getInFlightWait()).orElse(null);
+                execution.complete(result);
+                replayOrConflict(response, result, requestHash);
+                return;
+            }
+            execution.complete(execute(new CachedBodyRequest(request, body), response, filterChain, key, requestHash));
+        } catch (ServletException | IOException | RuntimeException e) {
+            execution.complete(null);
+            throw e;
+        } finally {
+            store.release(key, execution);
+        }
+    }
+
+    private StoredResponse execute(HttpServletRequest request,
+                                   HttpServletResponse response,
+                                   FilterChain filterChain,
+                                   String key,
+                                   String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, cachingResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            store.releaseShared(key);
+            throw e;
+        }
+        count("executed");
+
+        StoredResponse result = null;
+        byte[] responseBody = cachingResponse.getContentAsByteArray();
+        //server errors are not remembered, the client is expected to retry them
+        if (cachingResponse.getStatus() < 500 && responseBody.length <= properties.getMaxBodyBytes()) {
+            result = new StoredResponse(requestHash, cachingResponse.getStatus(), cachingResponse.getContentType(),
+                    cachingResponse.getHeader(HttpHeaders.ETAG), cachingResponse.getHeader(HttpHeaders.LOCATION),
+                    responseBody, LocalDateTime.now().plus(properties.getTtl()));
+        }
+
+        //the booking has committed, the client gets its response before anything else can fail
+        try {
+            cachingResponse.copyBodyToResponse();
+        } finally {
+            if (result != null) {
+                store.save(key, result);
+            } else {
+                store.releaseShared(key);
+            }
+        }
+        return result;
+    }
+
+    private void awaitAndReplay(HttpServletResponse response,
+                                CompletableFuture<StoredResponse> running,
+                                String requestHash) throws IOException {
+        StoredResponse result;
+        try {
+            result = running.get(properties.getInFlightWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            result = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = null;
+        }
+
+        replayOrConflict(response, result, requestHash);
+    }
+
+    private void replayOrConflict(HttpServletResponse response,
+                                  StoredResponse result,
+                                  String requestHash) throws IOException {
+        if (result == null) {
+            count("conflict");
+            writeError(response, HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress or failed, retry later");
+            return;
+        }
+        replay(response, result, requestHash);
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored, String requestHash) throws IOException {
+        if (!stored.requestHash().equals(requestHash)) {
+            count("mismatch");
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request body");
+            return;
+        }
+        count("replayed");
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.etag());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeTooLarge(HttpServletResponse response, int maxRequestBytes) throws IOException {
+        count("too_large");
+        writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                "Requests with an Idempotency-Key are limited to " + maxRequestBytes + " bytes");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", ZonedDateTime.now());
+        body.put("status", status.value());
+        body.put("error", message);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("tennisclub.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    //the body was consumed for hashing, downstream reads it again from memory
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                //everything is already in memory, the listener is told so right away
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.tennisclub.idempotency;
+
+import com.example.tennisclub.idempotency.entity.IdempotencyRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class IdempotencyRecordRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public Optional<IdempotencyRecord> findByKey(String key) {
+        return Optional.ofNullable(em.find(IdempotencyRecord.class, key));
+    }
+
+    public IdempotencyRecord save(IdempotencyRecord record) {
+        return em.merge(record);
+    }
+
+    //flushed so a key another instance already holds fails here with a DataIntegrityViolationException
+    public void insert(IdempotencyRecord record) {
+        em.persist(record);
+        em.flush();
+    }
+
+    //an expired row, stored response or abandoned claim, no longer holds the key
+    public int deleteExpired(String key, LocalDateTime now) {
+        return em.createQuery("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt <= :now")
+                .setParameter("key", key)
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+
+    public int deletePending(String key) {
+        return em.createQuery("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.status IS NULL")
+                .setParameter("key", key)
+                .executeUpdate();
+    }
+
+    public int deleteExpiredBefore(LocalDateTime now) {
+        return em.createQuery("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.tennisclub.idempotency;
+
+import com.example.tennisclub.idempotency.config.IdempotencyProperties;
+import com.example.tennisclub.idempotency.entity.IdempotencyRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+//bounded LRU of responses in memory, optionally backed by the idempotency_key table
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, StoredResponse> responses;
+    //first executions still running, duplicates wait on these instead of racing them
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyProperties properties,
+                            IdempotencyRecordRepository recordRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredResponse stored;
+        synchronized (responses) {
+            stored = responses.get(key);
+        }
+        if (stored == null && properties.isDbStoreEnabled()) {
+            stored = transactionTemplate.execute(status -> recordRepository.findByKey(key)
+                    .filter(record -> !record.isPending())
+                    .map(StoredResponse::of)
+                    .orElse(null));
+            if (stored != null) {
+                remember(key, stored);
+            }
+        }
+        return Optional.ofNullable(stored).filter(s -> !s.isExpired(now));
+    }
+
+    //the response has already been sent, a failed write only costs the replay on other instances
+    public void save(String key, StoredResponse response) {
+        remember(key, response);
+        if (properties.isDbStoreEnabled()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> recordRepository.save(response.toRecord(key)));
+            } catch (DataAccessException e) {
+                log.warn("Could not store the response for idempotency key {}, the claim expires with its lease", key, e);
+            }
+        }
+    }
+
+    //returns the running execution of another request, or empty when the caller now owns the key
+    public Optional<CompletableFuture<StoredResponse>> claim(String key, CompletableFuture<StoredResponse> execution) {
+        return Optional.ofNullable(inFlight.putIfAbsent(key, execution));
+    }
+
+    public void release(String key, CompletableFuture<StoredResponse> execution) {
+        inFlight.remove(key, execution);
+    }
+
+    //claim() only sees this instance, the pending row in idempotency_key is what other instances see
+    //false when another instance holds the key, the caller then waits for its response
+    public boolean claimShared(String key, String requestHash) {
+        if (!properties.isDbStoreEnabled()) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                recordRepository.deleteExpired(key, now);
+                recordRepository.insert(IdempotencyRecord.pending(key, requestHash, now.plus(properties.getClaimLease())));
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    //the execution failed or its response is not stored, a retry executes the request again
+    public void releaseShared(String key) {
+        if (!properties.isDbStoreEnabled()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> recordRepository.deletePending(key));
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}, it is held until its lease ends", key, e);
+        }
+    }
+
+    //polls the table for the response of the instance holding the key, empty when it fails or takes longer than wait
+    public Optional<StoredResponse> awaitShared(String key, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Optional<StoredResponse> stored = find(key);
+            if (stored.isPresent() || System.nanoTime() >= deadline) {
+                return stored;
+            }
+            try {
+                Thread.sleep(properties.getClaimPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (responses) {
+            responses.values().removeIf(stored -> stored.isExpired(now));
+        }
+        if (properties.isDbStoreEnabled()) {
+            Integer purged = transactionTemplate.execute(status -> recordRepository.deleteExpiredBefore(now));
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private void remember(String key, StoredResponse response) {
+        synchronized (responses) {
+            responses.put(key, response);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.tennisclub.idempotency;
+
+import com.example.tennisclub.idempotency.entity.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+//etag and location are the headers a client acts on after a create, a replay sends them again
+public record StoredResponse(
+        String requestHash,
+        int status,
+        String contentType,
+        String etag,
+        String location,
+        byte[] body,
+        LocalDateTime expiresAt) {
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public static StoredResponse of(IdempotencyRecord record) {
+        return new StoredResponse(record.getRequestHash(), record.getStatus(), record.getContentType(),
+                record.getEtag(), record.getLocation(), record.getBody(), record.getExpiresAt());
+    }
+
+    public IdempotencyRecord toRecord(String key) {
+        return IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .status(status)
+                .contentType(contentType)
+                .etag(etag)
+                .location(location)
+                .body(body)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.tennisclub.idempotency.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+    //POST requests to these paths honour the Idempotency-Key header
+    private List<String> paths = List.of("/api/reservations", "/api/reservations/waitlist");
+    //responses are replayed for this long after the first execution
+    private Duration ttl = Duration.ofHours(24);
+    //least recently used keys are evicted from memory beyond this
+    private int maxEntries = 10_000;
+    //larger responses are not stored, a replay executes the request again
+    private int maxBodyBytes = 64 * 1024;
+    private int maxKeyLength = 255;
+    //request bodies are buffered to hash them, larger ones get a 413
+    private int maxRequestBodyBytes = 16 * 1024;
+    //a duplicate waits this long for the first execution before it gets a 409
+    private Duration inFlightWait = Duration.ofSeconds(10);
+    //also keeps responses in the idempotency_key table so replays survive restarts and reach other instances
+    private boolean dbStoreEnabled = false;
+    private Duration purgeInterval = Duration.ofMinutes(10);
+    //with the table enabled, the first execution holds the key with a pending row for at most this long,
+    //a claim older than that belongs to an instance that died mid-request and is taken over
+    private Duration claimLease = Duration.ofMinutes(1);
+    //how often a duplicate on another instance checks the table for the stored response
+    private Duration claimPollInterval = Duration.ofMillis(100);
+}
@@ -0,0 +1,57 @@
+package com.example.tennisclub.idempotency.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_expires", columnList = "expires_at")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@ToString(exclude = "body")
+public class IdempotencyRecord {
+
+    //username, method, path and the client key
+    @Id
+    @Column(name = "idempotency_key", length = 600)
+    private String key;
+
+    //SHA-256 of the request body, a reused key with another body is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    //null while the first execution is still running, the row is then only a claim on the key
+    private Integer status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(length = 100)
+    private String etag;
+
+    @Column(length = 500)
+    private String location;
+
+    @Column(length = 65536)
+    private byte[] body;
+
+    //for a pending claim, the point after which its instance is presumed dead and the key can be claimed again
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public static IdempotencyRecord pending(String key, String requestHash, LocalDateTime leaseEnd) {
+        return IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .expiresAt(leaseEnd)
+                .build();
+    }
+
+    public boolean isPending() {
+        return status == null;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.tennisclub.initialization;
+
+import com.example.tennisclub.initialization.SeedScheduleGenerator.Booking;
+import com.example.tennisclub.initialization.entity.SeedDataRun;
+import com.example.tennisclub.pricing.PricingEngine;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.partitioning.ReservationPartitionRepository;
+import com.example.tennisclub.user.Role;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+//with seed-data.enabled, adds thousands of courts and users and millions of bookings for local performance work
+//schedules are generated per court on a fork-join pool, every court is written by its worker in one transaction
+//runs after DataInitializer, so its users still exist to log in with
+//every run is recorded in seed_data_run and only marked complete after the last court, a failed run stops the next start
+@Slf4j
+@Component
+@Order(2)
+@ConditionalOnProperty(prefix = "seed-data", name = "enabled")
+public class SeedDataGenerator implements CommandLineRunner {
+
+    private static final String COURT_PREFIX = "Seed court ";
+    private static final String USER_PREFIX = "seed-user-";
+    private static final Set<Role> MEMBER = Set.of(Role.MEMBER);
+
+    private final SeedDataRepository seedDataRepo;
+    private final SeedDataProperties properties;
+    private final PartitioningProperties partitioningProperties;
+    private final ReservationPartitionRepository partitionRepository;
+    private final PricingEngine pricingEngine;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+
+    public SeedDataGenerator(SeedDataRepository seedDataRepo,
+                             SeedDataProperties properties,
+                             PartitioningProperties partitioningProperties,
+                             ReservationPartitionRepository partitionRepository,
+                             PricingEngine pricingEngine,
+                             PasswordEncoder passwordEncoder,
+                             PlatformTransactionManager transactionManager) {
+        this.seedDataRepo = seedDataRepo;
+        this.properties = properties;
+        this.partitioningProperties = partitioningProperties;
+        this.partitionRepository = partitionRepository;
+        this.pricingEngine = pricingEngine;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Optional<SeedDataRun> lastRun = seedDataRepo.findLastRun();
+        if (lastRun.isPresent() && lastRun.get().getCompletedAt() != null) {
+            log.info("Seed data already present, completed at {}, skipping", lastRun.get().getCompletedAt());
+            return;
+        }
+        if (lastRun.isPresent()) {
+            throw new IllegalStateException("Seed run " + lastRun.get().getId() + " started at " + lastRun.get().getStartedAt()
+                    + " did not complete and left partial data, start from an empty database to seed again");
+        }
+        if (seedDataRepo.countCourtsNamedLike(COURT_PREFIX) > 0) {
+            throw new IllegalStateException("Seed courts exist without a completed seed run, start from an empty database to seed again");
+        }
+
+        if (properties.getCourts() < 1 || properties.getUsers() < 1) {
+            throw new IllegalStateException("seed-data.courts and seed-data.users must be positive");
+        }
+        LocalDate firstDay = LocalDate.now().minus(properties.getHistory());
+        int days = (int) ChronoUnit.DAYS.between(firstDay, LocalDate.now().plus(properties.getAhead()));
+        int perCourt = (int) (properties.getReservations() / properties.getCourts());
+        int remainder = (int) (properties.getReservations() % properties.getCourts());
+        int busiestCourt = perCourt + (remainder > 0 ? 1 : 0);
+        long capacity = (long) days * SeedScheduleGenerator.maxPerDay(properties.getOpens(), properties.getCloses());
+        if (busiestCourt > capacity) {
+            throw new IllegalStateException("seed-data.reservations needs " + busiestCourt
+                    + " bookings per court, at most " + capacity + " fit into " + days + " days");
+        }
+
+        long started = System.nanoTime();
+        long runId = seedDataRepo.startRun(properties.getCourts(), properties.getUsers(), properties.getReservations());
+        List<Long> surfaceTypeIds = surfaceTypes();
+        List<long[]> courts = seedDataRepo.insertCourts(courtRows(surfaceTypeIds), COURT_PREFIX);
+        //one hash shared by everyone, BCrypt per user would take longer than all the schedules
+        String password = passwordEncoder.encode(properties.getPassword());
+        long[] userIds = seedDataRepo.insertUsers(userRows(password), USER_PREFIX, Role.MEMBER);
+        log.info("Seeded {} courts and {} users", courts.size(), userIds.length);
+
+        if (partitioningProperties.isEnabled()) {
+            createPartitions(firstDay, firstDay.plusDays(days - 1));
+        }
+        //compile the price table before the workers share it
+        LocalDateTime anyStart = firstDay.atTime(properties.getOpens());
+        surfaceTypeIds.forEach(id -> pricingEngine.priceInCents(id, false, anyStart, anyStart.plusHours(1), MEMBER));
+
+        AtomicLong written = new AtomicLong();
+        AtomicInteger courtsDone = new AtomicInteger();
+        int logEvery = Math.max(1, courts.size() / 10);
+        ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+        try {
+            pool.submit(() -> IntStream.range(0, courts.size()).parallel().forEach(i -> {
+                long[] court = courts.get(i);
+                written.addAndGet(seedCourt(court[0], court[1], perCourt + (i < remainder ? 1 : 0), firstDay, days, userIds));
+                if (courtsDone.incrementAndGet() % logEvery == 0) {
+                    log.info("Seeded schedules of {}/{} courts, {} reservations", courtsDone.get(), courts.size(), written.get());
+                }
+            })).get();
+        } finally {
+            pool.shutdown();
+        }
+        seedDataRepo.completeRun(runId);
+        log.info("Seeded {} reservations from {} on {} courts in {} s", written.get(), firstDay, courts.size(),
+                Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private int seedCourt(long courtId, long surfaceTypeId, int count, LocalDate firstDay, int days, long[] userIds) {
+        //seeded per court, the schedule does not depend on the worker that generates it
+        SplittableRandom random = new SplittableRandom(properties.getRandomSeed() * 31 + courtId);
+        List<Booking> bookings = SeedScheduleGenerator.generate(count, firstDay, days, userIds, properties, random);
+
+        List<Object[]> reservations = new ArrayList<>(bookings.size());
+        //reservations, minutes and cents per day, what the writes would have added to court_usage_daily
+        Map<LocalDate, long[]> totals = new TreeMap<>();
+        for (Booking b : bookings) {
+            long cents = pricingEngine.priceInCents(surfaceTypeId, b.doubles(), b.start(), b.end(), MEMBER);
+            reservations.add(new Object[]{courtId, b.userId(), b.start(), b.end(), b.doubles(), BigDecimal.valueOf(cents, 2), false, 0L});
+            long[] day = totals.computeIfAbsent(b.start().toLocalDate(), d -> new long[3]);
+            day[0]++;
+            day[1] += Duration.between(b.start(), b.end()).toMinutes();
+            day[2] += cents;
+        }
+        List<Object[]> dailyTotals = totals.entrySet().stream()
+                .map(e -> new Object[]{courtId, e.getKey(), e.getValue()[0], e.getValue()[1], BigDecimal.valueOf(e.getValue()[2], 2)})
+                .toList();
+
+        seedDataRepo.insertCourtSchedule(courtId, reservations, dailyTotals);
+        return reservations.size();
+    }
+
+    private List<Long> surfaceTypes() {
+        List<Long> ids = seedDataRepo.findSurfaceTypeIds();
+        if (!ids.isEmpty()) {
+            return ids;
+        }
+        seedDataRepo.insertSurfaceTypes(List.of(
+                new Object[]{"clay", 0.5, false, 0L},
+                new Object[]{"grass", 0.7, false, 0L},
+                new Object[]{"hard", 0.6, false, 0L}));
+        return seedDataRepo.findSurfaceTypeIds();
+    }
+
+    private List<Object[]> courtRows(List<Long> surfaceTypeIds) {
+        return IntStream.range(0, properties.getCourts())
+                .mapToObj(i -> new Object[]{COURT_PREFIX + "%05d".formatted(i + 1), surfaceTypeIds.get(i % surfaceTypeIds.size()), false, 0L})
+                .toList();
+    }
+
+    private List<Object[]> userRows(String password) {
+        return IntStream.range(0, properties.getUsers())
+                .mapToObj(i -> new Object[]{"7%09d".formatted(i + 1), USER_PREFIX + "%06d".formatted(i + 1), password, false})
+                .toList();
+    }
+
+    //rows of a month without its partition would land in the default partition and block creating it later
+    private void createPartitions(LocalDate firstDay, LocalDate lastDay) {
+        for (YearMonth month = YearMonth.from(firstDay); !month.isAfter(YearMonth.from(lastDay)); month = month.plusMonths(1)) {
+            YearMonth m = month;
+            transactionTemplate.executeWithoutResult(status -> partitionRepository.createMonthlyPartition(m));
+        }
+    }
+}
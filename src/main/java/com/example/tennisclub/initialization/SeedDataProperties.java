@@ -0,0 +1,35 @@
+package com.example.tennisclub.initialization;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.time.Period;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "seed-data")
+public class SeedDataProperties {
+    private boolean enabled = false;
+    private int courts = 5_000;
+    private int users = 50_000;
+    //spread evenly over the courts
+    private long reservations = 10_000_000;
+    //bookings fill the days from today minus history up to today plus ahead
+    private Period history = Period.ofYears(1);
+    private Period ahead = Period.ofMonths(1);
+    private LocalTime opens = LocalTime.of(7, 0);
+    private LocalTime closes = LocalTime.of(21, 0);
+    private double doublesShare = 0.3;
+    //the same seed always produces the same schedules, whatever worker a court lands on
+    private long randomSeed = 42;
+    //courts generated and written at the same time, each worker holds one connection
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    //rows per JDBC batch where COPY is not available
+    private int batchSize = 1_000;
+    //hashed once and shared by every seeded user
+    private String password = "12345";
+}
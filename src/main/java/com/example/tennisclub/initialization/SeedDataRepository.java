@@ -0,0 +1,262 @@
+package com.example.tennisclub.initialization;
+
+import com.example.tennisclub.initialization.entity.SeedDataRun;
+import com.example.tennisclub.user.Role;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+//bulk writes of the seed data generator on plain JDBC connections, no persistence context and no per-row events
+//rows go in with COPY on PostgreSQL and in JDBC batches elsewhere
+@Repository
+@RequiredArgsConstructor
+public class SeedDataRepository {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String RESERVATION_COLUMNS = "court_id, user_id, start_time, end_time, is_doubles, total_price, deleted, version";
+    private static final String USAGE_COLUMNS = "court_id, usage_day, reservations, booked_minutes, revenue";
+
+    private final DataSource dataSource;
+    private final SeedDataProperties properties;
+
+    @FunctionalInterface
+    private interface Work<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    public Optional<SeedDataRun> findLastRun() {
+        return inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT id, started_at, completed_at, courts, users, reservations FROM seed_data_run ORDER BY id DESC")) {
+                ps.setMaxRows(1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        return Optional.empty();
+                    }
+                    Timestamp completedAt = rs.getTimestamp(3);
+                    return Optional.of(SeedDataRun.builder()
+                            .id(rs.getLong(1))
+                            .startedAt(rs.getTimestamp(2).toLocalDateTime())
+                            .completedAt(completedAt == null ? null : completedAt.toLocalDateTime())
+                            .courts(rs.getInt(4))
+                            .users(rs.getInt(5))
+                            .reservations(rs.getLong(6))
+                            .build());
+                }
+            }
+        });
+    }
+
+    //committed before any seed row is written, returns the id of the run
+    public long startRun(int courts, int users, long reservations) {
+        return inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO seed_data_run (started_at, courts, users, reservations) VALUES (?, ?, ?, ?)",
+                    new String[]{"id"})) {
+                ps.setObject(1, LocalDateTime.now());
+                ps.setInt(2, courts);
+                ps.setInt(3, users);
+                ps.setLong(4, reservations);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    return keys.getLong(1);
+                }
+            }
+        });
+    }
+
+    public void completeRun(long runId) {
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("UPDATE seed_data_run SET completed_at = ? WHERE id = ?")) {
+                ps.setObject(1, LocalDateTime.now());
+                ps.setLong(2, runId);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    public long countCourtsNamedLike(String prefix) {
+        return inTransaction(c -> queryLongs(c, "SELECT COUNT(*) FROM court WHERE name LIKE ?", prefix + "%").getFirst());
+    }
+
+    public List<Long> findSurfaceTypeIds() {
+        return inTransaction(c -> queryLongs(c, "SELECT id FROM surface_type WHERE deleted = false ORDER BY id"));
+    }
+
+    //rows of name, price_per_minute, deleted, version
+    public void insertSurfaceTypes(List<Object[]> rows) {
+        inTransaction(c -> insert(c, "surface_type", "name, price_per_minute, deleted, version", rows));
+    }
+
+    //rows of name, surface_type_id, deleted, version, returns the id and surface type id of every court named with the prefix
+    public List<long[]> insertCourts(List<Object[]> rows, String namePrefix) {
+        return inTransaction(c -> {
+            insert(c, "court", "name, surface_type_id, deleted, version", rows);
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT id, surface_type_id FROM court WHERE name LIKE ? ORDER BY id")) {
+                ps.setString(1, namePrefix + "%");
+                List<long[]> courts = new ArrayList<>(rows.size());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        courts.add(new long[]{rs.getLong(1), rs.getLong(2)});
+                    }
+                }
+                return courts;
+            }
+        });
+    }
+
+    //rows of phone_number, username, password, deleted, returns the ids of every user named with the prefix
+    public long[] insertUsers(List<Object[]> rows, String usernamePrefix, Role role) {
+        return inTransaction(c -> {
+            insert(c, "users", "phone_number, username, password, deleted", rows);
+            List<Long> ids = queryLongs(c, "SELECT id FROM users WHERE username LIKE ? ORDER BY id", usernamePrefix + "%");
+            insert(c, "user_roles", "user_id, roles", ids.stream()
+                    .map(id -> new Object[]{id, role.name()})
+                    .toList());
+            return ids.stream().mapToLong(Long::longValue).toArray();
+        });
+    }
+
+    //one transaction per court: its reservations, their court_usage_daily rollups and their reservation_view rows
+    public void insertCourtSchedule(long courtId, List<Object[]> reservations, List<Object[]> dailyTotals) {
+        inTransaction(c -> {
+            insert(c, "reservation", RESERVATION_COLUMNS, reservations);
+            insert(c, "court_usage_daily", USAGE_COLUMNS, dailyTotals);
+            //the ids only exist now, the court is new so every reservation of it is a seeded one
+            try (PreparedStatement ps = c.prepareStatement("""
+                    INSERT INTO reservation_view (reservation_id, court_id, court_name, court_version,
+                        surface_type_id, surface_type_name, price_per_minute, surface_type_version,
+                        user_id, username, phone_number, start_time, end_time, is_doubles, total_price, version)
+                    SELECT r.id, c.id, c.name, c.version, s.id, s.name, s.price_per_minute, s.version,
+                        u.id, u.username, u.phone_number, r.start_time, r.end_time, r.is_doubles, r.total_price, r.version
+                    FROM reservation r
+                    JOIN court c ON c.id = r.court_id
+                    JOIN surface_type s ON s.id = c.surface_type_id
+                    JOIN users u ON u.id = r.user_id
+                    WHERE r.court_id = ?
+                    """)) {
+                ps.setLong(1, courtId);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    private <T> T inTransaction(Work<T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Writing seed data failed", e);
+        }
+    }
+
+    private int insert(Connection connection, String table, String columns, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return copy(connection, table, columns, rows);
+        }
+        return batchInsert(connection, table, columns, rows);
+    }
+
+    //COPY skips statement parsing and per-row round trips, rows are streamed as CSV
+    private static int copy(Connection connection, String table, String columns, List<Object[]> rows) throws SQLException {
+        StringBuilder csv = new StringBuilder(rows.size() * 80);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                appendCsv(csv, row[i]);
+            }
+            csv.append('\n');
+        }
+        try {
+            return (int) connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + table + " failed", e);
+        }
+    }
+
+    private int batchInsert(Connection connection, String table, String columns, List<Object[]> rows) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(rows.getFirst().length, "?"));
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")")) {
+            int pending = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    ps.setObject(i + 1, row[i]);
+                }
+                ps.addBatch();
+                if (++pending == properties.getBatchSize()) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+        }
+        return rows.size();
+    }
+
+    //an unquoted empty field is NULL in COPY's CSV format
+    private static void appendCsv(StringBuilder csv, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String s) {
+            csv.append('"').append(s.replace("\"", "\"\"")).append('"');
+        } else if (value instanceof LocalDateTime t) {
+            TIMESTAMP.formatTo(t, csv);
+        } else if (value instanceof BigDecimal d) {
+            csv.append(d.toPlainString());
+        } else {
+            csv.append(value);
+        }
+    }
+
+    private static List<Long> queryLongs(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            List<Long> values = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    values.add(rs.getLong(1));
+                }
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.tennisclub.initialization;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+//lays out the bookings of one court over a window of days in 30 minute slots between opening and closing time
+//bookings of a day are placed one after another, so they never overlap
+public final class SeedScheduleGenerator {
+
+    public static final int SLOT_MINUTES = 30;
+    //60, 90 or 120 minutes
+    private static final int MIN_SLOTS = 2;
+    private static final int MAX_SLOTS = 4;
+
+    public record Booking(long userId, LocalDateTime start, LocalDateTime end, boolean doubles) {
+    }
+
+    private SeedScheduleGenerator() {
+    }
+
+    public static int maxPerDay(LocalTime opens, LocalTime closes) {
+        return slotsPerDay(opens, closes) / MIN_SLOTS;
+    }
+
+    public static List<Booking> generate(int count, LocalDate firstDay, int days, long[] userIds,
+                                         SeedDataProperties properties, SplittableRandom random) {
+        int slots = slotsPerDay(properties.getOpens(), properties.getCloses());
+        int maxPerDay = slots / MIN_SLOTS;
+        if ((long) days * maxPerDay < count) {
+            throw new IllegalArgumentException(count + " bookings do not fit into " + days + " days of "
+                    + maxPerDay + " bookings");
+        }
+
+        //every booking picks a random day, a full day passes it on to the next one
+        int[] perDay = new int[days];
+        for (int i = 0; i < count; i++) {
+            int day = random.nextInt(days);
+            while (perDay[day] == maxPerDay) {
+                day = (day + 1) % days;
+            }
+            perDay[day]++;
+        }
+
+        List<Booking> bookings = new ArrayList<>(count);
+        int[] lengths = new int[maxPerDay];
+        int[] gaps = new int[maxPerDay + 1];
+        for (int day = 0; day < days; day++) {
+            int k = perDay[day];
+            if (k == 0) {
+                continue;
+            }
+            int used = 0;
+            for (int i = 0; i < k; i++) {
+                lengths[i] = MIN_SLOTS + random.nextInt(MAX_SLOTS - MIN_SLOTS + 1);
+                used += lengths[i];
+            }
+            //a busy day gets shorter bookings until they fit
+            for (int i = 0; used > slots; i = (i + 1) % k) {
+                if (lengths[i] > MIN_SLOTS) {
+                    lengths[i]--;
+                    used--;
+                }
+            }
+            //the free slots go into random gaps before, between and after the bookings
+            Arrays.fill(gaps, 0, k + 1, 0);
+            for (int free = slots - used; free > 0; free--) {
+                gaps[random.nextInt(k + 1)]++;
+            }
+
+            LocalDateTime t = firstDay.plusDays(day).atTime(properties.getOpens());
+            for (int i = 0; i < k; i++) {
+                LocalDateTime start = t.plusMinutes((long) gaps[i] * SLOT_MINUTES);
+                LocalDateTime end = start.plusMinutes((long) lengths[i] * SLOT_MINUTES);
+                bookings.add(new Booking(userIds[random.nextInt(userIds.length)], start, end,
+                        random.nextDouble() < properties.getDoublesShare()));
+                t = end;
+            }
+        }
+        return bookings;
+    }
+
+    private static int slotsPerDay(LocalTime opens, LocalTime closes) {
+        return (int) (Duration.between(opens, closes).toMinutes() / SLOT_MINUTES);
+    }
+}
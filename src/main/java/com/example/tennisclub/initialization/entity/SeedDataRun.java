@@ -0,0 +1,36 @@
+package com.example.tennisclub.initialization.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+//one row per seed data run, written over JDBC by SeedDataRepository
+//a run without completed_at failed half way, its rows are still in the database
+@Entity
+@Table(name = "seed_data_run")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@ToString
+public class SeedDataRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private int courts;
+
+    @Column(nullable = false)
+    private int users;
+
+    @Column(nullable = false)
+    private long reservations;
+}
@@ -0,0 +1,52 @@
+package com.example.tennisclub.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//SQL statements executed by the current HTTP request, bound to the request thread
+public class RequestSqlStatistics {
+
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    //nanoseconds, most statements finish in well under a millisecond
+    private long dbTimeNanos;
+    private final Map<String, Integer> queryShapes = new LinkedHashMap<>();
+
+    public static RequestSqlStatistics begin() {
+        RequestSqlStatistics statistics = new RequestSqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static RequestSqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public void record(String sql, long elapsedNanos) {
+        statementCount++;
+        dbTimeNanos += elapsedNanos;
+        queryShapes.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    //statements are prepared with ? placeholders, collapsing whitespace is enough to group them
+    static String shapeOf(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getDbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    public Map<String, Integer> getQueryShapes() {
+        return queryShapes;
+    }
+}
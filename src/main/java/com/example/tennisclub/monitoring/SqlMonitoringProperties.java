@@ -0,0 +1,22 @@
+package com.example.tennisclub.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql-monitoring")
+public class SqlMonitoringProperties {
+    private boolean enabled = true;
+    //requests executing more statements than this are logged with their query shapes
+    private int statementBudget = 20;
+    //requests spending more time in the database than this are logged as well
+    private Duration slowRequestDbTime = Duration.ofMillis(500);
+    //single statements slower than this are logged on their own
+    private Duration slowQuery = Duration.ofMillis(200);
+}
@@ -0,0 +1,70 @@
+package com.example.tennisclub.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+//Counts SQL statements and database time per HTTP request and reports requests over budget
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlMonitoringProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestSqlStatistics statistics = RequestSqlStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStatistics.end();
+            report(request, statistics);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestSqlStatistics statistics) {
+        //the matched pattern keeps the tag cardinality bounded (/api/reservations/{id}, not every id)
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+
+        DistributionSummary.builder("tennisclub.http.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getStatementCount());
+
+        Timer.builder("tennisclub.http.sql.time")
+                .description("Database time spent per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getDbTimeNanos(), TimeUnit.NANOSECONDS);
+
+        boolean overBudget = statistics.getStatementCount() > properties.getStatementBudget();
+        boolean slow = statistics.getDbTimeNanos() > properties.getSlowRequestDbTime().toNanos();
+
+        if (overBudget || slow) {
+            log.warn("{} {} executed {} SQL statements in {} ms (budget {} statements, {} ms), query shapes: {}",
+                    request.getMethod(), uri,
+                    statistics.getStatementCount(), TimeUnit.NANOSECONDS.toMillis(statistics.getDbTimeNanos()),
+                    properties.getStatementBudget(), properties.getSlowRequestDbTime().toMillis(),
+                    statistics.getQueryShapes());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.tennisclub.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String STARTED_AT = "startedAtNanos";
+
+    private final SqlMonitoringProperties properties;
+
+    //the proxy's own elapsed time is whole milliseconds, which rounds fast statements down to zero
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        long elapsedNanos = startedAt != null
+                ? System.nanoTime() - startedAt
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+
+        if (elapsedNanos > properties.getSlowQuery().toNanos()) {
+            log.warn("Slow SQL statement took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    queryInfoList.stream().map(q -> RequestSqlStatistics.shapeOf(q.getQuery())).toList());
+        }
+
+        //statements outside an HTTP request (startup, scheduled jobs) are not attributed
+        RequestSqlStatistics statistics = RequestSqlStatistics.current();
+        if (statistics == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        //a batch is one round trip, attribute its time to the first statement
+        statistics.record(queryInfoList.getFirst().getQuery(), elapsedNanos);
+        for (int i = 1; i < queryInfoList.size(); i++) {
+            statistics.record(queryInfoList.get(i).getQuery(), 0);
+        }
+    }
+}
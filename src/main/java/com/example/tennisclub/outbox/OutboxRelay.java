@@ -0,0 +1,135 @@
+package com.example.tennisclub.outbox;
+
+import com.example.tennisclub.outbox.config.OutboxProperties;
+import com.example.tennisclub.outbox.entity.OutboxEvent;
+import com.example.tennisclub.outbox.event.OutboxMessage;
+import com.example.tennisclub.outbox.metrics.OutboxMetrics;
+import com.example.tennisclub.outbox.sink.OutboxSink;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+//polls the outbox and hands committed events to every sink, safe to run on several instances at once
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "relay-enabled", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties properties;
+    private final OutboxMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       List<OutboxSink> sinks,
+                       OutboxProperties properties,
+                       OutboxMetrics metrics,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    //keeps draining while batches come back full, then waits for the next poll
+    //every locked row is delivered or pushed back with a next_attempt_at, so each round reaches newer events
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT1S}")
+    public void poll() {
+        int locked;
+        do {
+            locked = relayBatch();
+        } while (locked == properties.getBatchSize());
+    }
+
+    //one transaction per batch, row locks are held until the delivered rows are marked
+    public int relayBatch() {
+        Integer locked = transactionTemplate.execute(status -> {
+            Timer.Sample sample = metrics.startBatch();
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> batch = outboxRepository.lockNextBatch(properties.getBatchSize(), now);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            //an undelivered earlier event holds back the rest of its court
+            //the batch comes in id order, which within one court is also sequence order
+            Map<Long, Long> earliestPending = outboxRepository.findEarliestPendingSequences(batch);
+            int deferred = 0;
+            for (OutboxEvent event : batch) {
+                Long blockedFrom = earliestPending.get(event.getPartitionKey());
+                if (blockedFrom != null && blockedFrom < event.getPartitionSequence()) {
+                    event.setNextAttemptAt(now.plus(properties.getRetryBackoff()));
+                    deferred++;
+                } else if (!deliver(event, now) && event.getFailedAt() == null) {
+                    //a dead-lettered event is parked, the rest of its court goes on without it
+                    earliestPending.merge(event.getPartitionKey(), event.getPartitionSequence(), Math::min);
+                }
+            }
+            if (deferred > 0) {
+                metrics.recordDeferred(deferred);
+            }
+            metrics.recordBatch(sample, batch.size());
+            return batch.size();
+        });
+        return locked == null ? 0 : locked;
+    }
+
+    private boolean deliver(OutboxEvent event, LocalDateTime now) {
+        OutboxMessage message = OutboxMessage.of(event);
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(message);
+            } catch (Exception e) {
+                //sinks that already accepted the event get it again on retry, delivery is at least once
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(sink.name() + ": " + e.getMessage()));
+                metrics.recordFailure(sink.name());
+                if (event.getAttempts() >= properties.getMaxAttempts()) {
+                    event.setFailedAt(now);
+                    metrics.recordDeadLettered();
+                    log.error("Outbox event {} dead-lettered after {} attempts, last rejected by sink {}",
+                            event.getId(), event.getAttempts(), sink.name(), e);
+                } else {
+                    event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                    log.warn("Outbox event {} rejected by sink {} (attempt {})", event.getId(), sink.name(), event.getAttempts(), e);
+                }
+                return false;
+            }
+        }
+        LocalDateTime delivered = LocalDateTime.now();
+        event.setPublishedAt(delivered);
+        event.setNextAttemptAt(null);
+        metrics.recordDelivered(event.getEventType(), Duration.between(event.getCreatedAt(), delivered));
+        return true;
+    }
+
+    //retryBackoff, doubled per failed attempt, capped at maxRetryBackoff
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.getMaxRetryBackoff()) > 0 ? properties.getMaxRetryBackoff() : backoff;
+    }
+
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void purgePublished() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(properties.getRetention())));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
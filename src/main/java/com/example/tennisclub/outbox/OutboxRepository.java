@@ -0,0 +1,81 @@
+package com.example.tennisclub.outbox;
+
+import com.example.tennisclub.outbox.entity.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+public class OutboxRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public OutboxEvent save(OutboxEvent event) {
+        em.persist(event);
+        return event;
+    }
+
+    //the UPDATE locks the court row until commit, so the next append on the same court waits for this
+    //transaction to commit or roll back: sequences are gapless and follow the commit order per court
+    //a bulk update leaves the court's @Version alone, court edits do not conflict with it
+    public long nextCourtSequence(Long courtId) {
+        em.createQuery("UPDATE Court c SET c.outboxSequence = c.outboxSequence + 1 WHERE c.id = :id")
+                .setParameter("id", courtId)
+                .executeUpdate();
+        return em.createQuery("SELECT c.outboxSequence FROM Court c WHERE c.id = :id", Long.class)
+                .setParameter("id", courtId)
+                .getSingleResult();
+    }
+
+    //due events only, backing-off and dead-lettered rows stay behind so a failing batch cannot starve newer events
+    //a lock timeout of -2 is FOR UPDATE SKIP LOCKED: concurrent relays take disjoint batches instead of waiting
+    public List<OutboxEvent> lockNextBatch(int batchSize, LocalDateTime now) {
+        return em.createQuery("""
+                SELECT o FROM OutboxEvent o
+                WHERE o.publishedAt IS NULL AND o.failedAt IS NULL
+                AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= :now)
+                ORDER BY o.id ASC
+                """, OutboxEvent.class)
+                .setParameter("now", now)
+                .setMaxResults(batchSize)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", -2)
+                .getResultList();
+    }
+
+    //per court of the batch, the lowest sequence still pending outside it: locked by another relay or backing off
+    //dead-lettered events are left out, once parked they no longer hold back the rest of their court
+    public Map<Long, Long> findEarliestPendingSequences(List<OutboxEvent> batch) {
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        Set<Long> partitionKeys = new HashSet<>();
+        batch.forEach(e -> partitionKeys.add(e.getPartitionKey()));
+
+        Map<Long, Long> earliest = new HashMap<>();
+        em.createQuery("""
+                SELECT o.partitionKey, MIN(o.partitionSequence) FROM OutboxEvent o
+                WHERE o.publishedAt IS NULL AND o.failedAt IS NULL
+                AND o.partitionKey IN :partitionKeys AND o.id NOT IN :ids
+                GROUP BY o.partitionKey
+                """, Object[].class)
+                .setParameter("partitionKeys", partitionKeys)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(row -> earliest.put((Long) row[0], (Long) row[1]));
+        return earliest;
+    }
+
+    public int deletePublishedBefore(LocalDateTime cutoff) {
+        return em.createQuery("DELETE FROM OutboxEvent o WHERE o.publishedAt < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+}
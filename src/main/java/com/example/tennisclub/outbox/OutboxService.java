@@ -0,0 +1,42 @@
+package com.example.tennisclub.outbox;
+
+import com.example.tennisclub.outbox.entity.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    //MANDATORY: the event must commit or roll back together with the change it describes
+    //the partition key is the court id, appending locks that court row until the transaction ends
+    @Transactional(Transactional.TxType.MANDATORY)
+    public OutboxEvent append(String aggregateType, Long aggregateId, Long partitionKey, String eventType, Object payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .partitionKey(partitionKey)
+                .partitionSequence(outboxRepository.nextCourtSequence(partitionKey))
+                .eventType(eventType)
+                .payload(toJson(payload))
+                .createdAt(LocalDateTime.now())
+                .build();
+        return outboxRepository.save(event);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload is not serializable: " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
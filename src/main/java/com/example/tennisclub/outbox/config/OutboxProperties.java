@@ -0,0 +1,31 @@
+package com.example.tennisclub.outbox.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+    //events are always written, only the background delivery can be switched off
+    private boolean relayEnabled = true;
+    //rows locked and delivered per relay transaction
+    private int batchSize = 100;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    //a failed delivery is retried after retryBackoff, doubled per attempt up to maxRetryBackoff
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    private Duration maxRetryBackoff = Duration.ofMinutes(5);
+    //after this many failed deliveries the event is dead-lettered and left for an operator
+    private int maxAttempts = 10;
+    //delivered rows older than this are purged
+    private Duration retention = Duration.ofDays(7);
+    private boolean inProcessSinkEnabled = true;
+    //appends one JSON line per event when set, meant for local testing
+    private Path fileSinkPath;
+}
@@ -0,0 +1,66 @@
+package com.example.tennisclub.outbox.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+//Postgres gets partial indexes over the pending rows instead, see the outbox changeset
+@Table(name = "outbox", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_partition_sequence", columnList = "partition_key, partition_sequence")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@ToString
+public class OutboxEvent {
+
+    //ids are taken at insert, not at commit, delivery order comes from partitionSequence
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    //the court the event belongs to, events are delivered in order per court
+    @Column(name = "partition_key", nullable = false)
+    private Long partitionKey;
+
+    //1, 2, 3... per court, taken under the court row lock so it follows the commit order
+    @Column(name = "partition_sequence", nullable = false)
+    private Long partitionSequence;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    //null until every sink accepted the event
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    //null when due, set after a failed delivery to back off the retries
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    //dead letter: set once max-attempts deliveries failed, the relay no longer picks the event up
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
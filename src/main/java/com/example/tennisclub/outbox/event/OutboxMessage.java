@@ -0,0 +1,30 @@
+package com.example.tennisclub.outbox.event;
+
+import com.example.tennisclub.outbox.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+//what sinks receive, detached from the persistence context
+public record OutboxMessage(
+        Long id,
+        String aggregateType,
+        Long aggregateId,
+        Long partitionKey,
+        Long partitionSequence,
+        String eventType,
+        String payload,
+        LocalDateTime createdAt
+) {
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(
+                event.getId(),
+                event.getAggregateType(),
+                event.getAggregateId(),
+                event.getPartitionKey(),
+                event.getPartitionSequence(),
+                event.getEventType(),
+                event.getPayload(),
+                event.getCreatedAt()
+        );
+    }
+}
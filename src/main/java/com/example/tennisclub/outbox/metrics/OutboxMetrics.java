@@ -0,0 +1,75 @@
+package com.example.tennisclub.outbox.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class OutboxMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Timer deliveryLag;
+
+    public OutboxMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.batchTimer = Timer.builder("tennisclub.outbox.relay.batch")
+                .description("Time spent locking, delivering and marking one outbox batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("tennisclub.outbox.relay.batch.size")
+                .description("Outbox rows locked per relay transaction")
+                .register(registry);
+        this.deliveryLag = Timer.builder("tennisclub.outbox.delivery.lag")
+                .description("Time from the booking commit to delivery to every sink")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public Timer.Sample startBatch() {
+        return Timer.start(registry);
+    }
+
+    public void recordBatch(Timer.Sample sample, int lockedRows) {
+        sample.stop(batchTimer);
+        batchSize.record(lockedRows);
+    }
+
+    //rate() of this counter is the relay throughput
+    public void recordDelivered(String eventType, Duration lag) {
+        Counter.builder("tennisclub.outbox.delivered")
+                .description("Outbox events delivered to every sink")
+                .tag("type", eventType)
+                .register(registry)
+                .increment();
+        deliveryLag.record(lag);
+    }
+
+    //tagged by sink, cardinality is bounded by the number of sinks
+    public void recordFailure(String sink) {
+        Counter.builder("tennisclub.outbox.failures")
+                .description("Outbox deliveries rejected by a sink, retried with backoff")
+                .tag("sink", sink)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordDeferred(int events) {
+        Counter.builder("tennisclub.outbox.deferred")
+                .description("Outbox events held back because an earlier event of their court was not delivered yet")
+                .register(registry)
+                .increment(events);
+    }
+
+    public void recordDeadLettered() {
+        Counter.builder("tennisclub.outbox.dead-lettered")
+                .description("Outbox events given up on after max-attempts failed deliveries")
+                .register(registry)
+                .increment();
+    }
+}
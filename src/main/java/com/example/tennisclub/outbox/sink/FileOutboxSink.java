@@ -0,0 +1,39 @@
+package com.example.tennisclub.outbox.sink;
+
+import com.example.tennisclub.outbox.config.OutboxProperties;
+import com.example.tennisclub.outbox.event.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+//JSON lines file for local testing, tail it to watch events arrive
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "outbox", name = "file-sink-path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void deliver(OutboxMessage message) throws IOException {
+        Path path = properties.getFileSinkPath();
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, objectMapper.writeValueAsString(message) + System.lineSeparator(), CREATE, APPEND);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.tennisclub.outbox.sink;
+
+import com.example.tennisclub.outbox.event.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+//republishes committed events as OutboxMessage application events for listeners in this process
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "outbox", name = "in-process-sink-enabled", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) {
+        eventPublisher.publishEvent(message);
+    }
+}
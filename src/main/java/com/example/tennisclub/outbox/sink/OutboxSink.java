@@ -0,0 +1,11 @@
+package com.example.tennisclub.outbox.sink;
+
+import com.example.tennisclub.outbox.event.OutboxMessage;
+
+//every OutboxSink bean receives every event, at least once and in order per court
+public interface OutboxSink {
+
+    String name();
+
+    void deliver(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,39 @@
+package com.example.tennisclub.persistence;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "connection-pool", name = "size-from-cores")
+public class ConnectionPoolConfig {
+
+    //before initialization, spring.datasource.hikari is already bound and the pool is not started yet
+    @Bean
+    public static BeanPostProcessor connectionPoolSizingPostProcessor(ObjectProvider<ConnectionPoolProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    applyPoolSize(dataSource, properties.getObject(), Runtime.getRuntime().availableProcessors());
+                    log.info("Sized connection pool of bean {} to {} connections", beanName, dataSource.getMaximumPoolSize());
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static void applyPoolSize(HikariConfig config, ConnectionPoolProperties properties, int cores) {
+        int size = cores * properties.getConnectionsPerCore() + properties.getEffectiveSpindleCount();
+        config.setMaximumPoolSize(size);
+        if (properties.isFixedSize()) {
+            config.setMinimumIdle(size);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.tennisclub.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "connection-pool")
+public class ConnectionPoolProperties {
+    //sizes every Hikari pool from the cores of this machine instead of spring.datasource.hikari.maximum-pool-size
+    private boolean sizeFromCores = false;
+    //connections = cores * connectionsPerCore + effectiveSpindleCount, the formula of the HikariCP pool sizing guide
+    private int connectionsPerCore = 2;
+    private int effectiveSpindleCount = 1;
+    //keeps minimum-idle equal to the maximum, a fixed size pool never opens connections under load
+    private boolean fixedSize = true;
+}
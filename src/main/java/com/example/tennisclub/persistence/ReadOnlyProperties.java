@@ -0,0 +1,16 @@
+package com.example.tennisclub.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "read-only")
+public class ReadOnlyProperties {
+    //rows per round trip of streamed reads, the PostgreSQL driver only reads through a cursor with a fetch size,
+    //larger trades memory per open stream for fewer round trips
+    private int streamFetchSize = 500;
+}
@@ -0,0 +1,82 @@
+package com.example.tennisclub.pricing;
+
+import com.example.tennisclub.court.CourtRepository;
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.court.event.CourtChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+//In-memory court id -> surface type id lookup, so quoting never touches the database
+@Component
+@RequiredArgsConstructor
+public class CourtCatalog {
+
+    //how long an unknown court id is answered from the loaded catalog before it is looked up again
+    private static final long MISS_RELOAD_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final CourtRepository courtRepository;
+
+    //rebuilt lazily, null means the catalog has to be loaded again
+    private volatile Snapshot snapshot;
+
+    public long surfaceTypeIdOf(Long courtId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = reload(null);
+        } else if (current.indexOf(courtId) < 0 && System.nanoTime() - current.loadedAt() > MISS_RELOAD_NANOS) {
+            //courts created here drop the catalog through onCourtChanged, this only catches rows written around it,
+            //and at most once per interval so unknown ids cannot make every request reload under the lock
+            current = reload(current);
+        }
+        int index = current.indexOf(courtId);
+        if (index < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Court with ID " + courtId + " not found");
+        }
+        return current.surfaceTypeIds()[index];
+    }
+
+    private synchronized Snapshot reload(Snapshot stale) {
+        //another request reloaded while this one waited for the lock
+        if (snapshot != null && snapshot != stale) {
+            return snapshot;
+        }
+        Snapshot loaded = Snapshot.of(courtRepository.findAll(), System.nanoTime());
+        snapshot = loaded;
+        return loaded;
+    }
+
+    //after commit and under the reload lock, so a concurrent reload can never cache the old surface
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCourtChanged(CourtChangedEvent event) {
+        snapshot = null;
+    }
+
+    private record Snapshot(long[] courtIds, long[] surfaceTypeIds, long loadedAt) {
+
+        static Snapshot of(List<Court> courts, long loadedAt) {
+            List<Court> sorted = courts.stream()
+                    .sorted(Comparator.comparing(Court::getId))
+                    .toList();
+
+            long[] courtIds = new long[sorted.size()];
+            long[] surfaceTypeIds = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                courtIds[i] = sorted.get(i).getId();
+                surfaceTypeIds[i] = sorted.get(i).getSurfaceType().getId();
+            }
+            return new Snapshot(courtIds, surfaceTypeIds, loadedAt);
+        }
+
+        int indexOf(long courtId) {
+            return Arrays.binarySearch(courtIds, courtId);
+        }
+    }
+}
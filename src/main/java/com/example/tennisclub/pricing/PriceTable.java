@@ -0,0 +1,186 @@
+package com.example.tennisclub.pricing;
+
+import com.example.tennisclub.reservation.config.PricingProperties;
+import com.example.tennisclub.user.Role;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+//Immutable snapshot of every surface type's prices in micro-units (1/1 000 000 of the currency).
+//The pricing rules are compiled into a weekly piecewise-constant timeline per surface, so pricing a range is
+//two binary searches over prefix sums regardless of its length, and quoting does not allocate.
+public final class PriceTable {
+
+    static final long MICROS = 1_000_000L;
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    //micros of price times micros of multiplier per cent
+    private static final long MICRO_MICROS_PER_CENT = MICROS * MICROS / 100;
+
+    private final long[] surfaceTypeIds;
+    private final Timeline[] timelines;
+    private final long doublesMultiplierMicros;
+    //indexed by Role ordinal
+    private final long[] tierMultiplierMicros;
+
+    private PriceTable(long[] surfaceTypeIds, Timeline[] timelines, long doublesMultiplierMicros, long[] tierMultiplierMicros) {
+        this.surfaceTypeIds = surfaceTypeIds;
+        this.timelines = timelines;
+        this.doublesMultiplierMicros = doublesMultiplierMicros;
+        this.tierMultiplierMicros = tierMultiplierMicros;
+    }
+
+    public static PriceTable compile(List<SurfaceType> surfaceTypes, PricingProperties pricing) {
+        List<SurfaceType> sorted = surfaceTypes.stream()
+                .sorted(Comparator.comparing(SurfaceType::getId))
+                .toList();
+        List<CompiledRule> rules = pricing.getRules().stream()
+                .map(CompiledRule::of)
+                .toList();
+
+        long[] ids = new long[sorted.size()];
+        Timeline[] timelines = new Timeline[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            ids[i] = sorted.get(i).getId();
+            timelines[i] = Timeline.compile(ids[i], toMicros(sorted.get(i).getPricePerMinute()), rules);
+        }
+
+        long[] tiers = new long[Role.values().length];
+        for (Role role : Role.values()) {
+            tiers[role.ordinal()] = toMicros(pricing.getTiers().getOrDefault(role, 1.0));
+        }
+        return new PriceTable(ids, timelines, toMicros(pricing.getDoubles()), tiers);
+    }
+
+    //decimal conversion happens once per table build, never per quote
+    static long toMicros(double value) {
+        return BigDecimal.valueOf(value)
+                .movePointRight(6)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private static long multiplyMicros(long a, long bMicros) {
+        return (Math.multiplyExact(a, bMicros) + MICROS / 2) / MICROS;
+    }
+
+    public boolean contains(long surfaceTypeId) {
+        return Arrays.binarySearch(surfaceTypeIds, surfaceTypeId) >= 0;
+    }
+
+    //the best tier among the roles, users without a configured tier pay the full price
+    public long tierMultiplierMicros(Set<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return MICROS;
+        }
+        long best = Long.MAX_VALUE;
+        for (Role role : roles) {
+            best = Math.min(best, tierMultiplierMicros[role.ordinal()]);
+        }
+        return best;
+    }
+
+    //price in cents rounded half-up once, after all multiplications
+    public long priceInCents(long surfaceTypeId, boolean isDoubles, long tierMultiplierMicros, LocalDateTime start, long minutes) {
+        int index = Arrays.binarySearch(surfaceTypeIds, surfaceTypeId);
+        if (index < 0) {
+            throw new IllegalArgumentException("No price for surface type " + surfaceTypeId);
+        }
+
+        long micros = timelines[index].priceMicros(minuteOfWeek(start), minutes);
+        long multiplier = multiplyMicros(isDoubles ? doublesMultiplierMicros : MICROS, tierMultiplierMicros);
+        long microMicros = Math.multiplyExact(micros, multiplier);
+        return (microMicros + MICRO_MICROS_PER_CENT / 2) / MICRO_MICROS_PER_CENT;
+    }
+
+    static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    //piecewise-constant price per minute over a week starting Monday 00:00
+    private record Timeline(int[] segmentStarts, long[] microsPerMinute, long[] prefixMicros, long weekMicros) {
+
+        static Timeline compile(long surfaceTypeId, long baseMicrosPerMinute, List<CompiledRule> rules) {
+            int[] starts = new int[MINUTES_PER_WEEK];
+            long[] rates = new long[MINUTES_PER_WEEK];
+            int segments = 0;
+
+            for (int minute = 0; minute < MINUTES_PER_WEEK; minute++) {
+                long rate = multiplyMicros(baseMicrosPerMinute, multiplierAt(surfaceTypeId, minute, rules));
+                if (segments == 0 || rates[segments - 1] != rate) {
+                    starts[segments] = minute;
+                    rates[segments] = rate;
+                    segments++;
+                }
+            }
+
+            long[] prefix = new long[segments];
+            for (int i = 1; i < segments; i++) {
+                prefix[i] = prefix[i - 1] + rates[i - 1] * (starts[i] - starts[i - 1]);
+            }
+            long week = prefix[segments - 1] + rates[segments - 1] * (MINUTES_PER_WEEK - starts[segments - 1]);
+
+            return new Timeline(Arrays.copyOf(starts, segments), Arrays.copyOf(rates, segments), prefix, week);
+        }
+
+        private static long multiplierAt(long surfaceTypeId, int minuteOfWeek, List<CompiledRule> rules) {
+            for (CompiledRule rule : rules) {
+                if (rule.matches(surfaceTypeId, minuteOfWeek)) {
+                    return rule.multiplierMicros();
+                }
+            }
+            return MICROS;
+        }
+
+        //price of the first minutes of the week up to minuteOfWeek (exclusive)
+        private long cumulative(int minuteOfWeek) {
+            int i = Arrays.binarySearch(segmentStarts, minuteOfWeek);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return prefixMicros[i] + microsPerMinute[i] * (minuteOfWeek - segmentStarts[i]);
+        }
+
+        long priceMicros(int startMinuteOfWeek, long minutes) {
+            long end = startMinuteOfWeek + minutes;
+            long fullWeeks = end / MINUTES_PER_WEEK;
+            return Math.multiplyExact(fullWeeks, weekMicros)
+                    + cumulative((int) (end % MINUTES_PER_WEEK))
+                    - cumulative(startMinuteOfWeek);
+        }
+    }
+
+    private record CompiledRule(Set<DayOfWeek> days, int from, int to, long multiplierMicros, Set<Long> surfaceTypeIds) {
+
+        static CompiledRule of(PricingProperties.Rule rule) {
+            return new CompiledRule(
+                    Set.copyOf(rule.getDays()),
+                    rule.getFrom().toSecondOfDay() / 60,
+                    rule.getTo().toSecondOfDay() / 60,
+                    toMicros(rule.getMultiplier()),
+                    Set.copyOf(rule.getSurfaceTypeIds()));
+        }
+
+        boolean matches(long surfaceTypeId, int minuteOfWeek) {
+            if (!surfaceTypeIds.isEmpty() && !surfaceTypeIds.contains(surfaceTypeId)) {
+                return false;
+            }
+            DayOfWeek day = DayOfWeek.of(minuteOfWeek / MINUTES_PER_DAY + 1);
+            int minuteOfDay = minuteOfWeek % MINUTES_PER_DAY;
+
+            if (to > from) {
+                return days.contains(day) && minuteOfDay >= from && minuteOfDay < to;
+            }
+            //window continues past midnight into the next day
+            return (days.contains(day) && minuteOfDay >= from)
+                    || (days.contains(day.minus(1)) && minuteOfDay < to);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.tennisclub.pricing;
+
+import com.example.tennisclub.pricing.dto.PriceQuoteBatchRequestDto;
+import com.example.tennisclub.pricing.dto.PriceQuoteResponseDto;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pricing")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'MEMBER')")
+public class PricingController {
+
+    private final PricingService pricingService;
+
+    @PostMapping("/quotes")
+    public ResponseEntity<List<PriceQuoteResponseDto>> quote(@RequestBody @Valid PriceQuoteBatchRequestDto req) {
+        return ResponseEntity.ok(pricingService.quote(req));
+    }
+}
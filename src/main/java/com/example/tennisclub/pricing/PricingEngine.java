@@ -0,0 +1,82 @@
+package com.example.tennisclub.pricing;
+
+import com.example.tennisclub.reservation.config.PricingProperties;
+import com.example.tennisclub.surfaceType.SurfaceTypeRepository;
+import com.example.tennisclub.surfaceType.event.SurfaceTypeChangedEvent;
+import com.example.tennisclub.user.Role;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class PricingEngine {
+
+    //an unknown surface id is looked up again after this long at the earliest
+    private static final long MISS_RELOAD_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final SurfaceTypeRepository surfaceTypeRepository;
+    private final PricingProperties pricing;
+
+    //compiled on first use and dropped by every surface type change
+    private volatile Compiled compiled;
+
+    private record Compiled(PriceTable table, long compiledAt) {
+    }
+
+    public BigDecimal price(Long surfaceTypeId, boolean isDoubles, LocalDateTime start, LocalDateTime end, Set<Role> roles) {
+        return BigDecimal.valueOf(priceInCents(surfaceTypeId, isDoubles, start, end, roles), 2);
+    }
+
+    public long priceInCents(Long surfaceTypeId, boolean isDoubles, LocalDateTime start, LocalDateTime end, Set<Role> roles) {
+        PriceTable table = tableContaining(surfaceTypeId);
+        long minutes = Duration.between(start, end).toMinutes();
+        return table.priceInCents(surfaceTypeId, isDoubles, table.tierMultiplierMicros(roles), start, minutes);
+    }
+
+    //compile the rule timelines before the first request instead of during it
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        compile(null);
+    }
+
+    private PriceTable tableContaining(Long surfaceTypeId) {
+        Compiled current = compiled;
+        if (current == null) {
+            current = compile(null);
+        } else if (!current.table().contains(surfaceTypeId) && System.nanoTime() - current.compiledAt() > MISS_RELOAD_NANOS) {
+            //new surfaces arrive through onSurfaceTypeChanged, a miss on a fresh table is a 404 without a query
+            current = compile(current);
+        }
+        if (!current.table().contains(surfaceTypeId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "SurfaceType with ID " + surfaceTypeId + " not found");
+        }
+        return current.table();
+    }
+
+    private synchronized Compiled compile(Compiled stale) {
+        //compiled by another thread while this one waited
+        if (compiled != null && compiled != stale) {
+            return compiled;
+        }
+        Compiled fresh = new Compiled(PriceTable.compile(surfaceTypeRepository.findAllIncludingDeleted(), pricing), System.nanoTime());
+        compiled = fresh;
+        return fresh;
+    }
+
+    //synchronized with compile, a table built from the old rates is dropped rather than published after this
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSurfaceTypeChanged(SurfaceTypeChangedEvent event) {
+        compiled = null;
+    }
+}
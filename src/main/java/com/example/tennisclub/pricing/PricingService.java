@@ -0,0 +1,63 @@
+package com.example.tennisclub.pricing;
+
+import com.example.tennisclub.pricing.dto.PriceQuoteBatchRequestDto;
+import com.example.tennisclub.pricing.dto.PriceQuoteRequestDto;
+import com.example.tennisclub.pricing.dto.PriceQuoteResponseDto;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.validator.ReservationValidator;
+import com.example.tennisclub.user.Role;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PricingService {
+
+    private final PricingEngine pricingEngine;
+    private final CourtCatalog courtCatalog;
+    private final PartitioningProperties partitioningProperties;
+
+    //same engine and tiers as ReservationService.create, but courts come from the catalog instead of the database
+    public List<PriceQuoteResponseDto> quote(PriceQuoteBatchRequestDto dto) {
+        Set<Role> roles = currentUserRoles();
+
+        return dto.quotes().stream()
+                .map(q -> quote(q, roles))
+                .toList();
+    }
+
+    private PriceQuoteResponseDto quote(PriceQuoteRequestDto q, Set<Role> roles) {
+        ReservationValidator.validateStartBeforeEnd(q.start(), q.end());
+        //a range create would reject gets no price either
+        ReservationValidator.validateMaxLength(q.start(), q.end(), partitioningProperties.getMaxReservationLength());
+
+        long surfaceTypeId = courtCatalog.surfaceTypeIdOf(q.courtId());
+
+        return new PriceQuoteResponseDto(
+                q.courtId(),
+                q.isDoubles(),
+                q.start(),
+                q.end(),
+                pricingEngine.price(surfaceTypeId, q.isDoubles(), q.start(), q.end(), roles)
+        );
+    }
+
+    //roles are taken from the authorities loaded at authentication, no user lookup needed
+    private Set<Role> currentUserRoles() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .flatMap(authority -> Arrays.stream(Role.values())
+                        .filter(role -> authority.equals("ROLE_" + role.name())))
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(Role.class)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.tennisclub.pricing.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PriceQuoteBatchRequestDto(
+
+        @NotEmpty(message = "At least one quote must be requested")
+        @Size(max = 1000, message = "At most 1000 quotes can be requested at once")
+        List<@Valid PriceQuoteRequestDto> quotes) {
+}
@@ -0,0 +1,20 @@
+package com.example.tennisclub.pricing.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public record PriceQuoteRequestDto(
+
+        @NotNull(message = "Court ID must not be null")
+        @Min(value = 1, message = "Court must not be null and greater than 0") Long courtId,
+        @NotNull(message = "isDoubles must be provided")
+        Boolean isDoubles,
+
+        @NotNull(message = "Start time is required")
+        LocalDateTime start,
+
+        @NotNull(message = "End time is required")
+        LocalDateTime end) {
+}
@@ -0,0 +1,12 @@
+package com.example.tennisclub.pricing.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PriceQuoteResponseDto(
+        Long courtId,
+        boolean isDoubles,
+        LocalDateTime start,
+        LocalDateTime end,
+        BigDecimal totalPrice
+) {}
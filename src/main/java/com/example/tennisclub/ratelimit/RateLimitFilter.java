@@ -0,0 +1,100 @@
+package com.example.tennisclub.ratelimit;
+
+import com.example.tennisclub.auth.security.JwtUtil;
+import com.example.tennisclub.ratelimit.config.RateLimitProperties;
+import com.example.tennisclub.ratelimit.config.RateLimitProperties.KeyType;
+import com.example.tennisclub.ratelimit.config.RateLimitProperties.Rule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+//Token bucket per rule and client, runs ahead of the JWT filter so rejected requests never reach BCrypt or the database
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Optional<Rule> rule = matchingRule(request);
+        if (rule.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryConsume(rule.get(), clientKey(rule.get(), request));
+        if (waitNanos == 0) {
+            count(rule.get(), "allowed");
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        count(rule.get(), "rejected");
+        reject(response, waitNanos);
+    }
+
+    private Optional<Rule> matchingRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return properties.getRules().stream()
+                .filter(rule -> rule.getMethods().isEmpty() || rule.getMethods().contains(request.getMethod()))
+                .filter(rule -> rule.getPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path)))
+                .findFirst();
+    }
+
+    //remote address honours server.forward-headers-strategy when running behind a proxy
+    private String clientKey(Rule rule, HttpServletRequest request) {
+        if (rule.getKey() == KeyType.USER) {
+            String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                try {
+                    return "user:" + jwtUtil.extractUsername(authHeader.substring(7));
+                } catch (JwtException e) {
+                    //invalid tokens are rejected by the JWT filter, they are limited by IP until then
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1), 1);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", ZonedDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too many requests, retry in " + retryAfterSeconds + " s");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private void count(Rule rule, String outcome) {
+        meterRegistry.counter("tennisclub.ratelimit.requests", "rule", rule.getName(), "outcome", outcome).increment();
+    }
+}
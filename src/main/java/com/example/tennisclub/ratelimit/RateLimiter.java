@@ -0,0 +1,46 @@
+package com.example.tennisclub.ratelimit;
+
+import com.example.tennisclub.ratelimit.config.RateLimitProperties;
+import com.example.tennisclub.ratelimit.config.RateLimitProperties.Rule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.function.LongSupplier;
+
+//One token bucket per rule and client, at most maxBuckets of them
+//a bucket unused for idleEviction is dropped, it has refilled by then and behaves exactly like a new one
+//when the map is full the least recently used bucket goes instead, a flood of new clients costs O(1) per request
+public class RateLimiter {
+
+    private final LongSupplier nanoClock;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleEviction())
+                .ticker(nanoClock::getAsLong)
+                //evictions run on the calling thread, they are amortized and keep the map size predictable
+                .executor(Runnable::run)
+                .build();
+    }
+
+    //0 when the request may pass, otherwise the nanos until the client has a token again
+    public long tryConsume(Rule rule, String clientKey) {
+        long now = nanoClock.getAsLong();
+        //rule name in the key keeps the login and the booking budget of one client apart
+        TokenBucket bucket = buckets.get(rule.getName() + ":" + clientKey, k -> newBucket(rule, now));
+        return bucket.tryConsume(now);
+    }
+
+    public long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private static TokenBucket newBucket(Rule rule, long now) {
+        long nanosPerToken = Math.max(rule.getRefillPeriod().toNanos() / rule.getRefillTokens(), 1);
+        return new TokenBucket(rule.getCapacity(), nanosPerToken, now);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.tennisclub.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//Lock-free token bucket. Instead of a token count it keeps the instant at which the bucket is full again
+//(the generic cell rate algorithm), so consuming a token is a single compare-and-set on one long.
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, long nanosPerToken, long now) {
+        this.nanosPerToken = nanosPerToken;
+        this.burstNanos = capacity * nanosPerToken;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    //0 when a token was taken, otherwise the nanos until the next token is available
+    public long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long availableTokens(long now) {
+        return (burstNanos - Math.max(fullAt.get() - now, 0)) / nanosPerToken;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.tennisclub.ratelimit.config;
+
+import com.example.tennisclub.auth.security.JwtUtil;
+import com.example.tennisclub.ratelimit.RateLimitFilter;
+import com.example.tennisclub.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties, System::nanoTime);
+    }
+
+    //added to the security filter chain by SecurityConfig
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties,
+                                           RateLimiter rateLimiter,
+                                           JwtUtil jwtUtil,
+                                           ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) {
+        return new RateLimitFilter(properties, rateLimiter, jwtUtil, objectMapper, meterRegistry);
+    }
+
+    //keeps Spring Boot from registering it a second time as a servlet filter
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
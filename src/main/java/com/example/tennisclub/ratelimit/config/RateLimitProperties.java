@@ -0,0 +1,45 @@
+package com.example.tennisclub.ratelimit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    //first matching rule wins, requests matching no rule are not limited
+    private List<Rule> rules = new ArrayList<>();
+    //a bucket that saw no request for this long is dropped, keep it above the longest refill of a full burst
+    private Duration idleEviction = Duration.ofMinutes(10);
+    //beyond this the least recently used bucket is dropped
+    private long maxBuckets = 100_000;
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String name;
+        //empty matches every method
+        private List<String> methods = new ArrayList<>();
+        //ant patterns, e.g. /api/auth/**
+        private List<String> paths = new ArrayList<>();
+        private KeyType key = KeyType.IP;
+        //burst size
+        private int capacity = 10;
+        //tokens added per refill period, spread evenly over it
+        private int refillTokens = 10;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+
+    public enum KeyType {
+        IP,
+        //username of a valid bearer token, anonymous callers fall back to their IP
+        USER
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.tennisclub.reservation;
 
+import com.example.tennisclub.reservation.dto.ColumnarReservationsDto;
 import com.example.tennisclub.reservation.dto.ReservationRequestDto;
 import com.example.tennisclub.reservation.dto.ReservationResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationView;
+import com.example.tennisclub.versioning.IfMatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -19,10 +29,12 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}")
     public ResponseEntity<ReservationView> getReservation(@PathVariable Long id) {
-        return  ResponseEntity.ok(reservationService.getReservation(id));
+        ReservationView reservation = reservationService.getReservation(id);
+        return IfMatch.okWithETag(reservation, reservation.version());
 
     }
 
@@ -31,11 +43,46 @@ public class ReservationController {
         return  ResponseEntity.ok(reservationService.getReservationsByCourt(courtId));
     }
 
+    //JSON is written row by row from a cursor, memory stays flat however many reservations there are
     @GetMapping
+    public void streamAllReservations(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        //no flush per row, the servlet buffer decides when a chunk goes out
+        SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValuesAsArray(response.getOutputStream());
+        try {
+            reservationService.forEachReservation(view -> {
+                try {
+                    writer.write(view);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        //only closed on success, a failure before the first buffer flush still gets a regular error response
+        writer.close();
+    }
+
+    //CBOR and Smile are still serialized from the list
+    @GetMapping(produces = {MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile"})
     public ResponseEntity<List<ReservationView>> getAllReservations() {
         return ResponseEntity.ok(reservationService.getAllReservations());
     }
 
+    //the large lists can be requested with Accept: application/vnd.tennisclub.columnar+json
+    @GetMapping(produces = ColumnarReservationsDto.MEDIA_TYPE)
+    public ResponseEntity<ColumnarReservationsDto> getAllReservationsColumnar() {
+        return ResponseEntity.ok(reservationService.getAllReservationsColumnar());
+    }
+
+    @GetMapping(value = "/by-court/{courtId}", produces = ColumnarReservationsDto.MEDIA_TYPE)
+    public ResponseEntity<ColumnarReservationsDto> getReservationsByCourtColumnar(@PathVariable Long courtId) {
+        return ResponseEntity.ok(reservationService.getReservationsByCourtColumnar(courtId));
+    }
+
     @GetMapping("/my")
     public ResponseEntity<List<ReservationView>> getMyReservations(
             @RequestParam(defaultValue = "false") boolean futureOnly) {
@@ -59,8 +106,10 @@ public class ReservationController {
     }
 
     @PutMapping("/{id}")
-    public ReservationView update(@PathVariable @Valid Long id, @RequestBody ReservationRequestDto req) {
-        return reservationService.update(id, req);
+    public ResponseEntity<ReservationView> update(@PathVariable @Valid Long id, @RequestBody ReservationRequestDto req,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ReservationView updated = reservationService.update(id, req, IfMatch.expectedVersion(ifMatch));
+        return IfMatch.okWithETag(updated, updated.version());
     }
 
     @DeleteMapping("/{id}")
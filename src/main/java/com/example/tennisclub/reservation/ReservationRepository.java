@@ -1,66 +1,92 @@
 package com.example.tennisclub.reservation;
 
 
+import com.example.tennisclub.reservation.config.HistoryProperties;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
 import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.history.ReservationHistoryRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
+//one timer per query method, tagged with the method name
+//on PostgreSQL the table is range partitioned by start_time, bind times as parameters so the planner can prune
+//with reservation-history enabled ended rows live in reservation_history, reads covering the past union both tables
 @Repository
+@RequiredArgsConstructor
+@Timed(value = "tennisclub.repository.reservation", histogram = true)
 public class ReservationRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final PartitioningProperties partitioningProperties;
+    private final HistoryProperties historyProperties;
+    private final ReservationHistoryRepository historyRepository;
+
     public Optional<Reservation> findById(Long id) {
         Reservation r = em.find(Reservation.class, id);
-        return (r != null && !r.getDeleted()) ? Optional.of(r) : Optional.empty();
+        if (r != null) {
+            return r.getDeleted() ? Optional.empty() : Optional.of(r);
+        }
+        return historyProperties.isEnabled() ? historyRepository.findById(id) : Optional.empty();
     }
 
     public List<Reservation> findAllByCourtId(Long courtId) {
-        return em.createQuery("""
+        return withHistory(em.createQuery("""
                 SELECT r FROM Reservation r
                 WHERE r.deleted = false AND r.court.id = :courtId
                 ORDER BY r.startTime ASC
                 """, Reservation.class)
                 .setParameter("courtId", courtId)
-                .getResultList();
+                .getResultList(), () -> historyRepository.findAllByCourtId(courtId));
     }
 
     public List<Reservation> findByPhoneNumber(String phoneNumber, boolean futureOnly) {
         String jpql = """
                 SELECT r FROM Reservation r
                 WHERE r.deleted = false AND r.user.phoneNumber = :phone
-                """ + (futureOnly ? " AND r.startTime > CURRENT_TIMESTAMP" : "") + " ORDER BY r.startTime ASC";
+                """ + (futureOnly ? " AND r.startTime > :now" : "") + " ORDER BY r.startTime ASC";
 
-        return em.createQuery(jpql, Reservation.class)
-                .setParameter("phone", phoneNumber)
-                .getResultList();
+        TypedQuery<Reservation> query = em.createQuery(jpql, Reservation.class)
+                .setParameter("phone", phoneNumber);
+        bindNowIfFutureOnly(query, futureOnly);
+        //upcoming reservations are always hot
+        return futureOnly ? query.getResultList() : withHistory(query.getResultList(), () -> historyRepository.findByPhoneNumber(phoneNumber));
     }
 
+    //no reservation is longer than maxReservationLength, so anything overlapping starts after from minus that
     public List<Reservation> findOverlappingReservations(Long courtId, LocalDateTime from, LocalDateTime to) {
         return em.createQuery("""
                 SELECT r FROM Reservation r
                 WHERE r.deleted = false AND r.court.id = :courtId
                 AND r.startTime < :to AND r.endTime > :from
+                AND r.startTime > :earliestStart
                 """, Reservation.class)
                 .setParameter("courtId", courtId)
                 .setParameter("from", from)
                 .setParameter("to", to)
+                .setParameter("earliestStart", from.minus(partitioningProperties.getMaxReservationLength()))
                 .getResultList();
     }
 
     public List<Reservation> findAll() {
-        return em.createQuery("""
+        return withHistory(em.createQuery("""
                 SELECT r FROM Reservation r
                 WHERE r.deleted = false
                 ORDER BY r.startTime ASC
                 """, Reservation.class)
-                .getResultList();
+                .getResultList(), historyRepository::findAll);
     }
 
     public Reservation save(Reservation reservation) {
@@ -68,8 +94,11 @@ public class ReservationRepository {
         return reservation;
     }
 
+    //flushed so the returned entity carries the incremented version the response ETag is built from
     public Reservation update(Reservation reservation) {
-        return em.merge(reservation);
+        Reservation merged = em.merge(reservation);
+        em.flush();
+        return merged;
     }
 
     public boolean softDelete(Long id) {
@@ -84,12 +113,30 @@ public class ReservationRepository {
         String jpql = """
                 SELECT r FROM Reservation r
                 WHERE r.deleted = false AND r.user.username = :username
-                """ + (futureOnly ? " AND r.startTime > CURRENT_TIMESTAMP" : "") + " ORDER BY r.startTime ASC";
+                """ + (futureOnly ? " AND r.startTime > :now" : "") + " ORDER BY r.startTime ASC";
 
-        return em.createQuery(jpql, Reservation.class)
-                .setParameter("username", username)
-                .getResultList();
+        TypedQuery<Reservation> query = em.createQuery(jpql, Reservation.class)
+                .setParameter("username", username);
+        bindNowIfFutureOnly(query, futureOnly);
+        //upcoming reservations are always hot
+        return futureOnly ? query.getResultList() : withHistory(query.getResultList(), () -> historyRepository.findByUsername(username));
     }
-}
 
+    //bound as a parameter so the planner prunes past partitions up front, CURRENT_TIMESTAMP is only known at execution
+    private static void bindNowIfFutureOnly(TypedQuery<Reservation> query, boolean futureOnly) {
+        if (futureOnly) {
+            query.setParameter("now", LocalDateTime.now());
+        }
+    }
 
+    //history rows are detached copies, merged back into start time order
+    private List<Reservation> withHistory(List<Reservation> hot, Supplier<List<Reservation>> cold) {
+        if (!historyProperties.isEnabled()) {
+            return hot;
+        }
+        List<Reservation> merged = new ArrayList<>(cold.get());
+        merged.addAll(hot);
+        merged.sort(Comparator.comparing(Reservation::getStartTime));
+        return merged;
+    }
+}
@@ -1,33 +1,55 @@
 package com.example.tennisclub.reservation;
 
+import com.example.tennisclub.auth.security.CurrentUser;
 import com.example.tennisclub.court.CourtService;
 import com.example.tennisclub.court.dto.CourtResponseDto;
 import com.example.tennisclub.court.entity.Court;
 import com.example.tennisclub.exception.EntityFinder;
-import com.example.tennisclub.reservation.config.PricingProperties;
+import com.example.tennisclub.outbox.OutboxService;
+import com.example.tennisclub.pricing.PricingEngine;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.dto.ColumnarReservationsDto;
+import com.example.tennisclub.reservation.dto.ColumnarReservationsDto.CourtEntry;
 import com.example.tennisclub.reservation.dto.ReservationRequestDto;
 import com.example.tennisclub.reservation.dto.ReservationResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationSlimResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationView;
 import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.event.CourtUsageChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedPayload;
+import com.example.tennisclub.reservation.event.ReservationEventType;
+import com.example.tennisclub.reservation.metrics.ReservationMetrics;
+import com.example.tennisclub.reservation.readmodel.ReservationListingRepository;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
 import com.example.tennisclub.reservation.validator.ReservationValidator;
+import com.example.tennisclub.reservation.waitlist.WaitlistRepository;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistEntry;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistStatus;
 import com.example.tennisclub.surfaceType.dto.SurfaceTypeResponseDto;
 import com.example.tennisclub.surfaceType.entity.SurfaceType;
 import com.example.tennisclub.user.UserService;
 import com.example.tennisclub.user.dto.UserResponseDto;
 import com.example.tennisclub.user.entity.User;
-import jakarta.transaction.Transactional;
+import com.example.tennisclub.versioning.IfMatch;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Duration;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
@@ -37,91 +59,108 @@ public class ReservationService {
     private final EntityFinder entityFinder;
     private final CourtService courtService;
     private final UserService userService;
-    private final PricingProperties pricing;
-
+    private final PricingEngine pricingEngine;
+    private final ReservationMetrics reservationMetrics;
+    private final ReservationListingRepository reservationListingRepo;
+    private final OutboxService outboxService;
+    private final PartitioningProperties partitioningProperties;
+    private final WaitlistRepository waitlistRepo;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
     public ReservationView getReservation(Long id) {
         Reservation reservation = findReservationEntityByIdOrThrow(id);
 
-        if (isCurrentUserAdmin()) {
+        if (CurrentUser.isAdmin()) {
             return mapToFullResponseDto(reservation);
         } else {
             return mapToSlimResponseDto(reservation);
         }
     }
 
+    @Transactional(readOnly = true)
     public Reservation findReservationEntityByIdOrThrow(Long id) {
         return entityFinder.findByIdOrThrow(
                 reservationRepo.findById(id), id, "Reservation");
     }
 
+    @Transactional(readOnly = true)
     public List<Reservation> findAllReservationEntities() {
         return reservationRepo.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Reservation> findAllReservationEntitiesByCourtId(Long courtId) {
         courtService.findCourtEntityByIdOrThrow(courtId);
         return reservationRepo.findAllByCourtId(courtId);
     }
 
+    @Transactional(readOnly = true)
     public List<Reservation> findReservationsByPhoneNumber(String phoneNumber, boolean futureOnly) {
         userService.findByPhoneNumberOrThrow(phoneNumber);
         return reservationRepo.findByPhoneNumber(phoneNumber, futureOnly);
     }
 
+    //listings read the denormalized reservation_view instead of joining four tables
+    @Transactional(readOnly = true)
     public List<ReservationView> getAllReservations() {
-        List<Reservation> reservations = findAllReservationEntities();
+        return mapListings(reservationListingRepo.findAll(), CurrentUser.isAdmin());
+    }
 
-        if (isCurrentUserAdmin()) {
-            return reservations.stream()
-                    .map(this::mapToFullResponseDto)
-                    .toList();
-        } else {
-            return reservations.stream()
-                    .map(this::mapToSlimResponseDto)
-                    .toList();
+    //same rows as getAllReservations, handed to the sink one at a time instead of collected into a list
+    @Transactional(readOnly = true)
+    public void forEachReservation(Consumer<ReservationView> sink) {
+        boolean full = CurrentUser.isAdmin();
+        try (Stream<ReservationListing> listings = reservationListingRepo.streamAll()) {
+            listings.forEach(l -> sink.accept(full ? mapToFullResponseDto(l) : mapToSlimResponseDto(l)));
         }
     }
 
+    @Transactional(readOnly = true)
     public List<ReservationView> getReservationsByCourt(Long courtId) {
+        courtService.findCourtEntityByIdOrThrow(courtId);
+        return mapListings(reservationListingRepo.findAllByCourtId(courtId), CurrentUser.isAdmin());
+    }
 
-        List<Reservation> reservations = findAllReservationEntitiesByCourtId(courtId);
-
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    @Transactional(readOnly = true)
+    public ColumnarReservationsDto getAllReservationsColumnar() {
+        return mapListingsColumnar(reservationListingRepo.findAll(), CurrentUser.isAdmin());
+    }
 
-        if (isCurrentUserAdmin()) {
-            return reservations.stream()
-                    .map(this::mapToFullResponseDto)
-                    .toList();
-        } else {
-            return reservations.stream()
-                    .map(this::mapToSlimResponseDto)
-                    .toList();
-        }
+    @Transactional(readOnly = true)
+    public ColumnarReservationsDto getReservationsByCourtColumnar(Long courtId) {
+        courtService.findCourtEntityByIdOrThrow(courtId);
+        return mapListingsColumnar(reservationListingRepo.findAllByCourtId(courtId), CurrentUser.isAdmin());
     }
 
+    @Transactional(readOnly = true)
     public List<ReservationView> getReservationsByPhoneNumber(String phoneNumber, boolean futureOnly) {
-        return findReservationsByPhoneNumber(phoneNumber, futureOnly).stream()
-                .map(this::mapToFullResponseDto)
-                .toList();
+        userService.findByPhoneNumberOrThrow(phoneNumber);
+        return mapListings(reservationListingRepo.findByPhoneNumber(phoneNumber, futureOnly), true);
     }
 
     @Transactional
+    @Timed("tennisclub.reservation.create")
     public ReservationView create(ReservationRequestDto dto) {
-        Reservation reservation = prepareNewReservation(dto);
-        return mapToFullResponseDto(reservationRepo.save(reservation));
+        Reservation reservation = reservationRepo.save(prepareNewReservation(dto));
+        reservationListingRepo.insert(reservation);
+        appendToOutbox(reservation, ReservationEventType.RESERVATION_CREATED);
+        publishChanged(reservation);
+        eventPublisher.publishEvent(CourtUsageChangedEvent.added(reservation));
+        return mapToFullResponseDto(reservation);
     }
     private Reservation prepareNewReservation(ReservationRequestDto dto) {
         Court court = courtService.findCourtEntityByIdOrThrow(dto.courtId());
         ReservationValidator.validateStartBeforeEnd(dto.start(), dto.end());
+        ReservationValidator.validateMaxLength(dto.start(), dto.end(), partitioningProperties.getMaxReservationLength());
 
-        List<Reservation> overlaps = findConflicts(court.getId(), dto.start(), dto.end());
-        ReservationValidator.throwIfOverlapsExist(overlaps);
+        throwIfConflicting(court.getId(), dto.start(), dto.end(), null);
 
         // Use the authenticated username to find user
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userService.findByUsernameOrThrow(username);
 
-        double totalPrice = calculatePrice(dto.isDoubles(), dto.start(), dto.end(), court.getSurfaceType().getPricePerMinute());
+        BigDecimal totalPrice = calculatePrice(court, user, dto.isDoubles(), dto.start(), dto.end());
 
         return Reservation.builder()
                 .court(court)
@@ -137,8 +176,22 @@ public class ReservationService {
         return reservationRepo.findOverlappingReservations(courtId, from, to);
     }
 
+    private void throwIfConflicting(Long courtId, LocalDateTime from, LocalDateTime to, Long excludedReservationId) {
+        List<Reservation> overlaps = reservationMetrics.timeConflictCheck(() -> findConflicts(courtId, from, to));
+
+        //exclude reservation being updated
+        if (excludedReservationId != null) {
+            overlaps.removeIf(r -> r.getId().equals(excludedReservationId));
+        }
+        if (!overlaps.isEmpty()) {
+            reservationMetrics.recordConflict(courtId);
+        }
+        ReservationValidator.throwIfOverlapsExist(overlaps);
+    }
+
     @Transactional
-    public ReservationView update(Long reservationId, ReservationRequestDto updated) {
+    @Timed("tennisclub.reservation.update")
+    public ReservationView update(Long reservationId, ReservationRequestDto updated, Long expectedVersion) {
         Reservation existing = findReservationEntityByIdOrThrow(reservationId);
 
         //user can only modify their own reservation
@@ -147,6 +200,8 @@ public class ReservationService {
             throw new AccessDeniedException("You are not allowed to modify this reservation");
         }
 
+        IfMatch.validateVersion(expectedVersion, existing.getVersion(), "Reservation");
+
         if (existing.getStartTime().isBefore(LocalDateTime.now())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You cannot update a past reservation.");
         }
@@ -156,15 +211,16 @@ public class ReservationService {
 
         //in case of User asking for different court
         Court court = courtService.findCourtEntityByIdOrThrow(updated.courtId());
+        ReservationValidator.validateMaxLength(newStart, newEnd, partitioningProperties.getMaxReservationLength());
 
-        List<Reservation> overlaps = findConflicts(court.getId(), updated.start(), updated.end());
+        throwIfConflicting(court.getId(), updated.start(), updated.end(), existing.getId());
 
-        //exclude reservation being updated
-        overlaps.removeIf(r -> r.getId().equals(existing.getId()));
-        ReservationValidator.throwIfOverlapsExist(overlaps);
+        //the slot it leaves changes as well as the one it moves to
+        ReservationChangedEvent previousSlot = ReservationChangedEvent.of(existing);
+        CourtUsageChangedEvent previousUsage = CourtUsageChangedEvent.removed(existing);
 
         // in case user is changed
-        double totalPrice = calculatePrice(updated.isDoubles(), updated.start(), updated.end(), court.getSurfaceType().getPricePerMinute());
+        BigDecimal totalPrice = calculatePrice(court, existing.getUser(), updated.isDoubles(), updated.start(), updated.end());
 
         existing.setStartTime(newStart);
         existing.setEndTime(newEnd);
@@ -173,10 +229,17 @@ public class ReservationService {
         existing.setTotalPrice(totalPrice);
 
         Reservation updatedReservation = reservationRepo.update(existing);
+        reservationListingRepo.update(updatedReservation);
+        appendToOutbox(updatedReservation, ReservationEventType.RESERVATION_UPDATED);
+        eventPublisher.publishEvent(previousSlot);
+        publishChanged(updatedReservation);
+        eventPublisher.publishEvent(previousUsage);
+        eventPublisher.publishEvent(CourtUsageChangedEvent.added(updatedReservation));
         return mapToFullResponseDto(updatedReservation);
     }
 
     @Transactional
+    @Timed("tennisclub.reservation.delete")
     public void softDelete(Long id) {
 
         Reservation existing = findReservationEntityByIdOrThrow(id);
@@ -191,15 +254,61 @@ public class ReservationService {
         }
 
         reservationRepo.softDelete(id);
+        reservationListingRepo.delete(id);
+        appendToOutbox(existing, ReservationEventType.RESERVATION_DELETED);
+        publishChanged(existing);
+        eventPublisher.publishEvent(CourtUsageChangedEvent.removed(existing));
+        promoteWaiters(existing);
     }
 
-    private ReservationView mapToFullResponseDto(Reservation r) {
+    //runs in the cancelling transaction, so a competing POST never sees the freed slot before the waiters do
+    //waiters are booked in FIFO order as long as they still fit, so the first compatible one always wins
+    private void promoteWaiters(Reservation cancelled) {
+        Long courtId = cancelled.getCourt().getId();
+        List<WaitlistEntry> waiters = waitlistRepo.lockWaitingOverlapping(
+                courtId, cancelled.getStartTime(), cancelled.getEndTime(), LocalDateTime.now());
+
+        for (WaitlistEntry waiter : waiters) {
+            if (!findConflicts(courtId, waiter.getStartTime(), waiter.getEndTime()).isEmpty()) {
+                continue;
+            }
+            Reservation promoted = reservationRepo.save(Reservation.builder()
+                    .court(waiter.getCourt())
+                    .isDoubles(waiter.getIsDoubles())
+                    .user(waiter.getUser())
+                    .startTime(waiter.getStartTime())
+                    .endTime(waiter.getEndTime())
+                    .totalPrice(calculatePrice(waiter.getCourt(), waiter.getUser(), waiter.getIsDoubles(),
+                            waiter.getStartTime(), waiter.getEndTime()))
+                    .build());
+            reservationListingRepo.insert(promoted);
+            appendToOutbox(promoted, ReservationEventType.RESERVATION_CREATED);
+            publishChanged(promoted);
+            eventPublisher.publishEvent(CourtUsageChangedEvent.added(promoted));
+
+            waiter.setStatus(WaitlistStatus.PROMOTED);
+            waiter.setReservationId(promoted.getId());
+            reservationMetrics.recordWaitlistPromotion(courtId);
+        }
+    }
+
+    //same transaction as the change, the relay delivers it only once this commits
+    private void appendToOutbox(Reservation r, ReservationEventType type) {
+        outboxService.append("Reservation", r.getId(), r.getCourt().getId(), type.name(), ReservationChangedPayload.of(r));
+    }
+
+    private void publishChanged(Reservation r) {
+        eventPublisher.publishEvent(ReservationChangedEvent.of(r));
+    }
+
+    //mapping and pricing are package-private so the JMH benchmarks in src/jmh can measure them directly
+    ReservationView mapToFullResponseDto(Reservation r) {
         Court court = r.getCourt();
         SurfaceType st = court.getSurfaceType();
         User user = r.getUser();
 
-        SurfaceTypeResponseDto stDto = new SurfaceTypeResponseDto(st.getId(), st.getName(), st.getPricePerMinute());
-        CourtResponseDto courtDto = new CourtResponseDto(court.getId(), court.getName(), stDto);
+        SurfaceTypeResponseDto stDto = new SurfaceTypeResponseDto(st.getId(), st.getName(), st.getPricePerMinute(), st.getVersion());
+        CourtResponseDto courtDto = new CourtResponseDto(court.getId(), court.getName(), stDto, court.getVersion());
         UserResponseDto userDto = new UserResponseDto(user.getId(), user.getPhoneNumber(), user.getUsername());
 
         return new ReservationResponseDto(
@@ -209,17 +318,18 @@ public class ReservationService {
                 r.getStartTime(),
                 r.getEndTime(),
                 r.getIsDoubles(),
-                r.getTotalPrice()
+                r.getTotalPrice(),
+                r.getVersion()
         );
     }
 
-    private ReservationView mapToSlimResponseDto(Reservation r) {
+    ReservationView mapToSlimResponseDto(Reservation r) {
 
         Court court = r.getCourt();
         SurfaceType st = court.getSurfaceType();
 
-        SurfaceTypeResponseDto stDto = new SurfaceTypeResponseDto(st.getId(), st.getName(), st.getPricePerMinute());
-        CourtResponseDto courtDto = new CourtResponseDto(court.getId(), court.getName(), stDto);
+        SurfaceTypeResponseDto stDto = new SurfaceTypeResponseDto(st.getId(), st.getName(), st.getPricePerMinute(), st.getVersion());
+        CourtResponseDto courtDto = new CourtResponseDto(court.getId(), court.getName(), stDto, court.getVersion());
 
         return new ReservationSlimResponseDto(
                 r.getId(),
@@ -227,19 +337,101 @@ public class ReservationService {
                 r.getStartTime(),
                 r.getEndTime(),
                 r.getIsDoubles(),
-                r.getTotalPrice()
+                r.getTotalPrice(),
+                r.getVersion()
+        );
+    }
+
+    ReservationView mapToFullResponseDto(ReservationListing l) {
+        UserResponseDto userDto = new UserResponseDto(l.getUserId(), l.getPhoneNumber(), l.getUsername());
+
+        return new ReservationResponseDto(
+                l.getId(),
+                mapListingCourt(l),
+                userDto,
+                l.getStartTime(),
+                l.getEndTime(),
+                l.getIsDoubles(),
+                l.getTotalPrice(),
+                l.getVersion()
+        );
+    }
+
+    ReservationView mapToSlimResponseDto(ReservationListing l) {
+        return new ReservationSlimResponseDto(
+                l.getId(),
+                mapListingCourt(l),
+                l.getStartTime(),
+                l.getEndTime(),
+                l.getIsDoubles(),
+                l.getTotalPrice(),
+                l.getVersion()
         );
     }
 
-    private double calculatePrice(boolean isDouble, LocalDateTime start, LocalDateTime end, double pricePerSurfaceType) {
-        long minutes = Duration.between(start, end).toMinutes();
-        return pricePerSurfaceType * minutes * (isDouble ? pricing.getDoubles(): 1);
+    private CourtResponseDto mapListingCourt(ReservationListing l) {
+        SurfaceTypeResponseDto stDto = new SurfaceTypeResponseDto(
+                l.getSurfaceTypeId(), l.getSurfaceTypeName(), l.getPricePerMinute(), l.getSurfaceTypeVersion());
+        return new CourtResponseDto(l.getCourtId(), l.getCourtName(), stDto, l.getCourtVersion());
     }
 
-    private boolean isCurrentUserAdmin() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    private List<ReservationView> mapListings(List<ReservationListing> listings, boolean full) {
+        if (full) {
+            return listings.stream()
+                    .map(this::mapToFullResponseDto)
+                    .toList();
+        } else {
+            return listings.stream()
+                    .map(this::mapToSlimResponseDto)
+                    .toList();
+        }
+    }
+
+    //listings are flat already, the dictionaries only keep the first row seen per court, surface and user
+    ColumnarReservationsDto mapListingsColumnar(List<ReservationListing> listings, boolean full) {
+        ZoneId zone = ZoneId.systemDefault();
+        int n = listings.size();
+        Map<Long, CourtEntry> courts = new LinkedHashMap<>();
+        Map<Long, SurfaceTypeResponseDto> surfaceTypes = new LinkedHashMap<>();
+        Map<Long, UserResponseDto> users = new LinkedHashMap<>();
+
+        long[] ids = new long[n];
+        long[] courtIds = new long[n];
+        long[] userIds = full ? new long[n] : null;
+        long[] startTimes = new long[n];
+        long[] endTimes = new long[n];
+        boolean[] doubles = new boolean[n];
+        BigDecimal[] totalPrices = new BigDecimal[n];
+        long[] versions = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            ReservationListing l = listings.get(i);
+            courts.computeIfAbsent(l.getCourtId(), id -> new CourtEntry(id, l.getCourtName(), l.getSurfaceTypeId(), l.getCourtVersion()));
+            surfaceTypes.computeIfAbsent(l.getSurfaceTypeId(), id -> new SurfaceTypeResponseDto(
+                    id, l.getSurfaceTypeName(), l.getPricePerMinute(), l.getSurfaceTypeVersion()));
+            if (full) {
+                users.computeIfAbsent(l.getUserId(), id -> new UserResponseDto(id, l.getPhoneNumber(), l.getUsername()));
+                userIds[i] = l.getUserId();
+            }
+            ids[i] = l.getId();
+            courtIds[i] = l.getCourtId();
+            startTimes[i] = l.getStartTime().atZone(zone).toEpochSecond();
+            endTimes[i] = l.getEndTime().atZone(zone).toEpochSecond();
+            doubles[i] = l.getIsDoubles();
+            totalPrices[i] = l.getTotalPrice();
+            versions[i] = l.getVersion();
+        }
+
+        return new ColumnarReservationsDto(
+                zone.getId(),
+                List.copyOf(courts.values()),
+                List.copyOf(surfaceTypes.values()),
+                full ? List.copyOf(users.values()) : null,
+                ids, courtIds, userIds, startTimes, endTimes, doubles, totalPrices, versions);
+    }
+
+    BigDecimal calculatePrice(Court court, User user, boolean isDouble, LocalDateTime start, LocalDateTime end) {
+        return pricingEngine.price(court.getSurfaceType().getId(), isDouble, start, end, user.getRoles());
     }
 
     //used for data initialization
@@ -248,11 +440,11 @@ public class ReservationService {
     public Reservation createForUser(ReservationRequestDto dto, User user) {
         Court court = courtService.findCourtEntityByIdOrThrow(dto.courtId());
         ReservationValidator.validateStartBeforeEnd(dto.start(), dto.end());
+        ReservationValidator.validateMaxLength(dto.start(), dto.end(), partitioningProperties.getMaxReservationLength());
 
-        List<Reservation> overlaps = findConflicts(court.getId(), dto.start(), dto.end());
-        ReservationValidator.throwIfOverlapsExist(overlaps);
+        throwIfConflicting(court.getId(), dto.start(), dto.end(), null);
 
-        double totalPrice = calculatePrice(dto.isDoubles(), dto.start(), dto.end(), court.getSurfaceType().getPricePerMinute());
+        BigDecimal totalPrice = calculatePrice(court, user, dto.isDoubles(), dto.start(), dto.end());
 
         Reservation reservation = Reservation.builder()
                 .court(court)
@@ -263,17 +455,22 @@ public class ReservationService {
                 .totalPrice(totalPrice)
                 .build();
 
-        return reservationRepo.save(reservation);
+        Reservation saved = reservationRepo.save(reservation);
+        reservationListingRepo.insert(saved);
+        appendToOutbox(saved, ReservationEventType.RESERVATION_CREATED);
+        publishChanged(saved);
+        eventPublisher.publishEvent(CourtUsageChangedEvent.added(saved));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Reservation> findReservationForCurrentUser(String username, boolean futureOnly) {
         return reservationRepo.findByUsername(username, futureOnly);
     }
 
+    @Transactional(readOnly = true)
     public List<ReservationView> getReservationsForCurrentUser(boolean futureOnly) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return findReservationForCurrentUser(username, futureOnly).stream()
-                .map(this::mapToSlimResponseDto)
-                .toList();
+        return mapListings(reservationListingRepo.findByUsername(username, futureOnly), false);
     }
 }
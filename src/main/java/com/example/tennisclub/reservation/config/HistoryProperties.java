@@ -0,0 +1,22 @@
+package com.example.tennisclub.reservation.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "reservation-history")
+public class HistoryProperties {
+    //moves ended reservations into reservation_history and unions it back into reads that ask for the past
+    private boolean enabled = false;
+    //rows moved per transaction
+    private int batchSize = 500;
+    private Duration moveInterval = Duration.ofHours(1);
+    //reservations stay hot until they ended this long ago
+    private Duration grace = Duration.ofDays(1);
+}
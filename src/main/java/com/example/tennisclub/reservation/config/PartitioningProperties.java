@@ -0,0 +1,25 @@
+package com.example.tennisclub.reservation.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "reservation-partitioning")
+public class PartitioningProperties {
+    //partition maintenance needs PostgreSQL, the H2 profiles keep a plain table
+    private boolean enabled = false;
+    //monthly partitions created ahead of the current month
+    private int monthsAhead = 3;
+    //partitions ending before today minus this are detached into the archive schema
+    private Period archiveAfter = Period.ofYears(2);
+    private String archiveSchema = "reservation_archive";
+    //longest bookable reservation, also the lower start_time bound that lets the overlap query prune partitions
+    private Duration maxReservationLength = Duration.ofDays(1);
+}
@@ -1,14 +1,44 @@
 package com.example.tennisclub.reservation.config;
 
+import com.example.tennisclub.user.Role;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Configuration
 @ConfigurationProperties(prefix = "pricing")
 @Getter
 @Setter
 public class PricingProperties {
     private double doubles;
+
+    //time-of-day rules, the first rule matching a minute sets its multiplier
+    private List<Rule> rules = new ArrayList<>();
+
+    //multiplier per role, a user holding several roles gets the lowest one
+    private Map<Role, Double> tiers = new EnumMap<>(Role.class);
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String name;
+        private Set<DayOfWeek> days = EnumSet.allOf(DayOfWeek.class);
+        private LocalTime from = LocalTime.MIDNIGHT;
+        //exclusive, a value not after "from" continues past midnight into the next day
+        private LocalTime to = LocalTime.MIDNIGHT;
+        private double multiplier = 1;
+        //empty applies the rule to every surface type
+        private Set<Long> surfaceTypeIds = new HashSet<>();
+    }
 }
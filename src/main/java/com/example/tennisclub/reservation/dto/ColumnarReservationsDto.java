@@ -0,0 +1,32 @@
+package com.example.tennisclub.reservation.dto;
+
+import com.example.tennisclub.surfaceType.dto.SurfaceTypeResponseDto;
+import com.example.tennisclub.user.dto.UserResponseDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+//Same rows as a List<ReservationView>, but courts, surfaces and users are listed once and referenced by id,
+//and every reservation field is one array indexed by row. Times are epoch seconds in the given zone.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ColumnarReservationsDto(
+        String zone,
+        List<CourtEntry> courts,
+        List<SurfaceTypeResponseDto> surfaceTypes,
+        //admins only, like the user in the full response
+        List<UserResponseDto> users,
+        long[] ids,
+        long[] courtIds,
+        long[] userIds,
+        long[] startTimes,
+        long[] endTimes,
+        boolean[] doubles,
+        BigDecimal[] totalPrices,
+        long[] versions
+) {
+    public static final String MEDIA_TYPE = "application/vnd.tennisclub.columnar+json";
+
+    public record CourtEntry(Long id, String name, Long surfaceTypeId, Long version) {
+    }
+}
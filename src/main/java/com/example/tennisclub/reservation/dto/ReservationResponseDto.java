@@ -3,6 +3,7 @@ package com.example.tennisclub.reservation.dto;
 import com.example.tennisclub.court.dto.CourtResponseDto;
 import com.example.tennisclub.user.dto.UserResponseDto;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public record ReservationResponseDto(
@@ -12,5 +13,6 @@ public record ReservationResponseDto(
         LocalDateTime startTime,
         LocalDateTime endTime,
         boolean isDoubles,
-        Double totalPrice
+        BigDecimal totalPrice,
+        Long version
 ) implements ReservationView {}
\ No newline at end of file
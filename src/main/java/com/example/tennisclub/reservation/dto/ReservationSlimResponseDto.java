@@ -2,6 +2,7 @@ package com.example.tennisclub.reservation.dto;
 
 import com.example.tennisclub.court.dto.CourtResponseDto;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public record ReservationSlimResponseDto(
@@ -10,5 +11,6 @@ public record ReservationSlimResponseDto(
         LocalDateTime startTime,
         LocalDateTime endTime,
         boolean isDoubles,
-        Double totalPrice
+        BigDecimal totalPrice,
+        Long version
 ) implements ReservationView {}
@@ -4,6 +4,7 @@ import com.example.tennisclub.court.dto.CourtResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationSlimResponseDto;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public sealed interface ReservationView permits ReservationResponseDto, ReservationSlimResponseDto {
@@ -12,6 +13,7 @@ public sealed interface ReservationView permits ReservationResponseDto, Reservat
     LocalDateTime startTime();
     LocalDateTime endTime();
     boolean isDoubles();
-    Double totalPrice();
+    BigDecimal totalPrice();
+    Long version();
 }
 
@@ -6,8 +6,10 @@ import com.example.tennisclub.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+//range partitioned by start_time on PostgreSQL, the primary key there is (id, start_time)
 @Entity
 @Table(name = "reservation")
 @Getter @Setter
@@ -37,9 +39,13 @@ public class Reservation {
     @Column(name = "is_doubles", nullable = false)
     private Boolean isDoubles;
 
-    @Column(name = "total_price")
-    private Double totalPrice;
+    @Column(name = "total_price", precision = 12, scale = 2)
+    private BigDecimal totalPrice;
 
     @Builder.Default
     private Boolean deleted = false;
+
+    //checked by Hibernate on every update, concurrent edits fail instead of overwriting each other
+    @Version
+    private Long version;
 }
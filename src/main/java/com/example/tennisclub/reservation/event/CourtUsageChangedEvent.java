@@ -0,0 +1,36 @@
+package com.example.tennisclub.reservation.event;
+
+import com.example.tennisclub.reservation.entity.Reservation;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+//published inside the writing transaction, the change one booking makes to the totals of its court on its start day
+public record CourtUsageChangedEvent(
+        Long courtId,
+        LocalDate day,
+        long reservations,
+        long bookedMinutes,
+        BigDecimal revenue
+) {
+
+    public static CourtUsageChangedEvent added(Reservation r) {
+        return of(r, 1);
+    }
+
+    //capture before the reservation is modified, an update removes the old booking and adds the new one
+    public static CourtUsageChangedEvent removed(Reservation r) {
+        return of(r, -1);
+    }
+
+    private static CourtUsageChangedEvent of(Reservation r, int sign) {
+        BigDecimal price = r.getTotalPrice() != null ? r.getTotalPrice() : BigDecimal.ZERO;
+        return new CourtUsageChangedEvent(
+                r.getCourt().getId(),
+                r.getStartTime().toLocalDate(),
+                sign,
+                sign * Duration.between(r.getStartTime(), r.getEndTime()).toMinutes(),
+                sign > 0 ? price : price.negate());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tennisclub.reservation.event;
+
+import com.example.tennisclub.reservation.entity.Reservation;
+
+import java.time.LocalDateTime;
+
+//published for the slot a reservation was booked into, moved out of or cancelled from
+public record ReservationChangedEvent(Long courtId, LocalDateTime startTime, LocalDateTime endTime) {
+
+    public static ReservationChangedEvent of(Reservation r) {
+        return new ReservationChangedEvent(r.getCourt().getId(), r.getStartTime(), r.getEndTime());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.tennisclub.reservation.event;
+
+import com.example.tennisclub.reservation.entity.Reservation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//outbox payload, the state of the reservation after the change
+public record ReservationChangedPayload(
+        Long reservationId,
+        Long courtId,
+        Long userId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        boolean isDoubles,
+        BigDecimal totalPrice,
+        boolean deleted,
+        Long version
+) {
+    public static ReservationChangedPayload of(Reservation r) {
+        return new ReservationChangedPayload(
+                r.getId(),
+                r.getCourt().getId(),
+                r.getUser().getId(),
+                r.getStartTime(),
+                r.getEndTime(),
+                r.getIsDoubles(),
+                r.getTotalPrice(),
+                r.getDeleted(),
+                r.getVersion()
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.tennisclub.reservation.event;
+
+//event_type values written to the outbox for reservations
+public enum ReservationEventType {
+    RESERVATION_CREATED,
+    RESERVATION_UPDATED,
+    RESERVATION_DELETED
+}
@@ -0,0 +1,62 @@
+package com.example.tennisclub.reservation.history;
+
+import com.example.tennisclub.reservation.config.HistoryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+//keeps the reservation table down to current and upcoming bookings so conflict checks stay on a small index
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "reservation-history", name = "enabled")
+public class ReservationHistoryMover {
+
+    private final ReservationHistoryRepository historyRepository;
+    private final HistoryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter movedCounter;
+
+    public ReservationHistoryMover(ReservationHistoryRepository historyRepository,
+                                   HistoryProperties properties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry registry) {
+        this.historyRepository = historyRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.movedCounter = Counter.builder("tennisclub.reservation.history.moved")
+                .description("Ended reservations moved from reservation into reservation_history")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${reservation-history.move-interval:PT1H}", initialDelayString = "PT1M")
+    public void moveEnded() {
+        moveEndedBefore(LocalDateTime.now().minus(properties.getGrace()));
+    }
+
+    //short transactions of batchSize rows, so bookings never wait long behind the move
+    public int moveEndedBefore(LocalDateTime cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<Long> ids = historyRepository.findEndedReservationIds(cutoff, properties.getBatchSize());
+                return ids.isEmpty() ? 0 : historyRepository.moveToHistory(ids, cutoff);
+            });
+            total += moved;
+            movedCounter.increment(moved);
+        } while (moved == properties.getBatchSize());
+
+        if (total > 0) {
+            log.info("Moved {} ended reservations into reservation_history", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.tennisclub.reservation.history;
+
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.history.entity.ReservationHistory;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+//the cold side of the hot/cold split, finders return detached Reservation copies
+@Repository
+@Timed(value = "tennisclub.repository.reservation-history", histogram = true)
+public class ReservationHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public Optional<Reservation> findById(Long id) {
+        ReservationHistory h = em.find(ReservationHistory.class, id);
+        return (h != null && !h.getDeleted()) ? Optional.of(h.toReservation()) : Optional.empty();
+    }
+
+    public List<Reservation> findAll() {
+        return toReservations(em.createQuery("""
+                SELECT h FROM ReservationHistory h
+                WHERE h.deleted = false
+                ORDER BY h.startTime ASC
+                """, ReservationHistory.class)
+                .getResultList());
+    }
+
+    public List<Reservation> findAllByCourtId(Long courtId) {
+        return toReservations(em.createQuery("""
+                SELECT h FROM ReservationHistory h
+                WHERE h.deleted = false AND h.court.id = :courtId
+                ORDER BY h.startTime ASC
+                """, ReservationHistory.class)
+                .setParameter("courtId", courtId)
+                .getResultList());
+    }
+
+    public List<Reservation> findByPhoneNumber(String phoneNumber) {
+        return toReservations(em.createQuery("""
+                SELECT h FROM ReservationHistory h
+                WHERE h.deleted = false AND h.user.phoneNumber = :phone
+                ORDER BY h.startTime ASC
+                """, ReservationHistory.class)
+                .setParameter("phone", phoneNumber)
+                .getResultList());
+    }
+
+    public List<Reservation> findByUsername(String username) {
+        return toReservations(em.createQuery("""
+                SELECT h FROM ReservationHistory h
+                WHERE h.deleted = false AND h.user.username = :username
+                ORDER BY h.startTime ASC
+                """, ReservationHistory.class)
+                .setParameter("username", username)
+                .getResultList());
+    }
+
+    //ids of hot rows that ended before the cutoff, soft-deleted ones included
+    public List<Long> findEndedReservationIds(LocalDateTime cutoff, int limit) {
+        return em.createQuery("""
+                SELECT r.id FROM Reservation r
+                WHERE r.endTime < :cutoff AND r.startTime < :cutoff
+                ORDER BY r.id ASC
+                """, Long.class)
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    //copy then delete in the caller's transaction, the start_time bound lets PostgreSQL prune partitions
+    public int moveToHistory(List<Long> ids, LocalDateTime cutoff) {
+        int copied = em.createNativeQuery("""
+                INSERT INTO reservation_history (id, court_id, user_id, start_time, end_time,
+                    is_doubles, total_price, deleted, version)
+                SELECT id, court_id, user_id, start_time, end_time, is_doubles, total_price, deleted, version
+                FROM reservation
+                WHERE id IN (:ids) AND start_time < :cutoff
+                """)
+                .setParameter("ids", ids)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+        em.createQuery("DELETE FROM Reservation r WHERE r.id IN :ids AND r.startTime < :cutoff")
+                .setParameter("ids", ids)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+        return copied;
+    }
+
+    private static List<Reservation> toReservations(List<ReservationHistory> rows) {
+        return rows.stream()
+                .map(ReservationHistory::toReservation)
+                .toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.tennisclub.reservation.history.entity;
+
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.user.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//cold copy of an ended reservation, same columns and id as the row it replaced
+@Entity
+@Table(name = "reservation_history", indexes = {
+        @Index(name = "idx_reservation_history_court_start", columnList = "court_id, start_time"),
+        @Index(name = "idx_reservation_history_user_start", columnList = "user_id, start_time")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@ToString
+public class ReservationHistory {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "court_id", nullable = false)
+    private Court court;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(name = "is_doubles", nullable = false)
+    private Boolean isDoubles;
+
+    @Column(name = "total_price", precision = 12, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(nullable = false)
+    private Boolean deleted;
+
+    @Column(nullable = false)
+    private Long version;
+
+    //detached and read only, past reservations cannot be updated or deleted anyway
+    public Reservation toReservation() {
+        return Reservation.builder()
+                .id(id)
+                .court(court)
+                .user(user)
+                .startTime(startTime)
+                .endTime(endTime)
+                .isDoubles(isDoubles)
+                .totalPrice(totalPrice)
+                .deleted(deleted)
+                .version(version)
+                .build();
+    }
+}
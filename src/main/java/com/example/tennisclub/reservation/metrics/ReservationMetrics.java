@@ -0,0 +1,44 @@
+package com.example.tennisclub.reservation.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+public class ReservationMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer conflictCheckTimer;
+
+    public ReservationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.conflictCheckTimer = Timer.builder("tennisclub.reservation.conflict.check")
+                .description("Time spent looking up overlapping reservations")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public <T> T timeConflictCheck(Supplier<T> conflictCheck) {
+        return conflictCheckTimer.record(conflictCheck);
+    }
+
+    //tagged by court, cardinality is bounded by the number of courts
+    public void recordConflict(Long courtId) {
+        Counter.builder("tennisclub.reservation.conflicts")
+                .description("Bookings rejected with 409 because the court was already reserved")
+                .tag("court", String.valueOf(courtId))
+                .register(registry)
+                .increment();
+    }
+
+    public void recordWaitlistPromotion(Long courtId) {
+        Counter.builder("tennisclub.reservation.waitlist.promoted")
+                .description("Waitlist entries booked automatically after a cancellation")
+                .tag("court", String.valueOf(courtId))
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.tennisclub.reservation.partitioning;
+
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.readmodel.ReservationListingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+//keeps monthly partitions created ahead of time and moves expired ones into the archive schema
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "reservation-partitioning", name = "enabled")
+public class ReservationPartitionMaintainer {
+
+    private final ReservationPartitionRepository partitionRepository;
+    private final ReservationListingRepository reservationListingRepo;
+    private final PartitioningProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationPartitionMaintainer(ReservationPartitionRepository partitionRepository,
+                                          ReservationListingRepository reservationListingRepo,
+                                          PartitioningProperties properties,
+                                          PlatformTransactionManager transactionManager) {
+        this.partitionRepository = partitionRepository;
+        this.reservationListingRepo = reservationListingRepo;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${reservation-partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        maintain(LocalDate.now());
+    }
+
+    //failures are logged and retried on the next run, they must not stop the application from starting
+    public void maintain(LocalDate today) {
+        createFuturePartitions(YearMonth.from(today));
+        try {
+            archiveExpiredPartitions(YearMonth.from(today.minus(properties.getArchiveAfter())));
+        } catch (RuntimeException e) {
+            log.error("Archiving reservation partitions failed", e);
+        }
+    }
+
+    //one transaction per month, a partition that cannot be created does not block the others
+    private void createFuturePartitions(YearMonth current) {
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> partitionRepository.createMonthlyPartition(month));
+            } catch (RuntimeException e) {
+                //typically rows for that month already sit in the default partition
+                log.error("Could not create reservation partition for {}", month, e);
+            }
+        }
+    }
+
+    private void archiveExpiredPartitions(YearMonth firstLiveMonth) {
+        List<YearMonth> expired = transactionTemplate.execute(status -> partitionRepository.findPartitionNames())
+                .stream()
+                .flatMap(name -> ReservationPartitionRepository.monthOf(name).stream())
+                .filter(month -> month.isBefore(firstLiveMonth))
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        for (YearMonth month : expired) {
+            transactionTemplate.executeWithoutResult(status ->
+                    partitionRepository.archivePartition(month, properties.getArchiveSchema()));
+            log.info("Archived reservation partition {} into {}", month, properties.getArchiveSchema());
+        }
+        //archived reservations leave the listings as well
+        transactionTemplate.executeWithoutResult(status ->
+                reservationListingRepo.deleteStartingBefore(firstLiveMonth.atDay(1).atStartOfDay()));
+    }
+}
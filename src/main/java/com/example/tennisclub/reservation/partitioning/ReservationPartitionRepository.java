@@ -0,0 +1,71 @@
+package com.example.tennisclub.reservation.partitioning;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//PostgreSQL only: monthly range partitions of reservation are named reservation_pYYYY_MM
+@Repository
+public class ReservationPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("reservation_p(\\d{4})_(\\d{2})");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @SuppressWarnings("unchecked")
+    public List<String> findPartitionNames() {
+        return em.createNativeQuery("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'reservation'
+                ORDER BY c.relname
+                """)
+                .getResultList();
+    }
+
+    public void createMonthlyPartition(YearMonth month) {
+        em.createNativeQuery("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF reservation FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')")
+                .executeUpdate();
+    }
+
+    //the detached table keeps its rows and indexes, it just stops being part of reservation
+    public void archivePartition(YearMonth month, String archiveSchema) {
+        String schema = requireIdentifier(archiveSchema);
+        String partition = partitionName(month);
+        em.createNativeQuery("CREATE SCHEMA IF NOT EXISTS " + schema).executeUpdate();
+        em.createNativeQuery("ALTER TABLE reservation DETACH PARTITION " + partition).executeUpdate();
+        em.createNativeQuery("ALTER TABLE " + partition + " SET SCHEMA " + schema).executeUpdate();
+    }
+
+    public static String partitionName(YearMonth month) {
+        return "reservation_p%04d_%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+
+    //empty for the default partition and anything not created by the maintainer
+    public static Optional<YearMonth> monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    //DDL cannot bind identifiers, so configured names are checked instead
+    private static String requireIdentifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not a plain SQL identifier: " + name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.tennisclub.reservation.readmodel;
+
+import com.example.tennisclub.court.event.CourtChangedEvent;
+import com.example.tennisclub.surfaceType.event.SurfaceTypeChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+//copies court and surface changes into reservation_view inside the publishing transaction
+//username and phone number are copied when the reservation is written, users cannot change them today
+//an endpoint that does must publish an event here as well, until then a rebuild is the only way to pick them up
+@Component
+@RequiredArgsConstructor
+public class ReservationListingProjector {
+
+    private final ReservationListingRepository reservationListingRepo;
+
+    @EventListener
+    public void onCourtChanged(CourtChangedEvent event) {
+        reservationListingRepo.refreshCourt(event.courtId());
+    }
+
+    @EventListener
+    public void onSurfaceTypeChanged(SurfaceTypeChangedEvent event) {
+        reservationListingRepo.refreshSurfaceType(event.surfaceTypeId());
+    }
+}
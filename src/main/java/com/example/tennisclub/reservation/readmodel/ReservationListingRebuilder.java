@@ -0,0 +1,29 @@
+package com.example.tennisclub.reservation.readmodel;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+//start the app with --rebuild-reservation-view to regenerate the read model from the source tables
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationListingRebuilder implements ApplicationRunner {
+
+    private static final String OPTION = "rebuild-reservation-view";
+
+    private final ReservationListingRepository reservationListingRepo;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        int rows = reservationListingRepo.rebuild();
+        log.info("Rebuilt reservation_view with {} rows", rows);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.tennisclub.reservation.readmodel;
+
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.persistence.ReadOnlyProperties;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+//every listing query is a single-table scan of one of the (x, start_time) indexes on reservation_view
+@Repository
+@Timed(value = "tennisclub.repository.reservation-view", histogram = true)
+@RequiredArgsConstructor
+public class ReservationListingRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final ReadOnlyProperties readOnlyProperties;
+
+    public List<ReservationListing> findAll() {
+        return em.createQuery("""
+                SELECT l FROM ReservationListing l
+                ORDER BY l.startTime ASC
+                """, ReservationListing.class)
+                .getResultList();
+    }
+
+    //rows are detached as they are read, the persistence context stays empty however long the result
+    //without a fetch size the PostgreSQL driver buffers the whole result instead of reading through a cursor
+    public Stream<ReservationListing> streamAll() {
+        return em.createQuery("""
+                SELECT l FROM ReservationListing l
+                ORDER BY l.startTime ASC
+                """, ReservationListing.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, readOnlyProperties.getStreamFetchSize())
+                .getResultStream()
+                .map(l -> {
+                    em.detach(l);
+                    return l;
+                });
+    }
+
+    public List<ReservationListing> findAllByCourtId(Long courtId) {
+        return em.createQuery("""
+                SELECT l FROM ReservationListing l
+                WHERE l.courtId = :courtId
+                ORDER BY l.startTime ASC
+                """, ReservationListing.class)
+                .setParameter("courtId", courtId)
+                .getResultList();
+    }
+
+    //every court at once, ordered for building the per-court columns of the day view
+    //nothing overlapping starts before earliestStart, which keeps the start_time range scan short
+    public List<ReservationListing> findOverlapping(LocalDateTime from, LocalDateTime to, LocalDateTime earliestStart) {
+        return em.createQuery("""
+                SELECT l FROM ReservationListing l
+                WHERE l.startTime < :to AND l.endTime > :from
+                AND l.startTime > :earliestStart
+                ORDER BY l.courtId ASC, l.startTime ASC
+                """, ReservationListing.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("earliestStart", earliestStart)
+                .getResultList();
+    }
+
+    public List<ReservationListing> findByPhoneNumber(String phoneNumber, boolean futureOnly) {
+        String jpql = """
+                SELECT l FROM ReservationListing l
+                WHERE l.phoneNumber = :phone
+                """ + (futureOnly ? " AND l.startTime > CURRENT_TIMESTAMP" : "") + " ORDER BY l.startTime ASC";
+
+        return em.createQuery(jpql, ReservationListing.class)
+                .setParameter("phone", phoneNumber)
+                .getResultList();
+    }
+
+    public List<ReservationListing> findByUsername(String username, boolean futureOnly) {
+        String jpql = """
+                SELECT l FROM ReservationListing l
+                WHERE l.username = :username
+                """ + (futureOnly ? " AND l.startTime > CURRENT_TIMESTAMP" : "") + " ORDER BY l.startTime ASC";
+
+        return em.createQuery(jpql, ReservationListing.class)
+                .setParameter("username", username)
+                .getResultList();
+    }
+
+    //the reservation already has its id and initial version from persist, the row is inserted without a read
+    public void insert(Reservation reservation) {
+        em.persist(ReservationListing.of(reservation));
+    }
+
+    //flush first so the row carries the version Hibernate assigns on write, then one UPDATE instead of merge's SELECT
+    //a reservation the view does not have yet, e.g. before a rebuild, is inserted instead
+    public void update(Reservation reservation) {
+        em.flush();
+        ReservationListing listing = ReservationListing.of(reservation);
+        int updated = em.createQuery("""
+                UPDATE ReservationListing l
+                SET l.courtId = :courtId, l.courtName = :courtName, l.courtVersion = :courtVersion,
+                    l.surfaceTypeId = :surfaceTypeId, l.surfaceTypeName = :surfaceTypeName,
+                    l.pricePerMinute = :pricePerMinute, l.surfaceTypeVersion = :surfaceTypeVersion,
+                    l.userId = :userId, l.username = :username, l.phoneNumber = :phoneNumber,
+                    l.startTime = :startTime, l.endTime = :endTime, l.isDoubles = :isDoubles,
+                    l.totalPrice = :totalPrice, l.version = :version
+                WHERE l.id = :id
+                """)
+                .setParameter("courtId", listing.getCourtId())
+                .setParameter("courtName", listing.getCourtName())
+                .setParameter("courtVersion", listing.getCourtVersion())
+                .setParameter("surfaceTypeId", listing.getSurfaceTypeId())
+                .setParameter("surfaceTypeName", listing.getSurfaceTypeName())
+                .setParameter("pricePerMinute", listing.getPricePerMinute())
+                .setParameter("surfaceTypeVersion", listing.getSurfaceTypeVersion())
+                .setParameter("userId", listing.getUserId())
+                .setParameter("username", listing.getUsername())
+                .setParameter("phoneNumber", listing.getPhoneNumber())
+                .setParameter("startTime", listing.getStartTime())
+                .setParameter("endTime", listing.getEndTime())
+                .setParameter("isDoubles", listing.getIsDoubles())
+                .setParameter("totalPrice", listing.getTotalPrice())
+                .setParameter("version", listing.getVersion())
+                .setParameter("id", listing.getId())
+                .executeUpdate();
+        if (updated == 0) {
+            em.persist(listing);
+        }
+    }
+
+    public void delete(Long reservationId) {
+        em.createQuery("DELETE FROM ReservationListing l WHERE l.id = :id")
+                .setParameter("id", reservationId)
+                .executeUpdate();
+    }
+
+    public int deleteStartingBefore(LocalDateTime cutoff) {
+        return em.createQuery("DELETE FROM ReservationListing l WHERE l.startTime < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+
+    //soft-deleted courts and surfaces are refreshed too, their reservations stay listed
+    public int refreshCourt(Long courtId) {
+        em.flush();
+        Court court = em.find(Court.class, courtId);
+        if (court == null) return 0;
+
+        SurfaceType st = court.getSurfaceType();
+        return em.createQuery("""
+                UPDATE ReservationListing l
+                SET l.courtName = :courtName, l.courtVersion = :courtVersion,
+                    l.surfaceTypeId = :surfaceTypeId, l.surfaceTypeName = :surfaceTypeName,
+                    l.pricePerMinute = :pricePerMinute, l.surfaceTypeVersion = :surfaceTypeVersion
+                WHERE l.courtId = :courtId
+                """)
+                .setParameter("courtName", court.getName())
+                .setParameter("courtVersion", court.getVersion())
+                .setParameter("surfaceTypeId", st.getId())
+                .setParameter("surfaceTypeName", st.getName())
+                .setParameter("pricePerMinute", st.getPricePerMinute())
+                .setParameter("surfaceTypeVersion", st.getVersion())
+                .setParameter("courtId", court.getId())
+                .executeUpdate();
+    }
+
+    public int refreshSurfaceType(Long surfaceTypeId) {
+        em.flush();
+        SurfaceType st = em.find(SurfaceType.class, surfaceTypeId);
+        if (st == null) return 0;
+
+        return em.createQuery("""
+                UPDATE ReservationListing l
+                SET l.surfaceTypeName = :surfaceTypeName, l.pricePerMinute = :pricePerMinute,
+                    l.surfaceTypeVersion = :surfaceTypeVersion
+                WHERE l.surfaceTypeId = :surfaceTypeId
+                """)
+                .setParameter("surfaceTypeName", st.getName())
+                .setParameter("pricePerMinute", st.getPricePerMinute())
+                .setParameter("surfaceTypeVersion", st.getVersion())
+                .setParameter("surfaceTypeId", st.getId())
+                .executeUpdate();
+    }
+
+    //regenerates the whole view from the hot and history tables, returns the number of rows written
+    public int rebuild() {
+        em.flush();
+        em.createNativeQuery("DELETE FROM reservation_view").executeUpdate();
+        int rows = em.createNativeQuery("""
+                INSERT INTO reservation_view (reservation_id, court_id, court_name, court_version,
+                    surface_type_id, surface_type_name, price_per_minute, surface_type_version,
+                    user_id, username, phone_number, start_time, end_time, is_doubles, total_price, version)
+                SELECT r.id, c.id, c.name, c.version, s.id, s.name, s.price_per_minute, s.version,
+                    u.id, u.username, u.phone_number, r.start_time, r.end_time, r.is_doubles, r.total_price, r.version
+                FROM (
+                    SELECT id, court_id, user_id, start_time, end_time, is_doubles, total_price, deleted, version FROM reservation
+                    UNION ALL
+                    SELECT id, court_id, user_id, start_time, end_time, is_doubles, total_price, deleted, version FROM reservation_history
+                ) r
+                JOIN court c ON c.id = r.court_id
+                JOIN surface_type s ON s.id = c.surface_type_id
+                JOIN users u ON u.id = r.user_id
+                WHERE r.deleted = false
+                """).executeUpdate();
+        //bulk statements bypass the persistence context
+        em.clear();
+        return rows;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.tennisclub.reservation.readmodel.entity;
+
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import com.example.tennisclub.user.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//denormalized copy of a live reservation with its court, surface and user, so listings read a single table
+@Entity
+@Table(name = "reservation_view", indexes = {
+        @Index(name = "idx_reservation_view_start", columnList = "start_time"),
+        @Index(name = "idx_reservation_view_court_start", columnList = "court_id, start_time"),
+        @Index(name = "idx_reservation_view_username_start", columnList = "username, start_time"),
+        @Index(name = "idx_reservation_view_phone_start", columnList = "phone_number, start_time")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@ToString
+public class ReservationListing {
+
+    //same id as the reservation row
+    @Id
+    @Column(name = "reservation_id")
+    private Long id;
+
+    @Column(name = "court_id", nullable = false)
+    private Long courtId;
+
+    @Column(name = "court_name", nullable = false)
+    private String courtName;
+
+    @Column(name = "court_version", nullable = false)
+    private Long courtVersion;
+
+    @Column(name = "surface_type_id", nullable = false)
+    private Long surfaceTypeId;
+
+    @Column(name = "surface_type_name", nullable = false)
+    private String surfaceTypeName;
+
+    @Column(name = "price_per_minute", nullable = false)
+    private Double pricePerMinute;
+
+    @Column(name = "surface_type_version", nullable = false)
+    private Long surfaceTypeVersion;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "phone_number", length = 20, nullable = false)
+    private String phoneNumber;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(name = "is_doubles", nullable = false)
+    private Boolean isDoubles;
+
+    @Column(name = "total_price", precision = 12, scale = 2)
+    private BigDecimal totalPrice;
+
+    //reservation version, not a lock on this row
+    @Column(nullable = false)
+    private Long version;
+
+    public static ReservationListing of(Reservation r) {
+        Court court = r.getCourt();
+        SurfaceType st = court.getSurfaceType();
+        User user = r.getUser();
+
+        return ReservationListing.builder()
+                .id(r.getId())
+                .courtId(court.getId())
+                .courtName(court.getName())
+                .courtVersion(court.getVersion())
+                .surfaceTypeId(st.getId())
+                .surfaceTypeName(st.getName())
+                .pricePerMinute(st.getPricePerMinute())
+                .surfaceTypeVersion(st.getVersion())
+                .userId(user.getId())
+                .username(user.getUsername())
+                .phoneNumber(user.getPhoneNumber())
+                .startTime(r.getStartTime())
+                .endTime(r.getEndTime())
+                .isDoubles(r.getIsDoubles())
+                .totalPrice(r.getTotalPrice())
+                .version(r.getVersion())
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import com.example.tennisclub.reservation.entity.Reservation;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,6 +18,15 @@ public class ReservationValidator {
         }
     }
 
+    public static void validateMaxLength(LocalDateTime start, LocalDateTime end, Duration maxLength) {
+        if (Duration.between(start, end).compareTo(maxLength) > 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Reservation cannot be longer than " + maxLength.toHours() + " hours"
+            );
+        }
+    }
+
     public static void throwIfOverlapsExist(List<Reservation> overlaps) {
         if (!overlaps.isEmpty()) {
             throw new ResponseStatusException(
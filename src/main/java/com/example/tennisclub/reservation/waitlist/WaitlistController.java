@@ -0,0 +1,40 @@
+package com.example.tennisclub.reservation.waitlist;
+
+import com.example.tennisclub.reservation.dto.ReservationRequestDto;
+import com.example.tennisclub.reservation.waitlist.dto.WaitlistEntryResponseDto;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservations/waitlist")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'MEMBER')")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<WaitlistEntryResponseDto> join(@RequestBody @Valid ReservationRequestDto req) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(waitlistService.join(req));
+    }
+
+    @GetMapping("/my")
+    public ResponseEntity<List<WaitlistEntryResponseDto>> getMyEntries() {
+        return ResponseEntity.ok(waitlistService.getEntriesForCurrentUser());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> withdraw(@PathVariable Long id) {
+        waitlistService.withdraw(id);
+
+        return ResponseEntity.ok("Waitlist entry with id " + id + " withdrawn successfully.");
+    }
+}
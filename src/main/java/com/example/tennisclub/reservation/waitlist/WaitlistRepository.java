@@ -0,0 +1,103 @@
+package com.example.tennisclub.reservation.waitlist;
+
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistEntry;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistStatus;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+//waiters are matched like overlapping reservations, an interval query on the (court_id, start_time) index
+//bounded below by the maximum reservation length, never a scan of the whole queue
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "tennisclub.repository.waitlist", histogram = true)
+public class WaitlistRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final PartitioningProperties partitioningProperties;
+
+    public WaitlistEntry save(WaitlistEntry entry) {
+        em.persist(entry);
+        return entry;
+    }
+
+    public Optional<WaitlistEntry> findById(Long id) {
+        return Optional.ofNullable(em.find(WaitlistEntry.class, id));
+    }
+
+    public List<WaitlistEntry> findByUsername(String username) {
+        return em.createQuery("""
+                SELECT w FROM WaitlistEntry w
+                WHERE w.user.username = :username
+                ORDER BY w.startTime ASC, w.id ASC
+                """, WaitlistEntry.class)
+                .setParameter("username", username)
+                .getResultList();
+    }
+
+    public boolean existsWaiting(Long userId, Long courtId, LocalDateTime from, LocalDateTime to) {
+        return !em.createQuery("""
+                SELECT w.id FROM WaitlistEntry w
+                WHERE w.status = :status AND w.court.id = :courtId AND w.user.id = :userId
+                AND w.startTime = :from AND w.endTime = :to
+                """, Long.class)
+                .setParameter("status", WaitlistStatus.WAITING)
+                .setParameter("courtId", courtId)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    //FIFO order, rows stay locked until the cancelling transaction commits so a waiter is promoted only once
+    public List<WaitlistEntry> lockWaitingOverlapping(Long courtId, LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        return em.createQuery("""
+                SELECT w FROM WaitlistEntry w
+                WHERE w.status = :status AND w.court.id = :courtId
+                AND w.startTime < :to AND w.endTime > :from
+                AND w.startTime > :earliestStart
+                ORDER BY w.id ASC
+                """, WaitlistEntry.class)
+                .setParameter("status", WaitlistStatus.WAITING)
+                .setParameter("courtId", courtId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("earliestStart", latest(from.minus(partitioningProperties.getMaxReservationLength()), now))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    public long countWaitingAhead(WaitlistEntry entry) {
+        return em.createQuery("""
+                SELECT COUNT(w) FROM WaitlistEntry w
+                WHERE w.status = :status AND w.court.id = :courtId
+                AND w.startTime < :to AND w.endTime > :from
+                AND w.startTime > :earliestStart
+                AND w.id < :id
+                """, Long.class)
+                .setParameter("status", WaitlistStatus.WAITING)
+                .setParameter("courtId", entry.getCourt().getId())
+                .setParameter("from", entry.getStartTime())
+                .setParameter("to", entry.getEndTime())
+                .setParameter("earliestStart", entry.getStartTime().minus(partitioningProperties.getMaxReservationLength()))
+                .setParameter("id", entry.getId())
+                .getSingleResult();
+    }
+
+    //waiters for windows that already started can no longer be promoted
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.tennisclub.reservation.waitlist;
+
+import com.example.tennisclub.court.CourtService;
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.exception.EntityFinder;
+import com.example.tennisclub.reservation.ReservationService;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.dto.ReservationRequestDto;
+import com.example.tennisclub.reservation.validator.ReservationValidator;
+import com.example.tennisclub.reservation.waitlist.dto.WaitlistEntryResponseDto;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistEntry;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistStatus;
+import com.example.tennisclub.user.UserService;
+import com.example.tennisclub.user.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+//members join when their booking was rejected with 409, ReservationService.softDelete promotes them
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    private final WaitlistRepository waitlistRepo;
+    private final ReservationService reservationService;
+    private final CourtService courtService;
+    private final UserService userService;
+    private final EntityFinder entityFinder;
+    private final PartitioningProperties partitioningProperties;
+
+    @Transactional
+    public WaitlistEntryResponseDto join(ReservationRequestDto dto) {
+        Court court = courtService.findCourtEntityByIdOrThrow(dto.courtId());
+        ReservationValidator.validateStartBeforeEnd(dto.start(), dto.end());
+        ReservationValidator.validateMaxLength(dto.start(), dto.end(), partitioningProperties.getMaxReservationLength());
+
+        if (reservationService.findConflicts(court.getId(), dto.start(), dto.end()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Court is free during the selected time period, reserve it directly");
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.findByUsernameOrThrow(username);
+
+        if (waitlistRepo.existsWaiting(user.getId(), court.getId(), dto.start(), dto.end())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "You are already on the waitlist for the selected time period");
+        }
+
+        WaitlistEntry entry = waitlistRepo.save(WaitlistEntry.builder()
+                .court(court)
+                .user(user)
+                .startTime(dto.start())
+                .endTime(dto.end())
+                .isDoubles(dto.isDoubles())
+                .createdAt(LocalDateTime.now())
+                .build());
+        return mapToResponseDto(entry);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponseDto> getEntriesForCurrentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return waitlistRepo.findByUsername(username).stream()
+                .map(this::mapToResponseDto)
+                .toList();
+    }
+
+    @Transactional
+    public void withdraw(Long id) {
+        WaitlistEntry entry = entityFinder.findByIdOrThrow(waitlistRepo.findById(id), id, "Waitlist entry");
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!entry.getUser().getUsername().equals(username)) {
+            throw new AccessDeniedException("You are not allowed to withdraw this waitlist entry");
+        }
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Waitlist entry is already " + entry.getStatus().name().toLowerCase());
+        }
+
+        entry.setStatus(WaitlistStatus.WITHDRAWN);
+    }
+
+    public WaitlistEntryResponseDto mapToResponseDto(WaitlistEntry entry) {
+        Long position = entry.getStatus() == WaitlistStatus.WAITING ? waitlistRepo.countWaitingAhead(entry) : null;
+        return new WaitlistEntryResponseDto(
+                entry.getId(),
+                entry.getCourt().getId(),
+                entry.getStartTime(),
+                entry.getEndTime(),
+                entry.getIsDoubles(),
+                entry.getStatus(),
+                position,
+                entry.getReservationId());
+    }
+}
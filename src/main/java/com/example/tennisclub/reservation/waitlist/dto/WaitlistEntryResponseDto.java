@@ -0,0 +1,17 @@
+package com.example.tennisclub.reservation.waitlist.dto;
+
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistStatus;
+
+import java.time.LocalDateTime;
+
+//position counts the earlier waiting entries whose window overlaps this one, 0 is next in line
+public record WaitlistEntryResponseDto(
+        Long id,
+        Long courtId,
+        LocalDateTime start,
+        LocalDateTime end,
+        Boolean isDoubles,
+        WaitlistStatus status,
+        Long position,
+        Long reservationId) {
+}
@@ -0,0 +1,55 @@
+package com.example.tennisclub.reservation.waitlist.entity;
+
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.user.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+//one member waiting for a court and time window, ascending ids give the FIFO order
+@Entity
+//Postgres gets a partial index over the waiting rows instead, see the waitlist changeset
+@Table(name = "reservation_waitlist", indexes = {
+        @Index(name = "idx_waitlist_court_start", columnList = "court_id, start_time"),
+        @Index(name = "idx_waitlist_user", columnList = "user_id")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@ToString
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "court_id", nullable = false)
+    private Court court;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(name = "is_doubles", nullable = false)
+    private Boolean isDoubles;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    //the reservation this entry was promoted into
+    @Column(name = "reservation_id")
+    private Long reservationId;
+}
@@ -0,0 +1,7 @@
+package com.example.tennisclub.reservation.waitlist.entity;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    WITHDRAWN
+}
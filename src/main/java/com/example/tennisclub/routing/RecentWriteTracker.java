@@ -0,0 +1,31 @@
+package com.example.tennisclub.routing;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RequiredArgsConstructor
+public class RecentWriteTracker {
+
+    private final ReplicaProperties properties;
+    //username -> System.nanoTime() of the last committed write
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public void recordWrite(String username) {
+        lastWrites.put(username, System.nanoTime());
+    }
+
+    public boolean wroteRecently(String username) {
+        Long lastWrite = lastWrites.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < properties.getStalenessWindow().toNanos()) {
+            return true;
+        }
+        //expired entries are dropped lazily, the map stays bounded by the active users
+        lastWrites.remove(username, lastWrite);
+        return false;
+    }
+}
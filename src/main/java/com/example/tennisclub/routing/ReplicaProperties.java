@@ -0,0 +1,23 @@
+package com.example.tennisclub.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaProperties {
+    //routes read-only transactions to the replica pool, everything else stays on spring.datasource
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    //reads of a user who committed a write within this window still go to the primary
+    private Duration stalenessWindow = Duration.ofSeconds(5);
+}
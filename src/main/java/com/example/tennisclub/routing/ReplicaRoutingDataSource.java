@@ -0,0 +1,62 @@
+package com.example.tennisclub.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final RecentWriteTracker recentWriteTracker;
+    private final MeterRegistry registry;
+
+    //called once per physical connection, the LazyConnectionDataSourceProxy in front defers it
+    //until the first statement, when the read-only flag of the transaction is already known
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = currentRoute();
+        Counter.builder("tennisclub.datasource.routing")
+                .description("Physical connections handed out per routing target")
+                .tag("target", route.name().toLowerCase())
+                .register(registry)
+                .increment();
+        return route;
+    }
+
+    public Route currentRoute() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriteTracker.recordWrite(username);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        //the replica may not have replayed the user's own write yet
+        if (username != null && recentWriteTracker.wroteRecently(username)) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
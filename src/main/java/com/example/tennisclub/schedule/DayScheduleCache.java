@@ -0,0 +1,109 @@
+package com.example.tennisclub.schedule;
+
+import com.example.tennisclub.court.event.CourtChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedEvent;
+import com.example.tennisclub.schedule.config.ScheduleProperties;
+import com.example.tennisclub.schedule.dto.DayScheduleResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+//Day views by date, evicted after commit for exactly the dates a reservation change touched
+@Component
+public class DayScheduleCache {
+
+    private final ScheduleProperties properties;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<LocalDate, Entry> days = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public DayScheduleCache(ScheduleProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    public DayScheduleCache(ScheduleProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("tennisclub.schedule.cache", "result", "hit");
+        this.misses = meterRegistry.counter("tennisclub.schedule.cache", "result", "miss");
+    }
+
+    public DayScheduleResponseDto get(LocalDate date, Function<LocalDate, DayScheduleResponseDto> loader) {
+        Instant now = clock.instant();
+        Entry cached = days.get(date);
+        if (isFresh(cached, now)) {
+            hits.increment();
+            return cached.schedule();
+        }
+
+        //loaded outside the map, a slow query holds no lock other dates may share
+        //every eviction moves the generation first, a day loaded across one is returned but not kept,
+        //so a day read before a commit is never served after it
+        long generation = evictions.get();
+        Entry entry = new Entry(loader.apply(date), now.plus(properties.getTtl()));
+        misses.increment();
+        days.put(date, entry);
+        if (evictions.get() != generation) {
+            days.remove(date, entry);
+        } else {
+            trim();
+        }
+        return entry.schedule();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        evict(event.startTime(), event.endTime());
+    }
+
+    //court names are part of every day
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourtChanged(CourtChangedEvent event) {
+        evictions.incrementAndGet();
+        days.clear();
+    }
+
+    public void evict(LocalDateTime start, LocalDateTime end) {
+        //end is exclusive, a reservation ending at midnight does not touch the next day
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        evictions.incrementAndGet();
+        for (LocalDate date = start.toLocalDate(); !date.isAfter(last); date = date.plusDays(1)) {
+            days.remove(date);
+        }
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    private static boolean isFresh(Entry entry, Instant now) {
+        return entry != null && entry.expiresAt().isAfter(now);
+    }
+
+    private void trim() {
+        LocalDate today = LocalDate.now(clock);
+        while (days.size() > properties.getMaxCachedDays()) {
+            days.keySet().stream()
+                    .max(Comparator.comparingLong(date -> Math.abs(date.toEpochDay() - today.toEpochDay())))
+                    .ifPresent(days::remove);
+        }
+    }
+
+    private record Entry(DayScheduleResponseDto schedule, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.tennisclub.schedule;
+
+import com.example.tennisclub.schedule.dto.DayScheduleResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/schedule")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'MEMBER')")
+public class ScheduleController {
+
+    private final ScheduleService scheduleService;
+
+    //today when no date is given
+    @GetMapping
+    public ResponseEntity<DayScheduleResponseDto> getDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(scheduleService.getDay(date != null ? date : LocalDate.now()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tennisclub.schedule;
+
+import com.example.tennisclub.auth.security.CurrentUser;
+import com.example.tennisclub.court.CourtService;
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.readmodel.ReservationListingRepository;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import com.example.tennisclub.schedule.dto.DayScheduleResponseDto;
+import com.example.tennisclub.schedule.dto.DayScheduleResponseDto.CourtDay;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ScheduleService {
+
+    private final CourtService courtService;
+    private final ReservationListingRepository reservationListingRepo;
+    private final DayScheduleCache dayScheduleCache;
+    private final PartitioningProperties partitioningProperties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ScheduleService(CourtService courtService,
+                           ReservationListingRepository reservationListingRepo,
+                           DayScheduleCache dayScheduleCache,
+                           PartitioningProperties partitioningProperties,
+                           PlatformTransactionManager transactionManager) {
+        this.courtService = courtService;
+        this.reservationListingRepo = reservationListingRepo;
+        this.dayScheduleCache = dayScheduleCache;
+        this.partitioningProperties = partitioningProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    //a cache hit never opens a transaction, so the day view costs no connection once loaded
+    public DayScheduleResponseDto getDay(LocalDate date) {
+        DayScheduleResponseDto day = dayScheduleCache.get(date,
+                d -> readOnlyTransaction.execute(status -> loadDay(d)));
+        return CurrentUser.isAdmin() ? day : day.withoutUsernames();
+    }
+
+    //one query for all courts instead of one /by-court call per court
+    DayScheduleResponseDto loadDay(LocalDate date) {
+        LocalDateTime from = date.atStartOfDay();
+        List<ReservationListing> listings = reservationListingRepo.findOverlapping(from, from.plusDays(1),
+                from.minus(partitioningProperties.getMaxReservationLength()));
+
+        //courts without reservations are part of the grid too
+        Map<Long, List<ReservationListing>> byCourt = new LinkedHashMap<>();
+        Map<Long, String> courtNames = new LinkedHashMap<>();
+        courtService.findAllCourtEntities().stream()
+                .sorted(Comparator.comparing(Court::getId))
+                .forEach(court -> {
+                    byCourt.put(court.getId(), new ArrayList<>());
+                    courtNames.put(court.getId(), court.getName());
+                });
+        //reservations on a court deleted since keep their column
+        for (ReservationListing l : listings) {
+            byCourt.computeIfAbsent(l.getCourtId(), id -> new ArrayList<>()).add(l);
+            courtNames.putIfAbsent(l.getCourtId(), l.getCourtName());
+        }
+
+        List<CourtDay> courts = byCourt.entrySet().stream()
+                .map(e -> toCourtDay(e.getKey(), courtNames.get(e.getKey()), e.getValue(), from))
+                .toList();
+        return new DayScheduleResponseDto(date, courts);
+    }
+
+    private static CourtDay toCourtDay(Long courtId, String courtName, List<ReservationListing> listings, LocalDateTime from) {
+        int n = listings.size();
+        long[] ids = new long[n];
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        boolean[] doubles = new boolean[n];
+        String[] usernames = new String[n];
+        for (int i = 0; i < n; i++) {
+            ReservationListing l = listings.get(i);
+            ids[i] = l.getId();
+            starts[i] = (int) Duration.between(from, l.getStartTime()).toMinutes();
+            ends[i] = (int) Duration.between(from, l.getEndTime()).toMinutes();
+            doubles[i] = l.getIsDoubles();
+            usernames[i] = l.getUsername();
+        }
+        return new CourtDay(courtId, courtName, ids, starts, ends, doubles, usernames);
+    }
+}
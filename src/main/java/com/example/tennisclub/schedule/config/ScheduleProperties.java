@@ -0,0 +1,19 @@
+package com.example.tennisclub.schedule.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "schedule")
+public class ScheduleProperties {
+    //days kept in the cache, the ones furthest from today are dropped first
+    private int maxCachedDays = 62;
+    //upper bound on staleness when a day was loaded from a lagging read replica
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,36 @@
+package com.example.tennisclub.schedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//every court's reservations for one day, one array per field instead of one object per reservation
+public record DayScheduleResponseDto(
+        LocalDate date,
+        List<CourtDay> courts
+) {
+
+    //start and end are minutes since midnight of the date, negative or beyond 1440 when crossing midnight
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CourtDay(
+            Long courtId,
+            String courtName,
+            long[] reservationIds,
+            int[] startMinutes,
+            int[] endMinutes,
+            boolean[] doubles,
+            //admins only
+            String[] usernames
+    ) {
+        public CourtDay withoutUsernames() {
+            return new CourtDay(courtId, courtName, reservationIds, startMinutes, endMinutes, doubles, null);
+        }
+    }
+
+    public DayScheduleResponseDto withoutUsernames() {
+        return new DayScheduleResponseDto(date, courts.stream()
+                .map(CourtDay::withoutUsernames)
+                .toList());
+    }
+}
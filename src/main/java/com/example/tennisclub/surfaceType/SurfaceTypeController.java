@@ -2,8 +2,10 @@ package com.example.tennisclub.surfaceType;
 
 import com.example.tennisclub.surfaceType.dto.SurfaceTypeRequestDTO;
 import com.example.tennisclub.surfaceType.dto.SurfaceTypeResponseDto;
+import com.example.tennisclub.versioning.IfMatch;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -29,7 +31,7 @@ public class SurfaceTypeController {
     @PreAuthorize("hasAnyRole('ADMIN', 'MEMBER')")
     public ResponseEntity<SurfaceTypeResponseDto> getSurfaceTypeById(@PathVariable Long id) {
         SurfaceTypeResponseDto surfaceType = surfaceTypeService.getSurfaceTypeById(id);
-        return ResponseEntity.ok(surfaceType);
+        return IfMatch.okWithETag(surfaceType, surfaceType.version());
     }
 
     @PostMapping
@@ -39,9 +41,10 @@ public class SurfaceTypeController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<SurfaceTypeResponseDto> update(@PathVariable Long id, @RequestBody  @Valid SurfaceTypeRequestDTO dto) {
-        SurfaceTypeResponseDto updated = surfaceTypeService.update(id, dto);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<SurfaceTypeResponseDto> update(@PathVariable Long id, @RequestBody  @Valid SurfaceTypeRequestDTO dto,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        SurfaceTypeResponseDto updated = surfaceTypeService.update(id, dto, IfMatch.expectedVersion(ifMatch));
+        return IfMatch.okWithETag(updated, updated.version());
     }
 
     @DeleteMapping("/{id}")
@@ -19,6 +19,12 @@ public class SurfaceTypeRepository {
                 .getResultList();
     }
 
+    //also soft deleted surfaces, the courts still standing on them keep their price
+    public List<SurfaceType> findAllIncludingDeleted() {
+        return em.createQuery("SELECT s FROM SurfaceType s", SurfaceType.class)
+                .getResultList();
+    }
+
     public Optional<SurfaceType> findById(Long id) {
         SurfaceType st = em.find(SurfaceType.class, id);
         return (st != null && !st.getDeleted()) ? Optional.of(st) : Optional.empty();
@@ -29,8 +35,11 @@ public class SurfaceTypeRepository {
         return surfaceType;
     }
 
+    //flushed so the returned entity carries the incremented version the response ETag is built from
     public SurfaceType update(SurfaceType surfaceType) {
-        return em.merge(surfaceType);
+        SurfaceType merged = em.merge(surfaceType);
+        em.flush();
+        return merged;
     }
 
     public boolean softDelete(Long id) {
@@ -5,7 +5,10 @@ import com.example.tennisclub.exception.EntityFinder;
 import com.example.tennisclub.surfaceType.dto.SurfaceTypeRequestDTO;
 import com.example.tennisclub.surfaceType.dto.SurfaceTypeResponseDto;
 import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import com.example.tennisclub.surfaceType.event.SurfaceTypeChangedEvent;
+import com.example.tennisclub.versioning.IfMatch;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,20 +22,25 @@ public class SurfaceTypeService {
 
     private final SurfaceTypeRepository surfaceTypeRepository;
     private final EntityFinder entityFinder;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public SurfaceType findByIdOrThrow(Long id) {
         return entityFinder.findByIdOrThrow(
                 surfaceTypeRepository.findById(id), id, "SurfaceType");
     }
 
+    @Transactional(readOnly = true)
     public SurfaceTypeResponseDto getSurfaceTypeById(Long id){
         return mapToResponseDto(findByIdOrThrow(id));
     }
 
+    @Transactional(readOnly = true)
     public List<SurfaceType> findAll() {
         return surfaceTypeRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<SurfaceTypeResponseDto> getAll() {
         return findAll().stream().map(this::mapToResponseDto).toList();
     }
@@ -46,17 +54,21 @@ public class SurfaceTypeService {
 
     @Transactional
     public SurfaceType save(SurfaceType surfaceType) {
-        return surfaceTypeRepository.save(surfaceType);
+        SurfaceType saved = surfaceTypeRepository.save(surfaceType);
+        eventPublisher.publishEvent(new SurfaceTypeChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional
-    public SurfaceTypeResponseDto update(Long id, SurfaceTypeRequestDTO updated) {
+    public SurfaceTypeResponseDto update(Long id, SurfaceTypeRequestDTO updated, Long expectedVersion) {
         SurfaceType existing = findByIdOrThrow(id);
+        IfMatch.validateVersion(expectedVersion, existing.getVersion(), "SurfaceType");
 
         existing.setName(updated.name());
         existing.setPricePerMinute(updated.pricePerMinute());
 
         surfaceTypeRepository.update(existing);
+        eventPublisher.publishEvent(new SurfaceTypeChangedEvent(id));
 
         return mapToResponseDto(existing);
     }
@@ -66,8 +78,10 @@ public class SurfaceTypeService {
         if (!surfaceTypeRepository.softDelete(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,"SurfaceType with id " + id + " not found.");
         }
+        eventPublisher.publishEvent(new SurfaceTypeChangedEvent(id));
     }
 
+    @Transactional(readOnly = true)
     public long count() {
         return surfaceTypeRepository.count();
     }
@@ -82,7 +96,7 @@ public class SurfaceTypeService {
 
     public SurfaceTypeResponseDto mapToResponseDto(SurfaceType st) {
         return new SurfaceTypeResponseDto(
-                st.getId(), st.getName(), st.getPricePerMinute()
+                st.getId(), st.getName(), st.getPricePerMinute(), st.getVersion()
         );
     }
 }
@@ -1,4 +1,4 @@
 package com.example.tennisclub.surfaceType.dto;
 
-public record SurfaceTypeResponseDto(Long id, String name, double pricePerMinute) {
+public record SurfaceTypeResponseDto(Long id, String name, double pricePerMinute, Long version) {
 }
@@ -25,4 +25,8 @@ public class SurfaceType {
     @Builder.Default
     private Boolean deleted = false;
 
+    //checked by Hibernate on every update, concurrent edits fail instead of overwriting each other
+    @Version
+    private Long version;
+
 }
@@ -0,0 +1,4 @@
+package com.example.tennisclub.surfaceType.event;
+
+//published whenever a surface type is created, repriced or deleted
+public record SurfaceTypeChangedEvent(Long surfaceTypeId) {}
@@ -18,22 +18,26 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public User findByPhoneNumberOrThrow(String phoneNumber) {
         return userRepository.findByPhoneNumber(phoneNumber)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "User with phone number " + phoneNumber + " not found"));
     }
 
+    @Transactional(readOnly = true)
     public User findByUsernameOrThrow(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "User not found with username: " + username));
     }
 
+    @Transactional(readOnly = true)
     public boolean userWithUsernameExistsRegardlessOfDeletion(String username) {
         return userRepository.findAnyByUsername(username).isPresent();
     }
 
+    @Transactional(readOnly = true)
     public boolean userWithPhoneNumberExistsRegardlessOfDeletion(String phoneNumber) {
         return userRepository.findAnyByPhoneNumber(phoneNumber).isPresent();
     }
@@ -0,0 +1,47 @@
+package com.example.tennisclub.versioning;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+//Conditional updates: entity versions travel as ETags and come back in If-Match headers
+public final class IfMatch {
+
+    private IfMatch() {
+    }
+
+    //version expected by the client, null when the header is absent or "*"
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "If-Match must contain a single entity version");
+        }
+    }
+
+    public static void validateVersion(Long expectedVersion, Long currentVersion, String entityName) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    entityName + " was modified concurrently, current version is " + currentVersion);
+        }
+    }
+
+    public static <T> ResponseEntity<T> okWithETag(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(String.valueOf(version));
+        }
+        return builder.body(body);
+    }
+}
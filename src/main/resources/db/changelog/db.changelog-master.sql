@@ -75,3 +75,271 @@ CREATE TABLE refresh_tokens (
     FOREIGN KEY (user_id) REFERENCES users(id)
 );
 --rollback DROP TABLE refresh_tokens;
+
+-- ========================================
+-- Changeset for fixed-point reservation prices
+--changeset pricing:total_price-numeric
+ALTER TABLE reservation ALTER COLUMN total_price TYPE NUMERIC(12, 2) USING ROUND(total_price::numeric, 2);
+--rollback ALTER TABLE reservation ALTER COLUMN total_price TYPE DOUBLE PRECISION;
+
+-- ========================================
+-- Changeset for optimistic locking version columns
+--changeset locking:version-columns
+ALTER TABLE surface_type ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE court ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE reservation ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+--rollback ALTER TABLE reservation DROP COLUMN version; ALTER TABLE court DROP COLUMN version; ALTER TABLE surface_type DROP COLUMN version;
+
+-- ========================================
+-- Changeset for the denormalized reservation listing read model
+--changeset readmodel:create-reservation_view
+CREATE TABLE reservation_view (
+    reservation_id BIGINT PRIMARY KEY,
+    court_id BIGINT NOT NULL,
+    court_name VARCHAR(255) NOT NULL,
+    court_version BIGINT NOT NULL,
+    surface_type_id BIGINT NOT NULL,
+    surface_type_name VARCHAR(255) NOT NULL,
+    price_per_minute DOUBLE PRECISION NOT NULL,
+    surface_type_version BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(20) NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    is_doubles BOOLEAN NOT NULL,
+    total_price NUMERIC(12, 2),
+    version BIGINT NOT NULL
+);
+CREATE INDEX idx_reservation_view_start ON reservation_view (start_time);
+CREATE INDEX idx_reservation_view_court_start ON reservation_view (court_id, start_time);
+CREATE INDEX idx_reservation_view_username_start ON reservation_view (username, start_time);
+CREATE INDEX idx_reservation_view_phone_start ON reservation_view (phone_number, start_time);
+INSERT INTO reservation_view (reservation_id, court_id, court_name, court_version,
+    surface_type_id, surface_type_name, price_per_minute, surface_type_version,
+    user_id, username, phone_number, start_time, end_time, is_doubles, total_price, version)
+SELECT r.id, c.id, c.name, c.version, s.id, s.name, s.price_per_minute, s.version,
+    u.id, u.username, u.phone_number, r.start_time, r.end_time, r.is_doubles, r.total_price, r.version
+FROM reservation r
+JOIN court c ON c.id = r.court_id
+JOIN surface_type s ON s.id = c.surface_type_id
+JOIN users u ON u.id = r.user_id
+WHERE r.deleted = false;
+--rollback DROP TABLE reservation_view;
+
+-- ========================================
+-- Changeset for the transactional outbox of reservation events
+--changeset outbox:create-outbox
+CREATE TABLE outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    partition_key BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500)
+);
+CREATE INDEX idx_outbox_pending ON outbox (id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_partition ON outbox (partition_key, id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_published ON outbox (published_at);
+--rollback DROP TABLE outbox;
+
+-- ========================================
+-- Changeset for monthly range partitioning of reservation by start_time
+-- partitions from the first booked month to three months ahead, later months are created by the app
+--changeset partitioning:reservation-monthly-partitions dbms:postgresql splitStatements:false
+ALTER TABLE reservation RENAME TO reservation_unpartitioned;
+ALTER SEQUENCE reservation_id_seq OWNED BY NONE;
+CREATE TABLE reservation (
+    id BIGINT NOT NULL DEFAULT nextval('reservation_id_seq'),
+    court_id BIGINT NOT NULL REFERENCES court(id),
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    is_doubles BOOLEAN NOT NULL,
+    total_price NUMERIC(12, 2),
+    deleted BOOLEAN DEFAULT FALSE,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, start_time)
+) PARTITION BY RANGE (start_time);
+ALTER SEQUENCE reservation_id_seq OWNED BY reservation.id;
+CREATE TABLE reservation_default PARTITION OF reservation DEFAULT;
+DO $$
+DECLARE
+    m DATE := date_trunc('month', COALESCE((SELECT MIN(start_time) FROM reservation_unpartitioned), now()));
+    last_month DATE := date_trunc('month', now()) + INTERVAL '3 months';
+BEGIN
+    WHILE m <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF reservation FOR VALUES FROM (%L) TO (%L)',
+                'reservation_p' || to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+        m := m + INTERVAL '1 month';
+    END LOOP;
+END $$;
+INSERT INTO reservation (id, court_id, user_id, start_time, end_time, is_doubles, total_price, deleted, version)
+SELECT id, court_id, user_id, start_time, end_time, is_doubles, total_price, deleted, version FROM reservation_unpartitioned;
+DROP TABLE reservation_unpartitioned;
+CREATE INDEX idx_reservation_court_start ON reservation (court_id, start_time);
+CREATE INDEX idx_reservation_user_start ON reservation (user_id, start_time);
+CREATE SCHEMA IF NOT EXISTS reservation_archive;
+--rollback CREATE TABLE reservation_unpartitioned (LIKE reservation INCLUDING DEFAULTS);
+--rollback INSERT INTO reservation_unpartitioned SELECT * FROM reservation;
+--rollback ALTER SEQUENCE reservation_id_seq OWNED BY NONE;
+--rollback DROP TABLE reservation;
+--rollback ALTER TABLE reservation_unpartitioned RENAME TO reservation;
+--rollback ALTER TABLE reservation ADD PRIMARY KEY (id);
+--rollback ALTER TABLE reservation ADD FOREIGN KEY (court_id) REFERENCES court(id);
+--rollback ALTER TABLE reservation ADD FOREIGN KEY (user_id) REFERENCES users(id);
+--rollback ALTER SEQUENCE reservation_id_seq OWNED BY reservation.id;
+
+-- ========================================
+-- Changeset for the cold history table of ended reservations
+--changeset history:create-reservation_history
+CREATE TABLE reservation_history (
+    id BIGINT PRIMARY KEY,
+    court_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    is_doubles BOOLEAN NOT NULL,
+    total_price NUMERIC(12, 2),
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    version BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (court_id) REFERENCES court(id),
+    FOREIGN KEY (user_id) REFERENCES users(id)
+);
+CREATE INDEX idx_reservation_history_court_start ON reservation_history (court_id, start_time);
+CREATE INDEX idx_reservation_history_user_start ON reservation_history (user_id, start_time);
+--rollback DROP TABLE reservation_history;
+
+-- ========================================
+-- Changeset for the waitlist of fully booked slots
+--changeset waitlist:create-reservation_waitlist
+CREATE TABLE reservation_waitlist (
+    id BIGSERIAL PRIMARY KEY,
+    court_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    is_doubles BOOLEAN NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'WAITING',
+    created_at TIMESTAMP NOT NULL,
+    reservation_id BIGINT,
+    FOREIGN KEY (court_id) REFERENCES court(id),
+    FOREIGN KEY (user_id) REFERENCES users(id)
+);
+-- promotion only ever looks at waiting rows
+CREATE INDEX idx_waitlist_court_start ON reservation_waitlist (court_id, start_time, id) WHERE status = 'WAITING';
+CREATE INDEX idx_waitlist_user ON reservation_waitlist (user_id);
+--rollback DROP TABLE reservation_waitlist;
+
+-- ========================================
+-- Changeset for stored responses of idempotent POST requests
+--changeset idempotency:create-idempotency_key
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(600) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status INTEGER NOT NULL,
+    content_type VARCHAR(100),
+    body BYTEA NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_idempotency_key_expires ON idempotency_key (expires_at);
+--rollback DROP TABLE idempotency_key;
+
+-- ========================================
+-- Changeset for covering indexes of the analytics aggregates
+-- index-only scans over a start_time range, reservation builds one per monthly partition
+--changeset analytics:reservation-start-covering-indexes dbms:postgresql
+CREATE INDEX idx_reservation_start_covering ON reservation (start_time)
+    INCLUDE (court_id, end_time, total_price) WHERE deleted = false;
+CREATE INDEX idx_reservation_history_start_covering ON reservation_history (start_time)
+    INCLUDE (court_id, end_time, total_price) WHERE deleted = false;
+--rollback DROP INDEX idx_reservation_history_start_covering;
+--rollback DROP INDEX idx_reservation_start_covering;
+
+-- ========================================
+-- Changeset for table: court_usage_daily
+-- per court and day rollup of the bookings starting that day, maintained by deltas from reservation writes
+--changeset analytics:create-court_usage_daily
+CREATE TABLE court_usage_daily (
+    court_id BIGINT NOT NULL,
+    usage_day DATE NOT NULL,
+    reservations BIGINT NOT NULL,
+    booked_minutes BIGINT NOT NULL,
+    revenue NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (court_id, usage_day),
+    FOREIGN KEY (court_id) REFERENCES court(id)
+);
+CREATE INDEX idx_court_usage_daily_day ON court_usage_daily (usage_day);
+INSERT INTO court_usage_daily (court_id, usage_day, reservations, booked_minutes, revenue)
+SELECT r.court_id, CAST(r.start_time AS DATE), COUNT(*),
+    SUM(FLOOR(EXTRACT(EPOCH FROM (r.end_time - r.start_time)) / 60)), COALESCE(SUM(r.total_price), 0)
+FROM (
+    SELECT court_id, start_time, end_time, total_price FROM reservation WHERE deleted = false
+    UNION ALL
+    SELECT court_id, start_time, end_time, total_price FROM reservation_history WHERE deleted = false
+) r
+GROUP BY r.court_id, CAST(r.start_time AS DATE);
+--rollback DROP TABLE court_usage_daily;
+
+-- ========================================
+-- Changeset for outbox retry backoff and dead letters
+-- the relay locks due events only and keeps the events of one aggregate in id order
+--changeset outbox:retry-backoff-dead-letter
+ALTER TABLE outbox ADD COLUMN next_attempt_at TIMESTAMP;
+ALTER TABLE outbox ADD COLUMN failed_at TIMESTAMP;
+DROP INDEX idx_outbox_pending;
+DROP INDEX idx_outbox_partition;
+CREATE INDEX idx_outbox_pending ON outbox (id) WHERE published_at IS NULL AND failed_at IS NULL;
+CREATE INDEX idx_outbox_aggregate ON outbox (aggregate_type, aggregate_id, id) WHERE published_at IS NULL;
+--rollback DROP INDEX idx_outbox_aggregate; DROP INDEX idx_outbox_pending;
+--rollback CREATE INDEX idx_outbox_partition ON outbox (partition_key, id) WHERE published_at IS NULL;
+--rollback CREATE INDEX idx_outbox_pending ON outbox (id) WHERE published_at IS NULL;
+--rollback ALTER TABLE outbox DROP COLUMN failed_at; ALTER TABLE outbox DROP COLUMN next_attempt_at;
+
+-- ========================================
+-- Changeset for seed data runs
+-- the generator records a run before writing and completes it after the last court, a run left open means partial data
+--changeset seed:create-seed_data_run
+CREATE TABLE seed_data_run (
+    id BIGSERIAL PRIMARY KEY,
+    started_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP,
+    courts INT NOT NULL,
+    users INT NOT NULL,
+    reservations BIGINT NOT NULL
+);
+--rollback DROP TABLE seed_data_run;
+
+-- ========================================
+-- Changeset for idempotency claims across instances and replayed headers
+-- a row without a status is a pending claim held by the instance running the first execution
+--changeset idempotency:pending-claim-and-headers
+ALTER TABLE idempotency_key ALTER COLUMN status DROP NOT NULL;
+ALTER TABLE idempotency_key ALTER COLUMN body DROP NOT NULL;
+ALTER TABLE idempotency_key ADD COLUMN etag VARCHAR(100);
+ALTER TABLE idempotency_key ADD COLUMN location VARCHAR(500);
+--rollback ALTER TABLE idempotency_key DROP COLUMN location; ALTER TABLE idempotency_key DROP COLUMN etag;
+--rollback DELETE FROM idempotency_key WHERE status IS NULL;
+--rollback ALTER TABLE idempotency_key ALTER COLUMN body SET NOT NULL; ALTER TABLE idempotency_key ALTER COLUMN status SET NOT NULL;
+
+-- ========================================
+-- Changeset for outbox ordering per court
+-- appending an event bumps court.outbox_sequence, the row lock orders the events of one court by commit
+-- existing rows are numbered in id order, the counters continue from there
+--changeset outbox:court-sequence
+ALTER TABLE court ADD COLUMN outbox_sequence BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE outbox ADD COLUMN partition_sequence BIGINT;
+UPDATE outbox o SET partition_sequence = s.seq
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY partition_key ORDER BY id) AS seq FROM outbox) s
+WHERE o.id = s.id;
+UPDATE court c SET outbox_sequence = COALESCE((SELECT MAX(o.partition_sequence) FROM outbox o WHERE o.partition_key = c.id), 0);
+ALTER TABLE outbox ALTER COLUMN partition_sequence SET NOT NULL;
+DROP INDEX idx_outbox_aggregate;
+CREATE INDEX idx_outbox_partition_sequence ON outbox (partition_key, partition_sequence) WHERE published_at IS NULL AND failed_at IS NULL;
+--rollback DROP INDEX idx_outbox_partition_sequence;
+--rollback CREATE INDEX idx_outbox_aggregate ON outbox (aggregate_type, aggregate_id, id) WHERE published_at IS NULL;
+--rollback ALTER TABLE outbox DROP COLUMN partition_sequence; ALTER TABLE court DROP COLUMN outbox_sequence;
@@ -0,0 +1,140 @@
+package com.example.tennisclub.integrationTest;
+
+import com.example.tennisclub.auth.dto.LogRequestDto;
+import com.example.tennisclub.auth.dto.TokenResponseDto;
+import com.example.tennisclub.court.dto.CourtRequestDto;
+import com.example.tennisclub.reservation.dto.ReservationRequestDto;
+import com.example.tennisclub.surfaceType.dto.SurfaceTypeRequestDTO;
+import com.example.tennisclub.user.Role;
+import com.example.tennisclub.user.UserService;
+import com.example.tennisclub.user.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//a PUT answered with an ETag must accept that ETag as If-Match on the next PUT
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConditionalUpdateIT {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String adminToken;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        var username = "etagAdmin";
+        var password = "pass";
+
+        userService.save(User.builder()
+                .phoneNumber("293456789")
+                .password(passwordEncoder.encode(password))
+                .username(username)
+                .roles(Set.of(Role.ADMIN))
+                .build());
+
+        String json = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LogRequestDto(username, password))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        adminToken = objectMapper.readValue(json, TokenResponseDto.class).accessToken();
+    }
+
+    private JsonNode create(String path, Object body) throws Exception {
+        String json = mockMvc.perform(post(path)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readTree(json);
+    }
+
+    //returns the ETag of the successful update
+    private String update(String path, Object body, String ifMatch) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(put(path)
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header(HttpHeaders.IF_MATCH, ifMatch)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertTwoUpdatesChain(String path, JsonNode created, Object first, Object second) throws Exception {
+        String firstETag = update(path, first, "\"" + created.get("version").asLong() + "\"");
+        String secondETag = update(path, second, firstETag);
+
+        assertEquals("\"" + (created.get("version").asLong() + 1) + "\"", firstETag);
+        assertNotEquals(firstETag, secondETag);
+    }
+
+    @Test
+    void surfaceTypeUpdate_ETagIsAcceptedByTheNextUpdate() throws Exception {
+        JsonNode surface = create("/api/surface-types", new SurfaceTypeRequestDTO("etag grass", 0.4));
+
+        assertTwoUpdatesChain("/api/surface-types/" + surface.get("id").asLong(), surface,
+                new SurfaceTypeRequestDTO("etag grass", 0.5),
+                new SurfaceTypeRequestDTO("etag grass", 0.6));
+    }
+
+    @Test
+    void courtUpdate_ETagIsAcceptedByTheNextUpdate() throws Exception {
+        long surfaceId = create("/api/surface-types", new SurfaceTypeRequestDTO("etag clay", 0.5)).get("id").asLong();
+        JsonNode court = create("/api/courts", new CourtRequestDto("Etag court", surfaceId));
+
+        assertTwoUpdatesChain("/api/courts/" + court.get("id").asLong(), court,
+                new CourtRequestDto("Etag court A", surfaceId),
+                new CourtRequestDto("Etag court B", surfaceId));
+    }
+
+    @Test
+    void reservationUpdate_ETagIsAcceptedByTheNextUpdate() throws Exception {
+        long surfaceId = create("/api/surface-types", new SurfaceTypeRequestDTO("etag hard", 0.5)).get("id").asLong();
+        long courtId = create("/api/courts", new CourtRequestDto("Etag reservation court", surfaceId)).get("id").asLong();
+        LocalDateTime day = LocalDateTime.now().plusDays(3).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        JsonNode reservation = create("/api/reservations",
+                new ReservationRequestDto(courtId, false, day, day.plusHours(1)));
+
+        assertTwoUpdatesChain("/api/reservations/" + reservation.get("id").asLong(), reservation,
+                new ReservationRequestDto(courtId, false, day.plusHours(1), day.plusHours(2)),
+                new ReservationRequestDto(courtId, true, day.plusHours(1), day.plusHours(2)));
+    }
+}
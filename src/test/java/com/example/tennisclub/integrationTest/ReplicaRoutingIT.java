@@ -0,0 +1,150 @@
+package com.example.tennisclub.integrationTest;
+
+import com.example.tennisclub.auth.dto.LogRequestDto;
+import com.example.tennisclub.auth.dto.TokenResponseDto;
+import com.example.tennisclub.surfaceType.dto.SurfaceTypeRequestDTO;
+import com.example.tennisclub.user.Role;
+import com.example.tennisclub.user.UserService;
+import com.example.tennisclub.user.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//primary and replica are two separate H2 databases, the test plays the replication by copying the primary over
+//rows written to one of them only show which pool served a request, the routing counters cannot tell
+//because the scheduled jobs take connections at the same time
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-it-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "replica.url=" + ReplicaRoutingIT.REPLICA_URL,
+        "replica.driver-class-name=org.h2.Driver",
+        "replica.username=sa",
+        "replica.password="
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replica"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingIT {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-it-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private String memberToken;
+    private String adminToken;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        createUser("replicaMember", "393456789", Role.MEMBER);
+        createUser("replicaAdmin", "493456789", Role.ADMIN);
+        //login reads the users on the replica
+        replicate();
+        writeToReplicaOnly("INSERT INTO surface_type (id, name, price_per_minute, deleted, version) "
+                + "VALUES (9001, 'replica only grass', 0.5, false, 0)");
+
+        memberToken = login("replicaMember");
+        adminToken = login("replicaAdmin");
+    }
+
+    private void createUser(String username, String phone, Role role) {
+        userService.save(User.builder()
+                .phoneNumber(phone)
+                .password(passwordEncoder.encode("pass"))
+                .username(username)
+                .roles(Set.of(role))
+                .build());
+    }
+
+    private String login(String username) throws Exception {
+        String json = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LogRequestDto(username, "pass"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readValue(json, TokenResponseDto.class).accessToken();
+    }
+
+    //replaces the replica with a copy of the primary, schema and rows
+    private void replicate() throws Exception {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private void writeToReplicaOnly(String sql) throws Exception {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private String surfaceTypes(String token) throws Exception {
+        return mockMvc.perform(get("/api/surface-types")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void readOnlyRequest_isServedByTheReplica() throws Exception {
+        String body = surfaceTypes(memberToken);
+
+        assertTrue(body.contains("replica only grass"));
+    }
+
+    @Test
+    void readAfterOwnWrite_isServedByThePrimary() throws Exception {
+        mockMvc.perform(post("/api/surface-types")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SurfaceTypeRequestDTO("primary only clay", 0.5))))
+                .andExpect(status().isOk());
+
+        //the replica has not seen the new surface type yet, the staleness window keeps the writer on the primary
+        String body = surfaceTypes(adminToken);
+
+        assertTrue(body.contains("primary only clay"));
+        assertFalse(body.contains("replica only grass"));
+    }
+}
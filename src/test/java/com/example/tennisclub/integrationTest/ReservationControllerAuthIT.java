@@ -16,6 +16,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -26,6 +27,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Set;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -33,6 +35,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+//the prometheus endpoint is only exported with metrics enabled
+@AutoConfigureObservability(tracing = false)
 @ActiveProfiles("test")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class ReservationControllerAuthIT {
@@ -193,6 +197,37 @@ class ReservationControllerAuthIT {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void prometheusEndpoint_ShouldBeOpenToTheScrapeUser() throws Exception {
+        //application-test.properties sets the scrape password
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        //the scrape user only exists on the prometheus chain
+        mockMvc.perform(get("/api/reservations")
+                        .with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheusEndpoint_ShouldOnlyBeOpenToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + memberToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void unauthenticatedUserCannotCreateReservation() throws Exception {
         ReservationRequestDto requestDto = new ReservationRequestDto(
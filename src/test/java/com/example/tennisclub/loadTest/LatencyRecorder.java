@@ -0,0 +1,70 @@
+package com.example.tennisclub.loadTest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+//Collects latencies and status codes of a single endpoint
+public class LatencyRecorder {
+
+    private final String endpoint;
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> statusCounts = new TreeMap<>();
+
+    public LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public synchronized void record(long latencyNanos, int status) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        statusCounts.merge(status, 1, Integer::sum);
+    }
+
+    public synchronized EndpointResult summarize(double measuredSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+
+        int errors = statusCounts.entrySet().stream()
+                //409 is an expected outcome of competing bookings, not an error
+                .filter(e -> e.getKey() >= 400 && e.getKey() != 409)
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+
+        return new EndpointResult(
+                endpoint,
+                count,
+                errors,
+                count / measuredSeconds,
+                percentileMillis(sorted, 50),
+                percentileMillis(sorted, 90),
+                percentileMillis(sorted, 95),
+                percentileMillis(sorted, 99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0,
+                new TreeMap<>(statusCounts));
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    public record EndpointResult(
+            String endpoint,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Millis,
+            double p90Millis,
+            double p95Millis,
+            double p99Millis,
+            double maxMillis,
+            Map<Integer, Integer> statusCounts
+    ) {}
+}
@@ -0,0 +1,30 @@
+package com.example.tennisclub.loadTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Per-endpoint recorders shared by all virtual users; samples taken during warm-up are dropped
+public class LoadTestMetrics {
+
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        if (!recording) {
+            return;
+        }
+        recorders.computeIfAbsent(endpoint, LatencyRecorder::new).record(latencyNanos, status);
+    }
+
+    public List<LatencyRecorder.EndpointResult> summarize(double measuredSeconds) {
+        return recorders.values().stream()
+                .map(recorder -> recorder.summarize(measuredSeconds))
+                .sorted((a, b) -> a.endpoint().compareTo(b.endpoint()))
+                .toList();
+    }
+}
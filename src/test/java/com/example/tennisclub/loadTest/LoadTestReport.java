@@ -0,0 +1,104 @@
+package com.example.tennisclub.loadTest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//Prints the per-endpoint summary and compares it with a stored baseline or an earlier run
+public class LoadTestReport {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final List<LatencyRecorder.EndpointResult> results;
+
+    public LoadTestReport(List<LatencyRecorder.EndpointResult> results) {
+        this.results = results;
+    }
+
+    public void print() {
+        System.out.println();
+        System.out.printf("%-38s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.EndpointResult r : results) {
+            System.out.printf(Locale.ROOT, "%-38s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.requests(), r.errors(), r.throughputPerSecond(),
+                    r.p50Millis(), r.p90Millis(), r.p95Millis(), r.p99Millis(), r.maxMillis());
+        }
+        System.out.println();
+    }
+
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        objectMapper.writeValue(file.toFile(), results);
+        System.out.println("Results written to " + file.toAbsolutePath());
+    }
+
+    //side by side with an earlier run, e.g. default versus tuned connection pool settings
+    public void printComparison(Path otherResultsFile) throws IOException {
+        Map<String, LatencyRecorder.EndpointResult> other = read(otherResultsFile);
+
+        System.out.println("Compared with " + otherResultsFile.toAbsolutePath());
+        System.out.printf("%-38s %9s %9s %8s %9s %9s %8s%n",
+                "endpoint", "req/s", "req/s", "change", "p95 ms", "p95 ms", "change");
+        for (LatencyRecorder.EndpointResult current : results) {
+            LatencyRecorder.EndpointResult before = other.get(current.endpoint());
+            if (before == null) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-38s %9.1f %9.1f %+7.1f%% %9.2f %9.2f %+7.1f%%%n",
+                    current.endpoint(),
+                    before.throughputPerSecond(), current.throughputPerSecond(),
+                    change(before.throughputPerSecond(), current.throughputPerSecond()),
+                    before.p95Millis(), current.p95Millis(),
+                    change(before.p95Millis(), current.p95Millis()));
+        }
+        System.out.println();
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    //an endpoint regresses when its p95 grows or its throughput drops by more than the tolerance
+    public List<String> findRegressions(Path baselineFile, double tolerance) throws IOException {
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile.toAbsolutePath() + ", skipping comparison.");
+            return List.of();
+        }
+
+        Map<String, LatencyRecorder.EndpointResult> baseline = read(baselineFile);
+
+        List<String> regressions = new ArrayList<>();
+        for (LatencyRecorder.EndpointResult current : results) {
+            LatencyRecorder.EndpointResult base = baseline.get(current.endpoint());
+            if (base == null) {
+                continue;
+            }
+            if (current.p95Millis() > base.p95Millis() * (1 + tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s p95 %.2f ms -> %.2f ms",
+                        current.endpoint(), base.p95Millis(), current.p95Millis()));
+            }
+            if (current.throughputPerSecond() < base.throughputPerSecond() * (1 - tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s throughput %.1f req/s -> %.1f req/s",
+                        current.endpoint(), base.throughputPerSecond(), current.throughputPerSecond()));
+            }
+        }
+        return regressions;
+    }
+
+    private Map<String, LatencyRecorder.EndpointResult> read(Path file) throws IOException {
+        return objectMapper
+                .readValue(file.toFile(), new TypeReference<List<LatencyRecorder.EndpointResult>>() {})
+                .stream()
+                .collect(Collectors.toMap(LatencyRecorder.EndpointResult::endpoint, Function.identity()));
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.tennisclub.loadTest;
+
+import com.example.tennisclub.TennisClubApplication;
+import com.example.tennisclub.auth.dto.LogRequestDto;
+import com.example.tennisclub.auth.dto.RegistRequestDto;
+import com.example.tennisclub.court.dto.CourtRequestDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ Reproducible HTTP load test of the reservation API.
+
+ Boots the application with the embedded "loadtest" profile (H2, seeded data) unless loadtest.baseUrl is given,
+ registers members, logs them in via /api/auth/login and runs a weighted mix of listing, booking, updating
+ and cancelling. Run with:
+
+   mvn -Pload-test test-compile exec:java [-Dloadtest.users=20 -Dloadtest.duration=60 ...]
+
+ Supported system properties (defaults in brackets):
+   loadtest.baseUrl          target an already running instance instead of booting one
+   loadtest.profiles         extra Spring profiles for the booted instance, comma separated
+   loadtest.users [20]       concurrent virtual users
+   loadtest.courts [8]       courts available for booking, missing ones are created by the admin
+   loadtest.warmup [10]      warm-up seconds, not recorded
+   loadtest.duration [60]    measured seconds
+   loadtest.seed [42]        seed of the request mix
+   loadtest.results          [target/loadtest/results.json]
+   loadtest.baseline         [src/test/resources/loadtest/baseline.json]
+   loadtest.tolerance [0.25] allowed relative p95 / throughput regression
+   loadtest.updateBaseline   overwrite the baseline with this run
+   loadtest.compareWith      results file of an earlier run to print side by side, e.g. default versus tuned pool:
+                               -Dloadtest.profiles=loadtest-postgres -Dloadtest.results=target/loadtest/defaults.json
+                               -Dloadtest.profiles=loadtest-postgres,postgres-tuned -Dloadtest.compareWith=target/loadtest/defaults.json
+*/
+public class LoadTestRunner {
+
+    private static final String ADMIN_USERNAME = "Alice";
+    private static final String ADMIN_PASSWORD = "12345";
+    private static final String MEMBER_PASSWORD = "load-test-pass";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final String baseUrl;
+
+    public LoadTestRunner(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl");
+        ConfigurableApplicationContext context = null;
+
+        if (baseUrl == null) {
+            context = startApplication(System.getProperty("loadtest.profiles", ""));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        int exitCode;
+        try {
+            exitCode = new LoadTestRunner(baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext startApplication(String extraProfiles) {
+        List<String> profiles = new ArrayList<>(List.of("loadtest"));
+        for (String profile : extraProfiles.split(",")) {
+            if (!profile.isBlank()) {
+                profiles.add(profile.trim());
+            }
+        }
+        return new SpringApplicationBuilder(TennisClubApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run();
+    }
+
+    public int run() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 20);
+        int courts = Integer.getInteger("loadtest.courts", 8);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+        int durationSeconds = Integer.getInteger("loadtest.duration", 60);
+        long seed = Long.getLong("loadtest.seed", 42L);
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25"));
+        Path resultsFile = Path.of(System.getProperty("loadtest.results", "target/loadtest/results.json"));
+        Path baselineFile = Path.of(System.getProperty("loadtest.baseline", "src/test/resources/loadtest/baseline.json"));
+
+        List<Long> courtIds = prepareCourts(courts);
+        List<String> usernames = registerMembers(users, seed);
+
+        LoadTestMetrics metrics = new LoadTestMetrics();
+        AtomicLong deadline = new AtomicLong(Long.MAX_VALUE);
+
+        System.out.printf("Running %d users against %s (%ds warm-up, %ds measured)%n",
+                users, baseUrl, warmupSeconds, durationSeconds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            running.add(executor.submit(new VirtualUser(baseUrl, http, objectMapper, metrics, courtIds,
+                    usernames.get(i), MEMBER_PASSWORD, seed + i, () -> System.nanoTime() < deadline.get())));
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        metrics.startRecording();
+        long measureStart = System.nanoTime();
+        deadline.set(measureStart + TimeUnit.SECONDS.toNanos(durationSeconds));
+
+        for (Future<?> user : running) {
+            user.get();
+        }
+        executor.shutdown();
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+        LoadTestReport report = new LoadTestReport(metrics.summarize(measuredSeconds));
+        report.print();
+        report.write(resultsFile);
+
+        String compareWith = System.getProperty("loadtest.compareWith");
+        if (compareWith != null) {
+            report.printComparison(Path.of(compareWith));
+        }
+
+        if (Boolean.getBoolean("loadtest.updateBaseline")) {
+            report.write(baselineFile);
+            return 0;
+        }
+
+        List<String> regressions = report.findRegressions(baselineFile, tolerance);
+        regressions.forEach(r -> System.out.println("REGRESSION " + r));
+        return regressions.isEmpty() ? 0 : 1;
+    }
+
+    //the seeded admin tops up the courts so bookings are spread like on a real club
+    private List<Long> prepareCourts(int wanted) throws IOException, InterruptedException {
+        String adminToken = login(ADMIN_USERNAME, ADMIN_PASSWORD);
+
+        List<Long> courtIds = new ArrayList<>();
+        objectMapper.readTree(send(get("/api/courts", adminToken)).body())
+                .forEach(court -> courtIds.add(court.get("id").asLong()));
+
+        JsonNode surfaces = objectMapper.readTree(send(get("/api/surface-types", adminToken)).body());
+        while (courtIds.size() < wanted) {
+            long surfaceId = surfaces.get(courtIds.size() % surfaces.size()).get("id").asLong();
+            CourtRequestDto court = new CourtRequestDto("Load court " + (courtIds.size() + 1), surfaceId);
+            HttpResponse<String> response = send(post("/api/courts", court, adminToken));
+            courtIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+        return courtIds;
+    }
+
+    private List<String> registerMembers(int count, long seed) throws IOException, InterruptedException {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = "load-user-" + seed + "-" + i;
+            String phone = String.format("77%08d", seed * 1000 + i);
+            HttpResponse<String> response =
+                    send(post("/api/auth/register", new RegistRequestDto(username, phone, MEMBER_PASSWORD), null));
+            //409 when re-running against the same external instance
+            if (response.statusCode() != 201 && response.statusCode() != 409) {
+                throw new IllegalStateException("Registration failed with " + response.statusCode());
+            }
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/api/auth/login", new LogRequestDto(username, password), null));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + username + " failed with " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
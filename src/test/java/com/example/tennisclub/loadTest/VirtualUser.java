@@ -0,0 +1,161 @@
+package com.example.tennisclub.loadTest;
+
+import com.example.tennisclub.auth.dto.LogRequestDto;
+import com.example.tennisclub.reservation.dto.ReservationRequestDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+//A single logged-in member executing the weighted reservation mix
+public class VirtualUser implements Runnable {
+
+    //cumulative weights of the request mix, in percent
+    private static final int LIST_MY = 30;
+    private static final int LIST_BY_COURT = LIST_MY + 20;
+    private static final int LIST_ALL = LIST_BY_COURT + 10;
+    private static final int BOOK = LIST_ALL + 25;
+    private static final int UPDATE = BOOK + 8;
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final LoadTestMetrics metrics;
+    private final List<Long> courtIds;
+    private final String username;
+    private final String password;
+    private final Random random;
+    private final BooleanSupplier running;
+
+    private final List<Long> ownReservations = new ArrayList<>();
+    private String accessToken;
+
+    public VirtualUser(String baseUrl, HttpClient http, ObjectMapper objectMapper, LoadTestMetrics metrics,
+                       List<Long> courtIds, String username, String password, long seed, BooleanSupplier running) {
+        this.baseUrl = baseUrl;
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.courtIds = courtIds;
+        this.username = username;
+        this.password = password;
+        this.random = new Random(seed);
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        try {
+            login();
+            while (running.getAsBoolean()) {
+                nextRequest();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Virtual user " + username + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void login() throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST /api/auth/login",
+                json("/api/auth/login", "POST", new LogRequestDto(username, password), false));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + username + " failed with " + response.statusCode());
+        }
+        accessToken = objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private void nextRequest() throws IOException, InterruptedException {
+        int dice = random.nextInt(100);
+
+        if (dice < LIST_MY) {
+            send("GET /api/reservations/my", get("/api/reservations/my?futureOnly=" + random.nextBoolean()));
+        } else if (dice < LIST_BY_COURT) {
+            send("GET /api/reservations/by-court/{id}", get("/api/reservations/by-court/" + randomCourt()));
+        } else if (dice < LIST_ALL) {
+            send("GET /api/reservations", get("/api/reservations"));
+        } else if (dice < BOOK || ownReservations.isEmpty()) {
+            book();
+        } else if (dice < UPDATE) {
+            update();
+        } else {
+            cancel();
+        }
+    }
+
+    private void book() throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST /api/reservations",
+                json("/api/reservations", "POST", randomSlot(), true));
+
+        if (response.statusCode() == 201) {
+            JsonNode body = objectMapper.readTree(response.body());
+            ownReservations.add(body.get("id").asLong());
+        }
+    }
+
+    private void update() throws IOException, InterruptedException {
+        Long id = ownReservations.get(random.nextInt(ownReservations.size()));
+        send("PUT /api/reservations/{id}", json("/api/reservations/" + id, "PUT", randomSlot(), true));
+    }
+
+    private void cancel() throws IOException, InterruptedException {
+        Long id = ownReservations.remove(random.nextInt(ownReservations.size()));
+        send("DELETE /api/reservations/{id}", HttpRequest.newBuilder(uri("/api/reservations/" + id))
+                .header("Authorization", "Bearer " + accessToken)
+                .DELETE()
+                .build());
+    }
+
+    //random one or one and a half hour slot during opening hours within the next two months
+    private ReservationRequestDto randomSlot() {
+        LocalDateTime start = LocalDate.now()
+                .plusDays(1 + random.nextInt(60))
+                .atTime(7 + random.nextInt(13), random.nextBoolean() ? 0 : 30);
+        LocalDateTime end = start.plusMinutes(random.nextBoolean() ? 60 : 90);
+
+        return new ReservationRequestDto(randomCourt(), random.nextInt(4) == 0, start, end);
+    }
+
+    private Long randomCourt() {
+        return courtIds.get(random.nextInt(courtIds.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(String path, String method, Object body, boolean authenticated) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (authenticated) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        metrics.record(endpoint, System.nanoTime() - start, response.statusCode());
+        return response;
+    }
+}
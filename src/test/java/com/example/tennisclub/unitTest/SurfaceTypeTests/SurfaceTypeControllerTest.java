@@ -59,11 +59,11 @@ public class SurfaceTypeControllerTest {
 
     @BeforeEach
     void setUp() {
-        surfaceTypeResponseDto = new SurfaceTypeResponseDto(1L, "Clay", 25.50);
+        surfaceTypeResponseDto = new SurfaceTypeResponseDto(1L, "Clay", 25.50, 0L);
 
         surfaceTypeRequestDTO = new SurfaceTypeRequestDTO("Clay", 25.50);
 
-        SurfaceTypeResponseDto surfaceType2 = new SurfaceTypeResponseDto(2L, "Grass", 30.00);
+        SurfaceTypeResponseDto surfaceType2 = new SurfaceTypeResponseDto(2L, "Grass", 30.00, 0L);
 
         surfaceTypeList = Arrays.asList(surfaceTypeResponseDto, surfaceType2);
     }
@@ -258,7 +258,7 @@ public class SurfaceTypeControllerTest {
         @WithMockUser(roles = "ADMIN")
         void create_WithPricePerMinuteAtMinimum_ShouldCreateSurfaceType() throws Exception {
             SurfaceTypeRequestDTO validDto = new SurfaceTypeRequestDTO("Clay", 0.01);
-            SurfaceTypeResponseDto responseDto = new SurfaceTypeResponseDto(1L, "Clay", 0.01);
+            SurfaceTypeResponseDto responseDto = new SurfaceTypeResponseDto(1L, "Clay", 0.01, 0L);
             when(surfaceTypeService.create(any(SurfaceTypeRequestDTO.class))).thenReturn(responseDto);
 
             mockMvc.perform(post("/api/surface-types")
@@ -326,10 +326,10 @@ public class SurfaceTypeControllerTest {
         @Test
         @WithMockUser(roles = "ADMIN")
         void update_WithValidData_ShouldUpdateSurfaceType() throws Exception {
-            SurfaceTypeResponseDto updatedResponse = new SurfaceTypeResponseDto(1L, "Hard Court", 35.00);
+            SurfaceTypeResponseDto updatedResponse = new SurfaceTypeResponseDto(1L, "Hard Court", 35.00, 0L);
             SurfaceTypeRequestDTO updateRequest = new SurfaceTypeRequestDTO("Hard Court", 35.00);
 
-            when(surfaceTypeService.update(eq(1L), any(SurfaceTypeRequestDTO.class))).thenReturn(updatedResponse);
+            when(surfaceTypeService.update(eq(1L), any(SurfaceTypeRequestDTO.class), any())).thenReturn(updatedResponse);
 
             mockMvc.perform(put("/api/surface-types/1")
                             .with(csrf())
@@ -341,13 +341,13 @@ public class SurfaceTypeControllerTest {
                     .andExpect(jsonPath("$.name", is("Hard Court")))
                     .andExpect(jsonPath("$.pricePerMinute", is(35.00)));
 
-            verify(surfaceTypeService, times(1)).update(eq(1L), any(SurfaceTypeRequestDTO.class));
+            verify(surfaceTypeService, times(1)).update(eq(1L), any(SurfaceTypeRequestDTO.class), any());
         }
 
         @Test
         @WithMockUser(roles = "ADMIN")
         void update_WithNonExistentId_ShouldReturnNotFound() throws Exception {
-            when(surfaceTypeService.update(eq(999L), any(SurfaceTypeRequestDTO.class)))
+            when(surfaceTypeService.update(eq(999L), any(SurfaceTypeRequestDTO.class), any()))
                     .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "SurfaceType with ID 999 not found"));
 
             mockMvc.perform(put("/api/surface-types/999")
@@ -356,7 +356,7 @@ public class SurfaceTypeControllerTest {
                             .content(objectMapper.writeValueAsString(surfaceTypeRequestDTO)))
                     .andExpect(status().isNotFound());
 
-            verify(surfaceTypeService, times(1)).update(eq(999L), any(SurfaceTypeRequestDTO.class));
+            verify(surfaceTypeService, times(1)).update(eq(999L), any(SurfaceTypeRequestDTO.class), any());
         }
 
         @Test
@@ -370,7 +370,7 @@ public class SurfaceTypeControllerTest {
                             .content(objectMapper.writeValueAsString(invalidDto)))
                     .andExpect(status().isBadRequest());
 
-            verify(surfaceTypeService, never()).update(any(), any());
+            verify(surfaceTypeService, never()).update(any(), any(), any());
         }
 
         @Test
@@ -381,7 +381,7 @@ public class SurfaceTypeControllerTest {
                             .content(objectMapper.writeValueAsString(surfaceTypeRequestDTO)))
                     .andExpect(status().isUnauthorized());
 
-            verify(surfaceTypeService, never()).update(any(), any());
+            verify(surfaceTypeService, never()).update(any(), any(), any());
         }
 
         @Test
@@ -393,7 +393,7 @@ public class SurfaceTypeControllerTest {
                             .content(objectMapper.writeValueAsString(surfaceTypeRequestDTO)))
                     .andExpect(status().isForbidden());
 
-            verify(surfaceTypeService, never()).update(any(), any());
+            verify(surfaceTypeService, never()).update(any(), any(), any());
         }
 
         @Test
@@ -405,7 +405,7 @@ public class SurfaceTypeControllerTest {
                             .content("{}"))
                     .andExpect(status().isBadRequest());
 
-            verify(surfaceTypeService, never()).update(any(), any());
+            verify(surfaceTypeService, never()).update(any(), any(), any());
         }
 
         @Test
@@ -419,7 +419,7 @@ public class SurfaceTypeControllerTest {
                             .content(objectMapper.writeValueAsString(invalidDto)))
                     .andExpect(status().isBadRequest());
 
-            verify(surfaceTypeService, never()).update(any(), any());
+            verify(surfaceTypeService, never()).update(any(), any(), any());
         }
     }
 
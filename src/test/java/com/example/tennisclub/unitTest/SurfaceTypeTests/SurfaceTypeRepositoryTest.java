@@ -7,6 +7,7 @@ import jakarta.persistence.TypedQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -82,6 +83,19 @@ class SurfaceTypeRepositoryTest {
         verify(mockQuery).getResultList();
     }
 
+    @Test
+    void findAllIncludingDeleted_ShouldAlsoReturnDeletedSurfaceTypes() {
+        TypedQuery<SurfaceType> mockQuery = mock(TypedQuery.class);
+
+        when(entityManager.createQuery("SELECT s FROM SurfaceType s", SurfaceType.class))
+                .thenReturn(mockQuery);
+        when(mockQuery.getResultList()).thenReturn(Arrays.asList(activeSurfaceType, deletedSurfaceType));
+
+        List<SurfaceType> result = surfaceTypeRepository.findAllIncludingDeleted();
+
+        assertThat(result).containsExactly(activeSurfaceType, deletedSurfaceType);
+    }
+
     @Test
     void findById_WithValidActiveSurfaceType_ShouldReturnSurfaceType() {
         when(entityManager.find(SurfaceType.class, 1L)).thenReturn(activeSurfaceType);
@@ -185,7 +199,9 @@ class SurfaceTypeRepositoryTest {
         assertThat(result).isEqualTo(updatedSurfaceType);
         assertThat(result.getName()).isEqualTo("Updated Clay");
         assertThat(result.getPricePerMinute()).isEqualTo(40.0);
-        verify(entityManager).merge(activeSurfaceType);
+        InOrder inOrder = inOrder(entityManager);
+        inOrder.verify(entityManager).merge(activeSurfaceType);
+        inOrder.verify(entityManager).flush();
     }
 
 }
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -32,6 +33,9 @@ public class SurfaceTypeServiceTest {
     @Mock
     private EntityFinder entityFinder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SurfaceTypeService surfaceTypeService;
 
@@ -149,7 +153,7 @@ public class SurfaceTypeServiceTest {
 
     @Test
     void mapToResponseDto_ShouldReturnResponseDTO() {
-        SurfaceTypeResponseDto SurfaceTypeResponseDto = new SurfaceTypeResponseDto(surfaceType.getId(),surfaceType.getName(),surfaceType.getPricePerMinute());
+        SurfaceTypeResponseDto SurfaceTypeResponseDto = new SurfaceTypeResponseDto(surfaceType.getId(),surfaceType.getName(),surfaceType.getPricePerMinute(), 0L);
 
         SurfaceTypeResponseDto result = surfaceTypeService.mapToResponseDto(surfaceType);
 
@@ -160,7 +164,7 @@ public class SurfaceTypeServiceTest {
 
     @Test
     void getSurfaceTypeById_ShouldSurfaceTypeResponseDto() {
-        SurfaceTypeResponseDto SurfaceTypeResponseDto = new SurfaceTypeResponseDto(surfaceType.getId(),surfaceType.getName(),surfaceType.getPricePerMinute());
+        SurfaceTypeResponseDto SurfaceTypeResponseDto = new SurfaceTypeResponseDto(surfaceType.getId(),surfaceType.getName(),surfaceType.getPricePerMinute(), 0L);
 
         when(surfaceTypeRepository.findById(1L)).thenReturn(Optional.of(surfaceType));
         when(entityFinder.findByIdOrThrow(Optional.of(surfaceType), 1L, "SurfaceType"))
@@ -200,7 +204,7 @@ public class SurfaceTypeServiceTest {
         when(entityFinder.findByIdOrThrow(Optional.of(surfaceType), 1L, "SurfaceType")).thenReturn(surfaceType);
         when(surfaceTypeRepository.update(any(SurfaceType.class))).thenReturn(updateSurfaceType);
 
-        SurfaceTypeResponseDto result = surfaceTypeService.update(1L, surfaceTypeRequestDTO);
+        SurfaceTypeResponseDto result = surfaceTypeService.update(1L, surfaceTypeRequestDTO, null);
 
         assertThat(result.name()).isEqualTo("updated surfacetype");
 
@@ -214,7 +218,7 @@ public class SurfaceTypeServiceTest {
 
         SurfaceTypeRequestDTO surfaceTypeRequestDTO = new SurfaceTypeRequestDTO("updated surfacetype", 2 * surfaceType.getPricePerMinute());
 
-        assertThatThrownBy(() -> surfaceTypeService.update(999L, surfaceTypeRequestDTO))
+        assertThatThrownBy(() -> surfaceTypeService.update(999L, surfaceTypeRequestDTO, null))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("SurfaceType with ID 999 not found");
 
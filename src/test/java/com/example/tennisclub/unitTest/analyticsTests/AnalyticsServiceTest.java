@@ -0,0 +1,185 @@
+package com.example.tennisclub.unitTest.analyticsTests;
+
+import com.example.tennisclub.analytics.AnalyticsRepository;
+import com.example.tennisclub.analytics.AnalyticsService;
+import com.example.tennisclub.analytics.CourtDayTotals;
+import com.example.tennisclub.analytics.CourtUsageRepository;
+import com.example.tennisclub.analytics.DailyTotalsCache;
+import com.example.tennisclub.analytics.Granularity;
+import com.example.tennisclub.analytics.GroupBy;
+import com.example.tennisclub.analytics.config.AnalyticsProperties;
+import com.example.tennisclub.analytics.dto.UtilizationResponseDto;
+import com.example.tennisclub.analytics.dto.UtilizationResponseDto.Row;
+import com.example.tennisclub.court.CourtService;
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    //a Thursday
+    private static final LocalDate FROM = LocalDate.of(2030, 1, 3);
+
+    @Mock
+    private AnalyticsRepository analyticsRepo;
+
+    @Mock
+    private CourtUsageRepository courtUsageRepo;
+
+    @Mock
+    private CourtService courtService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnalyticsProperties properties;
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyticsProperties();
+        properties.setBookablePerDay(Duration.ofHours(10));
+        DailyTotalsCache cache = new DailyTotalsCache(properties, new SimpleMeterRegistry());
+        analyticsService = new AnalyticsService(analyticsRepo, courtUsageRepo, cache, courtService, properties, transactionManager);
+    }
+
+    private static Court court(Long id, Long surfaceTypeId) {
+        return Court.builder().id(id).surfaceType(SurfaceType.builder().id(surfaceTypeId).build()).build();
+    }
+
+    private static CourtDayTotals totals(LocalDate day, Long courtId, Long surfaceTypeId, long reservations, long minutes, String revenue) {
+        return new CourtDayTotals(day, courtId, surfaceTypeId, reservations, minutes, new BigDecimal(revenue));
+    }
+
+    @Nested
+    class FoldingTests {
+
+        @BeforeEach
+        void setUp() {
+            when(courtService.findAllCourtEntities()).thenReturn(List.of(court(1L, 7L), court(2L, 7L), court(3L, 8L)));
+            when(courtUsageRepo.findCourtDayTotals(FROM, FROM.plusDays(11))).thenReturn(List.of(
+                    totals(FROM, 1L, 7L, 2, 120, "60.00"),
+                    totals(FROM.plusDays(1), 1L, 7L, 1, 90, "45.00"),
+                    totals(FROM.plusDays(4), 2L, 7L, 1, 60, "30.00"),
+                    //court 4 was deleted since, its bookings still count
+                    totals(FROM.plusDays(5), 4L, 8L, 1, 60, "30.00")));
+        }
+
+        @Test
+        void weeks_startOnMondayAndAreCutToTheRange() {
+            UtilizationResponseDto result = analyticsService.getUtilization(GroupBy.COURT, Granularity.WEEK, FROM, FROM.plusDays(11));
+
+            List<LocalDate> starts = result.rows().stream().map(Row::periodStart).distinct().toList();
+            assertEquals(List.of(FROM, LocalDate.of(2030, 1, 7)), starts);
+            assertEquals(LocalDate.of(2030, 1, 14), result.rows().getLast().periodEnd());
+
+            Row firstCourt1 = result.rows().getFirst();
+            assertEquals(1L, firstCourt1.id());
+            assertEquals(LocalDate.of(2030, 1, 7), firstCourt1.periodEnd());
+            assertEquals(3, firstCourt1.reservations());
+            assertEquals(210, firstCourt1.bookedMinutes());
+            assertEquals(new BigDecimal("105.00"), firstCourt1.revenue());
+            //210 of 4 days * 600 minutes
+            assertEquals(8.75, firstCourt1.utilizationPercent());
+        }
+
+        @Test
+        void courtsWithoutBookings_getZeroRows() {
+            UtilizationResponseDto result = analyticsService.getUtilization(GroupBy.COURT, Granularity.MONTH, FROM, FROM.plusDays(11));
+
+            assertEquals(List.of(1L, 2L, 3L, 4L), result.rows().stream().map(Row::id).toList());
+            Row court3 = result.rows().get(2);
+            assertEquals(0, court3.reservations());
+            assertEquals(0.0, court3.utilizationPercent());
+            assertEquals(BigDecimal.ZERO, court3.revenue());
+        }
+
+        @Test
+        void surfaces_areMeasuredAgainstTheirCurrentCourts() {
+            UtilizationResponseDto result = analyticsService.getUtilization(GroupBy.SURFACE, Granularity.MONTH, FROM, FROM.plusDays(11));
+
+            Row clay = result.rows().getFirst();
+            assertEquals(7L, clay.id());
+            assertEquals(4, clay.reservations());
+            //270 of 2 courts * 11 days * 600 minutes
+            assertEquals(2.05, clay.utilizationPercent());
+
+            Row grass = result.rows().get(1);
+            assertEquals(1, grass.reservations());
+            assertEquals(0.91, grass.utilizationPercent());
+        }
+    }
+
+    @Nested
+    class CachingTests {
+
+        @Test
+        void closedRange_isQueriedOnce() {
+            when(courtService.findAllCourtEntities()).thenReturn(List.of(court(1L, 7L)));
+            when(courtUsageRepo.findCourtDayTotals(any(), any())).thenReturn(List.of());
+            LocalDate from = LocalDate.now().minusDays(40);
+
+            analyticsService.getUtilization(GroupBy.COURT, Granularity.DAY, from, from.plusDays(30));
+            analyticsService.getUtilization(GroupBy.SURFACE, Granularity.MONTH, from, from.plusDays(30));
+
+            verify(courtUsageRepo, times(1)).findCourtDayTotals(any(), any());
+        }
+    }
+
+    @Nested
+    class SourceTests {
+
+        @Test
+        void withoutRollups_aggregatesTheReservationTables() {
+            properties.setReadRollups(false);
+            when(courtService.findAllCourtEntities()).thenReturn(List.of(court(1L, 7L)));
+            when(analyticsRepo.aggregateCourtDayTotals(FROM, FROM.plusDays(1)))
+                    .thenReturn(List.of(totals(FROM, 1L, 7L, 1, 60, "30.00")));
+
+            UtilizationResponseDto result = analyticsService.getUtilization(GroupBy.COURT, Granularity.DAY, FROM, FROM.plusDays(1));
+
+            assertEquals(1, result.rows().getFirst().reservations());
+            verifyNoInteractions(courtUsageRepo);
+        }
+    }
+
+    @Nested
+    class ValidationTests {
+
+        @Test
+        void fromNotBeforeTo_isRejected() {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> analyticsService.getUtilization(GroupBy.COURT, Granularity.DAY, FROM, FROM));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+            verifyNoInteractions(analyticsRepo, courtUsageRepo);
+        }
+
+        @Test
+        void rangeLongerThanMaxRange_isRejected() {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> analyticsService.getUtilization(GroupBy.COURT, Granularity.MONTH, FROM, FROM.plusYears(3).plusDays(1)));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.tennisclub.unitTest.analyticsTests;
+
+import com.example.tennisclub.analytics.AnalyticsRepository;
+import com.example.tennisclub.analytics.CourtDayTotals;
+import com.example.tennisclub.analytics.CourtUsageRepository;
+import com.example.tennisclub.analytics.CourtUsageVerifier;
+import com.example.tennisclub.analytics.CourtUsageVerifier.Mismatch;
+import com.example.tennisclub.analytics.config.AnalyticsProperties;
+import com.example.tennisclub.analytics.event.CourtUsageRepairedEvent;
+import com.example.tennisclub.reservation.event.CourtUsageChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourtUsageVerifierTest {
+
+    private static final LocalDate FROM = LocalDate.of(2030, 1, 3);
+    private static final LocalDate TO = FROM.plusDays(7);
+
+    @Mock
+    private AnalyticsRepository analyticsRepo;
+
+    @Mock
+    private CourtUsageRepository courtUsageRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AnalyticsProperties properties;
+    private SimpleMeterRegistry registry;
+    private CourtUsageVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyticsProperties();
+        registry = new SimpleMeterRegistry();
+        verifier = new CourtUsageVerifier(analyticsRepo, courtUsageRepo, properties, transactionManager, eventPublisher, registry);
+    }
+
+    private static CourtDayTotals totals(LocalDate day, Long courtId, long reservations, long minutes, String revenue) {
+        return new CourtDayTotals(day, courtId, 7L, reservations, minutes, new BigDecimal(revenue));
+    }
+
+    private double mismatchCount() {
+        return registry.get("tennisclub.analytics.rollup.mismatches").counter().count();
+    }
+
+    @Test
+    void verify_whenRollupsMatch_reportsNothing() {
+        when(analyticsRepo.aggregateCourtDayTotals(FROM, TO)).thenReturn(List.of(totals(FROM, 1L, 2, 120, "60.00")));
+        //same revenue with another scale still matches
+        when(courtUsageRepo.findCourtDayTotals(FROM, TO)).thenReturn(List.of(totals(FROM, 1L, 2, 120, "60.0")));
+
+        assertTrue(verifier.verify(FROM, TO).isEmpty());
+        assertEquals(0, mismatchCount());
+    }
+
+    @Test
+    void verify_reportsDifferingAndMissingDays() {
+        when(analyticsRepo.aggregateCourtDayTotals(FROM, TO)).thenReturn(List.of(
+                totals(FROM, 1L, 2, 120, "60.00"),
+                totals(FROM.plusDays(1), 2L, 1, 60, "30.00")));
+        when(courtUsageRepo.findCourtDayTotals(FROM, TO)).thenReturn(List.of(
+                totals(FROM, 1L, 3, 180, "90.00")));
+
+        List<Mismatch> mismatches = verifier.verify(FROM, TO);
+
+        assertEquals(2, mismatches.size());
+        assertEquals(3, mismatches.get(0).actual().reservations());
+        assertEquals(0, mismatches.get(1).actual().reservations());
+        assertEquals(2, mismatchCount());
+        verify(courtUsageRepo, never()).apply(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void verify_withRepair_appliesTheDifferenceAsADelta() {
+        properties.setVerifyRepair(true);
+        when(analyticsRepo.aggregateCourtDayTotals(FROM, TO)).thenReturn(List.of(totals(FROM, 1L, 2, 120, "60.00")));
+        when(courtUsageRepo.findCourtDayTotals(FROM, TO)).thenReturn(List.of(
+                totals(FROM, 1L, 3, 180, "90.00"),
+                totals(FROM.plusDays(2), 3L, 1, 60, "30.00")));
+
+        verifier.verify(FROM, TO);
+
+        verify(courtUsageRepo).apply(new CourtUsageChangedEvent(1L, FROM, -1, -60, new BigDecimal("-30.00")));
+        verify(courtUsageRepo).apply(new CourtUsageChangedEvent(3L, FROM.plusDays(2), -1, -60, new BigDecimal("-30.00")));
+        //the cached totals of both days are evicted
+        verify(eventPublisher).publishEvent(new CourtUsageRepairedEvent(FROM));
+        verify(eventPublisher).publishEvent(new CourtUsageRepairedEvent(FROM.plusDays(2)));
+    }
+
+    @Test
+    void verifySample_staysWithinTheLookbackAndClosedDays() {
+        when(analyticsRepo.aggregateCourtDayTotals(any(), any())).thenReturn(List.of());
+        when(courtUsageRepo.findCourtDayTotals(any(), any())).thenReturn(List.of());
+
+        verifier.verifySample();
+
+        LocalDate today = LocalDate.now();
+        verify(analyticsRepo).aggregateCourtDayTotals(
+                argThat(from -> !from.isBefore(today.minus(properties.getVerifyLookback()).minusDays(1))),
+                argThat(to -> !to.isAfter(today)));
+    }
+}
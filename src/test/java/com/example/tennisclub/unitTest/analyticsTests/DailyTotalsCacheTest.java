@@ -0,0 +1,167 @@
+package com.example.tennisclub.unitTest.analyticsTests;
+
+import com.example.tennisclub.analytics.CourtDayTotals;
+import com.example.tennisclub.analytics.DailyTotalsCache;
+import com.example.tennisclub.analytics.config.AnalyticsProperties;
+import com.example.tennisclub.analytics.event.CourtUsageRepairedEvent;
+import com.example.tennisclub.court.event.CourtChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyTotalsCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 7);
+
+    private AnalyticsProperties properties;
+    private DailyTotalsCache cache;
+    private List<LocalDate[]> loads;
+    private BiFunction<LocalDate, LocalDate, List<CourtDayTotals>> loader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyticsProperties();
+        cache = new DailyTotalsCache(properties, new SimpleMeterRegistry(),
+                Clock.fixed(TODAY.atTime(8, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        loads = new ArrayList<>();
+        //one booking on every day loaded
+        loader = (from, to) -> {
+            loads.add(new LocalDate[]{from, to});
+            return from.datesUntil(to).map(DailyTotalsCacheTest::totals).toList();
+        };
+    }
+
+    private static CourtDayTotals totals(LocalDate day) {
+        return new CourtDayTotals(day, 1L, 1L, 1, 60, BigDecimal.TEN);
+    }
+
+    @Nested
+    class LookupTests {
+
+        @Test
+        void closedDays_areLoadedOnce() {
+            cache.get(TODAY.minusDays(7), TODAY.minusDays(1), loader);
+            List<CourtDayTotals> second = cache.get(TODAY.minusDays(7), TODAY.minusDays(1), loader);
+
+            assertEquals(1, loads.size());
+            assertEquals(6, second.size());
+            assertEquals(TODAY.minusDays(7), second.getFirst().day());
+        }
+
+        @Test
+        void openDays_areAlwaysLoaded() {
+            cache.get(TODAY, TODAY.plusDays(2), loader);
+            cache.get(TODAY, TODAY.plusDays(2), loader);
+
+            assertEquals(2, loads.size());
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        void yesterday_staysOpenUntilClosedAfterHasPassed() {
+            properties.setClosedAfter(Duration.ofHours(9));
+
+            assertFalse(cache.isClosed(TODAY.minusDays(1)));
+            assertTrue(cache.isClosed(TODAY.minusDays(2)));
+        }
+
+        @Test
+        void missingDays_areLoadedInOneCallOverTheirSpan() {
+            cache.get(TODAY.minusDays(5), TODAY.minusDays(3), loader);
+
+            List<CourtDayTotals> result = cache.get(TODAY.minusDays(10), TODAY.plusDays(1), loader);
+
+            assertEquals(2, loads.size());
+            assertArrayEquals(new LocalDate[]{TODAY.minusDays(10), TODAY.plusDays(1)}, loads.get(1));
+            assertEquals(11, result.size());
+        }
+
+        @Test
+        void daysWithoutBookings_areCachedToo() {
+            BiFunction<LocalDate, LocalDate, List<CourtDayTotals>> empty = (from, to) -> {
+                loads.add(new LocalDate[]{from, to});
+                return List.of();
+            };
+
+            cache.get(TODAY.minusDays(3), TODAY, empty);
+            cache.get(TODAY.minusDays(3), TODAY, empty);
+
+            assertEquals(1, loads.size());
+        }
+
+        @Test
+        void oldestDays_areDroppedBeyondMaxCachedDays() {
+            properties.setMaxCachedDays(3);
+
+            cache.get(TODAY.minusDays(6), TODAY.minusDays(1), loader);
+
+            assertEquals(3, cache.size());
+            cache.get(TODAY.minusDays(4), TODAY.minusDays(1), loader);
+            assertEquals(1, loads.size());
+        }
+    }
+
+    @Nested
+    class EvictionTests {
+
+        @Test
+        void reservationChange_evictsItsStartDay() {
+            cache.get(TODAY.minusDays(3), TODAY.minusDays(1), loader);
+
+            LocalDate changed = TODAY.minusDays(2);
+            cache.onReservationChanged(new ReservationChangedEvent(1L, changed.atTime(23, 0), changed.plusDays(1).atTime(1, 0)));
+            cache.get(TODAY.minusDays(3), TODAY.minusDays(1), loader);
+
+            assertEquals(2, loads.size());
+            assertArrayEquals(new LocalDate[]{changed, changed.plusDays(1)}, loads.get(1));
+        }
+
+        @Test
+        void rollupRepair_evictsTheRepairedDay() {
+            cache.get(TODAY.minusDays(3), TODAY.minusDays(1), loader);
+
+            cache.onCourtUsageRepaired(new CourtUsageRepairedEvent(TODAY.minusDays(2)));
+            cache.get(TODAY.minusDays(3), TODAY.minusDays(1), loader);
+
+            assertEquals(2, loads.size());
+            assertArrayEquals(new LocalDate[]{TODAY.minusDays(2), TODAY.minusDays(1)}, loads.get(1));
+        }
+
+        @Test
+        void courtChange_clearsEverything() {
+            cache.get(TODAY.minusDays(3), TODAY.minusDays(1), loader);
+
+            cache.onCourtChanged(new CourtChangedEvent(1L));
+
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        void loadOverlappingAnEviction_isReturnedButNotCached() {
+            BiFunction<LocalDate, LocalDate, List<CourtDayTotals>> racing = (from, to) -> {
+                List<CourtDayTotals> read = loader.apply(from, to);
+                //a cancellation commits while the query is running
+                cache.onReservationChanged(new ReservationChangedEvent(1L, from.atTime(10, 0), from.atTime(11, 0)));
+                return read;
+            };
+
+            List<CourtDayTotals> result = cache.get(TODAY.minusDays(3), TODAY.minusDays(1), racing);
+
+            assertEquals(2, result.size());
+            assertEquals(0, cache.size());
+        }
+    }
+}
@@ -47,8 +47,8 @@ class CourtControllerTest {
 
     @BeforeEach
     void setUp() {
-        surfaceTypeResponseDto = new SurfaceTypeResponseDto(1L, "Clay", 25.00);
-        courtResponseDto = new CourtResponseDto(1L, "Court 1", surfaceTypeResponseDto);
+        surfaceTypeResponseDto = new SurfaceTypeResponseDto(1L, "Clay", 25.00, 0L);
+        courtResponseDto = new CourtResponseDto(1L, "Court 1", surfaceTypeResponseDto, 0L);
         validCourtRequestDto = new CourtRequestDto("Court 1", 1L);
     }
 
@@ -198,7 +198,7 @@ class CourtControllerTest {
         @Test
         @WithMockUser(roles = "ADMIN")
         void withValidData_ShouldReturnUpdatedCourt() throws Exception {
-            when(courtService.update(eq(1L), any())).thenReturn(courtResponseDto);
+            when(courtService.update(eq(1L), any(), any())).thenReturn(courtResponseDto);
 
             mockMvc.perform(put("/api/courts/1")
                             .with(csrf())
@@ -208,7 +208,7 @@ class CourtControllerTest {
                     .andExpect(jsonPath("$.id").value(1))
                     .andExpect(jsonPath("$.name").value("Court 1"));
 
-            verify(courtService).update(eq(1L), any());
+            verify(courtService).update(eq(1L), any(), any());
         }
 
         @Test
@@ -222,7 +222,7 @@ class CourtControllerTest {
                             .content(objectMapper.writeValueAsString(invalidDto)))
                     .andExpect(status().isBadRequest());
 
-            verify(courtService, never()).update(any(), any());
+            verify(courtService, never()).update(any(), any(), any());
         }
     }
 
@@ -8,6 +8,7 @@ import jakarta.persistence.TypedQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -130,13 +131,15 @@ class CourtRepositoryTest {
     }
 
     @Test
-    void update_ShouldMergeCourt() {
+    void update_ShouldMergeAndFlushCourt() {
         when(entityManager.merge(activeCourt)).thenReturn(activeCourt);
 
         Court result = courtRepository.update(activeCourt);
 
         assertThat(result).isEqualTo(activeCourt);
-        verify(entityManager).merge(activeCourt);
+        InOrder inOrder = inOrder(entityManager);
+        inOrder.verify(entityManager).merge(activeCourt);
+        inOrder.verify(entityManager).flush();
     }
 
     @Test
@@ -16,6 +16,7 @@ import org.junit.jupiter.api.Nested;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -39,6 +40,9 @@ class CourtServiceTest {
     @Mock
     private EntityFinder entityFinder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CourtService courtService;
 
@@ -66,7 +70,7 @@ class CourtServiceTest {
                 .build();
 
         courtRequestDto = new CourtRequestDto("Court 1", VALID_SURFACE_TYPE_ID);
-        surfaceTypeResponseDto = new SurfaceTypeResponseDto(court.getSurfaceType().getId(),court.getSurfaceType().getName(),court.getSurfaceType().getPricePerMinute());
+        surfaceTypeResponseDto = new SurfaceTypeResponseDto(court.getSurfaceType().getId(),court.getSurfaceType().getName(),court.getSurfaceType().getPricePerMinute(), 0L);
     }
     @Nested
     class GetAllCourtsTests {
@@ -193,7 +197,7 @@ class CourtServiceTest {
             when(entityFinder.findByIdOrThrow(Optional.of(court), VALID_SURFACE_TYPE_ID, "Court")).thenReturn(court);
             when(courtRepository.update(any(Court.class))).thenReturn(updatedCourt);
 
-            CourtResponseDto result = courtService.update(VALID_SURFACE_TYPE_ID, updateDto);
+            CourtResponseDto result = courtService.update(VALID_SURFACE_TYPE_ID, updateDto, null);
 
             assertThat(result.name()).isEqualTo("Updated Court");
             verify(surfaceTypeService).findByIdOrThrow(VALID_SURFACE_TYPE_ID);
@@ -206,7 +210,7 @@ class CourtServiceTest {
             when(entityFinder.findByIdOrThrow(Optional.empty(), NON_EXISTENT_ID, "Court"))
                     .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Court with ID 999 not found"));
 
-            assertThatThrownBy(() -> courtService.update(NON_EXISTENT_ID, courtRequestDto))
+            assertThatThrownBy(() -> courtService.update(NON_EXISTENT_ID, courtRequestDto, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasMessageContaining("Court with ID 999 not found");
 
@@ -220,7 +224,7 @@ class CourtServiceTest {
 
             CourtRequestDto invalidDto = new CourtRequestDto("Court 1", NON_EXISTENT_ID);
 
-            assertThatThrownBy(() -> courtService.update(VALID_SURFACE_TYPE_ID, invalidDto))
+            assertThatThrownBy(() -> courtService.update(VALID_SURFACE_TYPE_ID, invalidDto, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasMessageContaining("SurfaceType with ID 999 not found");
 
@@ -0,0 +1,67 @@
+package com.example.tennisclub.unitTest.encodingTests;
+
+import com.example.tennisclub.encoding.config.BinaryEncodingConfig;
+import com.example.tennisclub.surfaceType.dto.SurfaceTypeResponseDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryEncodingConfigTest {
+
+    private BinaryEncodingConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new BinaryEncodingConfig();
+    }
+
+    //what Boot's prototype builder carries by default
+    private static Jackson2ObjectMapperBuilder bootBuilder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static JsonNode roundTrip(AbstractJackson2HttpMessageConverter converter, Object value) throws Exception {
+        ObjectMapper mapper = converter.getObjectMapper();
+        return mapper.readTree(mapper.writeValueAsBytes(value));
+    }
+
+    @Test
+    void cbor_ShouldKeepBootsJacksonSettings() throws Exception {
+        AbstractJackson2HttpMessageConverter converter = config.cborHttpMessageConverter(bootBuilder());
+
+        JsonNode node = roundTrip(converter, Map.of("start", LocalDateTime.of(2030, 1, 7, 10, 0)));
+
+        assertTrue(converter.getSupportedMediaTypes().contains(MediaType.APPLICATION_CBOR));
+        assertEquals("2030-01-07T10:00:00", node.get("start").asText());
+    }
+
+    @Test
+    void smile_ShouldKeepBootsJacksonSettings() throws Exception {
+        AbstractJackson2HttpMessageConverter converter = config.smileHttpMessageConverter(bootBuilder());
+
+        JsonNode node = roundTrip(converter, Map.of("start", LocalDateTime.of(2030, 1, 7, 10, 0)));
+
+        assertTrue(converter.getSupportedMediaTypes().contains(MediaType.valueOf("application/x-jackson-smile")));
+        assertEquals("2030-01-07T10:00:00", node.get("start").asText());
+    }
+
+    @Test
+    void binaryEncodings_ShouldCarryTheSameFieldsAsJson() throws Exception {
+        SurfaceTypeResponseDto dto = new SurfaceTypeResponseDto(1L, "clay", 0.5, 3L);
+        String json = bootBuilder().build().writeValueAsString(dto);
+
+        //compared as text, the binary formats keep numeric widths json text does not
+        assertEquals(json, roundTrip(config.cborHttpMessageConverter(bootBuilder()), dto).toString());
+        assertEquals(json, roundTrip(config.smileHttpMessageConverter(bootBuilder()), dto).toString());
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.tennisclub.unitTest.idempotencyTests;
+
+import com.example.tennisclub.idempotency.IdempotencyFilter;
+import com.example.tennisclub.idempotency.IdempotencyRecordRepository;
+import com.example.tennisclub.idempotency.IdempotencyStore;
+import com.example.tennisclub.idempotency.StoredResponse;
+import com.example.tennisclub.idempotency.config.IdempotencyProperties;
+import com.example.tennisclub.idempotency.entity.IdempotencyRecord;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyProperties properties;
+    private IdempotencyRecordRepository recordRepository;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        recordRepository = mock(IdempotencyRecordRepository.class);
+        IdempotencyStore store = new IdempotencyStore(properties, recordRepository,
+                mock(PlatformTransactionManager.class));
+        filter = new IdempotencyFilter(properties, store, JsonMapper.builder().findAndAddModules().build(),
+                new SimpleMeterRegistry());
+        executions = new AtomicInteger();
+        loginAs("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void loginAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reservations");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    //echoes the request body with a sequence number so a replay is distinguishable from a new execution
+    private FilterChain booking(int status) {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"execution\":" + execution + ",\"request\":" + body + "}");
+        };
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Nested
+    class ReplayTests {
+
+        @Test
+        void retryWithSameKey_replaysFirstResponseWithoutExecuting() throws Exception {
+            MockHttpServletResponse first = send(post("k1", "{\"courtId\":1}"), booking(201));
+            MockHttpServletResponse retry = send(post("k1", "{\"courtId\":1}"), booking(201));
+
+            assertEquals(1, executions.get());
+            assertEquals(201, retry.getStatus());
+            assertEquals(first.getContentAsString(), retry.getContentAsString());
+            assertEquals("{\"execution\":1,\"request\":{\"courtId\":1}}", retry.getContentAsString());
+            assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        }
+
+        @Test
+        void retry_getsTheETagAndLocationOfTheFirstResponse() throws Exception {
+            FilterChain created = (request, response) -> {
+                booking(201).doFilter(request, response);
+                ((HttpServletResponse) response).setHeader(HttpHeaders.ETAG, "\"0\"");
+                ((HttpServletResponse) response).setHeader(HttpHeaders.LOCATION, "/api/reservations/7");
+            };
+            send(post("k1", "{}"), created);
+            MockHttpServletResponse retry = send(post("k1", "{}"), booking(201));
+
+            assertEquals(1, executions.get());
+            assertEquals("\"0\"", retry.getHeader(HttpHeaders.ETAG));
+            assertEquals("/api/reservations/7", retry.getHeader(HttpHeaders.LOCATION));
+        }
+
+        @Test
+        void clientErrors_areReplayedToo() throws Exception {
+            send(post("k1", "{}"), booking(409));
+            MockHttpServletResponse retry = send(post("k1", "{}"), booking(201));
+
+            assertEquals(1, executions.get());
+            assertEquals(409, retry.getStatus());
+        }
+
+        @Test
+        void serverErrors_areNotStored() throws Exception {
+            send(post("k1", "{}"), booking(503));
+            MockHttpServletResponse retry = send(post("k1", "{}"), booking(201));
+
+            assertEquals(2, executions.get());
+            assertEquals(201, retry.getStatus());
+        }
+
+        @Test
+        void sameKeyWithDifferentBody_isRejected() throws Exception {
+            send(post("k1", "{\"courtId\":1}"), booking(201));
+            MockHttpServletResponse retry = send(post("k1", "{\"courtId\":2}"), booking(201));
+
+            assertEquals(1, executions.get());
+            assertEquals(422, retry.getStatus());
+        }
+
+        @Test
+        void sameKeyFromAnotherUser_executesAgain() throws Exception {
+            send(post("k1", "{}"), booking(201));
+            loginAs("bob");
+            send(post("k1", "{}"), booking(201));
+
+            assertEquals(2, executions.get());
+        }
+
+        @Test
+        void withoutKey_everyRequestExecutes() throws Exception {
+            send(post(null, "{}"), booking(201));
+            MockHttpServletResponse second = send(post(null, "{}"), booking(201));
+
+            assertEquals(2, executions.get());
+            assertEquals("{\"execution\":2,\"request\":{}}", second.getContentAsString());
+        }
+
+        @Test
+        void pathNotConfigured_isNotFiltered() throws Exception {
+            MockHttpServletRequest request = post("k1", "{}");
+            request.setRequestURI("/api/courts");
+            send(request, booking(201));
+            request = post("k1", "{}");
+            request.setRequestURI("/api/courts");
+            send(request, booking(201));
+
+            assertEquals(2, executions.get());
+        }
+
+        @Test
+        void tooLongKey_isRejected() throws Exception {
+            MockHttpServletResponse response = send(post("k".repeat(properties.getMaxKeyLength() + 1), "{}"), booking(201));
+
+            assertEquals(0, executions.get());
+            assertEquals(400, response.getStatus());
+        }
+    }
+
+    @Nested
+    class RequestBodyTests {
+
+        @Test
+        void bodyOverLimit_isRejectedWithoutExecuting() throws Exception {
+            properties.setMaxRequestBodyBytes(8);
+
+            MockHttpServletResponse response = send(post("k1", "{\"courtId\":1}"), booking(201));
+
+            assertEquals(0, executions.get());
+            assertEquals(413, response.getStatus());
+        }
+
+        @Test
+        void bodyOverLimitWithoutContentLength_isRejectedWithoutExecuting() throws Exception {
+            properties.setMaxRequestBodyBytes(8);
+            //a chunked upload, the size is only known once it is read
+            HttpServletRequestWrapper chunked = new HttpServletRequestWrapper(post("k1", "{\"courtId\":1}")) {
+                @Override
+                public long getContentLengthLong() {
+                    return -1;
+                }
+            };
+
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(chunked, response, booking(201));
+
+            assertEquals(0, executions.get());
+            assertEquals(413, response.getStatus());
+        }
+
+        @Test
+        void bodyAtLimit_isExecuted() throws Exception {
+            properties.setMaxRequestBodyBytes("{\"courtId\":1}".length());
+
+            MockHttpServletResponse response = send(post("k1", "{\"courtId\":1}"), booking(201));
+
+            assertEquals(1, executions.get());
+            assertEquals(201, response.getStatus());
+        }
+
+        @Test
+        void readListener_isToldTheCachedBodyIsAvailable() throws Exception {
+            List<String> calls = new ArrayList<>();
+            FilterChain asyncRead = (request, response) -> {
+                ServletInputStream input = request.getInputStream();
+                input.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        calls.add("data:" + new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        calls.add("done");
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        calls.add("error");
+                    }
+                });
+            };
+
+            send(post("k1", "{}"), asyncRead);
+
+            assertEquals(List.of("data:{}", "done"), calls);
+        }
+    }
+
+    @Nested
+    class SharedClaimTests {
+
+        @BeforeEach
+        void setUp() {
+            properties.setDbStoreEnabled(true);
+            properties.setClaimPollInterval(Duration.ofMillis(1));
+        }
+
+        private IdempotencyRecord pendingRow() {
+            return IdempotencyRecord.pending("alice:POST:/api/reservations:k1", "hash", LocalDateTime.now().plusMinutes(1));
+        }
+
+        @Test
+        void keyHeldByAnotherInstance_waitsForItsStoredResponse() throws Exception {
+            MockHttpServletResponse elsewhere = send(post("k2", "{}"), booking(201));
+            //the response the other instance stores for k1, the body hash is the one of the same request
+            doThrow(new DataIntegrityViolationException("duplicate key")).when(recordRepository).insert(any());
+            StoredResponse stored = new StoredResponse(sha256Of("{}"), 201, "application/json", null, null,
+                    elsewhere.getContentAsByteArray(), LocalDateTime.now().plusDays(1));
+            when(recordRepository.findByKey("alice:POST:/api/reservations:k1"))
+                    .thenReturn(Optional.of(pendingRow()), Optional.of(pendingRow()), Optional.of(pendingRow()),
+                            Optional.of(stored.toRecord("k1")));
+
+            MockHttpServletResponse duplicate = send(post("k1", "{}"), booking(201));
+
+            //only the execution for k2, k1 ran on the other instance
+            assertEquals(1, executions.get());
+            assertEquals(201, duplicate.getStatus());
+            assertEquals(elsewhere.getContentAsString(), duplicate.getContentAsString());
+            assertEquals("true", duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        }
+
+        @Test
+        void keyHeldByAnotherInstanceTooLong_getsConflict() throws Exception {
+            properties.setInFlightWait(Duration.ofMillis(20));
+            doThrow(new DataIntegrityViolationException("duplicate key")).when(recordRepository).insert(any());
+            when(recordRepository.findByKey("alice:POST:/api/reservations:k1")).thenReturn(Optional.of(pendingRow()));
+
+            MockHttpServletResponse duplicate = send(post("k1", "{}"), booking(201));
+
+            assertEquals(0, executions.get());
+            assertEquals(409, duplicate.getStatus());
+        }
+
+        @Test
+        void storeFailure_stillSendsTheCommittedResponse() throws Exception {
+            when(recordRepository.save(any())).thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+            MockHttpServletResponse response = send(post("k1", "{}"), booking(201));
+
+            assertEquals(201, response.getStatus());
+            assertEquals("{\"execution\":1,\"request\":{}}", response.getContentAsString());
+        }
+
+        @Test
+        void serverError_releasesTheClaimForRetries() throws Exception {
+            send(post("k1", "{}"), booking(503));
+
+            verify(recordRepository).insert(any());
+            verify(recordRepository).deletePending("alice:POST:/api/reservations:k1");
+            verify(recordRepository, never()).save(any());
+        }
+
+        @Test
+        void failingExecution_releasesTheClaimForRetries() {
+            FilterChain failing = (request, response) -> {
+                throw new IllegalStateException("booking failed");
+            };
+
+            assertThrows(IllegalStateException.class, () -> send(post("k1", "{}"), failing));
+            verify(recordRepository).deletePending("alice:POST:/api/reservations:k1");
+        }
+
+        private static String sha256Of(String body) throws Exception {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(body.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Nested
+    class ConcurrentDuplicateTests {
+
+        private ExecutorService executor;
+
+        @BeforeEach
+        void setUp() {
+            executor = Executors.newSingleThreadExecutor();
+        }
+
+        @AfterEach
+        void tearDown() {
+            executor.shutdownNow();
+        }
+
+        //the first execution stays inside the chain until released
+        private FilterChain blockingBooking(CountDownLatch entered, CountDownLatch release) {
+            FilterChain booking = booking(201);
+            return (request, response) -> {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                booking.doFilter(request, response);
+            };
+        }
+
+        @Test
+        void duplicateWhileFirstRuns_waitsAndGetsTheSameResponse() throws Exception {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            var securityContext = SecurityContextHolder.getContext();
+            Future<MockHttpServletResponse> first = executor.submit(() -> {
+                SecurityContextHolder.setContext(securityContext);
+                return send(post("k1", "{}"), blockingBooking(entered, release));
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+            MockHttpServletResponse duplicate = send(post("k1", "{}"), booking(201));
+
+            assertEquals(1, executions.get());
+            assertEquals(first.get(5, TimeUnit.SECONDS).getContentAsString(), duplicate.getContentAsString());
+            assertEquals("true", duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        }
+
+        @Test
+        void duplicateWaitingTooLong_getsConflict() throws Exception {
+            properties.setInFlightWait(Duration.ofMillis(50));
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            var securityContext = SecurityContextHolder.getContext();
+            Future<MockHttpServletResponse> first = executor.submit(() -> {
+                SecurityContextHolder.setContext(securityContext);
+                return send(post("k1", "{}"), blockingBooking(entered, release));
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse duplicate = send(post("k1", "{}"), booking(201));
+            release.countDown();
+
+            assertEquals(409, duplicate.getStatus());
+            assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(1, executions.get());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.tennisclub.unitTest.idempotencyTests;
+
+import com.example.tennisclub.idempotency.IdempotencyRecordRepository;
+import com.example.tennisclub.idempotency.IdempotencyStore;
+import com.example.tennisclub.idempotency.StoredResponse;
+import com.example.tennisclub.idempotency.config.IdempotencyProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.dao.PersistenceExceptionTranslationAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//the pending row is the claim other instances see, so the duplicate key has to surface as a lost claim against a real table
+//the store commits in its own transactions, so the test runs outside a test transaction and cleans up after itself
+@JdbcTest
+@ImportAutoConfiguration({HibernateJpaAutoConfiguration.class, PersistenceExceptionTranslationAutoConfiguration.class})
+@ActiveProfiles("test")
+@Import({IdempotencyStore.class, IdempotencyRecordRepository.class, IdempotencyProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreDatabaseTest {
+
+    //the store keeps its in-memory responses across tests, each test uses its own key
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        properties.setDbStoreEnabled(true);
+        //the properties bean is shared by the cached context
+        properties.setClaimLease(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM idempotency_key");
+    }
+
+    private static StoredResponse response() {
+        return new StoredResponse("hash", 201, "application/json", "\"0\"", "/api/reservations/1",
+                new byte[]{1}, LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    void secondClaim_isLostWhileTheFirstIsPending() {
+        assertTrue(store.claimShared("alice:pending", "hash"));
+        assertFalse(store.claimShared("alice:pending", "hash"));
+        assertTrue(store.find("alice:pending").isEmpty());
+    }
+
+    @Test
+    void claimAfterRelease_isWon() {
+        assertTrue(store.claimShared("alice:released", "hash"));
+        store.releaseShared("alice:released");
+
+        assertTrue(store.claimShared("alice:released", "hash"));
+    }
+
+    @Test
+    void abandonedClaim_isTakenOverOnceItsLeaseEnds() {
+        properties.setClaimLease(Duration.ofMillis(-1));
+        assertTrue(store.claimShared("alice:abandoned", "hash"));
+
+        assertTrue(store.claimShared("alice:abandoned", "hash"));
+    }
+
+    @Test
+    void savedResponse_completesTheClaimWithItsHeaders() {
+        assertTrue(store.claimShared("alice:saved", "hash"));
+        store.save("alice:saved", response());
+
+        assertFalse(store.claimShared("alice:saved", "hash"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM idempotency_key WHERE status = 201 AND etag = '\"0\"' AND location = '/api/reservations/1'",
+                Integer.class));
+    }
+}
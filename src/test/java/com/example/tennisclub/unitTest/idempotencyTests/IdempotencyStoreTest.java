@@ -0,0 +1,195 @@
+package com.example.tennisclub.unitTest.idempotencyTests;
+
+import com.example.tennisclub.idempotency.IdempotencyRecordRepository;
+import com.example.tennisclub.idempotency.IdempotencyStore;
+import com.example.tennisclub.idempotency.StoredResponse;
+import com.example.tennisclub.idempotency.config.IdempotencyProperties;
+import com.example.tennisclub.idempotency.entity.IdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setMaxEntries(2);
+        store = new IdempotencyStore(properties, recordRepository, transactionManager);
+    }
+
+    private static StoredResponse response(LocalDateTime expiresAt) {
+        return new StoredResponse("hash", 201, "application/json", null, null, new byte[]{1}, expiresAt);
+    }
+
+    @Nested
+    class InMemoryTests {
+
+        @Test
+        void leastRecentlyUsedKey_isEvictedBeyondMaxEntries() {
+            LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+            store.save("a", response(tomorrow));
+            store.save("b", response(tomorrow));
+            store.find("a");
+            store.save("c", response(tomorrow));
+
+            assertTrue(store.find("a").isPresent());
+            assertTrue(store.find("b").isEmpty());
+            assertTrue(store.find("c").isPresent());
+            verifyNoInteractions(recordRepository);
+        }
+
+        @Test
+        void expiredResponse_isNotReturnedAndPurged() {
+            store.save("a", response(LocalDateTime.now().minusSeconds(1)));
+
+            assertTrue(store.find("a").isEmpty());
+            store.purgeExpired();
+            assertTrue(store.find("a").isEmpty());
+        }
+
+        @Test
+        void claim_returnsTheRunningExecutionToDuplicates() {
+            CompletableFuture<StoredResponse> first = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> second = new CompletableFuture<>();
+
+            assertTrue(store.claim("a", first).isEmpty());
+            assertSame(first, store.claim("a", second).orElseThrow());
+
+            store.release("a", first);
+            assertTrue(store.claim("a", second).isEmpty());
+        }
+
+        @Test
+        void claimShared_withoutTheTable_alwaysOwnsTheKey() {
+            assertTrue(store.claimShared("a", "hash"));
+            store.releaseShared("a");
+
+            verifyNoInteractions(recordRepository);
+        }
+    }
+
+    @Nested
+    class DatabaseTests {
+
+        @BeforeEach
+        void setUp() {
+            properties.setDbStoreEnabled(true);
+        }
+
+        @Test
+        void save_writesThrough() {
+            store.save("a", response(LocalDateTime.now().plusDays(1)));
+
+            verify(recordRepository).save(any(IdempotencyRecord.class));
+        }
+
+        @Test
+        void find_fallsBackToTheTableAndCachesTheResult() {
+            StoredResponse stored = response(LocalDateTime.now().plusDays(1));
+            when(recordRepository.findByKey("a")).thenReturn(Optional.of(stored.toRecord("a")));
+
+            assertEquals(201, store.find("a").orElseThrow().status());
+            assertTrue(store.find("a").isPresent());
+            verify(recordRepository, times(1)).findByKey("a");
+        }
+
+        @Test
+        void find_skipsPendingClaims() {
+            when(recordRepository.findByKey("a")).thenReturn(Optional.of(
+                    IdempotencyRecord.pending("a", "hash", LocalDateTime.now().plusMinutes(1))));
+
+            assertTrue(store.find("a").isEmpty());
+        }
+
+        @Test
+        void save_databaseFailure_isNotThrown() {
+            when(recordRepository.save(any(IdempotencyRecord.class)))
+                    .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+            assertDoesNotThrow(() -> store.save("a", response(LocalDateTime.now().plusDays(1))));
+            assertTrue(store.find("a").isPresent());
+        }
+
+        @Test
+        void claimShared_insertsAPendingRowAfterDroppingAnExpiredOne() {
+            assertTrue(store.claimShared("a", "hash"));
+
+            InOrder inOrder = inOrder(recordRepository);
+            inOrder.verify(recordRepository).deleteExpired(eq("a"), any(LocalDateTime.class));
+            inOrder.verify(recordRepository).insert(argThat(record -> record.isPending()
+                    && record.getKey().equals("a") && record.getRequestHash().equals("hash")));
+        }
+
+        @Test
+        void claimShared_keyHeldByAnotherInstance_isNotOwned() {
+            doThrow(new DataIntegrityViolationException("duplicate key"))
+                    .when(recordRepository).insert(any(IdempotencyRecord.class));
+
+            assertFalse(store.claimShared("a", "hash"));
+        }
+
+        @Test
+        void releaseShared_deletesOnlyThePendingRow() {
+            store.releaseShared("a");
+
+            verify(recordRepository).deletePending("a");
+        }
+
+        @Test
+        void awaitShared_pollsUntilTheOtherInstanceStoresItsResponse() {
+            properties.setClaimPollInterval(Duration.ofMillis(1));
+            StoredResponse stored = response(LocalDateTime.now().plusDays(1));
+            when(recordRepository.findByKey("a")).thenReturn(
+                    Optional.of(IdempotencyRecord.pending("a", "hash", LocalDateTime.now().plusMinutes(1))),
+                    Optional.of(stored.toRecord("a")));
+
+            assertEquals(201, store.awaitShared("a", Duration.ofSeconds(5)).orElseThrow().status());
+            verify(recordRepository, times(2)).findByKey("a");
+        }
+
+        @Test
+        void awaitShared_givesUpAfterTheWait() {
+            properties.setClaimPollInterval(Duration.ofMillis(1));
+            when(recordRepository.findByKey("a")).thenReturn(
+                    Optional.of(IdempotencyRecord.pending("a", "hash", LocalDateTime.now().plusMinutes(1))));
+
+            assertTrue(store.awaitShared("a", Duration.ofMillis(20)).isEmpty());
+        }
+
+        @Test
+        void purgeExpired_deletesExpiredRows() {
+            store.purgeExpired();
+
+            verify(recordRepository).deleteExpiredBefore(any(LocalDateTime.class));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.tennisclub.unitTest.initializationTests;
+
+import com.example.tennisclub.initialization.SeedDataGenerator;
+import com.example.tennisclub.initialization.SeedDataProperties;
+import com.example.tennisclub.initialization.SeedDataRepository;
+import com.example.tennisclub.initialization.entity.SeedDataRun;
+import com.example.tennisclub.pricing.PricingEngine;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.partitioning.ReservationPartitionRepository;
+import com.example.tennisclub.user.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeedDataGeneratorTest {
+
+    @Mock
+    private SeedDataRepository seedDataRepo;
+
+    @Mock
+    private ReservationPartitionRepository partitionRepository;
+
+    @Mock
+    private PricingEngine pricingEngine;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SeedDataProperties properties;
+    private PartitioningProperties partitioningProperties;
+    private SeedDataGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SeedDataProperties();
+        properties.setCourts(3);
+        properties.setUsers(4);
+        properties.setReservations(100);
+        properties.setHistory(Period.ofDays(20));
+        properties.setAhead(Period.ofDays(10));
+        properties.setParallelism(2);
+        partitioningProperties = new PartitioningProperties();
+        generator = new SeedDataGenerator(seedDataRepo, properties, partitioningProperties, partitionRepository,
+                pricingEngine, passwordEncoder, transactionManager);
+    }
+
+    private void stubInserts() {
+        when(seedDataRepo.startRun(3, 4, 100)).thenReturn(5L);
+        when(seedDataRepo.findSurfaceTypeIds()).thenReturn(List.of(1L, 2L));
+        when(seedDataRepo.insertCourts(anyList(), anyString())).thenReturn(List.of(
+                new long[]{11L, 1L}, new long[]{12L, 2L}, new long[]{13L, 1L}));
+        when(passwordEncoder.encode("12345")).thenReturn("hash");
+        when(seedDataRepo.insertUsers(anyList(), anyString(), eq(Role.MEMBER))).thenReturn(new long[]{21L, 22L, 23L, 24L});
+        when(pricingEngine.priceInCents(anyLong(), anyBoolean(), any(), any(), any())).thenReturn(1_000L);
+    }
+
+    private static SeedDataRun run(LocalDateTime completedAt) {
+        return SeedDataRun.builder().id(1L).startedAt(LocalDateTime.of(2030, 1, 7, 10, 0)).completedAt(completedAt)
+                .courts(3).users(4).reservations(100).build();
+    }
+
+    @Test
+    void run_whenAnEarlierRunCompleted_doesNothing() throws Exception {
+        when(seedDataRepo.findLastRun()).thenReturn(Optional.of(run(LocalDateTime.of(2030, 1, 7, 11, 0))));
+
+        generator.run();
+
+        verify(seedDataRepo, never()).startRun(anyInt(), anyInt(), anyLong());
+        verify(seedDataRepo, never()).insertCourts(anyList(), anyString());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void run_whenAnEarlierRunDidNotComplete_throws() {
+        when(seedDataRepo.findLastRun()).thenReturn(Optional.of(run(null)));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> generator.run());
+
+        assertTrue(ex.getMessage().contains("did not complete"));
+        verify(seedDataRepo, never()).insertCourts(anyList(), anyString());
+    }
+
+    @Test
+    void run_whenSeedCourtsExistWithoutARun_throws() {
+        when(seedDataRepo.countCourtsNamedLike(anyString())).thenReturn(3L);
+
+        assertThrows(IllegalStateException.class, () -> generator.run());
+
+        verify(seedDataRepo, never()).startRun(anyInt(), anyInt(), anyLong());
+    }
+
+    @Test
+    void run_whenACourtFails_leavesTheRunOpen() {
+        stubInserts();
+        doThrow(new IllegalStateException("Writing seed data failed"))
+                .when(seedDataRepo).insertCourtSchedule(eq(12L), anyList(), anyList());
+
+        assertThrows(Exception.class, () -> generator.run());
+
+        verify(seedDataRepo, never()).completeRun(anyLong());
+    }
+
+    @Test
+    void run_whenTheReservationsDoNotFit_throwsBeforeWriting() {
+        properties.setReservations(10_000_000);
+
+        assertThrows(IllegalStateException.class, () -> generator.run());
+
+        verify(seedDataRepo, never()).insertCourts(anyList(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_spreadsTheReservationsOverTheCourtsWithMatchingRollups() throws Exception {
+        stubInserts();
+
+        generator.run();
+
+        //one hash for every user
+        verify(passwordEncoder).encode("12345");
+        ArgumentCaptor<List<Object[]>> reservations = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> totals = ArgumentCaptor.forClass(List.class);
+        verify(seedDataRepo).insertCourtSchedule(eq(11L), reservations.capture(), totals.capture());
+        verify(seedDataRepo).insertCourtSchedule(eq(12L), anyList(), anyList());
+        verify(seedDataRepo).insertCourtSchedule(eq(13L), anyList(), anyList());
+        verify(seedDataRepo).completeRun(5L);
+
+        //100 over 3 courts, the first court takes the remainder
+        assertEquals(34, reservations.getValue().size());
+        long rolledUp = totals.getValue().stream().mapToLong(row -> (Long) row[2]).sum();
+        BigDecimal revenue = totals.getValue().stream().map(row -> (BigDecimal) row[4]).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(34, rolledUp);
+        assertEquals(0, new BigDecimal("340.00").compareTo(revenue));
+        verifyNoInteractions(partitionRepository);
+    }
+
+    @Test
+    void run_withPartitioning_createsThePartitionsOfTheWindowFirst() throws Exception {
+        partitioningProperties.setEnabled(true);
+        stubInserts();
+
+        generator.run();
+
+        //30 days touch either two or three months
+        verify(partitionRepository, atLeast(2)).createMonthlyPartition(any());
+        verify(partitionRepository, atMost(3)).createMonthlyPartition(any());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.tennisclub.unitTest.initializationTests;
+
+import com.example.tennisclub.initialization.SeedDataProperties;
+import com.example.tennisclub.initialization.SeedDataRepository;
+import com.example.tennisclub.initialization.entity.SeedDataRun;
+import com.example.tennisclub.user.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs the JDBC batch path against H2 with the schema Hibernate generates from the entities
+//the repository commits on its own connections, so the test runs outside a test transaction and cleans up after itself
+@JdbcTest
+@ImportAutoConfiguration(HibernateJpaAutoConfiguration.class)
+@ActiveProfiles("test")
+@Import({SeedDataRepository.class, SeedDataProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeedDataRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private SeedDataRepository seedDataRepo;
+
+    @Autowired
+    private SeedDataProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        //smaller than the row counts, so full and partial batches are both executed
+        properties.setBatchSize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("reservation_view", "court_usage_daily", "reservation", "user_roles", "users",
+                "court", "surface_type", "seed_data_run")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void insertCourtSchedule_writesTheReservationsWithTheirRollupsAndViewRows() {
+        seedDataRepo.insertSurfaceTypes(List.<Object[]>of(new Object[]{"clay", 0.5, false, 0L}));
+        long surfaceTypeId = seedDataRepo.findSurfaceTypeIds().getFirst();
+        List<long[]> courts = seedDataRepo.insertCourts(List.of(
+                new Object[]{"Seed court 00001", surfaceTypeId, false, 0L},
+                new Object[]{"Seed court 00002", surfaceTypeId, false, 0L}), "Seed court ");
+        long[] userIds = seedDataRepo.insertUsers(List.of(
+                new Object[]{"700000001", "seed-user-000001", "hash", false},
+                new Object[]{"700000002", "seed-user-000002", "hash", false},
+                new Object[]{"700000003", "seed-user-000003", "hash", false}), "seed-user-", Role.MEMBER);
+
+        assertEquals(2, courts.size());
+        assertEquals(surfaceTypeId, courts.getFirst()[1]);
+        assertEquals(3, userIds.length);
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_roles WHERE roles = 'MEMBER'", Integer.class));
+
+        long courtId = courts.getFirst()[0];
+        seedDataRepo.insertCourtSchedule(courtId, List.of(
+                reservation(courtId, userIds[0], DAY.atTime(9, 0), 60, "30.00"),
+                reservation(courtId, userIds[1], DAY.atTime(11, 0), 90, "45.00"),
+                reservation(courtId, userIds[2], DAY.plusDays(1).atTime(9, 0), 60, "30.00")), List.of(
+                new Object[]{courtId, DAY, 2L, 150L, new BigDecimal("75.00")},
+                new Object[]{courtId, DAY.plusDays(1), 1L, 60L, new BigDecimal("30.00")}));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation", Integer.class));
+        Map<String, Object> firstDay = jdbcTemplate.queryForMap(
+                "SELECT reservations, booked_minutes, revenue FROM court_usage_daily WHERE court_id = ? AND usage_day = ?",
+                courtId, DAY);
+        assertEquals(2L, ((Number) firstDay.get("RESERVATIONS")).longValue());
+        assertEquals(150L, ((Number) firstDay.get("BOOKED_MINUTES")).longValue());
+        assertEquals(0, new BigDecimal("75.00").compareTo((BigDecimal) firstDay.get("REVENUE")));
+
+        //one view row per reservation, denormalized from the court, surface and user
+        List<Map<String, Object>> view = jdbcTemplate.queryForList(
+                "SELECT court_name, surface_type_name, username, phone_number FROM reservation_view ORDER BY start_time");
+        assertEquals(3, view.size());
+        assertEquals("Seed court 00001", view.getFirst().get("COURT_NAME"));
+        assertEquals("clay", view.getFirst().get("SURFACE_TYPE_NAME"));
+        assertEquals("seed-user-000001", view.getFirst().get("USERNAME"));
+        assertEquals("700000001", view.getFirst().get("PHONE_NUMBER"));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservation_view v JOIN reservation r ON r.id = v.reservation_id", Integer.class));
+    }
+
+    @Test
+    void completeRun_marksTheLastRunComplete() {
+        assertTrue(seedDataRepo.findLastRun().isEmpty());
+
+        long runId = seedDataRepo.startRun(2, 3, 100);
+        SeedDataRun started = seedDataRepo.findLastRun().orElseThrow();
+        assertEquals(runId, started.getId());
+        assertEquals(100, started.getReservations());
+        assertNull(started.getCompletedAt());
+
+        seedDataRepo.completeRun(runId);
+
+        assertNotNull(seedDataRepo.findLastRun().orElseThrow().getCompletedAt());
+    }
+
+    private static Object[] reservation(long courtId, long userId, LocalDateTime start, int minutes, String price) {
+        return new Object[]{courtId, userId, start, start.plusMinutes(minutes), false, new BigDecimal(price), false, 0L};
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.tennisclub.unitTest.initializationTests;
+
+import com.example.tennisclub.initialization.SeedDataProperties;
+import com.example.tennisclub.initialization.SeedScheduleGenerator;
+import com.example.tennisclub.initialization.SeedScheduleGenerator.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedScheduleGeneratorTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 7);
+    private static final long[] USERS = {3L, 5L, 8L};
+
+    private SeedDataProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SeedDataProperties();
+        properties.setOpens(LocalTime.of(7, 0));
+        properties.setCloses(LocalTime.of(21, 0));
+    }
+
+    private List<Booking> generate(int count, int days, long seed) {
+        return SeedScheduleGenerator.generate(count, FIRST_DAY, days, USERS, properties, new SplittableRandom(seed));
+    }
+
+    @Test
+    void generate_returnsTheRequestedCountWithinWindowAndOpeningHours() {
+        List<Booking> bookings = generate(500, 60, 1);
+
+        assertEquals(500, bookings.size());
+        for (Booking b : bookings) {
+            assertFalse(b.start().toLocalDate().isBefore(FIRST_DAY));
+            assertTrue(b.start().toLocalDate().isBefore(FIRST_DAY.plusDays(60)));
+            assertFalse(b.start().toLocalTime().isBefore(properties.getOpens()));
+            assertFalse(b.end().toLocalTime().isAfter(properties.getCloses()));
+            assertEquals(b.start().toLocalDate(), b.end().toLocalDate());
+            long minutes = Duration.between(b.start(), b.end()).toMinutes();
+            assertTrue(minutes >= 60 && minutes <= 120 && minutes % SeedScheduleGenerator.SLOT_MINUTES == 0);
+            assertTrue(b.userId() == 3L || b.userId() == 5L || b.userId() == 8L);
+        }
+    }
+
+    @Test
+    void generate_neverOverlapsEvenOnFullDays() {
+        int maxPerDay = SeedScheduleGenerator.maxPerDay(properties.getOpens(), properties.getCloses());
+
+        List<Booking> bookings = generate(maxPerDay * 3, 3, 2).stream()
+                .sorted(Comparator.comparing(Booking::start))
+                .toList();
+
+        assertEquals(maxPerDay * 3, bookings.size());
+        for (int i = 1; i < bookings.size(); i++) {
+            assertFalse(bookings.get(i).start().isBefore(bookings.get(i - 1).end()));
+        }
+    }
+
+    @Test
+    void generate_withTheSameSeed_returnsTheSameSchedule() {
+        assertEquals(generate(200, 30, 7), generate(200, 30, 7));
+        assertNotEquals(generate(200, 30, 7), generate(200, 30, 8));
+    }
+
+    @Test
+    void generate_whenTheBookingsDoNotFit_throws() {
+        int maxPerDay = SeedScheduleGenerator.maxPerDay(properties.getOpens(), properties.getCloses());
+
+        assertThrows(IllegalArgumentException.class, () -> generate(maxPerDay * 2 + 1, 2, 1));
+    }
+}
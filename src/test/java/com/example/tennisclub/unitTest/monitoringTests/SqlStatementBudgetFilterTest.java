@@ -0,0 +1,171 @@
+package com.example.tennisclub.unitTest.monitoringTests;
+
+import com.example.tennisclub.monitoring.RequestSqlStatistics;
+import com.example.tennisclub.monitoring.SqlMonitoringProperties;
+import com.example.tennisclub.monitoring.SqlStatementBudgetFilter;
+import com.example.tennisclub.monitoring.SqlStatementListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SqlStatementBudgetFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlMonitoringProperties properties;
+    private SqlStatementBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new SqlMonitoringProperties();
+        properties.setStatementBudget(2);
+        filter = new SqlStatementBudgetFilter(properties, meterRegistry);
+    }
+
+    private MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/reservations/1");
+        if (pattern != null) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        }
+        return request;
+    }
+
+    @Nested
+    class DoFilterTests {
+
+        @Test
+        void doFilter_ShouldRecordStatementCountPerEndpoint() throws Exception {
+            FilterChain chain = (req, res) -> {
+                RequestSqlStatistics.current().record("select * from reservations where id=?", 300_000);
+                RequestSqlStatistics.current().record("select * from courts where id=?", 200_000);
+                RequestSqlStatistics.current().record("select * from courts where id=?", 100_000);
+            };
+
+            filter.doFilter(request("GET", "/api/reservations/{id}"), new MockHttpServletResponse(), chain);
+
+            DistributionSummary summary = meterRegistry.get("tennisclub.http.sql.statements")
+                    .tag("method", "GET")
+                    .tag("uri", "/api/reservations/{id}")
+                    .summary();
+            assertEquals(1, summary.count());
+            assertEquals(3.0, summary.totalAmount());
+            //sub-millisecond statements still add up
+            assertEquals(0.6, meterRegistry.get("tennisclub.http.sql.time").timer()
+                    .totalTime(TimeUnit.MILLISECONDS), 1e-9);
+        }
+
+        @Test
+        void doFilter_WithoutMatchedPattern_ShouldTagAsUnmapped() throws Exception {
+            filter.doFilter(request("GET", null), new MockHttpServletResponse(), (req, res) -> { });
+
+            assertEquals(0.0, meterRegistry.get("tennisclub.http.sql.statements")
+                    .tag("uri", "UNMAPPED")
+                    .summary()
+                    .totalAmount());
+        }
+
+        @Test
+        void doFilter_OverStatementBudget_ShouldLogQueryShapes(CapturedOutput output) throws Exception {
+            FilterChain chain = (req, res) -> {
+                for (int i = 0; i < 3; i++) {
+                    RequestSqlStatistics.current().record("select * from courts where id=?", 100_000);
+                }
+            };
+
+            filter.doFilter(request("GET", "/api/courts/{id}"), new MockHttpServletResponse(), chain);
+
+            assertTrue(output.getOut().contains(
+                    "GET /api/courts/{id} executed 3 SQL statements in 0 ms (budget 2 statements, 500 ms)"));
+            assertTrue(output.getOut().contains("{select * from courts where id=?=3}"));
+        }
+
+        @Test
+        void doFilter_OverDbTimeBudget_ShouldLog(CapturedOutput output) throws Exception {
+            properties.setSlowRequestDbTime(Duration.ofNanos(500_000));
+            FilterChain chain = (req, res) -> {
+                RequestSqlStatistics.current().record("select * from courts where id=?", 400_000);
+                RequestSqlStatistics.current().record("select * from reservations where id=?", 400_000);
+            };
+
+            filter.doFilter(request("GET", "/api/courts/{id}"), new MockHttpServletResponse(), chain);
+
+            assertTrue(output.getOut().contains("GET /api/courts/{id} executed 2 SQL statements"));
+        }
+
+        @Test
+        void doFilter_WithinBudget_ShouldNotLog(CapturedOutput output) throws Exception {
+            filter.doFilter(request("GET", "/api/courts/{id}"), new MockHttpServletResponse(), (req, res) ->
+                    RequestSqlStatistics.current().record("select * from courts where id=?", 100_000));
+
+            assertFalse(output.getOut().contains("SQL statements in"));
+        }
+
+        @Test
+        void doFilter_ShouldClearStatisticsAfterRequest() throws Exception {
+            filter.doFilter(request("GET", "/api/courts"), new MockHttpServletResponse(), (req, res) ->
+                    assertNotNull(RequestSqlStatistics.current()));
+
+            assertNull(RequestSqlStatistics.current());
+        }
+    }
+
+    @Nested
+    class SqlStatementListenerTests {
+
+        @Test
+        void afterQuery_ShouldAttributeSubMillisecondTimeToTheRequest() {
+            SqlStatementListener listener = new SqlStatementListener(properties);
+            ExecutionInfo execInfo = new ExecutionInfo();
+            //what the proxy reports for a statement faster than a millisecond
+            execInfo.setElapsedTime(0);
+            List<QueryInfo> queries = List.of(new QueryInfo("select * from courts where id=?"));
+
+            RequestSqlStatistics statistics = RequestSqlStatistics.begin();
+            try {
+                listener.beforeQuery(execInfo, queries);
+                listener.afterQuery(execInfo, queries);
+
+                assertEquals(1, statistics.getStatementCount());
+                assertTrue(statistics.getDbTimeNanos() > 0);
+            } finally {
+                RequestSqlStatistics.end();
+            }
+        }
+    }
+
+    @Nested
+    class RequestSqlStatisticsTests {
+
+        @Test
+        void record_ShouldGroupStatementsByShape() {
+            RequestSqlStatistics statistics = RequestSqlStatistics.begin();
+            try {
+                statistics.record("select *\n  from courts   where id=?", 1);
+                statistics.record("select * from courts where id=?", 1);
+
+                assertEquals(2, statistics.getStatementCount());
+                assertEquals(2, statistics.getQueryShapes().get("select * from courts where id=?"));
+            } finally {
+                RequestSqlStatistics.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.tennisclub.unitTest.outboxTests;
+
+import com.example.tennisclub.outbox.OutboxRelay;
+import com.example.tennisclub.outbox.OutboxRepository;
+import com.example.tennisclub.outbox.config.OutboxProperties;
+import com.example.tennisclub.outbox.entity.OutboxEvent;
+import com.example.tennisclub.outbox.event.OutboxMessage;
+import com.example.tennisclub.outbox.metrics.OutboxMetrics;
+import com.example.tennisclub.outbox.sink.OutboxSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+    @Mock
+    private OutboxSink sink;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxProperties properties = new OutboxProperties();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(3);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        relay = new OutboxRelay(outboxRepository, List.of(sink), properties, new OutboxMetrics(meterRegistry), transactionManager);
+    }
+
+    private OutboxEvent event(long id, long courtId, long sequence) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType("Reservation")
+                .aggregateId(id)
+                .partitionKey(courtId)
+                .partitionSequence(sequence)
+                .eventType("RESERVATION_CREATED")
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Nested
+    class DeliveryTests {
+
+        @Test
+        void relayBatch_ShouldDeliverInIdOrderAndMarkPublished() throws Exception {
+            OutboxEvent first = event(1L, 1L, 1L);
+            OutboxEvent second = event(2L, 2L, 1L);
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of(first, second));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>());
+
+            assertEquals(2, relay.relayBatch());
+
+            ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+            verify(sink, times(2)).deliver(captor.capture());
+            assertEquals(List.of(1L, 2L), captor.getAllValues().stream().map(OutboxMessage::id).toList());
+            assertNotNull(first.getPublishedAt());
+            assertNotNull(second.getPublishedAt());
+            assertEquals(2.0, meterRegistry.get("tennisclub.outbox.delivered").counter().count());
+        }
+
+        @Test
+        void relayBatch_WhenBatchIsEmpty_ShouldNotTouchSinks() {
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of());
+
+            assertEquals(0, relay.relayBatch());
+
+            verifyNoInteractions(sink);
+        }
+    }
+
+    @Nested
+    class OrderingTests {
+
+        @Test
+        void relayBatch_WhenDeliveryFails_ShouldHoldBackLaterEventsOfSameCourt() throws Exception {
+            OutboxEvent failing = event(1L, 1L, 1L);
+            OutboxEvent sameCourt = event(2L, 1L, 2L);
+            OutboxEvent otherCourt = event(3L, 2L, 1L);
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of(failing, sameCourt, otherCourt));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>());
+            when(sink.name()).thenReturn("test");
+            doThrow(new IOException("disk full")).when(sink).deliver(argThat(m -> m.id() == 1L));
+
+            relay.relayBatch();
+
+            assertNull(failing.getPublishedAt());
+            assertEquals(1, failing.getAttempts());
+            assertEquals("test: disk full", failing.getLastError());
+            assertNotNull(failing.getNextAttemptAt());
+            assertNull(failing.getFailedAt());
+            assertNull(sameCourt.getPublishedAt());
+            assertNotNull(sameCourt.getNextAttemptAt());
+            assertNotNull(otherCourt.getPublishedAt());
+            verify(sink, never()).deliver(argThat(m -> m.id() == 2L));
+            assertEquals(1.0, meterRegistry.get("tennisclub.outbox.failures").tag("sink", "test").counter().count());
+        }
+
+        @Test
+        void relayBatch_WhenEarlierEventIsPendingElsewhere_ShouldDeferItsCourt() throws Exception {
+            OutboxEvent blocked = event(5L, 1L, 4L);
+            OutboxEvent free = event(6L, 2L, 1L);
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of(blocked, free));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>(Map.of(1L, 3L)));
+
+            relay.relayBatch();
+
+            assertNull(blocked.getPublishedAt());
+            assertNotNull(blocked.getNextAttemptAt());
+            assertNotNull(free.getPublishedAt());
+            verify(sink, times(1)).deliver(any());
+            assertEquals(1.0, meterRegistry.get("tennisclub.outbox.deferred").counter().count());
+        }
+
+        @Test
+        void relayBatch_WhenOnlyLaterEventsArePendingElsewhere_ShouldDeliver() throws Exception {
+            OutboxEvent first = event(5L, 1L, 4L);
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of(first));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>(Map.of(1L, 5L)));
+
+            relay.relayBatch();
+
+            assertNotNull(first.getPublishedAt());
+        }
+
+        @Test
+        void relayBatch_WhenEventIsDeadLettered_ShouldLetTheRestOfItsCourtThrough() throws Exception {
+            properties.setMaxAttempts(1);
+            OutboxEvent poisoned = event(1L, 1L, 1L);
+            OutboxEvent next = event(2L, 1L, 2L);
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of(poisoned, next));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>());
+            when(sink.name()).thenReturn("test");
+            doThrow(new IOException("bad payload")).when(sink).deliver(argThat(m -> m.id() == 1L));
+
+            relay.relayBatch();
+
+            assertNotNull(poisoned.getFailedAt());
+            assertNotNull(next.getPublishedAt());
+            assertNull(meterRegistry.find("tennisclub.outbox.deferred").counter());
+        }
+    }
+
+    @Nested
+    class RetryTests {
+
+        @Test
+        void relayBatch_ShouldDoubleTheBackoffPerAttempt() throws Exception {
+            OutboxEvent failing = event(1L, 1L, 1L);
+            failing.setAttempts(3);
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of(failing));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>());
+            when(sink.name()).thenReturn("test");
+            doThrow(new IOException("down")).when(sink).deliver(any());
+
+            LocalDateTime before = LocalDateTime.now();
+            relay.relayBatch();
+
+            //4th attempt: 1s * 2^3
+            assertEquals(4, failing.getAttempts());
+            assertFalse(failing.getNextAttemptAt().isBefore(before.plusSeconds(8)));
+            assertTrue(failing.getNextAttemptAt().isBefore(before.plusSeconds(9)));
+        }
+
+        @Test
+        void relayBatch_AfterMaxAttempts_ShouldDeadLetterTheEvent() throws Exception {
+            properties.setMaxAttempts(2);
+            OutboxEvent failing = event(1L, 1L, 1L);
+            failing.setAttempts(1);
+            when(outboxRepository.lockNextBatch(eq(3), any())).thenReturn(List.of(failing));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>());
+            when(sink.name()).thenReturn("test");
+            doThrow(new IOException("down")).when(sink).deliver(any());
+
+            relay.relayBatch();
+
+            assertNotNull(failing.getFailedAt());
+            assertNull(failing.getPublishedAt());
+            assertEquals(1.0, meterRegistry.get("tennisclub.outbox.dead-lettered").counter().count());
+        }
+    }
+
+    @Nested
+    class PollTests {
+
+        @Test
+        void poll_ShouldKeepDrainingWhileBatchesAreFull() {
+            when(outboxRepository.lockNextBatch(eq(3), any()))
+                    .thenReturn(List.of(event(1L, 1L, 1L), event(2L, 1L, 2L), event(3L, 1L, 3L)))
+                    .thenReturn(List.of(event(4L, 1L, 4L)));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>());
+
+            relay.poll();
+
+            verify(outboxRepository, times(2)).lockNextBatch(eq(3), any());
+        }
+
+        @Test
+        void poll_WhenAFullBatchFails_ShouldStopInsteadOfSpinning() throws Exception {
+            //the repository skips rows pushed back to a later attempt, so the next call returns newer events
+            when(outboxRepository.lockNextBatch(eq(3), any()))
+                    .thenReturn(List.of(event(1L, 1L, 1L), event(2L, 2L, 1L), event(3L, 3L, 1L)))
+                    .thenReturn(List.of(event(4L, 4L, 1L)));
+            when(outboxRepository.findEarliestPendingSequences(any())).thenReturn(new HashMap<>());
+            when(sink.name()).thenReturn("test");
+            doThrow(new IOException("down")).when(sink).deliver(argThat(m -> m.id() <= 3L));
+
+            relay.poll();
+
+            verify(outboxRepository, times(2)).lockNextBatch(eq(3), any());
+            verify(sink).deliver(argThat(m -> m.id() == 4L));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.tennisclub.unitTest.outboxTests;
+
+import com.example.tennisclub.outbox.OutboxRepository;
+import com.example.tennisclub.outbox.entity.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//the sequence counter and the blocking query run against a real table, each test rolls back
+@JdbcTest
+@ImportAutoConfiguration(HibernateJpaAutoConfiguration.class)
+@ActiveProfiles("test")
+@Import(OutboxRepository.class)
+class OutboxRepositoryDatabaseTest {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO surface_type (id, name, price_per_minute, deleted, version) VALUES (8101, 'outbox clay', 0.5, false, 0)");
+        jdbcTemplate.update("INSERT INTO court (id, name, surface_type_id, deleted, version) VALUES (8101, 'Outbox 1', 8101, false, 0)");
+        jdbcTemplate.update("INSERT INTO court (id, name, surface_type_id, deleted, version) VALUES (8102, 'Outbox 2', 8101, false, 0)");
+    }
+
+    private OutboxEvent append(String aggregateType, long aggregateId, long courtId) {
+        return outboxRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .partitionKey(courtId)
+                .partitionSequence(outboxRepository.nextCourtSequence(courtId))
+                .eventType("RESERVATION_CREATED")
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void nextCourtSequence_CountsPerCourtWithoutTouchingTheVersion() {
+        assertEquals(1L, outboxRepository.nextCourtSequence(8101L));
+        assertEquals(2L, outboxRepository.nextCourtSequence(8101L));
+        assertEquals(1L, outboxRepository.nextCourtSequence(8102L));
+
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM court WHERE id = 8101", Long.class));
+    }
+
+    @Test
+    void findEarliestPendingSequences_ReturnsTheLowestPendingSequenceOutsideTheBatchPerCourt() {
+        append("Reservation", 1L, 8101L);
+        OutboxEvent second = append("Reservation", 2L, 8101L);
+        OutboxEvent third = append("Reservation", 3L, 8101L);
+        OutboxEvent otherCourt = append("Reservation", 1L, 8102L);
+
+        Map<Long, Long> earliest = outboxRepository.findEarliestPendingSequences(List.of(third, otherCourt));
+
+        assertEquals(Map.of(8101L, 1L), earliest);
+        assertEquals(2L, second.getPartitionSequence());
+    }
+
+    @Test
+    void findEarliestPendingSequences_IgnoresDeliveredAndDeadLetteredEvents() {
+        OutboxEvent delivered = append("Reservation", 1L, 8101L);
+        delivered.setPublishedAt(LocalDateTime.now());
+        OutboxEvent deadLettered = append("Reservation", 2L, 8101L);
+        deadLettered.setFailedAt(LocalDateTime.now());
+        OutboxEvent next = append("Reservation", 3L, 8101L);
+
+        assertTrue(outboxRepository.findEarliestPendingSequences(List.of(next)).isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tennisclub.unitTest.outboxTests;
+
+import com.example.tennisclub.outbox.OutboxRepository;
+import com.example.tennisclub.outbox.OutboxService;
+import com.example.tennisclub.outbox.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private OutboxService outboxService;
+
+    record Payload(Long id, LocalDateTime start) {}
+
+    @Test
+    void append_ShouldStoreSerializedPendingEvent() {
+        when(outboxRepository.nextCourtSequence(2L)).thenReturn(5L);
+        when(outboxRepository.save(any(OutboxEvent.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        OutboxEvent event = outboxService.append("Reservation", 7L, 2L, "RESERVATION_CREATED",
+                new Payload(7L, LocalDateTime.of(2030, 1, 7, 10, 0)));
+
+        assertEquals("Reservation", event.getAggregateType());
+        assertEquals(7L, event.getAggregateId());
+        assertEquals(2L, event.getPartitionKey());
+        assertEquals(5L, event.getPartitionSequence());
+        assertEquals("RESERVATION_CREATED", event.getEventType());
+        assertEquals("{\"id\":7,\"start\":\"2030-01-07T10:00:00\"}", event.getPayload());
+        assertNotNull(event.getCreatedAt());
+        assertNull(event.getPublishedAt());
+        assertEquals(0, event.getAttempts());
+    }
+}
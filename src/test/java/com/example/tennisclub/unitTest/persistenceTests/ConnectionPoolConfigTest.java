@@ -0,0 +1,84 @@
+package com.example.tennisclub.unitTest.persistenceTests;
+
+import com.example.tennisclub.persistence.ConnectionPoolConfig;
+import com.example.tennisclub.persistence.ConnectionPoolProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolConfigTest {
+
+    private ConnectionPoolProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConnectionPoolProperties();
+        properties.setSizeFromCores(true);
+    }
+
+    @Nested
+    class ApplyPoolSizeTests {
+
+        @Test
+        void applyPoolSize_ShouldUseTwoConnectionsPerCorePlusSpindle() {
+            HikariConfig config = new HikariConfig();
+
+            ConnectionPoolConfig.applyPoolSize(config, properties, 8);
+
+            assertEquals(17, config.getMaximumPoolSize());
+            assertEquals(17, config.getMinimumIdle());
+        }
+
+        @Test
+        void applyPoolSize_ShouldKeepMinimumIdle_WhenPoolIsNotFixedSize() {
+            properties.setFixedSize(false);
+            properties.setConnectionsPerCore(3);
+            properties.setEffectiveSpindleCount(0);
+            HikariConfig config = new HikariConfig();
+            config.setMinimumIdle(2);
+
+            ConnectionPoolConfig.applyPoolSize(config, properties, 4);
+
+            assertEquals(12, config.getMaximumPoolSize());
+            assertEquals(2, config.getMinimumIdle());
+        }
+    }
+
+    @Nested
+    class PostProcessorTests {
+
+        private BeanPostProcessor postProcessor() {
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            beanFactory.registerSingleton("connectionPoolProperties", properties);
+            return ConnectionPoolConfig.connectionPoolSizingPostProcessor(
+                    beanFactory.getBeanProvider(ConnectionPoolProperties.class));
+        }
+
+        @Test
+        void postProcessor_ShouldSizeHikariPoolsBeforeTheyStart() {
+            BeanPostProcessor postProcessor = postProcessor();
+
+            try (HikariDataSource dataSource = new HikariDataSource()) {
+                postProcessor.postProcessBeforeInitialization(dataSource, "dataSource");
+
+                int expected = Runtime.getRuntime().availableProcessors() * 2 + 1;
+                assertEquals(expected, dataSource.getMaximumPoolSize());
+                assertEquals(expected, dataSource.getMinimumIdle());
+            }
+        }
+
+        @Test
+        void postProcessor_ShouldIgnoreOtherBeans() {
+            BeanPostProcessor postProcessor = postProcessor();
+            Object bean = new Object();
+
+            assertSame(bean, postProcessor.postProcessBeforeInitialization(bean, "other"));
+        }
+    }
+}
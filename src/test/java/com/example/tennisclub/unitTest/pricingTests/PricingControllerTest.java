@@ -0,0 +1,102 @@
+package com.example.tennisclub.unitTest.pricingTests;
+
+import com.example.tennisclub.auth.security.JwtUtil;
+import com.example.tennisclub.auth.security.SecurityConfig;
+import com.example.tennisclub.pricing.PricingController;
+import com.example.tennisclub.pricing.PricingService;
+import com.example.tennisclub.pricing.dto.PriceQuoteBatchRequestDto;
+import com.example.tennisclub.pricing.dto.PriceQuoteRequestDto;
+import com.example.tennisclub.pricing.dto.PriceQuoteResponseDto;
+import com.example.tennisclub.user.CustomUserDetailsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PricingController.class)
+@Import(SecurityConfig.class)
+class PricingControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+    @MockitoBean private PricingService pricingService;
+    @Autowired private ObjectMapper objectMapper;
+    @MockitoBean private JwtUtil jwtUtil;
+    @MockitoBean private CustomUserDetailsService customUserDetailsService;
+
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Nested
+    class QuoteTests {
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void withValidBatch_ShouldReturnQuotes() throws Exception {
+            PriceQuoteBatchRequestDto request = new PriceQuoteBatchRequestDto(List.of(
+                    new PriceQuoteRequestDto(1L, false, start, start.plusMinutes(60))));
+            when(pricingService.quote(any())).thenReturn(List.of(
+                    new PriceQuoteResponseDto(1L, false, start, start.plusMinutes(60), new BigDecimal("30.00"))));
+
+            mockMvc.perform(post("/api/pricing/quotes")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].courtId").value(1))
+                    .andExpect(jsonPath("$[0].totalPrice").value(30.00));
+
+            verify(pricingService).quote(any());
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void withEmptyBatch_ShouldReturnBadRequest() throws Exception {
+            mockMvc.perform(post("/api/pricing/quotes")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"quotes\":[]}"))
+                    .andExpect(status().isBadRequest());
+
+            verify(pricingService, never()).quote(any());
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void withMissingCourt_ShouldReturnBadRequest() throws Exception {
+            PriceQuoteBatchRequestDto request = new PriceQuoteBatchRequestDto(List.of(
+                    new PriceQuoteRequestDto(null, false, start, start.plusMinutes(60))));
+
+            mockMvc.perform(post("/api/pricing/quotes")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+
+            verify(pricingService, never()).quote(any());
+        }
+
+        @Test
+        void withoutAuthentication_ShouldReturn401() throws Exception {
+            mockMvc.perform(post("/api/pricing/quotes")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"quotes\":[]}"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+}
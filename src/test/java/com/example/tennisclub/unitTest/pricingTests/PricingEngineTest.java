@@ -0,0 +1,319 @@
+package com.example.tennisclub.unitTest.pricingTests;
+
+import com.example.tennisclub.pricing.PriceTable;
+import com.example.tennisclub.pricing.PricingEngine;
+import com.example.tennisclub.reservation.config.PricingProperties;
+import com.example.tennisclub.surfaceType.SurfaceTypeRepository;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import com.example.tennisclub.surfaceType.event.SurfaceTypeChangedEvent;
+import com.example.tennisclub.user.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PricingEngineTest {
+
+    @Mock
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    private PricingProperties pricing;
+
+    private PricingEngine pricingEngine;
+
+    //a Monday
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        pricing = new PricingProperties();
+        pricing.setDoubles(1.5);
+        pricingEngine = new PricingEngine(surfaceTypeRepository, pricing);
+    }
+
+    private SurfaceType surface(long id, double pricePerMinute) {
+        return SurfaceType.builder().id(id).name("surface " + id).pricePerMinute(pricePerMinute).build();
+    }
+
+    private PricingProperties.Rule rule(Set<DayOfWeek> days, LocalTime from, LocalTime to, double multiplier) {
+        PricingProperties.Rule rule = new PricingProperties.Rule();
+        rule.setDays(days);
+        rule.setFrom(from);
+        rule.setTo(to);
+        rule.setMultiplier(multiplier);
+        return rule;
+    }
+
+    private List<PricingProperties.Rule> clubRules() {
+        return List.of(
+                rule(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(17, 0), LocalTime.of(21, 0), 1.25),
+                rule(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, 1.2),
+                rule(EnumSet.complementOf(EnumSet.of(DayOfWeek.SATURDAY)), LocalTime.of(21, 0), LocalTime.of(8, 0), 0.8));
+    }
+
+    @Nested
+    class PriceTests {
+
+        @Test
+        void price_ForSingles_ShouldReturnExactCents() {
+            when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(surface(1L, 0.7)));
+
+            assertEquals(new BigDecimal("63.00"), pricingEngine.price(1L, false, start, start.plusMinutes(90), Set.of(Role.MEMBER)));
+        }
+
+        @Test
+        void price_ForDoubles_ShouldApplyMultiplierWithoutDrift() {
+            //0.7 * 90 * 1.5 is 94.49999999999999 in floating point
+            when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(surface(1L, 0.7)));
+
+            assertEquals(new BigDecimal("94.50"), pricingEngine.price(1L, true, start, start.plusMinutes(90), Set.of(Role.MEMBER)));
+        }
+
+        @Test
+        void price_ShouldLoadTableOnlyOnce() {
+            when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(surface(1L, 0.5), surface(2L, 0.7)));
+
+            pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER));
+            pricingEngine.price(2L, true, start, start.plusMinutes(60), Set.of(Role.MEMBER));
+
+            verify(surfaceTypeRepository, times(1)).findAllIncludingDeleted();
+        }
+
+        @Test
+        void price_ForUnknownSurface_ShouldThrowNotFoundWithoutReloadingAFreshTable() {
+            when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(surface(1L, 0.5)));
+            pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER));
+
+            for (int i = 0; i < 3; i++) {
+                ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                        () -> pricingEngine.price(9L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER)));
+                assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+            }
+
+            verify(surfaceTypeRepository, times(1)).findAllIncludingDeleted();
+        }
+
+        @Test
+        void price_ForSurfaceCreatedAfterLoad_ShouldFindItOnceTheChangeIsPublished() {
+            when(surfaceTypeRepository.findAllIncludingDeleted())
+                    .thenReturn(List.of(surface(1L, 0.5)))
+                    .thenReturn(List.of(surface(1L, 0.5), surface(2L, 0.7)));
+            pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER));
+
+            pricingEngine.onSurfaceTypeChanged(new SurfaceTypeChangedEvent(2L));
+
+            assertEquals(new BigDecimal("42.00"), pricingEngine.price(2L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER)));
+        }
+
+        @Test
+        void price_ForSoftDeletedSurface_ShouldKeepPricingItsCourts() {
+            SurfaceType deleted = surface(1L, 0.5);
+            deleted.setDeleted(true);
+            when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(deleted));
+
+            assertEquals(new BigDecimal("30.00"), pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER)));
+        }
+
+        @Test
+        void onSurfaceTypeChanged_ShouldPriceWithNewRate() {
+            when(surfaceTypeRepository.findAllIncludingDeleted())
+                    .thenReturn(List.of(surface(1L, 0.5)))
+                    .thenReturn(List.of(surface(1L, 0.6)));
+
+            assertEquals(new BigDecimal("30.00"), pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER)));
+
+            pricingEngine.onSurfaceTypeChanged(new SurfaceTypeChangedEvent(1L));
+
+            assertEquals(new BigDecimal("36.00"), pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER)));
+        }
+    }
+
+    @Nested
+    class PricingRuleTests {
+
+        @BeforeEach
+        void setUpRules() {
+            pricing.setRules(clubRules());
+            when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(surface(1L, 1.0)));
+        }
+
+        @Test
+        void price_SpanningPeakBoundary_ShouldPriceEachSegment() {
+            LocalDateTime from = start.withHour(16);
+
+            //60 minutes at 1.00 + 60 minutes at 1.25
+            assertEquals(new BigDecimal("135.00"), pricingEngine.price(1L, false, from, from.plusMinutes(120), Set.of()));
+        }
+
+        @Test
+        void price_OffPeakWindow_ShouldContinuePastMidnight() {
+            LocalDateTime from = start.withHour(23);
+
+            //Monday 23:00 - Tuesday 01:00 at the off-peak rate
+            assertEquals(new BigDecimal("96.00"), pricingEngine.price(1L, false, from, from.plusMinutes(120), Set.of()));
+        }
+
+        @Test
+        void price_EarlyMonday_ShouldUseOffPeakStartedOnSunday() {
+            LocalDateTime monday = start.withHour(7);
+
+            //Monday 07:00 - 08:00 off-peak, 08:00 - 09:00 base rate
+            assertEquals(new BigDecimal("108.00"), pricingEngine.price(1L, false, monday, monday.plusMinutes(120), Set.of()));
+        }
+
+        @Test
+        void price_SundayEvening_ShouldStayWeekend() {
+            LocalDateTime sunday = start.minusDays(1).withHour(22);
+
+            //the weekend rule comes first until midnight, Monday 00:00 - 01:00 is off-peak
+            assertEquals(new BigDecimal("192.00"), pricingEngine.price(1L, false, sunday, sunday.plusMinutes(180), Set.of()));
+        }
+
+        @Test
+        void price_FridayNightIntoWeekend_ShouldUseFirstMatchingRule() {
+            LocalDateTime friday = start.plusDays(4).withHour(23);
+
+            //Friday 23:00 - 00:00 off-peak, Saturday 00:00 - 01:00 weekend
+            assertEquals(new BigDecimal("120.00"), pricingEngine.price(1L, false, friday, friday.plusMinutes(120), Set.of()));
+        }
+
+        @Test
+        void price_WithRuleForOtherSurface_ShouldKeepBaseRate() {
+            PricingProperties.Rule grassOnly = rule(EnumSet.allOf(DayOfWeek.class), LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, 2.0);
+            grassOnly.setSurfaceTypeIds(Set.of(2L));
+            pricing.setRules(List.of(grassOnly));
+
+            assertEquals(new BigDecimal("60.00"), pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of()));
+        }
+
+        @Test
+        void price_ShouldApplyLowestTierOfUserRoles() {
+            pricing.setTiers(new EnumMap<>(Map.of(Role.MEMBER, 0.9, Role.ADMIN, 0.5)));
+
+            assertEquals(new BigDecimal("54.00"), pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER)));
+            assertEquals(new BigDecimal("30.00"), pricingEngine.price(1L, false, start, start.plusMinutes(60), Set.of(Role.MEMBER, Role.ADMIN)));
+        }
+
+        @Test
+        void price_ForDoublesInPeak_ShouldCombineMultipliers() {
+            LocalDateTime from = start.withHour(18);
+
+            //60 * 1.00 * 1.25 peak * 1.5 doubles
+            assertEquals(new BigDecimal("112.50"), pricingEngine.price(1L, true, from, from.plusMinutes(60), Set.of()));
+        }
+    }
+
+    @Nested
+    class PricePropertyTests {
+
+        //exact decimal reference of price per minute * minutes * multiplier, rounded half-up to cents
+        private long referenceCents(double pricePerMinute, long minutes, double multiplier) {
+            return BigDecimal.valueOf(pricePerMinute)
+                    .multiply(BigDecimal.valueOf(minutes))
+                    .multiply(BigDecimal.valueOf(multiplier))
+                    .movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+
+        @Test
+        void priceInCents_ShouldMatchDecimalReferenceAndStayWithinACentOfLegacyDouble() {
+            Random random = new Random(42);
+            List<SurfaceType> surfaces = new ArrayList<>();
+            for (long id = 1; id <= 20; id++) {
+                //prices with up to two decimals, as accepted by the surface type API
+                surfaces.add(surface(id, (1 + random.nextInt(10_000)) / 100.0));
+            }
+            double[] multipliers = {1.0, 1.25, 1.5, 1.75, 2.0};
+
+            for (double multiplier : multipliers) {
+                pricing.setDoubles(multiplier);
+                PriceTable table = PriceTable.compile(surfaces, pricing);
+
+                for (int i = 0; i < 5_000; i++) {
+                    SurfaceType surface = surfaces.get(random.nextInt(surfaces.size()));
+                    long minutes = 1 + random.nextInt(24 * 60);
+                    boolean isDoubles = random.nextBoolean();
+                    double appliedMultiplier = isDoubles ? multiplier : 1.0;
+
+                    long cents = table.priceInCents(surface.getId(), isDoubles, table.tierMultiplierMicros(Set.of()), start, minutes);
+
+                    assertEquals(referenceCents(surface.getPricePerMinute(), minutes, appliedMultiplier), cents,
+                            () -> surface.getPricePerMinute() + " * " + minutes + " * " + appliedMultiplier);
+
+                    double legacy = surface.getPricePerMinute() * minutes * appliedMultiplier;
+                    assertEquals(legacy, cents / 100.0, 0.01);
+                }
+            }
+        }
+
+        //naive reference walking the range minute by minute through the rules
+        private BigDecimal minuteByMinute(double pricePerMinute, LocalDateTime from, long minutes) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (long m = 0; m < minutes; m++) {
+                LocalDateTime minute = from.plusMinutes(m);
+                double multiplier = 1.0;
+                for (PricingProperties.Rule rule : pricing.getRules()) {
+                    if (covers(rule, minute)) {
+                        multiplier = rule.getMultiplier();
+                        break;
+                    }
+                }
+                total = total.add(BigDecimal.valueOf(pricePerMinute).multiply(BigDecimal.valueOf(multiplier)));
+            }
+            return total.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        private boolean covers(PricingProperties.Rule rule, LocalDateTime minute) {
+            LocalTime time = minute.toLocalTime();
+            if (rule.getTo().isAfter(rule.getFrom())) {
+                return rule.getDays().contains(minute.getDayOfWeek())
+                        && !time.isBefore(rule.getFrom()) && time.isBefore(rule.getTo());
+            }
+            return (rule.getDays().contains(minute.getDayOfWeek()) && !time.isBefore(rule.getFrom()))
+                    || (rule.getDays().contains(minute.getDayOfWeek().minus(1)) && time.isBefore(rule.getTo()));
+        }
+
+        @Test
+        void priceInCents_WithRules_ShouldMatchMinuteByMinuteReference() {
+            Random random = new Random(7);
+            pricing.setRules(clubRules());
+            List<SurfaceType> surfaces = List.of(surface(1L, 0.5), surface(2L, 0.7), surface(3L, 1.35));
+            PriceTable table = PriceTable.compile(surfaces, pricing);
+            long fullPrice = table.tierMultiplierMicros(Set.of());
+
+            for (int i = 0; i < 500; i++) {
+                SurfaceType surface = surfaces.get(random.nextInt(surfaces.size()));
+                LocalDateTime from = start.plusMinutes(random.nextInt(7 * 24 * 60));
+                //up to two and a half weeks, so whole-week wrap-around is covered too
+                long minutes = 1 + random.nextInt(25_000);
+
+                long cents = table.priceInCents(surface.getId(), false, fullPrice, from, minutes);
+
+                assertEquals(minuteByMinute(surface.getPricePerMinute(), from, minutes), BigDecimal.valueOf(cents, 2),
+                        () -> surface.getPricePerMinute() + " from " + from + " for " + minutes + " minutes");
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.tennisclub.unitTest.pricingTests;
+
+import com.example.tennisclub.court.CourtRepository;
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.court.event.CourtChangedEvent;
+import com.example.tennisclub.pricing.CourtCatalog;
+import com.example.tennisclub.pricing.PricingEngine;
+import com.example.tennisclub.pricing.PricingService;
+import com.example.tennisclub.pricing.dto.PriceQuoteBatchRequestDto;
+import com.example.tennisclub.pricing.dto.PriceQuoteRequestDto;
+import com.example.tennisclub.pricing.dto.PriceQuoteResponseDto;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.config.PricingProperties;
+import com.example.tennisclub.surfaceType.SurfaceTypeRepository;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import com.example.tennisclub.user.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PricingServiceTest {
+
+    @Mock
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    @Mock
+    private CourtRepository courtRepository;
+
+    private PricingEngine pricingEngine;
+    private CourtCatalog courtCatalog;
+    private PricingService pricingService;
+
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        PricingProperties pricing = new PricingProperties();
+        pricing.setDoubles(1.5);
+        pricing.setTiers(new EnumMap<>(Map.of(Role.ADMIN, 0.5)));
+
+        SurfaceType clay = SurfaceType.builder().id(1L).name("clay").pricePerMinute(0.5).build();
+        SurfaceType grass = SurfaceType.builder().id(2L).name("grass").pricePerMinute(0.7).build();
+        lenient().when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(clay, grass));
+        lenient().when(courtRepository.findAll()).thenReturn(List.of(
+                Court.builder().id(1L).name("Court 1").surfaceType(clay).build(),
+                Court.builder().id(3L).name("Court 3").surfaceType(grass).build()));
+
+        pricingEngine = new PricingEngine(surfaceTypeRepository, pricing);
+        courtCatalog = new CourtCatalog(courtRepository);
+        pricingService = new PricingService(pricingEngine, courtCatalog, new PartitioningProperties());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)))
+        );
+    }
+
+    private PriceQuoteBatchRequestDto batch(PriceQuoteRequestDto... quotes) {
+        return new PriceQuoteBatchRequestDto(List.of(quotes));
+    }
+
+    @Nested
+    class QuoteTests {
+
+        @Test
+        void quote_ShouldPriceEveryTupleInRequestOrder() {
+            authenticateAs("memberUser", "MEMBER");
+
+            List<PriceQuoteResponseDto> result = pricingService.quote(batch(
+                    new PriceQuoteRequestDto(3L, false, start, start.plusMinutes(60)),
+                    new PriceQuoteRequestDto(1L, true, start, start.plusMinutes(60))));
+
+            assertEquals(2, result.size());
+            assertEquals(3L, result.get(0).courtId());
+            assertEquals(new BigDecimal("42.00"), result.get(0).totalPrice());
+            assertEquals(1L, result.get(1).courtId());
+            assertEquals(new BigDecimal("45.00"), result.get(1).totalPrice());
+        }
+
+        @Test
+        void quote_ShouldMatchPriceChargedOnCreate() {
+            authenticateAs("memberUser", "MEMBER");
+            LocalDateTime end = start.plusMinutes(95);
+
+            PriceQuoteResponseDto quote = pricingService.quote(batch(new PriceQuoteRequestDto(3L, true, start, end))).getFirst();
+
+            //ReservationService.create prices the loaded court's surface with the user's roles
+            assertEquals(pricingEngine.price(2L, true, start, end, Set.of(Role.MEMBER)), quote.totalPrice());
+        }
+
+        @Test
+        void quote_ShouldApplyTierOfAuthenticatedUser() {
+            authenticateAs("adminUser", "ADMIN");
+
+            PriceQuoteResponseDto quote = pricingService.quote(batch(
+                    new PriceQuoteRequestDto(1L, false, start, start.plusMinutes(60)))).getFirst();
+
+            assertEquals(new BigDecimal("15.00"), quote.totalPrice());
+        }
+
+        @Test
+        void quote_ShouldLoadCatalogsOnceForWholeBatch() {
+            authenticateAs("memberUser", "MEMBER");
+
+            pricingService.quote(batch(
+                    new PriceQuoteRequestDto(1L, false, start, start.plusMinutes(60)),
+                    new PriceQuoteRequestDto(3L, false, start, start.plusMinutes(60)),
+                    new PriceQuoteRequestDto(1L, true, start.plusHours(2), start.plusHours(3))));
+
+            verify(courtRepository, times(1)).findAll();
+            verify(surfaceTypeRepository, times(1)).findAllIncludingDeleted();
+        }
+
+        @Test
+        void quote_WithUnknownCourt_ShouldThrowNotFound() {
+            authenticateAs("memberUser", "MEMBER");
+
+            for (int i = 0; i < 3; i++) {
+                ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> pricingService.quote(batch(
+                        new PriceQuoteRequestDto(99L, false, start, start.plusMinutes(60)))));
+                assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+            }
+
+            //a freshly loaded catalog answers unknown ids without going back to the database
+            verify(courtRepository, times(1)).findAll();
+        }
+
+        @Test
+        void quote_WithStartAfterEnd_ShouldThrowBadRequest() {
+            authenticateAs("memberUser", "MEMBER");
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> pricingService.quote(batch(
+                    new PriceQuoteRequestDto(1L, false, start, start.minusMinutes(60)))));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        }
+
+        @Test
+        void quote_LongerThanMaxReservationLength_ShouldThrowBadRequest() {
+            authenticateAs("memberUser", "MEMBER");
+            LocalDateTime end = start.plus(new PartitioningProperties().getMaxReservationLength()).plusMinutes(1);
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> pricingService.quote(batch(
+                    new PriceQuoteRequestDto(1L, false, start, end))));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        }
+
+        @Test
+        void quote_AfterCourtChanged_ShouldReloadCatalog() {
+            authenticateAs("memberUser", "MEMBER");
+            pricingService.quote(batch(new PriceQuoteRequestDto(1L, false, start, start.plusMinutes(60))));
+
+            courtCatalog.onCourtChanged(new CourtChangedEvent(1L));
+            pricingService.quote(batch(new PriceQuoteRequestDto(1L, false, start, start.plusMinutes(60))));
+
+            verify(courtRepository, times(2)).findAll();
+        }
+    }
+}
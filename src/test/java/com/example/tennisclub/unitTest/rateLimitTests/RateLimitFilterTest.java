@@ -0,0 +1,192 @@
+package com.example.tennisclub.unitTest.rateLimitTests;
+
+import com.example.tennisclub.auth.security.JwtUtil;
+import com.example.tennisclub.ratelimit.RateLimitFilter;
+import com.example.tennisclub.ratelimit.RateLimiter;
+import com.example.tennisclub.ratelimit.config.RateLimitProperties;
+import com.example.tennisclub.ratelimit.config.RateLimitProperties.KeyType;
+import com.example.tennisclub.ratelimit.config.RateLimitProperties.Rule;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private RateLimitProperties properties;
+    private AtomicLong clock;
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private AtomicInteger passed;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                rule("auth", List.of("POST"), "/api/auth/**", KeyType.IP, 2),
+                rule("reservation-writes", List.of("POST", "DELETE"), "/api/reservations/**", KeyType.USER, 1)));
+        properties.setIdleEviction(Duration.ofMinutes(1));
+        clock = new AtomicLong();
+        rateLimiter = new RateLimiter(properties, clock::get);
+        filter = new RateLimitFilter(properties, rateLimiter, jwtUtil, JsonMapper.builder().findAndAddModules().build(),
+                new SimpleMeterRegistry());
+        passed = new AtomicInteger();
+        chain = (request, response) -> passed.incrementAndGet();
+    }
+
+    private static Rule rule(String name, List<String> methods, String path, KeyType key, int capacity) {
+        Rule rule = new Rule();
+        rule.setName(name);
+        rule.setMethods(methods);
+        rule.setPaths(List.of(path));
+        rule.setKey(key);
+        rule.setCapacity(capacity);
+        rule.setRefillTokens(capacity);
+        rule.setRefillPeriod(Duration.ofMinutes(1));
+        return rule;
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String ip, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Nested
+    class IpKeyedTests {
+
+        @Test
+        void overCapacity_isRejectedWithRetryAfter() throws Exception {
+            send("POST", "/api/auth/login", "10.0.0.1", null);
+            send("POST", "/api/auth/login", "10.0.0.1", null);
+            MockHttpServletResponse rejected = send("POST", "/api/auth/login", "10.0.0.1", null);
+
+            assertEquals(2, passed.get());
+            assertEquals(429, rejected.getStatus());
+            assertEquals("30", rejected.getHeader("Retry-After"));
+        }
+
+        @Test
+        void otherClients_haveTheirOwnBucket() throws Exception {
+            send("POST", "/api/auth/login", "10.0.0.1", null);
+            send("POST", "/api/auth/login", "10.0.0.1", null);
+            MockHttpServletResponse other = send("POST", "/api/auth/register", "10.0.0.2", null);
+
+            assertEquals(200, other.getStatus());
+            assertEquals(3, passed.get());
+        }
+
+        @Test
+        void tokensRefillOverTime() throws Exception {
+            send("POST", "/api/auth/login", "10.0.0.1", null);
+            send("POST", "/api/auth/login", "10.0.0.1", null);
+            clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+            assertEquals(200, send("POST", "/api/auth/login", "10.0.0.1", null).getStatus());
+            assertEquals(429, send("POST", "/api/auth/login", "10.0.0.1", null).getStatus());
+        }
+
+        @Test
+        void unmatchedRequests_areNotLimited() throws Exception {
+            for (int i = 0; i < 5; i++) {
+                send("GET", "/api/courts", "10.0.0.1", null);
+                send("GET", "/api/auth/login", "10.0.0.1", null);
+            }
+
+            assertEquals(10, passed.get());
+            assertEquals(0, rateLimiter.bucketCount());
+        }
+    }
+
+    @Nested
+    class UserKeyedTests {
+
+        @Test
+        void sameUserFromDifferentIps_sharesOneBucket() throws Exception {
+            when(jwtUtil.extractUsername("alice-token")).thenReturn("alice");
+
+            send("POST", "/api/reservations", "10.0.0.1", "alice-token");
+            MockHttpServletResponse rejected = send("DELETE", "/api/reservations/1", "10.0.0.2", "alice-token");
+
+            assertEquals(429, rejected.getStatus());
+            assertEquals(1, passed.get());
+        }
+
+        @Test
+        void differentUsers_haveTheirOwnBucket() throws Exception {
+            when(jwtUtil.extractUsername("alice-token")).thenReturn("alice");
+            when(jwtUtil.extractUsername("bob-token")).thenReturn("bob");
+
+            send("POST", "/api/reservations", "10.0.0.1", "alice-token");
+            send("POST", "/api/reservations", "10.0.0.1", "bob-token");
+
+            assertEquals(2, passed.get());
+        }
+
+        @Test
+        void invalidToken_fallsBackToIp() throws Exception {
+            when(jwtUtil.extractUsername("forged")).thenThrow(new MalformedJwtException("bad"));
+
+            send("POST", "/api/reservations", "10.0.0.1", "forged");
+            assertEquals(429, send("POST", "/api/reservations", "10.0.0.1", null).getStatus());
+        }
+    }
+
+    @Nested
+    class EvictionTests {
+
+        @Test
+        void idleBuckets_areEvicted() throws Exception {
+            send("POST", "/api/auth/login", "10.0.0.1", null);
+            clock.addAndGet(Duration.ofSeconds(30).toNanos());
+            send("POST", "/api/auth/login", "10.0.0.2", null);
+            assertEquals(2, rateLimiter.bucketCount());
+
+            //10.0.0.1 went quiet a minute ago, 10.0.0.2 only 30 s ago
+            clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+            assertEquals(1, rateLimiter.bucketCount());
+        }
+
+        @Test
+        void reachingMaxBuckets_evictsInsteadOfGrowing() throws Exception {
+            properties.setMaxBuckets(2);
+            rateLimiter = new RateLimiter(properties, clock::get);
+            filter = new RateLimitFilter(properties, rateLimiter, jwtUtil, JsonMapper.builder().findAndAddModules().build(),
+                    new SimpleMeterRegistry());
+
+            for (int i = 1; i <= 10; i++) {
+                send("POST", "/api/auth/login", "10.0.0." + i, null);
+            }
+
+            assertEquals(2, rateLimiter.bucketCount());
+            assertEquals(10, passed.get());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.tennisclub.unitTest.rateLimitTests;
+
+import com.example.tennisclub.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void newBucket_allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+
+        assertEquals(3, bucket.availableTokens(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND, bucket.tryConsume(0));
+    }
+
+    @Test
+    void emptyBucket_refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(SECOND / 2, bucket.tryConsume(SECOND / 2));
+        assertEquals(0, bucket.tryConsume(SECOND));
+        assertTrue(bucket.tryConsume(SECOND) > 0);
+    }
+
+    @Test
+    void refill_neverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+
+        assertEquals(2, bucket.availableTokens(100 * SECOND));
+    }
+
+    @Test
+    void concurrentConsumers_neverTakeMoreThanCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, SECOND, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            executor.submit(() -> {
+                if (bucket.tryConsume(0) == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+}
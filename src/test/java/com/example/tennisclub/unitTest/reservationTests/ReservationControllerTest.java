@@ -5,9 +5,11 @@ import com.example.tennisclub.auth.security.SecurityConfig;
 import com.example.tennisclub.court.dto.CourtResponseDto;
 import com.example.tennisclub.reservation.ReservationController;
 import com.example.tennisclub.reservation.ReservationService;
+import com.example.tennisclub.reservation.dto.ColumnarReservationsDto;
 import com.example.tennisclub.reservation.dto.ReservationRequestDto;
 import com.example.tennisclub.reservation.dto.ReservationResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationView;
+import com.example.tennisclub.reservation.entity.Reservation;
 import com.example.tennisclub.surfaceType.dto.SurfaceTypeResponseDto;
 import com.example.tennisclub.user.CustomUserDetailsService;
 import com.example.tennisclub.user.dto.UserResponseDto;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -25,8 +28,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -105,7 +110,8 @@ class ReservationControllerTest {
 
             mockMvc.perform(get("/api/reservations/{id}", reservationId))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.id").value(responseDto.id()));
+                    .andExpect(jsonPath("$.id").value(responseDto.id()))
+                    .andExpect(header().string("ETag", "\"0\""));
 
             verify(reservationService).getReservation(reservationId);
         }
@@ -155,15 +161,78 @@ class ReservationControllerTest {
 
         @Test
         @WithMockUser(roles = "MEMBER")
-        void getAllReservations_ShouldReturnAllReservations() throws Exception {
-            List<ReservationView> reservations = List.of(createSampleResponseDto());
-            when(reservationService.getAllReservations()).thenReturn(reservations);
+        void getAllReservations_ShouldStreamAllReservations() throws Exception {
+            streamReservations(createSampleResponseDto(), createSampleResponseDto());
+
+            mockMvc.perform(get("/api/reservations"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].id").value(1))
+                    .andExpect(jsonPath("$[0].startTime").isString());
+
+            verify(reservationService, never()).getAllReservations();
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void getAllReservations_WithNoReservations_ShouldStreamEmptyArray() throws Exception {
+            streamReservations();
 
             mockMvc.perform(get("/api/reservations"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("[]"));
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void getAllReservations_WhenServiceFailsBeforeFirstRow_ShouldReturnErrorStatus() throws Exception {
+            doThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE))
+                    .when(reservationService).forEachReservation(any());
+
+            mockMvc.perform(get("/api/reservations"))
+                    .andExpect(status().isServiceUnavailable());
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void getAllReservations_WithCborAccept_ShouldSerializeTheList() throws Exception {
+            when(reservationService.getAllReservations()).thenReturn(List.of(createSampleResponseDto()));
+
+            mockMvc.perform(get("/api/reservations").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+
+            verify(reservationService, never()).forEachReservation(any());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void getAllReservations_WithColumnarAccept_ShouldReturnColumnarBody() throws Exception {
+            when(reservationService.getAllReservationsColumnar()).thenReturn(new ColumnarReservationsDto(
+                    "UTC", List.of(), List.of(), null,
+                    new long[]{1L}, new long[]{1L}, null, new long[]{1L}, new long[]{2L},
+                    new boolean[]{false}, new BigDecimal[]{BigDecimal.TEN}, new long[]{0L}));
+
+            mockMvc.perform(get("/api/reservations").accept(ColumnarReservationsDto.MEDIA_TYPE))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(ColumnarReservationsDto.MEDIA_TYPE))
+                    .andExpect(jsonPath("$.ids[0]").value(1))
+                    .andExpect(jsonPath("$.users").doesNotExist());
+
+            verify(reservationService, never()).getAllReservations();
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void getAllReservations_WithAnyAccept_ShouldKeepTheListBody() throws Exception {
+            streamReservations(createSampleResponseDto());
+
+            mockMvc.perform(get("/api/reservations").accept(MediaType.ALL))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$").isArray());
 
-            verify(reservationService).getAllReservations();
+            verify(reservationService, never()).getAllReservationsColumnar();
         }
     }
 
@@ -338,7 +407,7 @@ class ReservationControllerTest {
             Long reservationId = 1L;
             ReservationRequestDto requestDto = createSampleRequestDto();
             ReservationResponseDto responseDto = createSampleResponseDto();
-            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class)))
+            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class), any()))
                     .thenReturn(responseDto);
 
             mockMvc.perform(put("/api/reservations/{id}", reservationId)
@@ -348,7 +417,68 @@ class ReservationControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.id").value(responseDto.id()));
 
-            verify(reservationService).update(eq(reservationId), any(ReservationRequestDto.class));
+            verify(reservationService).update(eq(reservationId), any(ReservationRequestDto.class), any());
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void update_WithIfMatch_ShouldPassExpectedVersion() throws Exception {
+            Long reservationId = 1L;
+            ReservationRequestDto requestDto = createSampleRequestDto();
+            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class), eq(3L)))
+                    .thenReturn(createSampleResponseDto());
+
+            mockMvc.perform(put("/api/reservations/{id}", reservationId)
+                            .with(csrf())
+                            .header("If-Match", "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requestDto)))
+                    .andExpect(status().isOk());
+
+            verify(reservationService).update(eq(reservationId), any(ReservationRequestDto.class), eq(3L));
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void update_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+            Long reservationId = 1L;
+            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class), eq(2L)))
+                    .thenThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Reservation was modified concurrently, current version is 3"));
+
+            mockMvc.perform(put("/api/reservations/{id}", reservationId)
+                            .with(csrf())
+                            .header("If-Match", "\"2\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(createSampleRequestDto())))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void update_WithConcurrentModification_ShouldReturnConflict() throws Exception {
+            Long reservationId = 1L;
+            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class), any()))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Reservation.class, reservationId));
+
+            mockMvc.perform(put("/api/reservations/{id}", reservationId)
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(createSampleRequestDto())))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status").value(409));
+        }
+
+        @Test
+        @WithMockUser(roles = "MEMBER")
+        void update_WithMalformedIfMatch_ShouldReturnBadRequest() throws Exception {
+            mockMvc.perform(put("/api/reservations/{id}", 1L)
+                            .with(csrf())
+                            .header("If-Match", "\"abc\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(createSampleRequestDto())))
+                    .andExpect(status().isBadRequest());
+
+            verify(reservationService, never()).update(any(), any(), any());
         }
 
         @Test
@@ -358,7 +488,7 @@ class ReservationControllerTest {
             String expectedMessage = "Reservation with ID " + nonExistentId + " not found";
             ReservationRequestDto requestDto = createSampleRequestDto();
 
-            when(reservationService.update(eq(nonExistentId), any(ReservationRequestDto.class)))
+            when(reservationService.update(eq(nonExistentId), any(ReservationRequestDto.class), any()))
                     .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, expectedMessage));
 
             mockMvc.perform(put("/api/reservations/{id}", nonExistentId)
@@ -368,7 +498,7 @@ class ReservationControllerTest {
                     .andExpect(jsonPath("$.error").value(expectedMessage))
                     .andExpect(jsonPath("$.status").value(404));
 
-            verify(reservationService).update(nonExistentId, requestDto);
+            verify(reservationService).update(nonExistentId, requestDto, null);
         }
 
         @Test
@@ -385,7 +515,7 @@ class ReservationControllerTest {
                     LocalDateTime.now().plusHours(2)
             );
 
-            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class)))
+            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class), any()))
                     .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, expectedMessage));
 
             mockMvc.perform(put("/api/reservations/{id}", reservationId)
@@ -395,7 +525,7 @@ class ReservationControllerTest {
                     .andExpect(jsonPath("$.error").value(expectedMessage))
                     .andExpect(jsonPath("$.status").value(404));
 
-            verify(reservationService).update(reservationId, requestWithInvalidCourt);
+            verify(reservationService).update(reservationId, requestWithInvalidCourt, null);
         }
 
         @Test
@@ -405,7 +535,7 @@ class ReservationControllerTest {
             String expectedMessage = "Court is already reserved during the selected time period.";
 
             ReservationRequestDto requestDto = createSampleRequestDto();
-            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class)))
+            when(reservationService.update(eq(reservationId), any(ReservationRequestDto.class), any()))
                     .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, expectedMessage));
 
             mockMvc.perform(put("/api/reservations/{id}", reservationId)
@@ -415,7 +545,7 @@ class ReservationControllerTest {
                     .andExpect(jsonPath("$.error").value(expectedMessage))
                     .andExpect(jsonPath("$.status").value(409));
 
-            verify(reservationService).update(reservationId, requestDto);
+            verify(reservationService).update(reservationId, requestDto, null);
         }
     }
 
@@ -497,9 +627,20 @@ class ReservationControllerTest {
         );
     }
 
+    @SuppressWarnings("unchecked")
+    private void streamReservations(ReservationView... views) {
+        doAnswer(invocation -> {
+            Consumer<ReservationView> sink = invocation.getArgument(0);
+            for (ReservationView view : views) {
+                sink.accept(view);
+            }
+            return null;
+        }).when(reservationService).forEachReservation(any());
+    }
+
     private ReservationResponseDto createSampleResponseDto() {
-        SurfaceTypeResponseDto surfaceType = new SurfaceTypeResponseDto(1L, "Clay", 10.0);
-        CourtResponseDto court = new CourtResponseDto(1L, "Court 1", surfaceType);
+        SurfaceTypeResponseDto surfaceType = new SurfaceTypeResponseDto(1L, "Clay", 10.0, 0L);
+        CourtResponseDto court = new CourtResponseDto(1L, "Court 1", surfaceType, 0L);
         UserResponseDto user = new UserResponseDto(1L, "+420123456789", "John Doe");
 
         return new ReservationResponseDto(
@@ -509,7 +650,8 @@ class ReservationControllerTest {
                 LocalDateTime.now().plusHours(1),
                 LocalDateTime.now().plusHours(2),
                 false,
-                600.0
+                new BigDecimal("600.00"),
+                0L
         );
     }
 }
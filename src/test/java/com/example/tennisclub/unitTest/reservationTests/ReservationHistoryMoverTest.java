@@ -0,0 +1,65 @@
+package com.example.tennisclub.unitTest.reservationTests;
+
+import com.example.tennisclub.reservation.config.HistoryProperties;
+import com.example.tennisclub.reservation.history.ReservationHistoryMover;
+import com.example.tennisclub.reservation.history.ReservationHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationHistoryMoverTest {
+
+    @Mock
+    private ReservationHistoryRepository historyRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HistoryProperties properties = new HistoryProperties();
+    private ReservationHistoryMover mover;
+
+    private final LocalDateTime cutoff = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        mover = new ReservationHistoryMover(historyRepository, properties, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void moveEndedBefore_ShouldMoveInBatchesUntilABatchIsShort() {
+        when(historyRepository.findEndedReservationIds(cutoff, 2))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(historyRepository.moveToHistory(List.of(1L, 2L), cutoff)).thenReturn(2);
+        when(historyRepository.moveToHistory(List.of(3L), cutoff)).thenReturn(1);
+
+        assertEquals(3, mover.moveEndedBefore(cutoff));
+
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3.0, meterRegistry.get("tennisclub.reservation.history.moved").counter().count());
+    }
+
+    @Test
+    void moveEndedBefore_WhenNothingEnded_ShouldNotMove() {
+        when(historyRepository.findEndedReservationIds(cutoff, 2)).thenReturn(List.of());
+
+        assertEquals(0, mover.moveEndedBefore(cutoff));
+
+        verify(historyRepository, never()).moveToHistory(any(), any());
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.tennisclub.unitTest.reservationTests;
+
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.persistence.ReadOnlyProperties;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.readmodel.ReservationListingRepository;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import com.example.tennisclub.surfaceType.entity.SurfaceType;
+import com.example.tennisclub.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationListingRepositoryTest {
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TypedQuery<ReservationListing> typedQuery;
+    @Mock
+    private Query query;
+    @Spy
+    private ReadOnlyProperties readOnlyProperties = new ReadOnlyProperties();
+    @InjectMocks
+    private ReservationListingRepository reservationListingRepository;
+
+    private Reservation testReservation;
+    private Court testCourt;
+    private SurfaceType testSurfaceType;
+
+    @BeforeEach
+    void setUp() {
+        //constructor injection of the properties means Mockito no longer sets the @PersistenceContext field
+        ReflectionTestUtils.setField(reservationListingRepository, "em", entityManager);
+
+        testSurfaceType = SurfaceType.builder()
+                .id(2L)
+                .name("Clay")
+                .pricePerMinute(0.5)
+                .version(3L)
+                .build();
+
+        testCourt = Court.builder()
+                .id(1L)
+                .name("Court 1")
+                .surfaceType(testSurfaceType)
+                .version(1L)
+                .build();
+
+        User testUser = User.builder()
+                .id(7L)
+                .phoneNumber("+420123456789")
+                .username("testuser")
+                .build();
+
+        testReservation = Reservation.builder()
+                .id(5L)
+                .court(testCourt)
+                .user(testUser)
+                .startTime(LocalDateTime.of(2024, 6, 15, 10, 0))
+                .endTime(LocalDateTime.of(2024, 6, 15, 11, 0))
+                .isDoubles(false)
+                .totalPrice(new BigDecimal("30.00"))
+                .version(4L)
+                .build();
+    }
+
+    @Nested
+    class ListingMappingTests {
+
+        @Test
+        void of_ShouldCopyCourtSurfaceAndUserColumns() {
+            ReservationListing listing = ReservationListing.of(testReservation);
+
+            assertEquals(5L, listing.getId());
+            assertEquals("Court 1", listing.getCourtName());
+            assertEquals(1L, listing.getCourtVersion());
+            assertEquals(2L, listing.getSurfaceTypeId());
+            assertEquals("Clay", listing.getSurfaceTypeName());
+            assertEquals(0.5, listing.getPricePerMinute());
+            assertEquals(3L, listing.getSurfaceTypeVersion());
+            assertEquals("testuser", listing.getUsername());
+            assertEquals("+420123456789", listing.getPhoneNumber());
+            assertEquals(new BigDecimal("30.00"), listing.getTotalPrice());
+            assertEquals(4L, listing.getVersion());
+        }
+    }
+
+    @Nested
+    class FindListingsTests {
+
+        @Test
+        void findByUsername_WithFutureOnly_ShouldIncludeFutureFilter() {
+            ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
+            List<ReservationListing> expected = List.of(ReservationListing.of(testReservation));
+
+            when(entityManager.createQuery(queryCaptor.capture(), eq(ReservationListing.class))).thenReturn(typedQuery);
+            when(typedQuery.setParameter("username", "testuser")).thenReturn(typedQuery);
+            when(typedQuery.getResultList()).thenReturn(expected);
+
+            List<ReservationListing> result = reservationListingRepository.findByUsername("testuser", true);
+
+            assertEquals(expected, result);
+            assertTrue(queryCaptor.getValue().contains("l.startTime > CURRENT_TIMESTAMP"));
+        }
+
+        @Test
+        void findByPhoneNumber_WithoutFutureOnly_ShouldNotIncludeFutureFilter() {
+            ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
+
+            when(entityManager.createQuery(queryCaptor.capture(), eq(ReservationListing.class))).thenReturn(typedQuery);
+            when(typedQuery.setParameter("phone", "+420123456789")).thenReturn(typedQuery);
+            when(typedQuery.getResultList()).thenReturn(List.of());
+
+            reservationListingRepository.findByPhoneNumber("+420123456789", false);
+
+            assertFalse(queryCaptor.getValue().contains("CURRENT_TIMESTAMP"));
+        }
+
+        @Test
+        void streamAll_ShouldUseTheConfiguredFetchSize() {
+            readOnlyProperties.setStreamFetchSize(2000);
+            when(entityManager.createQuery(anyString(), eq(ReservationListing.class))).thenReturn(typedQuery);
+            when(typedQuery.setHint(HibernateHints.HINT_FETCH_SIZE, 2000)).thenReturn(typedQuery);
+            when(typedQuery.getResultStream()).thenReturn(Stream.empty());
+
+            assertEquals(0, reservationListingRepository.streamAll().count());
+            verify(typedQuery).setHint(HibernateHints.HINT_FETCH_SIZE, 2000);
+        }
+
+        @Test
+        void streamAll_ShouldSetFetchSizeAndDetachEachRow() {
+            ReservationListing first = ReservationListing.of(testReservation);
+            ReservationListing second = ReservationListing.of(testReservation);
+
+            when(entityManager.createQuery(anyString(), eq(ReservationListing.class))).thenReturn(typedQuery);
+            when(typedQuery.setHint(HibernateHints.HINT_FETCH_SIZE, 500)).thenReturn(typedQuery);
+            when(typedQuery.getResultStream()).thenReturn(Stream.of(first, second));
+
+            List<ReservationListing> result = reservationListingRepository.streamAll().toList();
+
+            assertEquals(List.of(first, second), result);
+            verify(typedQuery).setHint(HibernateHints.HINT_FETCH_SIZE, 500);
+            verify(entityManager).detach(first);
+            verify(entityManager).detach(second);
+        }
+    }
+
+    @Nested
+    class WriteTests {
+
+        @Test
+        void insert_ShouldPersistWithoutFlushOrMerge() {
+            reservationListingRepository.insert(testReservation);
+
+            ArgumentCaptor<ReservationListing> captor = ArgumentCaptor.forClass(ReservationListing.class);
+            verify(entityManager).persist(captor.capture());
+            assertEquals(testReservation.getId(), captor.getValue().getId());
+            verify(entityManager, never()).flush();
+            verify(entityManager, never()).merge(any());
+        }
+
+        @Test
+        void update_ShouldFlushThenUpdateTheRowInPlace() {
+            when(entityManager.createQuery(anyString())).thenReturn(query);
+            when(query.setParameter(anyString(), any())).thenReturn(query);
+            when(query.executeUpdate()).thenReturn(1);
+
+            reservationListingRepository.update(testReservation);
+
+            InOrder inOrder = inOrder(entityManager, query);
+            inOrder.verify(entityManager).flush();
+            inOrder.verify(query).executeUpdate();
+            verify(query).setParameter("id", testReservation.getId());
+            verify(query).setParameter("version", testReservation.getVersion());
+            verify(entityManager, never()).persist(any());
+            verify(entityManager, never()).merge(any());
+        }
+
+        @Test
+        void update_WhenTheRowIsMissing_ShouldInsertIt() {
+            when(entityManager.createQuery(anyString())).thenReturn(query);
+            when(query.setParameter(anyString(), any())).thenReturn(query);
+            when(query.executeUpdate()).thenReturn(0);
+
+            reservationListingRepository.update(testReservation);
+
+            verify(entityManager).persist(any(ReservationListing.class));
+        }
+
+        @Test
+        void refreshCourt_WhenCourtDoesNotExist_ShouldNotUpdate() {
+            when(entityManager.find(Court.class, 1L)).thenReturn(null);
+
+            assertEquals(0, reservationListingRepository.refreshCourt(1L));
+            verify(entityManager, never()).createQuery(anyString());
+        }
+
+        @Test
+        void refreshSurfaceType_ShouldUpdateRowsOfThatSurface() {
+            when(entityManager.find(SurfaceType.class, 2L)).thenReturn(testSurfaceType);
+            when(entityManager.createQuery(anyString())).thenReturn(query);
+            when(query.setParameter(anyString(), any())).thenReturn(query);
+            when(query.executeUpdate()).thenReturn(3);
+
+            assertEquals(3, reservationListingRepository.refreshSurfaceType(2L));
+            verify(query).setParameter("surfaceTypeId", 2L);
+            verify(query).setParameter("surfaceTypeName", "Clay");
+        }
+
+        @Test
+        void rebuild_ShouldClearAndRepopulateFromSourceTables() {
+            Query delete = mock(Query.class);
+            Query insert = mock(Query.class);
+            when(entityManager.createNativeQuery("DELETE FROM reservation_view")).thenReturn(delete);
+            when(entityManager.createNativeQuery(startsWith("INSERT INTO reservation_view"))).thenReturn(insert);
+            when(insert.executeUpdate()).thenReturn(12);
+
+            assertEquals(12, reservationListingRepository.rebuild());
+            verify(delete).executeUpdate();
+            verify(entityManager).clear();
+        }
+    }
+}
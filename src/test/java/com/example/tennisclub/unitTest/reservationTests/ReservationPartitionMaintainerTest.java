@@ -0,0 +1,116 @@
+package com.example.tennisclub.unitTest.reservationTests;
+
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.partitioning.ReservationPartitionMaintainer;
+import com.example.tennisclub.reservation.partitioning.ReservationPartitionRepository;
+import com.example.tennisclub.reservation.readmodel.ReservationListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationPartitionMaintainerTest {
+
+    @Mock
+    private ReservationPartitionRepository partitionRepository;
+    @Mock
+    private ReservationListingRepository reservationListingRepo;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final PartitioningProperties properties = new PartitioningProperties();
+    private ReservationPartitionMaintainer maintainer;
+
+    private final LocalDate today = LocalDate.of(2030, 3, 15);
+
+    @BeforeEach
+    void setUp() {
+        properties.setMonthsAhead(2);
+        properties.setArchiveAfter(Period.ofYears(1));
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        maintainer = new ReservationPartitionMaintainer(partitionRepository, reservationListingRepo, properties, transactionManager);
+    }
+
+    @Nested
+    class FuturePartitionTests {
+
+        @Test
+        void maintain_ShouldCreateCurrentAndUpcomingMonths() {
+            when(partitionRepository.findPartitionNames()).thenReturn(List.of());
+
+            maintainer.maintain(today);
+
+            verify(partitionRepository).createMonthlyPartition(YearMonth.of(2030, 3));
+            verify(partitionRepository).createMonthlyPartition(YearMonth.of(2030, 4));
+            verify(partitionRepository).createMonthlyPartition(YearMonth.of(2030, 5));
+            verify(partitionRepository, times(3)).createMonthlyPartition(any());
+        }
+
+        @Test
+        void maintain_WhenOneMonthFails_ShouldStillCreateTheOthers() {
+            doThrow(new IllegalStateException("default partition holds rows"))
+                    .when(partitionRepository).createMonthlyPartition(YearMonth.of(2030, 4));
+            when(partitionRepository.findPartitionNames()).thenReturn(List.of());
+
+            maintainer.maintain(today);
+
+            verify(partitionRepository).createMonthlyPartition(YearMonth.of(2030, 5));
+        }
+    }
+
+    @Nested
+    class ArchiveTests {
+
+        @Test
+        void maintain_ShouldArchiveOnlyMonthsBeforeHorizon() {
+            when(partitionRepository.findPartitionNames()).thenReturn(List.of(
+                    "reservation_default", "reservation_p2029_01", "reservation_p2029_02", "reservation_p2029_03", "reservation_p2030_03"));
+
+            maintainer.maintain(today);
+
+            verify(partitionRepository).archivePartition(YearMonth.of(2029, 1), "reservation_archive");
+            verify(partitionRepository).archivePartition(YearMonth.of(2029, 2), "reservation_archive");
+            verify(partitionRepository, times(2)).archivePartition(any(), any());
+            verify(reservationListingRepo).deleteStartingBefore(LocalDateTime.of(2029, 3, 1, 0, 0));
+        }
+
+        @Test
+        void maintain_WhenNothingExpired_ShouldNotTouchListings() {
+            when(partitionRepository.findPartitionNames()).thenReturn(List.of("reservation_p2030_03"));
+
+            maintainer.maintain(today);
+
+            verify(partitionRepository, never()).archivePartition(any(), any());
+            verifyNoInteractions(reservationListingRepo);
+        }
+    }
+
+    @Nested
+    class PartitionNameTests {
+
+        @Test
+        void partitionName_ShouldRoundTrip() {
+            String name = ReservationPartitionRepository.partitionName(YearMonth.of(2031, 7));
+
+            assertEquals("reservation_p2031_07", name);
+            assertEquals(Optional.of(YearMonth.of(2031, 7)), ReservationPartitionRepository.monthOf(name));
+            assertEquals(Optional.empty(), ReservationPartitionRepository.monthOf("reservation_default"));
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.example.tennisclub.unitTest.reservationTests;
 
 import com.example.tennisclub.court.entity.Court;
 import com.example.tennisclub.reservation.ReservationRepository;
+import com.example.tennisclub.reservation.config.HistoryProperties;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
 import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.history.ReservationHistoryRepository;
 import com.example.tennisclub.surfaceType.entity.SurfaceType;
 import com.example.tennisclub.user.Role;
 import com.example.tennisclub.user.entity.User;
@@ -13,19 +16,26 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +45,12 @@ class ReservationRepositoryTest {
     private EntityManager entityManager;
     @Mock
     private TypedQuery<Reservation> typedQuery;
+    @Spy
+    private PartitioningProperties partitioningProperties = new PartitioningProperties();
+    @Spy
+    private HistoryProperties historyProperties = new HistoryProperties();
+    @Mock
+    private ReservationHistoryRepository historyRepository;
     @InjectMocks
     private ReservationRepository reservationRepository;
 
@@ -45,6 +61,9 @@ class ReservationRepositoryTest {
 
     @BeforeEach
     void setUp() {
+        //constructor injection of the properties means Mockito no longer sets the @PersistenceContext field
+        ReflectionTestUtils.setField(reservationRepository, "em", entityManager);
+
         testSurfaceType = SurfaceType.builder()
                 .id(1L)
                 .name("Clay")
@@ -75,7 +94,7 @@ class ReservationRepositoryTest {
                 .startTime(LocalDateTime.of(2024, 6, 15, 10, 0))
                 .endTime(LocalDateTime.of(2024, 6, 15, 11, 0))
                 .isDoubles(false)
-                .totalPrice(30.0)
+                .totalPrice(new BigDecimal("30.00"))
                 .deleted(false)
                 .build();
     }
@@ -148,7 +167,8 @@ class ReservationRepositoryTest {
             assertEquals(expectedReservations, result);
 
             String actualQuery = queryCaptor.getValue();
-            assertTrue(actualQuery.contains("r.startTime > CURRENT_TIMESTAMP"), "Query should filter future reservations");
+            assertTrue(actualQuery.contains("r.startTime > :now"), "Query should filter future reservations");
+            verify(typedQuery).setParameter(eq("now"), any(LocalDateTime.class));
         }
 
 
@@ -166,7 +186,7 @@ class ReservationRepositoryTest {
             assertEquals(expectedReservations, result);
 
             String actualQuery = queryCaptor.getValue();
-            assertFalse(actualQuery.contains("r.startTime > CURRENT_TIMESTAMP"), "Query should not filter by future reservations");
+            assertFalse(actualQuery.contains("r.startTime > :now"), "Query should not filter by future reservations");
         }
     }
 
@@ -183,6 +203,8 @@ class ReservationRepositoryTest {
             when(typedQuery.setParameter("courtId", 1L)).thenReturn(typedQuery);
             when(typedQuery.setParameter("from", from)).thenReturn(typedQuery);
             when(typedQuery.setParameter("to", to)).thenReturn(typedQuery);
+            //bounded by the longest reservation so PostgreSQL only scans the partitions that can overlap
+            when(typedQuery.setParameter("earliestStart", from.minusDays(1))).thenReturn(typedQuery);
             when(typedQuery.getResultList()).thenReturn(expectedReservations);
 
             List<Reservation> result = reservationRepository.findOverlappingReservations(1L, from, to);
@@ -228,6 +250,10 @@ class ReservationRepositoryTest {
             Reservation result = reservationRepository.update(testReservation);
 
             assertEquals(testReservation, result);
+            //the version is only incremented on flush
+            InOrder inOrder = inOrder(entityManager);
+            inOrder.verify(entityManager).merge(testReservation);
+            inOrder.verify(entityManager).flush();
         }
     }
 
@@ -284,8 +310,9 @@ class ReservationRepositoryTest {
             assertEquals(expectedReservations, result);
 
             String actualQuery = queryCaptor.getValue();
-            assertTrue(actualQuery.contains("r.startTime > CURRENT_TIMESTAMP"),
+            assertTrue(actualQuery.contains("r.startTime > :now"),
                     "Query should filter future reservations");
+            verify(typedQuery).setParameter(eq("now"), any(LocalDateTime.class));
             assertTrue(actualQuery.contains("r.user.username = :username"),
                     "Query should filter by username");
         }
@@ -307,10 +334,57 @@ class ReservationRepositoryTest {
             assertEquals(expectedReservations, result);
 
             String actualQuery = queryCaptor.getValue();
-            assertFalse(actualQuery.contains("r.startTime > CURRENT_TIMESTAMP"),
+            assertFalse(actualQuery.contains("r.startTime > :now"),
                     "Query should not filter by future reservations");
             assertTrue(actualQuery.contains("r.user.username = :username"),
                     "Query should filter by username");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class HistoryUnionTests {
+
+        @Test
+        void findById_WhenMovedToHistory_ShouldFallBackToHistory() {
+            historyProperties.setEnabled(true);
+            when(entityManager.find(Reservation.class, 1L)).thenReturn(null);
+            when(historyRepository.findById(1L)).thenReturn(Optional.of(testReservation));
+
+            assertEquals(Optional.of(testReservation), reservationRepository.findById(1L));
+        }
+
+        @Test
+        void findById_WhenHistoryDisabled_ShouldNotQueryHistory() {
+            when(entityManager.find(Reservation.class, 1L)).thenReturn(null);
+
+            assertTrue(reservationRepository.findById(1L).isEmpty());
+            verifyNoInteractions(historyRepository);
+        }
+
+        @Test
+        void findByUsername_WithPast_ShouldMergeHistoryInStartTimeOrder() {
+            historyProperties.setEnabled(true);
+            Reservation past = Reservation.builder().id(2L).startTime(LocalDateTime.of(2020, 1, 1, 10, 0)).build();
+            when(entityManager.createQuery(anyString(), eq(Reservation.class))).thenReturn(typedQuery);
+            when(typedQuery.setParameter("username", "testuser")).thenReturn(typedQuery);
+            when(typedQuery.getResultList()).thenReturn(List.of(testReservation));
+            when(historyRepository.findByUsername("testuser")).thenReturn(List.of(past));
+
+            List<Reservation> result = reservationRepository.findByUsername("testuser", false);
+
+            assertEquals(List.of(past, testReservation), result);
+        }
+
+        @Test
+        void findByUsername_FutureOnly_ShouldStayOnHotTable() {
+            historyProperties.setEnabled(true);
+            when(entityManager.createQuery(anyString(), eq(Reservation.class))).thenReturn(typedQuery);
+            when(typedQuery.setParameter("username", "testuser")).thenReturn(typedQuery);
+            when(typedQuery.getResultList()).thenReturn(List.of(testReservation));
+
+            reservationRepository.findByUsername("testuser", true);
+
+            verifyNoInteractions(historyRepository);
+        }
+    }
+}
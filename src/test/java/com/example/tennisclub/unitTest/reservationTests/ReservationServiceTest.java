@@ -2,17 +2,32 @@ package com.example.tennisclub.unitTest.reservationTests;
 import com.example.tennisclub.court.CourtService;
 import com.example.tennisclub.court.entity.Court;
 import com.example.tennisclub.exception.EntityFinder;
+import com.example.tennisclub.outbox.OutboxService;
+import com.example.tennisclub.pricing.PricingEngine;
 import com.example.tennisclub.reservation.ReservationRepository;
 import com.example.tennisclub.reservation.ReservationService;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
 import com.example.tennisclub.reservation.config.PricingProperties;
+import com.example.tennisclub.reservation.dto.ColumnarReservationsDto;
 import com.example.tennisclub.reservation.dto.ReservationRequestDto;
 import com.example.tennisclub.reservation.dto.ReservationResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationSlimResponseDto;
 import com.example.tennisclub.reservation.dto.ReservationView;
 import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.event.CourtUsageChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedPayload;
+import com.example.tennisclub.reservation.metrics.ReservationMetrics;
+import com.example.tennisclub.reservation.readmodel.ReservationListingRepository;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import com.example.tennisclub.reservation.waitlist.WaitlistRepository;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistEntry;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistStatus;
+import com.example.tennisclub.surfaceType.SurfaceTypeRepository;
 import com.example.tennisclub.surfaceType.entity.SurfaceType;
 import com.example.tennisclub.user.UserService;
 import com.example.tennisclub.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -20,7 +35,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -28,11 +45,15 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,6 +66,12 @@ public class ReservationServiceTest {
     @Mock
     private ReservationRepository reservationRepo;
 
+    @Mock
+    private ReservationListingRepository reservationListingRepo;
+
+    @Mock
+    private OutboxService outboxService;
+
     @Mock
     private EntityFinder entityFinder;
 
@@ -55,7 +82,25 @@ public class ReservationServiceTest {
     private UserService userService;
 
     @Mock
-    private PricingProperties pricingProperties;
+    private WaitlistRepository waitlistRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private PartitioningProperties partitioningProperties = new PartitioningProperties();
+
+    private final PricingProperties pricingProperties = new PricingProperties();
+
+    private final SurfaceTypeRepository surfaceTypeRepository = mock(SurfaceTypeRepository.class);
+
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine(surfaceTypeRepository, pricingProperties);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReservationMetrics reservationMetrics = new ReservationMetrics(meterRegistry);
 
     @InjectMocks
     private ReservationService reservationService;
@@ -63,6 +108,7 @@ public class ReservationServiceTest {
     private Court sampleCourt;
     private User sampleUser;
     private Reservation sampleReservation;
+    private ReservationListing sampleListing;
     private ReservationRequestDto sampleRequestDto;
 
     @BeforeEach
@@ -75,6 +121,9 @@ public class ReservationServiceTest {
                 .pricePerMinute(10.0)
                 .build();
 
+        pricingProperties.setDoubles(1.5);
+        when(surfaceTypeRepository.findAllIncludingDeleted()).thenReturn(List.of(surfaceType));
+
         sampleCourt = Court.builder()
                 .id(1L)
                 .name("Court 1")
@@ -94,9 +143,11 @@ public class ReservationServiceTest {
                 .startTime(LocalDateTime.now().plusHours(1))
                 .endTime(LocalDateTime.now().plusHours(2))
                 .isDoubles(false)
-                .totalPrice(600.0)
+                .totalPrice(new BigDecimal("600.00"))
                 .build();
 
+        sampleListing = ReservationListing.of(sampleReservation);
+
         sampleRequestDto = new ReservationRequestDto(
                 1L,
                 false,
@@ -206,8 +257,8 @@ public class ReservationServiceTest {
 
             authenticateAs("memberUser","MEMBER");
 
-            List<Reservation> reservations = Arrays.asList(sampleReservation);
-            when(reservationRepo.findAll()).thenReturn(reservations);
+            List<ReservationListing> reservations = List.of(sampleListing);
+            when(reservationListingRepo.findAll()).thenReturn(reservations);
 
             List<ReservationView> result =  reservationService.getAllReservations();
 
@@ -216,7 +267,7 @@ public class ReservationServiceTest {
             assertEquals(1, result.size());
             assertEquals(sampleReservation.getId(), result.get(0).id());
 
-            verify(reservationRepo).findAll();
+            verify(reservationListingRepo).findAll();
         }
 
         @Test
@@ -224,8 +275,8 @@ public class ReservationServiceTest {
 
             authenticateAs("adminUser","ADMIN");
 
-            List<Reservation> reservations = Arrays.asList(sampleReservation);
-            when(reservationRepo.findAll()).thenReturn(reservations);
+            List<ReservationListing> reservations = List.of(sampleListing);
+            when(reservationListingRepo.findAll()).thenReturn(reservations);
 
             List<ReservationView> result = reservationService.getAllReservations();
 
@@ -237,7 +288,71 @@ public class ReservationServiceTest {
             assertEquals(sampleReservation.getId(), result.get(0).id());
             assertEquals(sampleUser.getId(), firstResult.user().id());
 
-            verify(reservationRepo).findAll();
+            verify(reservationListingRepo).findAll();
+        }
+
+        @Test
+        void forEachReservation_ShouldHandSlimDtosToSinkForMember() {
+            authenticateAs("memberUser", "MEMBER");
+            when(reservationListingRepo.streamAll()).thenReturn(Stream.of(sampleListing, sampleListing));
+
+            List<ReservationView> seen = new ArrayList<>();
+            reservationService.forEachReservation(seen::add);
+
+            assertEquals(2, seen.size());
+            assertInstanceOf(ReservationSlimResponseDto.class, seen.getFirst());
+            verify(reservationListingRepo, never()).findAll();
+        }
+
+        @Test
+        void forEachReservation_ShouldHandFullDtosToSinkForAdminAndCloseStream() {
+            authenticateAs("adminUser", "ADMIN");
+            AtomicBoolean closed = new AtomicBoolean();
+            when(reservationListingRepo.streamAll()).thenReturn(Stream.of(sampleListing).onClose(() -> closed.set(true)));
+
+            List<ReservationView> seen = new ArrayList<>();
+            reservationService.forEachReservation(seen::add);
+
+            assertEquals(sampleUser.getId(), ((ReservationResponseDto) seen.getFirst()).user().id());
+            assertTrue(closed.get());
+        }
+
+        @Test
+        void getAllReservationsColumnar_ShouldListEachCourtSurfaceAndUserOnce() {
+
+            authenticateAs("adminUser","ADMIN");
+
+            ReservationListing second = ReservationListing.of(sampleReservation);
+            second.setId(2L);
+            sampleListing.setVersion(0L);
+            second.setVersion(4L);
+            when(reservationListingRepo.findAll()).thenReturn(List.of(sampleListing, second));
+
+            ColumnarReservationsDto result = reservationService.getAllReservationsColumnar();
+
+            assertArrayEquals(new long[]{1L, 2L}, result.ids());
+            assertArrayEquals(new long[]{0L, 4L}, result.versions());
+            assertEquals(1, result.courts().size());
+            assertEquals(sampleCourt.getSurfaceType().getId(), result.courts().getFirst().surfaceTypeId());
+            assertEquals(1, result.surfaceTypes().size());
+            assertEquals(1, result.users().size());
+            assertArrayEquals(new long[]{sampleUser.getId(), sampleUser.getId()}, result.userIds());
+            assertEquals(sampleReservation.getStartTime().atZone(ZoneId.of(result.zone())).toEpochSecond(), result.startTimes()[0]);
+        }
+
+        @Test
+        void getAllReservationsColumnar_ShouldLeaveOutUsersForMember() {
+
+            authenticateAs("memberUser","MEMBER");
+
+            sampleListing.setVersion(0L);
+            when(reservationListingRepo.findAll()).thenReturn(List.of(sampleListing));
+
+            ColumnarReservationsDto result = reservationService.getAllReservationsColumnar();
+
+            assertNull(result.users());
+            assertNull(result.userIds());
+            assertEquals(1, result.ids().length);
         }
 
     }
@@ -285,9 +400,9 @@ public class ReservationServiceTest {
             authenticateAs("adminUser","ADMIN");
 
             Long courtId = 1L;
-            List<Reservation> reservations = Arrays.asList(sampleReservation);
+            List<ReservationListing> reservations = List.of(sampleListing);
             when(courtService.findCourtEntityByIdOrThrow(courtId)).thenReturn(sampleCourt);
-            when(reservationRepo.findAllByCourtId(courtId)).thenReturn(reservations);
+            when(reservationListingRepo.findAllByCourtId(courtId)).thenReturn(reservations);
 
             List<ReservationView> result = reservationService.getReservationsByCourt(courtId);
             ReservationResponseDto firstResult = (ReservationResponseDto) result.getFirst();
@@ -297,7 +412,7 @@ public class ReservationServiceTest {
             assertEquals(sampleUser.getId(), firstResult.user().id());
 
             verify(courtService).findCourtEntityByIdOrThrow(courtId);
-            verify(reservationRepo).findAllByCourtId(courtId);
+            verify(reservationListingRepo).findAllByCourtId(courtId);
         }
 
         @Test
@@ -306,9 +421,9 @@ public class ReservationServiceTest {
             authenticateAs("memberUser","MEMBER");
 
             Long courtId = 1L;
-            List<Reservation> reservations = Arrays.asList(sampleReservation);
+            List<ReservationListing> reservations = List.of(sampleListing);
             when(courtService.findCourtEntityByIdOrThrow(courtId)).thenReturn(sampleCourt);
-            when(reservationRepo.findAllByCourtId(courtId)).thenReturn(reservations);
+            when(reservationListingRepo.findAllByCourtId(courtId)).thenReturn(reservations);
 
             List<ReservationView> result = reservationService.getReservationsByCourt(courtId);
             ReservationSlimResponseDto firstResult = (ReservationSlimResponseDto) result.getFirst();
@@ -318,7 +433,7 @@ public class ReservationServiceTest {
             assertInstanceOf(ReservationSlimResponseDto.class, firstResult);
 
             verify(courtService).findCourtEntityByIdOrThrow(courtId);
-            verify(reservationRepo).findAllByCourtId(courtId);
+            verify(reservationListingRepo).findAllByCourtId(courtId);
         }
     }
 
@@ -366,16 +481,16 @@ public class ReservationServiceTest {
             String phoneNumber = "+420123456789";
             boolean futureOnly = false;
 
-            List<Reservation> reservations = Arrays.asList(sampleReservation);
+            List<ReservationListing> reservations = List.of(sampleListing);
             when(userService.findByPhoneNumberOrThrow(phoneNumber)).thenReturn(sampleUser);
-            when(reservationRepo.findByPhoneNumber(phoneNumber, futureOnly)).thenReturn(reservations);
+            when(reservationListingRepo.findByPhoneNumber(phoneNumber, futureOnly)).thenReturn(reservations);
 
             List<ReservationView> result = reservationService.getReservationsByPhoneNumber(phoneNumber, futureOnly);
 
             assertEquals(1, result.size());
             assertEquals(sampleReservation.getId(), result.get(0).id());
             verify(userService).findByPhoneNumberOrThrow(phoneNumber);
-            verify(reservationRepo).findByPhoneNumber(phoneNumber, futureOnly);
+            verify(reservationListingRepo).findByPhoneNumber(phoneNumber, futureOnly);
         }
     }
 
@@ -388,6 +503,7 @@ public class ReservationServiceTest {
             authenticateAs("memberUser","MEMBER");
 
             when(courtService.findCourtEntityByIdOrThrow(sampleRequestDto.courtId())).thenReturn(sampleCourt);
+            when(userService.findByUsernameOrThrow("memberUser")).thenReturn(sampleUser);
             when(reservationRepo.findOverlappingReservations(any(), any(), any())).thenReturn(Arrays.asList());
             when(reservationRepo.save(any(Reservation.class))).thenReturn(sampleReservation);
 
@@ -399,7 +515,25 @@ public class ReservationServiceTest {
             verify(courtService).findCourtEntityByIdOrThrow(sampleRequestDto.courtId());
             verify(reservationRepo).findOverlappingReservations(any(), any(), any());
             verify(reservationRepo).save(any(Reservation.class));
+            verify(reservationListingRepo).insert(sampleReservation);
+            verify(outboxService).append(eq("Reservation"), eq(sampleReservation.getId()), eq(sampleCourt.getId()),
+                    eq("RESERVATION_CREATED"), any(ReservationChangedPayload.class));
+            verify(eventPublisher).publishEvent(CourtUsageChangedEvent.added(sampleReservation));
+        }
+
+        @Test
+        void create_LongerThanMaxReservationLength_ShouldThrowBadRequest() {
+            LocalDateTime start = LocalDateTime.now().plusHours(1);
+            ReservationRequestDto tooLong = new ReservationRequestDto(1L, false, start, start.plusHours(25));
+            when(courtService.findCourtEntityByIdOrThrow(tooLong.courtId())).thenReturn(sampleCourt);
 
+            ResponseStatusException exception = assertThrows(
+                    ResponseStatusException.class,
+                    () -> reservationService.create(tooLong)
+            );
+
+            assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+            verify(reservationRepo, never()).findOverlappingReservations(any(), any(), any());
         }
 
         @Test
@@ -421,6 +555,22 @@ public class ReservationServiceTest {
             verify(reservationRepo, never()).save(any());
         }
 
+        @Test
+        void create_WithOverlappingReservations_ShouldCountConflictPerCourt() {
+            Reservation overlappingReservation = Reservation.builder().id(2L).build();
+            when(courtService.findCourtEntityByIdOrThrow(sampleRequestDto.courtId())).thenReturn(sampleCourt);
+            when(reservationRepo.findOverlappingReservations(any(), any(), any()))
+                    .thenReturn(new ArrayList<>(List.of(overlappingReservation)));
+
+            assertThrows(ResponseStatusException.class, () -> reservationService.create(sampleRequestDto));
+
+            assertEquals(1.0, meterRegistry.get("tennisclub.reservation.conflicts")
+                    .tag("court", "1")
+                    .counter()
+                    .count());
+            assertEquals(1, meterRegistry.get("tennisclub.reservation.conflict.check").timer().count());
+        }
+
         @Test
         void create_WithStartAfterEnd_ShouldThrowBadRequestException() {
             ReservationRequestDto invalidDto = new ReservationRequestDto(
@@ -463,13 +613,96 @@ public class ReservationServiceTest {
             when(courtService.findCourtEntityByIdOrThrow(updateDto.courtId())).thenReturn(sampleCourt);
             when(reservationRepo.update(any(Reservation.class))).thenReturn(sampleReservation);
 
-            ReservationView result = reservationService.update(reservationId, updateDto);
+            ReservationView result = reservationService.update(reservationId, updateDto, null);
 
             assertNotNull(result);
             verify(entityFinder).findByIdOrThrow(any(), eq(reservationId), eq("Reservation"));
             verify(courtService).findCourtEntityByIdOrThrow(updateDto.courtId());
             verify(reservationRepo).findOverlappingReservations(any(), any(), any());
             verify(reservationRepo).update(any(Reservation.class));
+            verify(reservationListingRepo).update(any(Reservation.class));
+            verify(outboxService).append(eq("Reservation"), any(), any(), eq("RESERVATION_UPDATED"), any());
+        }
+
+        @Test
+        void update_ShouldPublishChangeForTheOldAndTheNewSlot() {
+            LocalDateTime oldStart = sampleReservation.getStartTime();
+            LocalDateTime oldEnd = sampleReservation.getEndTime();
+            ReservationRequestDto updateDto = new ReservationRequestDto(
+                    1L, true,
+                    LocalDateTime.now().plusDays(3),
+                    LocalDateTime.now().plusDays(3).plusHours(1)
+            );
+            authenticateAs(sampleUser.getUsername(), "MEMBER");
+
+            when(entityFinder.findByIdOrThrow(any(), eq(1L), eq("Reservation"))).thenReturn(sampleReservation);
+            when(courtService.findCourtEntityByIdOrThrow(updateDto.courtId())).thenReturn(sampleCourt);
+            when(reservationRepo.findOverlappingReservations(any(), any(), any())).thenReturn(new ArrayList<>());
+            when(reservationRepo.update(any(Reservation.class))).thenReturn(sampleReservation);
+
+            reservationService.update(1L, updateDto, null);
+
+            verify(eventPublisher).publishEvent(new ReservationChangedEvent(sampleCourt.getId(), oldStart, oldEnd));
+            verify(eventPublisher).publishEvent(new ReservationChangedEvent(sampleCourt.getId(), updateDto.start(), updateDto.end()));
+        }
+
+        @Test
+        void update_ShouldMoveCourtUsageFromTheOldToTheNewSlot() {
+            ReservationRequestDto updateDto = new ReservationRequestDto(
+                    1L, true,
+                    LocalDateTime.now().plusDays(3),
+                    LocalDateTime.now().plusDays(3).plusHours(1)
+            );
+            //the entity is mutated in place, capture the old slot before updating
+            CourtUsageChangedEvent oldUsage = CourtUsageChangedEvent.removed(sampleReservation);
+            authenticateAs(sampleUser.getUsername(), "MEMBER");
+
+            when(entityFinder.findByIdOrThrow(any(), eq(1L), eq("Reservation"))).thenReturn(sampleReservation);
+            when(courtService.findCourtEntityByIdOrThrow(updateDto.courtId())).thenReturn(sampleCourt);
+            when(reservationRepo.findOverlappingReservations(any(), any(), any())).thenReturn(new ArrayList<>());
+            when(reservationRepo.update(any(Reservation.class))).thenReturn(sampleReservation);
+
+            reservationService.update(1L, updateDto, null);
+
+            verify(eventPublisher).publishEvent(oldUsage);
+            verify(eventPublisher).publishEvent(CourtUsageChangedEvent.added(sampleReservation));
+            assertEquals(-1, oldUsage.reservations());
+            assertTrue(oldUsage.bookedMinutes() < 0);
+        }
+
+        @Test
+        void update_WithStaleExpectedVersion_ShouldThrowPreconditionFailed() {
+            Long reservationId = 1L;
+            sampleReservation.setVersion(3L);
+            authenticateAs(sampleUser.getUsername(),"MEMBER");
+
+            when(entityFinder.findByIdOrThrow(any(), eq(reservationId), eq("Reservation")))
+                    .thenReturn(sampleReservation);
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> reservationService.update(reservationId, sampleRequestDto, 2L)
+            );
+
+            assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+            verify(reservationRepo, never()).update(any());
+        }
+
+        @Test
+        void update_WithCurrentExpectedVersion_ShouldUpdateReservation() {
+            Long reservationId = 1L;
+            sampleReservation.setVersion(3L);
+            authenticateAs(sampleUser.getUsername(),"MEMBER");
+
+            when(entityFinder.findByIdOrThrow(any(), eq(reservationId), eq("Reservation")))
+                    .thenReturn(sampleReservation);
+            when(courtService.findCourtEntityByIdOrThrow(sampleRequestDto.courtId())).thenReturn(sampleCourt);
+            when(reservationRepo.findOverlappingReservations(any(), any(), any())).thenReturn(new ArrayList<>());
+            when(reservationRepo.update(any(Reservation.class))).thenReturn(sampleReservation);
+
+            ReservationView result = reservationService.update(reservationId, sampleRequestDto, 3L);
+
+            assertEquals(3L, result.version());
+            verify(reservationRepo).update(any(Reservation.class));
         }
 
         @Test
@@ -485,7 +718,7 @@ public class ReservationServiceTest {
                     .thenReturn(new ArrayList<>(Arrays.asList(overlappingReservation)));
             when(reservationRepo.update(any(Reservation.class))).thenReturn(sampleReservation);
 
-            ReservationView result = reservationService.update(reservationId, sampleRequestDto);
+            ReservationView result = reservationService.update(reservationId, sampleRequestDto, null);
 
             assertNotNull(result);
 
@@ -509,7 +742,7 @@ public class ReservationServiceTest {
 
             ResponseStatusException exception = assertThrows(
                     ResponseStatusException.class,
-                    () -> reservationService.update(reservationId, sampleRequestDto)
+                    () -> reservationService.update(reservationId, sampleRequestDto, null)
             );
 
             assertEquals("409 CONFLICT \"Court is already reserved during the selected time period\"",
@@ -529,7 +762,7 @@ public class ReservationServiceTest {
 
             AccessDeniedException exception = assertThrows(
                     AccessDeniedException.class,
-                    () -> reservationService.update(reservationId, sampleRequestDto)
+                    () -> reservationService.update(reservationId, sampleRequestDto, null)
             );
 
             assertEquals("You are not allowed to modify this reservation", exception.getMessage());
@@ -551,7 +784,7 @@ public class ReservationServiceTest {
 
             ResponseStatusException exception = assertThrows(
                     ResponseStatusException.class,
-                    () -> reservationService.update(reservationId, sampleRequestDto)
+                    () -> reservationService.update(reservationId, sampleRequestDto, null)
             );
 
             assertEquals("400 BAD_REQUEST \"You cannot update a past reservation.\"", exception.getMessage());
@@ -574,6 +807,11 @@ public class ReservationServiceTest {
             assertDoesNotThrow(() -> reservationService.softDelete(reservationId));
 
             verify(reservationRepo).softDelete(reservationId);
+            verify(reservationListingRepo).delete(reservationId);
+            verify(outboxService).append(eq("Reservation"), eq(reservationId), eq(sampleCourt.getId()),
+                    eq("RESERVATION_DELETED"), any(ReservationChangedPayload.class));
+            verify(eventPublisher).publishEvent(ReservationChangedEvent.of(sampleReservation));
+            verify(eventPublisher).publishEvent(CourtUsageChangedEvent.removed(sampleReservation));
         }
 
         @Test
@@ -635,6 +873,77 @@ public class ReservationServiceTest {
 
     }
 
+    @Nested
+    class WaitlistPromotionTests {
+
+        private WaitlistEntry waiter(Long id, User user) {
+            return WaitlistEntry.builder()
+                    .id(id)
+                    .court(sampleCourt)
+                    .user(user)
+                    .startTime(sampleReservation.getStartTime())
+                    .endTime(sampleReservation.getEndTime())
+                    .isDoubles(false)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        }
+
+        @BeforeEach
+        void setUpCancellation() {
+            authenticateAs(sampleUser.getUsername(), "MEMBER");
+            when(reservationService.findReservationEntityByIdOrThrow(1L)).thenReturn(sampleReservation);
+        }
+
+        @Test
+        void softDelete_ShouldPromoteFirstCompatibleWaiter_AndKeepLaterOnesWaiting() {
+            User firstUser = User.builder().id(2L).username("first").phoneNumber("+420111111111").build();
+            User secondUser = User.builder().id(3L).username("second").phoneNumber("+420222222222").build();
+            WaitlistEntry first = waiter(10L, firstUser);
+            WaitlistEntry second = waiter(11L, secondUser);
+            when(reservationRepo.save(any(Reservation.class))).thenAnswer(invocation -> {
+                Reservation saved = invocation.getArgument(0);
+                saved.setId(42L);
+                return saved;
+            });
+
+            when(waitlistRepo.lockWaitingOverlapping(eq(sampleCourt.getId()), eq(sampleReservation.getStartTime()),
+                    eq(sampleReservation.getEndTime()), any(LocalDateTime.class))).thenReturn(List.of(first, second));
+            //the slot is free for the first waiter, the second one now overlaps the promoted reservation
+            when(reservationRepo.findOverlappingReservations(sampleCourt.getId(), first.getStartTime(), first.getEndTime()))
+                    .thenReturn(new ArrayList<>())
+                    .thenReturn(new ArrayList<>(List.of(sampleReservation)));
+
+            reservationService.softDelete(1L);
+
+            assertEquals(WaitlistStatus.PROMOTED, first.getStatus());
+            assertEquals(42L, first.getReservationId());
+            assertEquals(WaitlistStatus.WAITING, second.getStatus());
+            assertNull(second.getReservationId());
+
+            verify(reservationRepo).save(argThat(r -> r.getUser() == firstUser && r.getTotalPrice() != null));
+            verify(reservationListingRepo).insert(any(Reservation.class));
+            verify(outboxService).append(eq("Reservation"), eq(42L), eq(sampleCourt.getId()),
+                    eq("RESERVATION_CREATED"), any(ReservationChangedPayload.class));
+            assertEquals(1.0, meterRegistry.get("tennisclub.reservation.waitlist.promoted").counter().count());
+        }
+
+        @Test
+        void softDelete_ShouldNotPromote_WhenWaiterIsStillBlocked() {
+            WaitlistEntry blocked = waiter(10L, User.builder().id(2L).username("first").build());
+
+            when(waitlistRepo.lockWaitingOverlapping(eq(sampleCourt.getId()), any(LocalDateTime.class),
+                    any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(blocked));
+            when(reservationRepo.findOverlappingReservations(sampleCourt.getId(), blocked.getStartTime(), blocked.getEndTime()))
+                    .thenReturn(new ArrayList<>(List.of(sampleReservation)));
+
+            reservationService.softDelete(1L);
+
+            assertEquals(WaitlistStatus.WAITING, blocked.getStatus());
+            verify(reservationRepo, never()).save(any(Reservation.class));
+            verify(outboxService, never()).append(any(), any(), any(), eq("RESERVATION_CREATED"), any());
+        }
+    }
+
 
 
     @Nested
@@ -671,7 +980,7 @@ public class ReservationServiceTest {
             when(reservationRepo.save(any(Reservation.class))).thenAnswer(invocation -> {
                 Reservation saved = invocation.getArgument(0);
                 // 60 minutes * 10.0 price per minute * 1 (singles multiplier) = 600.0
-                assertEquals(600.0, saved.getTotalPrice(), 0.01);
+                assertEquals(new BigDecimal("600.00"), saved.getTotalPrice());
                 return saved;
             });
 
@@ -692,7 +1001,6 @@ public class ReservationServiceTest {
                     LocalDateTime.now().plusHours(2)
             );
 
-            when(pricingProperties.getDoubles()).thenReturn(1.5);
             when(courtService.findCourtEntityByIdOrThrow(doublesDto.courtId())).thenReturn(sampleCourt);
             when(userService.findByUsernameOrThrow("memberUser")).thenReturn(sampleUser);
             when(reservationRepo.findOverlappingReservations(any(), any(), any())).thenReturn(Arrays.asList());
@@ -700,7 +1008,7 @@ public class ReservationServiceTest {
             when(reservationRepo.save(any(Reservation.class))).thenAnswer(invocation -> {
                 Reservation saved = invocation.getArgument(0);
                 // 60 minutes * 10.0 price per minute * 1.5 (doubles multiplier) = 900.0
-                assertEquals(900.0, saved.getTotalPrice(), 0.01);
+                assertEquals(new BigDecimal("900.00"), saved.getTotalPrice());
                 return saved;
             });
 
@@ -733,13 +1041,13 @@ public class ReservationServiceTest {
             authenticateAs("testUser", "MEMBER");
             boolean futureOnly = false;
 
-            List<Reservation> reservations = Arrays.asList(sampleReservation);
-            when(reservationRepo.findByUsername("testUser", futureOnly)).thenReturn(reservations);
+            List<ReservationListing> reservations = List.of(sampleListing);
+            when(reservationListingRepo.findByUsername("testUser", futureOnly)).thenReturn(reservations);
 
             List<ReservationView> result = reservationService.getReservationsForCurrentUser(futureOnly);
 
             assertEquals(1, result.size());
-            verify(reservationRepo).findByUsername("testUser", futureOnly);
+            verify(reservationListingRepo).findByUsername("testUser", futureOnly);
         }
     }
 
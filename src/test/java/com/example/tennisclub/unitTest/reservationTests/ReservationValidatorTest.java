@@ -5,6 +5,7 @@ import com.example.tennisclub.reservation.validator.ReservationValidator;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -47,6 +48,25 @@ public class ReservationValidatorTest {
         assertEquals("400 BAD_REQUEST \"Start time must be before end time\"", exception.getMessage());
     }
 
+    @Test
+    void validateMaxLength_WhenExactlyMaxLength_ShouldNotThrowException() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 15, 10, 0);
+
+        assertDoesNotThrow(() -> ReservationValidator.validateMaxLength(start, start.plusDays(1), Duration.ofDays(1)));
+    }
+
+    @Test
+    void validateMaxLength_WhenLongerThanMaxLength_ShouldThrowBadRequestException() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 15, 10, 0);
+
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> ReservationValidator.validateMaxLength(start, start.plusDays(1).plusMinutes(1), Duration.ofDays(1))
+        );
+
+        assertEquals("400 BAD_REQUEST \"Reservation cannot be longer than 24 hours\"", exception.getMessage());
+    }
+
     @Test
     void throwIfOverlapsExist_WhenOverlapsListIsEmpty_ShouldNotThrowException() {
         List<Reservation> emptyOverlaps = new ArrayList<>();
@@ -0,0 +1,209 @@
+package com.example.tennisclub.unitTest.reservationTests;
+
+import com.example.tennisclub.court.CourtService;
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.exception.EntityFinder;
+import com.example.tennisclub.reservation.ReservationService;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.dto.ReservationRequestDto;
+import com.example.tennisclub.reservation.entity.Reservation;
+import com.example.tennisclub.reservation.waitlist.WaitlistRepository;
+import com.example.tennisclub.reservation.waitlist.WaitlistService;
+import com.example.tennisclub.reservation.waitlist.dto.WaitlistEntryResponseDto;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistEntry;
+import com.example.tennisclub.reservation.waitlist.entity.WaitlistStatus;
+import com.example.tennisclub.user.UserService;
+import com.example.tennisclub.user.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepo;
+    @Mock
+    private ReservationService reservationService;
+    @Mock
+    private CourtService courtService;
+    @Mock
+    private UserService userService;
+    @Spy
+    private EntityFinder entityFinder = new EntityFinder();
+    @Spy
+    private PartitioningProperties partitioningProperties = new PartitioningProperties();
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private Court court;
+    private User user;
+    private ReservationRequestDto request;
+
+    @BeforeEach
+    void setUp() {
+        court = Court.builder().id(1L).name("Court 1").build();
+        user = User.builder().id(7L).username("member").phoneNumber("+420123456789").build();
+        request = new ReservationRequestDto(1L, false,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(1));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "member", null, List.of(new SimpleGrantedAuthority("ROLE_MEMBER"))));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private WaitlistEntry entry(WaitlistStatus status) {
+        return WaitlistEntry.builder()
+                .id(5L)
+                .court(court)
+                .user(user)
+                .startTime(request.start())
+                .endTime(request.end())
+                .isDoubles(false)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Nested
+    class JoinTests {
+
+        @Test
+        void join_ShouldQueueMember_WhenSlotIsBooked() {
+            when(courtService.findCourtEntityByIdOrThrow(1L)).thenReturn(court);
+            when(reservationService.findConflicts(1L, request.start(), request.end()))
+                    .thenReturn(List.of(new Reservation()));
+            when(userService.findByUsernameOrThrow("member")).thenReturn(user);
+            when(waitlistRepo.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+                WaitlistEntry saved = invocation.getArgument(0);
+                saved.setId(5L);
+                return saved;
+            });
+            when(waitlistRepo.countWaitingAhead(any(WaitlistEntry.class))).thenReturn(2L);
+
+            WaitlistEntryResponseDto result = waitlistService.join(request);
+
+            assertEquals(5L, result.id());
+            assertEquals(WaitlistStatus.WAITING, result.status());
+            assertEquals(2L, result.position());
+            assertNull(result.reservationId());
+            verify(waitlistRepo).save(argThat(e -> e.getUser() == user && e.getCourt() == court && e.getCreatedAt() != null));
+        }
+
+        @Test
+        void join_ShouldRejectWithBadRequest_WhenSlotIsFree() {
+            when(courtService.findCourtEntityByIdOrThrow(1L)).thenReturn(court);
+            when(reservationService.findConflicts(1L, request.start(), request.end())).thenReturn(List.of());
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> waitlistService.join(request));
+
+            assertEquals("400 BAD_REQUEST \"Court is free during the selected time period, reserve it directly\"",
+                    exception.getMessage());
+            verify(waitlistRepo, never()).save(any());
+        }
+
+        @Test
+        void join_ShouldRejectWithConflict_WhenAlreadyWaiting() {
+            when(courtService.findCourtEntityByIdOrThrow(1L)).thenReturn(court);
+            when(reservationService.findConflicts(1L, request.start(), request.end()))
+                    .thenReturn(List.of(new Reservation()));
+            when(userService.findByUsernameOrThrow("member")).thenReturn(user);
+            when(waitlistRepo.existsWaiting(7L, 1L, request.start(), request.end())).thenReturn(true);
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> waitlistService.join(request));
+
+            assertEquals("409 CONFLICT \"You are already on the waitlist for the selected time period\"",
+                    exception.getMessage());
+            verify(waitlistRepo, never()).save(any());
+        }
+    }
+
+    @Nested
+    class WithdrawTests {
+
+        @Test
+        void withdraw_ShouldMarkEntryWithdrawn() {
+            WaitlistEntry waiting = entry(WaitlistStatus.WAITING);
+            when(waitlistRepo.findById(5L)).thenReturn(Optional.of(waiting));
+
+            waitlistService.withdraw(5L);
+
+            assertEquals(WaitlistStatus.WITHDRAWN, waiting.getStatus());
+        }
+
+        @Test
+        void withdraw_ShouldThrowAccessDenied_WhenEntryBelongsToSomeoneElse() {
+            WaitlistEntry waiting = entry(WaitlistStatus.WAITING);
+            waiting.setUser(User.builder().id(8L).username("other").build());
+            when(waitlistRepo.findById(5L)).thenReturn(Optional.of(waiting));
+
+            assertThrows(AccessDeniedException.class, () -> waitlistService.withdraw(5L));
+            assertEquals(WaitlistStatus.WAITING, waiting.getStatus());
+        }
+
+        @Test
+        void withdraw_ShouldRejectWithBadRequest_WhenAlreadyPromoted() {
+            when(waitlistRepo.findById(5L)).thenReturn(Optional.of(entry(WaitlistStatus.PROMOTED)));
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> waitlistService.withdraw(5L));
+
+            assertEquals("400 BAD_REQUEST \"Waitlist entry is already promoted\"", exception.getMessage());
+        }
+
+        @Test
+        void withdraw_ShouldThrowNotFound_WhenEntryDoesNotExist() {
+            when(waitlistRepo.findById(5L)).thenReturn(Optional.empty());
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> waitlistService.withdraw(5L));
+
+            assertEquals("404 NOT_FOUND \"Waitlist entry with ID 5 not found\"", exception.getMessage());
+        }
+    }
+
+    @Nested
+    class GetEntriesTests {
+
+        @Test
+        void getEntriesForCurrentUser_ShouldOnlyComputePositionOfWaitingEntries() {
+            WaitlistEntry promoted = entry(WaitlistStatus.PROMOTED);
+            promoted.setReservationId(42L);
+            WaitlistEntry waiting = entry(WaitlistStatus.WAITING);
+            when(waitlistRepo.findByUsername("member")).thenReturn(List.of(promoted, waiting));
+            when(waitlistRepo.countWaitingAhead(waiting)).thenReturn(0L);
+
+            List<WaitlistEntryResponseDto> result = waitlistService.getEntriesForCurrentUser();
+
+            assertEquals(2, result.size());
+            assertNull(result.get(0).position());
+            assertEquals(42L, result.get(0).reservationId());
+            assertEquals(0L, result.get(1).position());
+            verify(waitlistRepo, times(1)).countWaitingAhead(any());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.tennisclub.unitTest.routingTests;
+
+import com.example.tennisclub.routing.ReplicaRoutingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReplicaRoutingConfigTest {
+
+    @Test
+    void openInViewLeftOn_refusesToStart() {
+        //spring.jpa.open-in-view defaults to true
+        assertThrows(IllegalStateException.class, () -> new ReplicaRoutingConfig(new MockEnvironment()));
+        assertThrows(IllegalStateException.class, () -> new ReplicaRoutingConfig(
+                new MockEnvironment().withProperty("spring.jpa.open-in-view", "true")));
+    }
+
+    @Test
+    void openInViewOff_starts() {
+        assertDoesNotThrow(() -> new ReplicaRoutingConfig(
+                new MockEnvironment().withProperty("spring.jpa.open-in-view", "false")));
+    }
+}
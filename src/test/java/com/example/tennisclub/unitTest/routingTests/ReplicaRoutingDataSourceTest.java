@@ -0,0 +1,120 @@
+package com.example.tennisclub.unitTest.routingTests;
+
+import com.example.tennisclub.routing.RecentWriteTracker;
+import com.example.tennisclub.routing.ReplicaProperties;
+import com.example.tennisclub.routing.ReplicaRoutingDataSource;
+import com.example.tennisclub.routing.ReplicaRoutingDataSource.Route;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaProperties properties;
+    private RecentWriteTracker tracker;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReplicaProperties();
+        properties.setStalenessWindow(Duration.ofMinutes(1));
+        tracker = new RecentWriteTracker(properties);
+        routingDataSource = new ReplicaRoutingDataSource(tracker, new SimpleMeterRegistry());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    private void loginAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @Nested
+    class CurrentRouteTests {
+
+        @Test
+        void currentRoute_ShouldUsePrimary_WhenTransactionIsReadWrite() {
+            loginAs("Bob");
+
+            assertEquals(Route.PRIMARY, routingDataSource.currentRoute());
+        }
+
+        @Test
+        void currentRoute_ShouldUseReplica_WhenTransactionIsReadOnly() {
+            loginAs("Bob");
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+            assertEquals(Route.REPLICA, routingDataSource.currentRoute());
+        }
+
+        @Test
+        void currentRoute_ShouldUsePrimaryForOwnReads_AfterCommittedWrite() {
+            loginAs("Bob");
+            routingDataSource.currentRoute();
+            commit();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertEquals(Route.PRIMARY, routingDataSource.currentRoute());
+
+            loginAs("Alice");
+            assertEquals(Route.REPLICA, routingDataSource.currentRoute());
+        }
+
+        @Test
+        void currentRoute_ShouldNotGuardReads_WhenWriteRolledBack() {
+            loginAs("Bob");
+            routingDataSource.currentRoute();
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.initSynchronization();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertEquals(Route.REPLICA, routingDataSource.currentRoute());
+        }
+
+        @Test
+        void currentRoute_ShouldUseReplica_WhenStalenessWindowElapsed() {
+            properties.setStalenessWindow(Duration.ZERO);
+            loginAs("Bob");
+            routingDataSource.currentRoute();
+            commit();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertEquals(Route.REPLICA, routingDataSource.currentRoute());
+        }
+
+        @Test
+        void currentRoute_ShouldNotTrackAnonymousWrites() {
+            SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                    "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+            assertEquals(Route.PRIMARY, routingDataSource.currentRoute());
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+            assertFalse(tracker.wroteRecently("anonymousUser"));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.tennisclub.unitTest.scheduleTests;
+
+import com.example.tennisclub.court.event.CourtChangedEvent;
+import com.example.tennisclub.reservation.event.ReservationChangedEvent;
+import com.example.tennisclub.schedule.DayScheduleCache;
+import com.example.tennisclub.schedule.config.ScheduleProperties;
+import com.example.tennisclub.schedule.dto.DayScheduleResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayScheduleCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 7);
+
+    private ScheduleProperties properties;
+    private MutableClock clock;
+    private DayScheduleCache cache;
+    private AtomicInteger loads;
+    private Function<LocalDate, DayScheduleResponseDto> loader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ScheduleProperties();
+        clock = new MutableClock(TODAY.atTime(8, 0).toInstant(ZoneOffset.UTC));
+        cache = new DayScheduleCache(properties, new SimpleMeterRegistry(), clock);
+        loads = new AtomicInteger();
+        loader = date -> {
+            loads.incrementAndGet();
+            return new DayScheduleResponseDto(date, List.of());
+        };
+    }
+
+    private void loadAll(LocalDate... dates) {
+        for (LocalDate date : dates) {
+            cache.get(date, loader);
+        }
+    }
+
+    @Nested
+    class LookupTests {
+
+        @Test
+        void secondRead_isServedFromCache() {
+            loadAll(TODAY, TODAY);
+
+            assertEquals(1, loads.get());
+        }
+
+        @Test
+        void expiredDay_isLoadedAgain() {
+            loadAll(TODAY);
+            clock.advance(properties.getTtl());
+            loadAll(TODAY);
+
+            assertEquals(2, loads.get());
+        }
+
+        @Test
+        void load_doesNotBlockLookupsOfOtherDays() {
+            //a loader running inside the map's compute may not touch the map, whichever bin the other day lands in
+            DayScheduleResponseDto day = cache.get(TODAY, date -> {
+                cache.get(TODAY.plusDays(1), loader);
+                return loader.apply(date);
+            });
+
+            assertEquals(TODAY, day.date());
+            assertEquals(2, cache.size());
+        }
+
+        @Test
+        void beyondMaxCachedDays_theDayFurthestFromTodayIsDropped() {
+            properties.setMaxCachedDays(2);
+            loadAll(TODAY, TODAY.plusDays(30), TODAY.plusDays(1));
+
+            assertEquals(2, cache.size());
+            loadAll(TODAY, TODAY.plusDays(1));
+            assertEquals(3, loads.get());
+        }
+    }
+
+    @Nested
+    class InvalidationTests {
+
+        @Test
+        void reservationChange_evictsOnlyTheDatesItTouches() {
+            LocalDate tomorrow = TODAY.plusDays(1);
+            loadAll(TODAY, tomorrow, TODAY.plusDays(2));
+
+            cache.onReservationChanged(new ReservationChangedEvent(1L, tomorrow.atTime(10, 0), tomorrow.atTime(11, 0)));
+            loadAll(TODAY, tomorrow, TODAY.plusDays(2));
+
+            assertEquals(4, loads.get());
+        }
+
+        @Test
+        void reservationAcrossMidnight_evictsBothDays() {
+            LocalDate tomorrow = TODAY.plusDays(1);
+            loadAll(TODAY, tomorrow);
+
+            cache.onReservationChanged(new ReservationChangedEvent(1L, TODAY.atTime(23, 0), tomorrow.atTime(1, 0)));
+
+            assertEquals(0, cache.size());
+        }
+
+        @Test
+        void reservationEndingAtMidnight_keepsTheNextDay() {
+            LocalDate tomorrow = TODAY.plusDays(1);
+            loadAll(TODAY, tomorrow);
+
+            cache.onReservationChanged(new ReservationChangedEvent(1L, TODAY.atTime(23, 0), tomorrow.atStartOfDay()));
+            loadAll(tomorrow);
+
+            assertEquals(1, cache.size());
+            assertEquals(2, loads.get());
+        }
+
+        @Test
+        void reservationChangeDuringLoad_returnsTheDayButDoesNotKeepIt() {
+            DayScheduleResponseDto day = cache.get(TODAY, date -> {
+                DayScheduleResponseDto loaded = loader.apply(date);
+                cache.onReservationChanged(new ReservationChangedEvent(1L, TODAY.atTime(10, 0), TODAY.atTime(11, 0)));
+                return loaded;
+            });
+
+            assertEquals(TODAY, day.date());
+            assertEquals(0, cache.size());
+            loadAll(TODAY);
+            assertEquals(2, loads.get());
+        }
+
+        @Test
+        void courtChange_evictsEveryDay() {
+            loadAll(TODAY, TODAY.plusDays(1));
+
+            cache.onCourtChanged(new CourtChangedEvent(1L));
+
+            assertEquals(0, cache.size());
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
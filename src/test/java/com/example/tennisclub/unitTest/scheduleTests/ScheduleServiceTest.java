@@ -0,0 +1,146 @@
+package com.example.tennisclub.unitTest.scheduleTests;
+
+import com.example.tennisclub.court.CourtService;
+import com.example.tennisclub.court.entity.Court;
+import com.example.tennisclub.reservation.config.PartitioningProperties;
+import com.example.tennisclub.reservation.event.ReservationChangedEvent;
+import com.example.tennisclub.reservation.readmodel.ReservationListingRepository;
+import com.example.tennisclub.reservation.readmodel.entity.ReservationListing;
+import com.example.tennisclub.schedule.DayScheduleCache;
+import com.example.tennisclub.schedule.ScheduleService;
+import com.example.tennisclub.schedule.config.ScheduleProperties;
+import com.example.tennisclub.schedule.dto.DayScheduleResponseDto;
+import com.example.tennisclub.schedule.dto.DayScheduleResponseDto.CourtDay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private CourtService courtService;
+
+    @Mock
+    private ReservationListingRepository reservationListingRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DayScheduleCache cache;
+    private ScheduleService scheduleService;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DayScheduleCache(new ScheduleProperties(), new SimpleMeterRegistry());
+        scheduleService = new ScheduleService(courtService, reservationListingRepo, cache, new PartitioningProperties(), transactionManager);
+
+        when(courtService.findAllCourtEntities()).thenReturn(List.of(court(2L, "Court 2"), court(1L, "Court 1")));
+        when(reservationListingRepo.findOverlapping(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(),
+                DAY.atStartOfDay().minus(new PartitioningProperties().getMaxReservationLength()))).thenReturn(List.of(
+                listing(10L, 1L, "alice", DAY.atTime(9, 0), DAY.atTime(10, 30), false),
+                listing(11L, 1L, "bob", DAY.atTime(18, 0), DAY.atTime(19, 0), true),
+                //booked the evening before
+                listing(12L, 2L, "carol", DAY.minusDays(1).atTime(23, 0), DAY.atTime(1, 0), false)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static Court court(Long id, String name) {
+        return Court.builder().id(id).name(name).build();
+    }
+
+    private static ReservationListing listing(Long id, Long courtId, String username,
+                                              LocalDateTime start, LocalDateTime end, boolean doubles) {
+        return ReservationListing.builder()
+                .id(id)
+                .courtId(courtId)
+                .courtName("Court " + courtId)
+                .username(username)
+                .startTime(start)
+                .endTime(end)
+                .isDoubles(doubles)
+                .build();
+    }
+
+    private void authenticateAs(String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("frontDesk", null, AuthorityUtils.createAuthorityList("ROLE_" + role)));
+    }
+
+    @Nested
+    class GetDayTests {
+
+        @Test
+        void getDay_ShouldReturnOneColumnSetPerCourt() {
+            authenticateAs("ADMIN");
+
+            DayScheduleResponseDto day = scheduleService.getDay(DAY);
+
+            assertEquals(DAY, day.date());
+            assertEquals(List.of(1L, 2L), day.courts().stream().map(CourtDay::courtId).toList());
+            CourtDay court1 = day.courts().getFirst();
+            assertArrayEquals(new long[]{10L, 11L}, court1.reservationIds());
+            assertArrayEquals(new int[]{540, 1080}, court1.startMinutes());
+            assertArrayEquals(new int[]{630, 1140}, court1.endMinutes());
+            assertArrayEquals(new boolean[]{false, true}, court1.doubles());
+            assertArrayEquals(new String[]{"alice", "bob"}, court1.usernames());
+            assertArrayEquals(new int[]{-60}, day.courts().get(1).startMinutes());
+        }
+
+        @Test
+        void getDay_ShouldIncludeCourtsWithoutReservations() {
+            authenticateAs("ADMIN");
+            when(courtService.findAllCourtEntities()).thenReturn(List.of(court(1L, "Court 1"), court(2L, "Court 2"), court(3L, "Court 3")));
+
+            DayScheduleResponseDto day = scheduleService.getDay(DAY);
+
+            assertEquals(3, day.courts().size());
+            assertEquals(0, day.courts().get(2).reservationIds().length);
+        }
+
+        @Test
+        void getDay_ShouldHideUsernamesFromMembers() {
+            authenticateAs("MEMBER");
+
+            DayScheduleResponseDto day = scheduleService.getDay(DAY);
+
+            assertTrue(day.courts().stream().allMatch(c -> c.usernames() == null));
+        }
+
+        @Test
+        void getDay_ShouldQueryOnceUntilAReservationOnThatDayChanges() {
+            authenticateAs("MEMBER");
+
+            scheduleService.getDay(DAY);
+            scheduleService.getDay(DAY);
+            verify(reservationListingRepo, times(1)).findOverlapping(any(), any(), any());
+
+            cache.onReservationChanged(new ReservationChangedEvent(1L, DAY.atTime(12, 0), DAY.atTime(13, 0)));
+            scheduleService.getDay(DAY);
+            verify(reservationListingRepo, times(2)).findOverlapping(any(), any(), any());
+        }
+    }
+}
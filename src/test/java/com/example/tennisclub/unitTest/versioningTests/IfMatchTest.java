@@ -0,0 +1,68 @@
+package com.example.tennisclub.unitTest.versioningTests;
+
+import com.example.tennisclub.versioning.IfMatch;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IfMatchTest {
+
+    @Nested
+    class ExpectedVersionTests {
+
+        @Test
+        void expectedVersion_WithQuotedTag_ShouldParseVersion() {
+            assertEquals(4L, IfMatch.expectedVersion("\"4\""));
+        }
+
+        @Test
+        void expectedVersion_WithWeakOrBareTag_ShouldParseVersion() {
+            assertEquals(4L, IfMatch.expectedVersion("W/\"4\""));
+            assertEquals(4L, IfMatch.expectedVersion("4"));
+        }
+
+        @Test
+        void expectedVersion_WithoutHeaderOrWildcard_ShouldReturnNull() {
+            assertNull(IfMatch.expectedVersion(null));
+            assertNull(IfMatch.expectedVersion(" "));
+            assertNull(IfMatch.expectedVersion("*"));
+        }
+
+        @Test
+        void expectedVersion_WithMalformedTag_ShouldThrowBadRequest() {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> IfMatch.expectedVersion("\"1\", \"2\""));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        }
+    }
+
+    @Nested
+    class ValidateVersionTests {
+
+        @Test
+        void validateVersion_WithMatchingOrMissingExpectation_ShouldPass() {
+            assertDoesNotThrow(() -> IfMatch.validateVersion(2L, 2L, "Court"));
+            assertDoesNotThrow(() -> IfMatch.validateVersion(null, 2L, "Court"));
+        }
+
+        @Test
+        void validateVersion_WithStaleVersion_ShouldThrowPreconditionFailed() {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> IfMatch.validateVersion(1L, 2L, "Court"));
+
+            assertEquals(HttpStatus.PRECONDITION_FAILED, ex.getStatusCode());
+        }
+    }
+
+    @Test
+    void okWithETag_ShouldQuoteVersion() {
+        ResponseEntity<String> response = IfMatch.okWithETag("body", 7L);
+
+        assertEquals("\"7\"", response.getHeaders().getETag());
+    }
+}